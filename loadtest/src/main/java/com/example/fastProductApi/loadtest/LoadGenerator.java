@@ -0,0 +1,232 @@
+package com.example.fastProductApi.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the four bulk {@code /products} endpoints at a fixed arrival rate. Requests are started on schedule
+ * whether or not earlier ones have completed (open loop), each with a random operation, batch size and
+ * {@code isParallel} drawn from the {@link LoadTestOptions}.
+ * <p>
+ * Reads and updates use the IDs of the products seeded before the run, so reads keep finding products; deletes
+ * remove products uploaded during the run.
+ */
+public class LoadGenerator {
+    static Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+
+    public enum Operation {
+        GET_PRODUCTS_BY_IDS("POST", "/products/getProductByIds"),
+        UPLOAD_PRODUCTS("POST", "/products/uploadProducts"),
+        UPDATE_PRODUCTS("PUT", "/products/updateProductsByIds"),
+        DELETE_PRODUCTS("DELETE", "/products/deleteProductsByIds");
+
+        final String method;
+        final String path;
+
+        Operation(String method, String path) {
+            this.method = method;
+            this.path = path;
+        }
+    }
+
+    private static final int SEED_BATCH_SIZE = 500;
+
+    private final LoadTestOptions options;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Random random = new Random();
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final Queue<Long> uploadedIds = new ConcurrentLinkedQueue<>();
+    private long[] seededIds = new long[0];
+
+    public LoadGenerator(LoadTestOptions options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    /**
+     * Upload the seed catalog in batches and remember the IDs it got.
+     */
+    public void seed() throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>(options.seedProducts());
+        for (int uploaded = 0; uploaded < options.seedProducts(); uploaded += SEED_BATCH_SIZE) {
+            int batchSize = Math.min(SEED_BATCH_SIZE, options.seedProducts() - uploaded);
+            HttpResponse<byte[]> response = client.send(request(Operation.UPLOAD_PRODUCTS, true, productsBody(batchSize, false)),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() / 100 != 2) {
+                throw new IOException("Seeding failed with status " + response.statusCode() + ": " + new String(response.body()));
+            }
+            ids.addAll(productIds(response.body()));
+        }
+        seededIds = ids.stream().mapToLong(Long::longValue).toArray();
+        log.info("Seeded {} products", seededIds.length);
+    }
+
+    /**
+     * Run the warmup and the measured load, then wait for the requests still in flight.
+     *
+     * @return Stats of the measured part, by operation.
+     */
+    public Map<Operation, OperationStats> run() throws InterruptedException {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate());
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * interval;
+            if (scheduled >= end) {
+                break;
+            }
+            waitUntil(scheduled);
+            send(pickOperation(), scheduled, scheduled >= measureFrom);
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        return stats;
+    }
+
+    private void send(Operation operation, long scheduled, boolean measured) {
+        OperationStats operationStats = stats.get(operation);
+        if (outstanding.get() >= options.maxOutstanding()) {
+            if (measured) {
+                operationStats.drop();
+            }
+            return;
+        }
+        HttpRequest request = request(operation, pick(options.parallel()), body(operation, pick(options.batchSizes())));
+        outstanding.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, error) -> {
+            long latency = System.nanoTime() - scheduled;
+            outstanding.decrementAndGet();
+            boolean success = error == null && response.statusCode() / 100 == 2;
+            if (measured) {
+                operationStats.record(latency, success);
+            }
+            if (success && operation == Operation.UPLOAD_PRODUCTS) {
+                uploadedIds.addAll(productIds(response.body()));
+            }
+        });
+    }
+
+    private HttpRequest request(Operation operation, boolean isParallel, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + operation.path + "?isParallel=" + isParallel))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .method(operation.method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String body(Operation operation, int batchSize) {
+        return switch (operation) {
+            case GET_PRODUCTS_BY_IDS -> idsBody(batchSize, false);
+            case UPLOAD_PRODUCTS -> productsBody(batchSize, false);
+            case UPDATE_PRODUCTS -> productsBody(batchSize, true);
+            case DELETE_PRODUCTS -> idsBody(batchSize, true);
+        };
+    }
+
+    private String idsBody(int batchSize, boolean uploaded) {
+        StringBuilder body = new StringBuilder("{\"ids\":[");
+        for (int i = 0; i < batchSize; i++) {
+            Long id = uploaded ? uploadedIds.poll() : null;
+            if (uploaded && id == null) {
+                // nothing left to delete, ask for IDs that do not exist
+                id = Long.MAX_VALUE - random.nextInt(1_000_000);
+            }
+            body.append(i == 0 ? "" : ",").append(uploaded ? id : seededId());
+        }
+        return body.append("]}").toString();
+    }
+
+    private String productsBody(int batchSize, boolean withSeededIds) {
+        StringBuilder body = new StringBuilder("{\"products\":[");
+        for (int i = 0; i < batchSize; i++) {
+            int n = random.nextInt(1_000_000);
+            body.append(i == 0 ? "{" : ",{");
+            if (withSeededIds) {
+                body.append("\"id\":").append(seededId()).append(',');
+            }
+            body.append("\"name\":\"load product ").append(n)
+                    .append("\",\"description\":\"Generated by the load test, variant ").append(n % 97)
+                    .append("\",\"price\":").append(n % 100_000 / 100.0)
+                    .append(",\"stock\":").append(n % 500)
+                    .append('}');
+        }
+        return body.append("]}").toString();
+    }
+
+    private List<Long> productIds(byte[] uploadResponse) {
+        List<Long> ids = new ArrayList<>();
+        try {
+            for (JsonNode product : objectMapper.readTree(uploadResponse).path("products")) {
+                if (product.hasNonNull("id")) {
+                    ids.add(product.get("id").asLong());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Unreadable upload response {}: {}", e.getClass(), e.getMessage());
+        }
+        return ids;
+    }
+
+    private Operation pickOperation() {
+        if (random.nextDouble() < options.readRatio()) {
+            return Operation.GET_PRODUCTS_BY_IDS;
+        }
+        int total = options.writeMix().values().stream().mapToInt(Integer::intValue).sum();
+        int pick = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> weight : options.writeMix().entrySet()) {
+            pick -= weight.getValue();
+            if (pick < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("write-mix weights changed during the run");
+    }
+
+    private long seededId() {
+        return seededIds[random.nextInt(seededIds.length)];
+    }
+
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static void waitUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
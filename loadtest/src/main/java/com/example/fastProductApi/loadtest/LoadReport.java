@@ -0,0 +1,129 @@
+package com.example.fastProductApi.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Summary of a run: one row per operation plus {@code ALL}, written as CSV and JSON, and the full latency
+ * distribution of each operation as an HdrHistogram {@code .hgrm} percentile file (plottable with the HdrHistogram
+ * plotter).
+ */
+public class LoadReport {
+
+    /**
+     * @param operation     Operation name, or {@code ALL}.
+     * @param requests      Requests scheduled during the measured part.
+     * @param ok            Responses with a 2xx status.
+     * @param failed        Other responses and connection errors.
+     * @param dropped       Requests not sent because too many were in flight.
+     * @param throughputRps Completed requests per second of measured duration.
+     */
+    public record Row(String operation, long requests, long ok, long failed, long dropped, double throughputRps,
+                      double meanMs, double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+
+    private static final String CSV_HEADER = "operation,requests,ok,failed,dropped,throughput_rps,mean_ms,p50_ms,p90_ms,p99_ms,p99_9_ms,max_ms";
+
+    private final LoadTestOptions options;
+    private final List<Row> rows = new ArrayList<>();
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+
+    public LoadReport(LoadTestOptions options, Map<LoadGenerator.Operation, OperationStats> stats) {
+        this.options = options;
+        Histogram all = new Histogram(3);
+        long ok = 0;
+        long failed = 0;
+        long dropped = 0;
+        for (Map.Entry<LoadGenerator.Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats operationStats = entry.getValue();
+            Histogram histogram = operationStats.getLatencies().copy();
+            if (histogram.getTotalCount() == 0 && operationStats.getDropped() == 0) {
+                continue;
+            }
+            String name = entry.getKey().name().toLowerCase(Locale.ROOT);
+            histograms.put(name, histogram);
+            rows.add(row(name, histogram, operationStats.getSucceeded(), operationStats.getFailed(), operationStats.getDropped()));
+            all.add(histogram);
+            ok += operationStats.getSucceeded();
+            failed += operationStats.getFailed();
+            dropped += operationStats.getDropped();
+        }
+        rows.add(row("ALL", all, ok, failed, dropped));
+    }
+
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    /**
+     * Write {@code <output>/<name>-<timestamp>.csv}, {@code .json} and one {@code -<operation>.hgrm} per operation.
+     *
+     * @return Path prefix of the written files.
+     */
+    public Path write() throws IOException {
+        Path directory = Path.of(options.output());
+        Files.createDirectories(directory);
+        Path prefix = directory.resolve(options.name() + "-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+
+        List<String> csv = new ArrayList<>();
+        csv.add(CSV_HEADER);
+        for (Row row : rows) {
+            csv.add(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f", row.operation(),
+                    row.requests(), row.ok(), row.failed(), row.dropped(), row.throughputRps(), row.meanMs(),
+                    row.p50Ms(), row.p90Ms(), row.p99Ms(), row.p999Ms(), row.maxMs()));
+        }
+        Files.write(Path.of(prefix + ".csv"), csv, StandardCharsets.UTF_8);
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("options", options);
+        json.put("results", rows);
+        new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .writerWithDefaultPrettyPrinter().writeValue(Path.of(prefix + ".json").toFile(), json);
+
+        for (Map.Entry<String, Histogram> histogram : histograms.entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(Path.of(prefix + "-" + histogram.getKey() + ".hgrm")),
+                    false, StandardCharsets.UTF_8)) {
+                // recorded in microseconds, reported in milliseconds
+                histogram.getValue().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        return prefix;
+    }
+
+    public void print(PrintWriter out) {
+        out.printf(Locale.ROOT, "%-22s %9s %9s %7s %8s %10s %9s %9s %9s %9s %9s %9s%n", "operation", "requests", "ok",
+                "failed", "dropped", "rps", "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Row row : rows) {
+            out.printf(Locale.ROOT, "%-22s %9d %9d %7d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n", row.operation(),
+                    row.requests(), row.ok(), row.failed(), row.dropped(), row.throughputRps(), row.meanMs(),
+                    row.p50Ms(), row.p90Ms(), row.p99Ms(), row.p999Ms(), row.maxMs());
+        }
+        out.flush();
+    }
+
+    private Row row(String name, Histogram histogram, long ok, long failed, long dropped) {
+        double seconds = options.duration().toMillis() / 1000.0;
+        return new Row(name, ok + failed + dropped, ok, failed, dropped, (ok + failed) / seconds,
+                histogram.getMean() / 1000.0,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.fastProductApi.loadtest;
+
+import com.example.fastProductApi.FastProductApiApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Entry point of the load test: parses the options, boots the API in-process unless {@code --target} is given,
+ * seeds products, runs the open-loop load and writes the report.
+ */
+public class LoadTestApplication {
+    static Logger log = LoggerFactory.getLogger(LoadTestApplication.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        RedisStandIn redis = null;
+        ConfigurableApplicationContext target = null;
+        try {
+            String baseUrl = options.target();
+            if (baseUrl == null) {
+                redis = new RedisStandIn(0);
+                target = new SpringApplicationBuilder(FastProductApiApplication.class)
+                        .run("--spring.profiles.active=loadtest",
+                                "--spring.data.redis.host=localhost",
+                                "--spring.data.redis.port=" + redis.getPort());
+                baseUrl = "http://localhost:" + target.getEnvironment().getProperty("local.server.port")
+                        + target.getEnvironment().getProperty("server.servlet.context-path", "");
+                log.info("Started in-process target at {}", baseUrl);
+            }
+
+            LoadGenerator generator = new LoadGenerator(options, baseUrl);
+            generator.seed();
+            Map<LoadGenerator.Operation, OperationStats> stats = generator.run();
+
+            LoadReport report = new LoadReport(options, stats);
+            Path prefix = report.write();
+            report.print(new PrintWriter(System.out));
+            System.out.println("Results written to " + prefix + ".*");
+        } finally {
+            if (target != null) {
+                target.close();
+            }
+            if (redis != null) {
+                redis.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.fastProductApi.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings of one load test run, from {@code --name=value} arguments; see {@link #usage()}.
+ *
+ * @param target         Base URL of a running instance, e.g. {@code http://localhost:8080/api/v1}; null boots the
+ *                       application in-process on H2 and the Redis stand-in.
+ * @param rate           Requests started per second, independent of how fast responses come back (open loop).
+ * @param warmup         Load before measuring starts.
+ * @param duration       Measured load.
+ * @param readRatio      Share of requests that are {@code getProductByIds}; the rest are writes.
+ * @param writeMix       Relative weights of the write operations.
+ * @param batchSizes     Products per request, one picked at random per request.
+ * @param parallel       {@code isParallel} values, one picked at random per request.
+ * @param seedProducts   Products uploaded before the run; reads and updates use these IDs.
+ * @param maxOutstanding Requests in flight before new ones are counted as dropped instead of being sent.
+ * @param output         Directory for the CSV, JSON and histogram files.
+ * @param name           Prefix of the result files.
+ */
+public record LoadTestOptions(String target, double rate, Duration warmup, Duration duration, double readRatio,
+                              Map<LoadGenerator.Operation, Integer> writeMix, List<Integer> batchSizes,
+                              List<Boolean> parallel, int seedProducts, int maxOutstanding, String output,
+                              String name) {
+
+    private static final Set<String> OPTIONS = Set.of("target", "rate", "warmup", "duration", "read-ratio", "write-mix",
+            "batch-sizes", "parallel", "seed-products", "max-outstanding", "output", "name");
+
+    public static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unexpected argument " + arg + "\n" + usage());
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!OPTIONS.contains(name)) {
+                throw new IllegalArgumentException("Unknown option " + name + "\n" + usage());
+            }
+            values.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                values.get("target"),
+                Double.parseDouble(values.getOrDefault("rate", "200")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+                Double.parseDouble(values.getOrDefault("read-ratio", "0.8")),
+                parseWriteMix(values.getOrDefault("write-mix", "upload:1,update:1,delete:1")),
+                Arrays.stream(values.getOrDefault("batch-sizes", "10").split(",")).map(String::trim).map(Integer::valueOf).toList(),
+                Arrays.stream(values.getOrDefault("parallel", "true").split(",")).map(String::trim).map(Boolean::valueOf).toList(),
+                Integer.parseInt(values.getOrDefault("seed-products", "10000")),
+                Integer.parseInt(values.getOrDefault("max-outstanding", "1000")),
+                values.getOrDefault("output", "results"),
+                values.getOrDefault("name", "run"));
+        options.validate();
+        return options;
+    }
+
+    private void validate() {
+        if (rate <= 0 || readRatio < 0 || readRatio > 1 || seedProducts < 1 || maxOutstanding < 1) {
+            throw new IllegalArgumentException("rate and max-outstanding must be positive, read-ratio between 0 and 1, "
+                    + "seed-products at least 1\n" + usage());
+        }
+        if (batchSizes.stream().anyMatch(size -> size < 1)) {
+            throw new IllegalArgumentException("batch-sizes must be positive\n" + usage());
+        }
+        if (readRatio < 1 && writeMix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("write-mix needs a positive weight when read-ratio is below 1\n" + usage());
+        }
+    }
+
+    private static Map<LoadGenerator.Operation, Integer> parseWriteMix(String mix) {
+        Map<LoadGenerator.Operation, Integer> weights = new EnumMap<>(LoadGenerator.Operation.class);
+        for (String part : mix.split(",")) {
+            String[] nameAndWeight = part.trim().split(":");
+            LoadGenerator.Operation operation = switch (nameAndWeight[0].toLowerCase(Locale.ROOT)) {
+                case "upload" -> LoadGenerator.Operation.UPLOAD_PRODUCTS;
+                case "update" -> LoadGenerator.Operation.UPDATE_PRODUCTS;
+                case "delete" -> LoadGenerator.Operation.DELETE_PRODUCTS;
+                default -> throw new IllegalArgumentException("Unknown write operation " + nameAndWeight[0] + "\n" + usage());
+            };
+            weights.put(operation, nameAndWeight.length > 1 ? Integer.parseInt(nameAndWeight[1]) : 1);
+        }
+        return weights;
+    }
+
+    public static String usage() {
+        return """
+                Options (all optional):
+                  --target=http://localhost:8080/api/v1   running instance; default boots the API in-process on H2 and a Redis stand-in
+                  --rate=200                              requests started per second (open loop)
+                  --warmup=10s --duration=60s             unmeasured warmup, then measured load
+                  --read-ratio=0.8                        share of getProductByIds requests
+                  --write-mix=upload:1,update:1,delete:1  weights of the write operations
+                  --batch-sizes=10                        products per request, e.g. 1,10,100 to mix
+                  --parallel=true                         isParallel values, e.g. true,false to mix
+                  --seed-products=10000                   products uploaded before the run
+                  --max-outstanding=1000                  in-flight limit, requests beyond it count as dropped
+                  --output=results --name=run             result files <output>/<name>-<timestamp>.csv|json|-<operation>.hgrm""";
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.fastProductApi.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.SynchronizedHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of one operation during the measured part of a run. Latencies are in microseconds and
+ * measured from the time a request was scheduled to start, so queueing inside the generator is not hidden
+ * (no coordinated omission).
+ */
+public class OperationStats {
+
+    private final Histogram latencies = new SynchronizedHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    void record(long latencyNanos, boolean success) {
+        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), latencies.getHighestTrackableValue()));
+        (success ? succeeded : failed).increment();
+    }
+
+    void drop() {
+        dropped.increment();
+    }
+
+    public Histogram getLatencies() {
+        return latencies;
+    }
+
+    public long getSucceeded() {
+        return succeeded.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+}
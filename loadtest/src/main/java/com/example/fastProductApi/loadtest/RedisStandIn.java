@@ -0,0 +1,393 @@
+package com.example.fastProductApi.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal in-process Redis stand-in speaking RESP2 on a local port, enough for Spring's {@code RedisCacheManager}
+ * and Lettuce: strings with expiry ({@code GET}, {@code SET} with {@code EX/PX/NX/XX}, {@code MGET}, {@code DEL},
+ * {@code KEYS}/{@code SCAN}), hashes for the hash layout of the products cache ({@code HSET}/{@code HMSET},
+ * {@code HGETALL}, {@code EXPIRE}/{@code PEXPIRE}) plus the connection handshake. It lets a load test measure the application's own Redis
+ * round trips without a Redis installation; it is not meant to be as fast as Redis.
+ */
+public class RedisStandIn implements Closeable {
+    static Logger log = LoggerFactory.getLogger(RedisStandIn.class);
+
+    // value for strings, hash for hashes; hashes are copied on write, so readers never see one change
+    private record Entry(byte[] value, Map<String, byte[]> hash, long expiresAt) {
+        boolean isExpired(long now) {
+            return expiresAt > 0 && expiresAt <= now;
+        }
+    }
+
+    private static final String WRONG_TYPE = "WRONGTYPE Operation against a key holding the wrong kind of value";
+
+    // keys are binary; ISO-8859-1 maps every byte to one char and back
+    private final Map<String, Entry> data = new ConcurrentHashMap<>();
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "redis-stand-in");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param port Port to listen on, 0 for any free port.
+     */
+    public RedisStandIn(int port) throws IOException {
+        serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        connections.execute(this::accept);
+        log.info("Redis stand-in listening on port {}", getPort());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    log.error("Redis stand-in accept failed {}: {}", e.getClass(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            while (true) {
+                List<byte[]> command = readCommand(in);
+                if (command == null) {
+                    return;
+                }
+                boolean quit = execute(command, out);
+                // answer pipelined commands in one write
+                if (in.available() == 0 || quit) {
+                    out.flush();
+                }
+                if (quit) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // client went away
+        }
+    }
+
+    /**
+     * @return Arguments of the next command, null at end of stream.
+     */
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int type = in.read();
+        if (type == -1) {
+            return null;
+        }
+        if (type != '*') {
+            throw new IOException("Inline commands are not supported");
+        }
+        int count = (int) readNumber(in);
+        List<byte[]> arguments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') {
+                throw new IOException("Bulk string expected");
+            }
+            int length = (int) readNumber(in);
+            byte[] argument = in.readNBytes(length);
+            if (argument.length < length) {
+                throw new EOFException();
+            }
+            in.skipNBytes(2);
+            arguments.add(argument);
+        }
+        return arguments;
+    }
+
+    private static long readNumber(InputStream in) throws IOException {
+        long value = 0;
+        boolean negative = false;
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b == -1) {
+                throw new EOFException();
+            }
+            if (b == '-') {
+                negative = true;
+            } else {
+                value = value * 10 + (b - '0');
+            }
+        }
+        in.read();
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return Whether the client asked to close the connection.
+     */
+    private boolean execute(List<byte[]> command, OutputStream out) throws IOException {
+        String name = text(command.get(0)).toUpperCase(Locale.ROOT);
+        long now = System.currentTimeMillis();
+        switch (name) {
+            case "PING" -> simple(out, "PONG");
+            case "CLIENT", "SELECT", "READONLY", "READWRITE" -> simple(out, "OK");
+            case "QUIT" -> {
+                simple(out, "OK");
+                return true;
+            }
+            case "GET" -> {
+                Entry entry = entry(key(command.get(1)), now);
+                if (entry != null && entry.hash() != null) {
+                    error(out, WRONG_TYPE);
+                } else {
+                    bulk(out, entry == null ? null : entry.value());
+                }
+            }
+            case "MGET" -> {
+                arrayHeader(out, command.size() - 1);
+                for (int i = 1; i < command.size(); i++) {
+                    bulk(out, get(key(command.get(i)), now));
+                }
+            }
+            case "HSET", "HMSET" -> hashSet(command, out, name, now);
+            case "HGETALL" -> {
+                Entry entry = entry(key(command.get(1)), now);
+                if (entry != null && entry.hash() == null) {
+                    error(out, WRONG_TYPE);
+                } else {
+                    Map<String, byte[]> hash = entry == null ? Map.of() : entry.hash();
+                    arrayHeader(out, hash.size() * 2);
+                    for (Map.Entry<String, byte[]> field : hash.entrySet()) {
+                        bulk(out, field.getKey().getBytes(StandardCharsets.ISO_8859_1));
+                        bulk(out, field.getValue());
+                    }
+                }
+            }
+            case "EXPIRE", "PEXPIRE" -> {
+                long ttl = Long.parseLong(text(command.get(2))) * (name.equals("EXPIRE") ? 1000 : 1);
+                Entry entry = data.computeIfPresent(key(command.get(1)), (key, current) -> current.isExpired(now)
+                        ? null
+                        : new Entry(current.value(), current.hash(), now + ttl));
+                integer(out, entry == null ? 0 : 1);
+            }
+            case "SET" -> set(command, out, now);
+            case "DEL", "UNLINK" -> {
+                long removed = 0;
+                for (int i = 1; i < command.size(); i++) {
+                    if (data.remove(key(command.get(i))) != null) {
+                        removed++;
+                    }
+                }
+                integer(out, removed);
+            }
+            case "EXISTS" -> {
+                long found = 0;
+                for (int i = 1; i < command.size(); i++) {
+                    if (entry(key(command.get(i)), now) != null) {
+                        found++;
+                    }
+                }
+                integer(out, found);
+            }
+            case "KEYS" -> keys(out, text(command.get(1)), now);
+            case "SCAN" -> {
+                // everything in one pass: cursor 0 ends the iteration
+                String pattern = "*";
+                for (int i = 2; i + 1 < command.size(); i += 2) {
+                    if (text(command.get(i)).equalsIgnoreCase("MATCH")) {
+                        pattern = text(command.get(i + 1));
+                    }
+                }
+                arrayHeader(out, 2);
+                bulk(out, "0".getBytes(StandardCharsets.US_ASCII));
+                keys(out, pattern, now);
+            }
+            case "DBSIZE" -> integer(out, data.size());
+            case "FLUSHDB", "FLUSHALL" -> {
+                data.clear();
+                simple(out, "OK");
+            }
+            case "INFO" -> bulk(out, "# Server\r\nredis_version:7.2.0\r\nredis_mode:standalone\r\n".getBytes(StandardCharsets.US_ASCII));
+            // not offered, so Lettuce falls back to RESP2 without authentication
+            default -> error(out, "ERR unknown command '" + name + "'");
+        }
+        return false;
+    }
+
+    private void set(List<byte[]> command, OutputStream out, long now) throws IOException {
+        String key = key(command.get(1));
+        long expiresAt = 0;
+        boolean ifAbsent = false;
+        boolean ifPresent = false;
+        for (int i = 3; i < command.size(); i++) {
+            String option = text(command.get(i)).toUpperCase(Locale.ROOT);
+            switch (option) {
+                case "EX" -> expiresAt = now + Long.parseLong(text(command.get(++i))) * 1000;
+                case "PX" -> expiresAt = now + Long.parseLong(text(command.get(++i)));
+                case "NX" -> ifAbsent = true;
+                case "XX" -> ifPresent = true;
+                default -> {
+                    error(out, "ERR syntax error");
+                    return;
+                }
+            }
+        }
+        Entry entry = new Entry(command.get(2), null, expiresAt);
+        if (ifAbsent || ifPresent) {
+            boolean present = entry(key, now) != null;
+            if (present == ifAbsent) {
+                bulk(out, null);
+                return;
+            }
+        }
+        data.put(key, entry);
+        simple(out, "OK");
+    }
+
+    private void hashSet(List<byte[]> command, OutputStream out, String name, long now) throws IOException {
+        if (command.size() < 4 || command.size() % 2 != 0) {
+            error(out, "ERR wrong number of arguments for '" + name.toLowerCase(Locale.ROOT) + "' command");
+            return;
+        }
+        long[] added = new long[1];
+        boolean[] wrongType = new boolean[1];
+        data.compute(key(command.get(1)), (key, current) -> {
+            if (current != null && !current.isExpired(now) && current.hash() == null) {
+                wrongType[0] = true;
+                return current;
+            }
+            boolean live = current != null && !current.isExpired(now);
+            Map<String, byte[]> hash = live ? new LinkedHashMap<>(current.hash()) : new LinkedHashMap<>();
+            for (int i = 2; i < command.size(); i += 2) {
+                if (hash.put(key(command.get(i)), command.get(i + 1)) == null) {
+                    added[0]++;
+                }
+            }
+            return new Entry(null, hash, live ? current.expiresAt() : 0);
+        });
+        if (wrongType[0]) {
+            error(out, WRONG_TYPE);
+        } else if (name.equals("HMSET")) {
+            simple(out, "OK");
+        } else {
+            integer(out, added[0]);
+        }
+    }
+
+    /**
+     * @return String value of the key, null when it is missing or not a string.
+     */
+    private byte[] get(String key, long now) {
+        Entry entry = entry(key, now);
+        return entry == null ? null : entry.value();
+    }
+
+    private Entry entry(String key, long now) {
+        Entry entry = data.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(now)) {
+            data.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    private void keys(OutputStream out, String pattern, long now) throws IOException {
+        Pattern regex = globToRegex(pattern);
+        List<String> matches = new ArrayList<>();
+        data.forEach((key, entry) -> {
+            if (!entry.isExpired(now) && regex.matcher(key).matches()) {
+                matches.add(key);
+            }
+        });
+        arrayHeader(out, matches.size());
+        for (String key : matches) {
+            bulk(out, key.getBytes(StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            switch (c) {
+                case '*' -> regex.append(".*");
+                case '?' -> regex.append('.');
+                default -> regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    private static String key(byte[] key) {
+        return new String(key, StandardCharsets.ISO_8859_1);
+    }
+
+    private static String text(byte[] argument) {
+        return new String(argument, StandardCharsets.UTF_8);
+    }
+
+    private static void simple(OutputStream out, String value) throws IOException {
+        out.write(('+' + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void error(OutputStream out, String message) throws IOException {
+        out.write(('-' + message + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void integer(OutputStream out, long value) throws IOException {
+        out.write((":" + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void arrayHeader(OutputStream out, int size) throws IOException {
+        out.write(("*" + size + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void bulk(OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        out.write(("$" + value.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(value);
+        out.write('\r');
+        out.write('\n');
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.fastProductApi.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadTestOptionsTest {
+
+    @Test
+    void parse_shouldUseDefaultsWithoutArguments() {
+        // Act
+        LoadTestOptions options = LoadTestOptions.parse();
+
+        // Assert
+        assertNull(options.target());
+        assertEquals(200, options.rate());
+        assertEquals(Duration.ofSeconds(10), options.warmup());
+        assertEquals(Duration.ofSeconds(60), options.duration());
+        assertEquals(0.8, options.readRatio());
+        assertEquals(List.of(10), options.batchSizes());
+        assertEquals(List.of(true), options.parallel());
+    }
+
+    @Test
+    void parse_shouldReadMixesAndLists() {
+        // Act
+        LoadTestOptions options = LoadTestOptions.parse("--target=http://localhost:8080/api/v1", "--rate=50",
+                "--duration=2m", "--read-ratio=0.5", "--write-mix=upload:3,delete:1", "--batch-sizes=1, 100",
+                "--parallel=true,false");
+
+        // Assert
+        assertEquals("http://localhost:8080/api/v1", options.target());
+        assertEquals(Duration.ofMinutes(2), options.duration());
+        assertEquals(Map.of(LoadGenerator.Operation.UPLOAD_PRODUCTS, 3, LoadGenerator.Operation.DELETE_PRODUCTS, 1),
+                options.writeMix());
+        assertEquals(List.of(1, 100), options.batchSizes());
+        assertEquals(List.of(true, false), options.parallel());
+    }
+
+    @Test
+    void parse_shouldRejectUnknownOrInvalidOptions() {
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--threads=4"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--read-ratio=1.5"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--write-mix=patch:1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--batch-sizes=0"));
+    }
+}
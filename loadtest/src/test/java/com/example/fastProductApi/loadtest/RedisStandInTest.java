@@ -0,0 +1,126 @@
+package com.example.fastProductApi.loadtest;
+
+import com.example.fastProductApi.cache.ProductHashCache;
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.projection.ProductField;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisStandInTest {
+
+    private RedisStandIn redis;
+    private LettuceConnectionFactory connectionFactory;
+
+    @BeforeEach
+    void start() throws IOException {
+        redis = new RedisStandIn(0);
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", redis.getPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        connectionFactory.destroy();
+        redis.close();
+    }
+
+    @Test
+    void lettuceClient_shouldSetGetAndDeleteStrings() {
+        // Arrange
+        StringRedisTemplate template = new StringRedisTemplate(connectionFactory);
+
+        // Act
+        template.opsForValue().set("product::1", "one");
+        template.opsForValue().set("product::2", "two", Duration.ofMinutes(5));
+        Boolean absentSet = template.opsForValue().setIfAbsent("product::1", "uno");
+        List<String> values = template.opsForValue().multiGet(List.of("product::1", "product::2", "product::3"));
+        Set<String> keys = template.keys("product::*");
+        Boolean deleted = template.delete("product::1");
+
+        // Assert
+        assertEquals(Boolean.FALSE, absentSet);
+        assertEquals(Arrays.asList("one", "two", null), values);
+        assertEquals(Set.of("product::1", "product::2"), keys);
+        assertEquals(Boolean.TRUE, deleted);
+        assertNull(template.opsForValue().get("product::1"));
+        assertEquals(1, redis.size());
+    }
+
+    @Test
+    void redisCacheManager_shouldStoreExpireAndClearEntries() throws InterruptedException {
+        // Arrange
+        RedisCacheManager cacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMillis(200)))
+                .build();
+        cacheManager.afterPropertiesSet();
+        var cache = cacheManager.getCache("product");
+
+        // Act
+        cache.put(1L, "first");
+        cache.put(2L, "second");
+        String cached = cache.get(1L, String.class);
+        Thread.sleep(300);
+
+        // Assert
+        assertEquals("first", cached);
+        assertNull(cache.get(1L), "entry should have expired");
+        cache.put(3L, "third");
+        cache.clear();
+        assertNull(cache.get(3L));
+    }
+
+    @Test
+    void productHashCache_shouldPatchOnlyTheChangedFieldsOfCachedProducts() {
+        // Arrange
+        ProductHashCache cache = new ProductHashCache(connectionFactory,
+                RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(5)));
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        LocalDateTime patchedAt = createdAt.plusDays(1);
+        cache.putAll(List.of(
+                new Product(1L, "Keyboard", "Mechanical", new BigDecimal("49.90"), 10, createdAt, createdAt),
+                new Product(2L, "Mouse", "Wireless", new BigDecimal("19.90"), 5, createdAt, createdAt)));
+
+        // Act: the patched product carries a stale name, which must not be written
+        cache.patchAll(List.of(new Product(1L, "Stale name", "Mechanical", new BigDecimal("39.90"), 10, createdAt, patchedAt),
+                        new Product(3L, "Uncached", "", BigDecimal.ONE, 1, createdAt, patchedAt)),
+                Map.of(1L, Set.of(ProductField.PRICE), 3L, Set.of(ProductField.PRICE)));
+
+        // Assert
+        Product patched = cache.get(1L, Product.class);
+        assertEquals("Keyboard", patched.getName());
+        assertEquals(new BigDecimal("39.90"), patched.getPrice());
+        assertEquals(10, patched.getStock());
+        assertEquals(createdAt, patched.getCreatedAt());
+        assertEquals(patchedAt, patched.getLastUpdatedAt());
+        assertEquals("Mouse", cache.get(2L, Product.class).getName());
+        assertNull(cache.get(3L), "a patch of an uncached product leaves no readable entry");
+        cache.evict(1L);
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void globToRegex_shouldMatchRedisPatterns() {
+        assertTrue(RedisStandIn.globToRegex("product::*").matcher("product::42").matches());
+        assertTrue(RedisStandIn.globToRegex("product::?").matcher("product::4").matches());
+        assertFalse(RedisStandIn.globToRegex("product::?").matcher("product::42").matches());
+        assertFalse(RedisStandIn.globToRegex("a.b").matcher("axb").matches());
+    }
+}
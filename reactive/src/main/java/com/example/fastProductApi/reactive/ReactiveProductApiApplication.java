@@ -0,0 +1,15 @@
+package com.example.fastProductApi.reactive;
+
+import com.example.fastProductApi.mapper.ProductMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+// same DTOs and ProductMapper as the servlet application, served on WebFlux, R2DBC and reactive Redis
+@SpringBootApplication
+@Import(ProductMapper.class)
+public class ReactiveProductApiApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveProductApiApplication.class, args);
+    }
+}
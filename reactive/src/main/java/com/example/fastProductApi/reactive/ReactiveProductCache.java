@@ -0,0 +1,129 @@
+package com.example.fastProductApi.reactive;
+
+import com.example.fastProductApi.cache.ProductCacheConfig;
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.util.ConstantMessages;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive view of the {@code products} cache. Keys ({@code products::<id>}) and JDK-serialized values match
+ * the servlet stack's {@code RedisCacheManager}, so both stacks can share one Redis.
+ * Writes also drop the {@code productVersions::<id>} entry the servlet stack answers conditional reads from,
+ * its {@code productFragments::<id>} JSON fragment and its {@code productHashes::<id>} hash.
+ * With {@code product.cache.cluster.hash-tag-span} set, IDs carry the same hash tag as on the servlet stack,
+ * e.g. {@code products::{4}42}. The hash layout ({@code product.cache.hash-layout=true}) is not supported.
+ * Redis errors are logged and treated as cache misses.
+ */
+@Component
+public class ReactiveProductCache {
+    static Logger log = LoggerFactory.getLogger(ReactiveProductCache.class);
+
+    private static final String KEY_PREFIX = "products::";
+    private static final String VERSION_KEY_PREFIX = "productVersions::";
+    private static final String FRAGMENT_KEY_PREFIX = "productFragments::";
+    private static final String HASH_KEY_PREFIX = "productHashes::";
+
+    private final ReactiveRedisTemplate<String, Object> redisTemplate;
+    private final Duration timeToLive;
+    private final ConversionService conversionService;
+
+    public ReactiveProductCache(ReactiveRedisConnectionFactory connectionFactory,
+                                @Value("${spring.cache.redis.time-to-live:120m}") Duration timeToLive,
+                                @Value("${product.cache.cluster.hash-tag-span:0}") int hashTagSpan,
+                                @Value("${product.cache.hash-layout:false}") boolean hashLayout) {
+        // products:: entries would go stale, as the servlet stack then only writes productHashes::
+        if (hashLayout) {
+            throw new IllegalStateException("The reactive product cache cannot be combined with product.cache.hash-layout");
+        }
+        RedisSerializationContext<String, Object> serializationContext = RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value(new JdkSerializationRedisSerializer())
+                .build();
+        this.redisTemplate = new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
+        this.timeToLive = timeToLive;
+        this.conversionService = hashTagSpan > 0
+                ? ProductCacheConfig.hashTaggingConversionService(hashTagSpan)
+                : RedisCacheConfiguration.defaultCacheConfig().getConversionService();
+    }
+
+    /**
+     * Look up a batch of products with one MGET.
+     *
+     * @return Cached products by ID; misses are absent from the map.
+     */
+    public Mono<Map<Long, Product>> getAll(List<Long> ids) {
+        return redisTemplate.opsForValue().multiGet(ids.stream().map(this::key).toList())
+                .map(values -> {
+                    Map<Long, Product> products = new HashMap<>();
+                    for (int i = 0; i < values.size(); i++) {
+                        if (values.get(i) instanceof Product product) {
+                            products.put(ids.get(i), product);
+                        }
+                    }
+                    return products;
+                })
+                .onErrorResume(e -> {
+                    log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+                    return Mono.just(new HashMap<>());
+                });
+    }
+
+    public Mono<Boolean> put(Product product) {
+        return redisTemplate.opsForValue().set(key(product.getId()), product, timeToLive)
+                .onErrorResume(e -> {
+                    log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    /**
+     * Cache a product that has just been changed and drop the servlet stack's entries derived from it.
+     */
+    public Mono<Boolean> putUpdated(Product product) {
+        return redisTemplate.delete(Flux.fromIterable(derivedKeys(product.getId())))
+                .then(put(product))
+                .onErrorResume(e -> {
+                    log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    public Mono<Long> evict(Long id) {
+        List<String> keys = new ArrayList<>(derivedKeys(id));
+        keys.add(key(id));
+        return redisTemplate.delete(Flux.fromIterable(keys))
+                .onErrorResume(e -> {
+                    log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+                    return Mono.just(0L);
+                });
+    }
+
+    // e.g. products::42, or products::{4}42 with a hash-tag span of 10
+    String key(Long id) {
+        return KEY_PREFIX + conversionService.convert(id, String.class);
+    }
+
+    // version, fragment and hash entries of the servlet stack
+    List<String> derivedKeys(Long id) {
+        String convertedId = conversionService.convert(id, String.class);
+        return List.of(VERSION_KEY_PREFIX + convertedId, FRAGMENT_KEY_PREFIX + convertedId, HASH_KEY_PREFIX + convertedId);
+    }
+}
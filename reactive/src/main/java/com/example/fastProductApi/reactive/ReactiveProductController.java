@@ -0,0 +1,147 @@
+package com.example.fastProductApi.reactive;
+
+import com.example.fastProductApi.dto.*;
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.mapper.ProductMapper;
+import com.example.fastProductApi.util.ConstantMessages;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Same four endpoints and payloads as the servlet {@code ProductController}, without blocking request threads.
+ */
+@RestController
+@RequestMapping("/products")
+public class ReactiveProductController {
+    static Logger log = LoggerFactory.getLogger(ReactiveProductController.class);
+
+    @Autowired
+    private ReactiveProductService productService;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    /**
+     * Fetch products by IDs with an option for sequential or parallel processing.
+     *
+     * @param isParallel            Indicates if several batches may be fetched at once.
+     * @param productByIdRequestDto Contains the list of product IDs to fetch.
+     * @return Found products and any missing IDs.
+     */
+    @PostMapping("/getProductByIds")
+    public Mono<ResponseEntity<ProductsByIdResponseDto>> getProductById(
+            @RequestParam(defaultValue = "true") boolean isParallel,
+            @RequestBody ProductByIdRequestDto productByIdRequestDto) {
+        List<Long> ids = productByIdRequestDto.ids();
+        return productService.getProductByIds(ids, isParallel)
+                .collectList()
+                .map(products -> ResponseEntity.ok(mapProductsToResponse(products, ids)))
+                .onErrorResume(e -> Mono.just(ResponseEntity.internalServerError()
+                        .body(new ProductsByIdResponseDto(new ArrayList<>(), errorStatus(e)))));
+    }
+
+    /**
+     * Stream found products as newline-delimited JSON while they are loaded, without buffering the response.
+     *
+     * @param isParallel            Indicates if several batches may be fetched at once.
+     * @param productByIdRequestDto Contains the list of product IDs to fetch.
+     * @return Found products in request order.
+     */
+    @PostMapping(value = "/getProductByIds/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductResponseDto> streamProductsById(
+            @RequestParam(defaultValue = "true") boolean isParallel,
+            @RequestBody ProductByIdRequestDto productByIdRequestDto) {
+        return productService.getProductByIds(productByIdRequestDto.ids(), isParallel).map(productMapper::toDTO);
+    }
+
+    /**
+     * Upload a list of products.
+     */
+    @PostMapping("/uploadProducts")
+    public Mono<ResponseEntity<ProductListResponseDto>> uploadProductList(
+            @RequestParam(defaultValue = "true") boolean isParallel,
+            @RequestBody UploadProductListRequestDto uploadProductListRequestDto) {
+        return processProductList(uploadProductListRequestDto, isParallel, false);
+    }
+
+    /**
+     * Update a list of products.
+     */
+    @PutMapping("/updateProductsByIds")
+    public Mono<ResponseEntity<ProductListResponseDto>> updateProductList(
+            @RequestParam(defaultValue = "true") boolean isParallel,
+            @RequestBody UploadProductListRequestDto uploadProductListRequestDto) {
+        return processProductList(uploadProductListRequestDto, isParallel, true);
+    }
+
+    /**
+     * Delete products by IDs.
+     */
+    @DeleteMapping("/deleteProductsByIds")
+    public Mono<ResponseEntity<ProductsDeleteResponseDto>> deleteProducts(
+            @RequestParam(defaultValue = "true") boolean isParallel,
+            @RequestBody ProductByIdRequestDto ids) {
+        return productService.deleteByIds(ids.ids(), isParallel)
+                .collectList()
+                .map(deletedIds -> {
+                    Set<Long> deleted = new HashSet<>(deletedIds);
+                    List<String> notDeletedIds = ids.ids().stream().filter(id -> !deleted.contains(id)).map(String::valueOf).toList();
+                    ResponseStatusVo status = notDeletedIds.isEmpty()
+                            ? new ResponseStatusVo("SUCCESS", HttpStatus.OK.toString())
+                            : new ResponseStatusVo("Products not found for the following IDs to delete: " + String.join(", ", notDeletedIds), HttpStatus.PARTIAL_CONTENT.toString());
+                    return ResponseEntity.ok(new ProductsDeleteResponseDto(deletedIds, status));
+                })
+                .onErrorResume(e -> Mono.just(ResponseEntity.internalServerError()
+                        .body(new ProductsDeleteResponseDto(new ArrayList<>(), errorStatus(e)))));
+    }
+
+    private Mono<ResponseEntity<ProductListResponseDto>> processProductList(UploadProductListRequestDto dto, boolean isParallel, boolean isUpdate) {
+        return productService.saveOrUpdateProducts(dto.getProducts(), isUpdate, isParallel)
+                .map(product -> product.map(productMapper::toDTO))
+                .collectList()
+                .map(products -> {
+                    // an update of an unknown ID is reported as a null entry, like the servlet stack does
+                    List<ProductResponseDto> productResponseDtos = new ArrayList<>();
+                    products.forEach(product -> productResponseDtos.add(product.orElse(null)));
+                    return ResponseEntity.status(HttpStatus.CREATED).body(new ProductListResponseDto(productResponseDtos,
+                            new ResponseStatusVo("SUCCESS", HttpStatus.CREATED.toString())));
+                })
+                .onErrorResume(e -> Mono.just(ResponseEntity.internalServerError()
+                        .body(new ProductListResponseDto(new ArrayList<>(), errorStatus(e)))));
+    }
+
+    private ResponseStatusVo errorStatus(Throwable e) {
+        log.error(ConstantMessages.EXCEPTION_OCCUR_IN_API, e.getClass().getName(), e.getMessage());
+        return new ResponseStatusVo("Exception occur in api " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.toString());
+    }
+
+    /**
+     * Maps found products to a response DTO, identifying missing products.
+     */
+    private ProductsByIdResponseDto mapProductsToResponse(List<Product> products, List<Long> ids) {
+        Set<Long> foundIds = new HashSet<>();
+        List<ProductResponseDto> productDTOs = new ArrayList<>();
+        for (Product product : products) {
+            foundIds.add(product.getId());
+            productDTOs.add(productMapper.toDTO(product));
+        }
+        List<String> notFoundIds = ids.stream().filter(id -> !foundIds.contains(id)).map(String::valueOf).toList();
+        if (notFoundIds.isEmpty()) {
+            return new ProductsByIdResponseDto(productDTOs, new ResponseStatusVo("SUCCESS", HttpStatus.OK.toString()));
+        }
+        String errorMessage = "Products not found for the following IDs: " + String.join(", ", notFoundIds);
+        return new ProductsByIdResponseDto(productDTOs, new ResponseStatusVo(errorMessage, HttpStatus.PARTIAL_CONTENT.toString()));
+    }
+}
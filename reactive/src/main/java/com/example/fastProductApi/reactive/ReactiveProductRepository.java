@@ -0,0 +1,117 @@
+package com.example.fastProductApi.reactive;
+
+import com.example.fastProductApi.entity.Product;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Non-blocking access to the {@code products} table through R2DBC, mapping rows onto the shared {@link Product}.
+ */
+@Repository
+public class ReactiveProductRepository {
+
+    private static final String SELECT_PRODUCTS = "SELECT id, name, description, price, stock, created_at, last_updated_at FROM products";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    /**
+     * Load a batch of products with a single query.
+     *
+     * @param ids Product IDs to load.
+     * @return Products found, in no particular order.
+     */
+    public Flux<Product> findAllByIds(Collection<Long> ids) {
+        return databaseClient.sql(SELECT_PRODUCTS + " WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .map(this::toProduct)
+                .all();
+    }
+
+    /**
+     * @param product Product without ID.
+     * @return The product with its generated ID.
+     */
+    public Mono<Product> insert(Product product) {
+        return databaseClient.sql("INSERT INTO products (name, description, price, stock, created_at, last_updated_at) "
+                        + "VALUES (:name, :description, :price, :stock, :createdAt, :lastUpdatedAt)")
+                .bind("name", product.getName())
+                .bind("description", product.getDescription())
+                .bind("price", product.getPrice())
+                .bind("stock", product.getStock())
+                .bind("createdAt", product.getCreatedAt())
+                .bind("lastUpdatedAt", product.getLastUpdatedAt())
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> {
+                    product.setId(id);
+                    return product;
+                });
+    }
+
+    /**
+     * Overwrite the mutable columns of an existing product.
+     *
+     * @return Number of updated rows, 0 when the product does not exist.
+     */
+    public Mono<Long> update(Product product) {
+        return databaseClient.sql("UPDATE products SET name = :name, description = :description, price = :price, "
+                        + "stock = :stock, last_updated_at = :lastUpdatedAt WHERE id = :id")
+                .bind("name", product.getName())
+                .bind("description", product.getDescription())
+                .bind("price", product.getPrice())
+                .bind("stock", product.getStock())
+                .bind("lastUpdatedAt", product.getLastUpdatedAt())
+                .bind("id", product.getId())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Delete a product and, in the same transaction, leave the tombstone {@code GET /products/delta} of the servlet
+     * application reports deletions from, replacing an older tombstone of the same ID.
+     *
+     * @return Number of deleted rows, 0 when the product does not exist.
+     */
+    public Mono<Long> deleteById(Long id) {
+        LocalDateTime deletedAt = LocalDateTime.now();
+        Mono<Long> delete = databaseClient.sql("DELETE FROM product_tombstones WHERE product_id = :id AND EXISTS (SELECT 1 FROM products WHERE id = :id)")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .then(databaseClient.sql("INSERT INTO product_tombstones (product_id, deleted_at) SELECT id, :deletedAt FROM products WHERE id = :id")
+                        .bind("deletedAt", deletedAt)
+                        .bind("id", id)
+                        .fetch()
+                        .rowsUpdated())
+                .then(databaseClient.sql("DELETE FROM products WHERE id = :id")
+                        .bind("id", id)
+                        .fetch()
+                        .rowsUpdated());
+        return transactionalOperator.transactional(delete);
+    }
+
+    private Product toProduct(Readable row) {
+        return new Product(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("description", String.class),
+                row.get("price", BigDecimal.class),
+                row.get("stock", Integer.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("last_updated_at", LocalDateTime.class));
+    }
+}
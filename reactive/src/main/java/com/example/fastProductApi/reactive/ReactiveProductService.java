@@ -0,0 +1,119 @@
+package com.example.fastProductApi.reactive;
+
+import com.example.fastProductApi.dto.ProductRequestDto;
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.mapper.ProductMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Bulk product operations as bounded-concurrency {@link Flux} pipelines. {@code isParallel=false} runs the
+ * same pipeline with a concurrency of one. Results are always emitted in request order.
+ */
+@Service
+public class ReactiveProductService {
+
+    @Autowired
+    private ReactiveProductRepository productRepository;
+
+    @Autowired
+    private ReactiveProductCache productCache;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    // max number of batches / products in flight per request
+    @Value("${product.reactive.concurrency:10}")
+    private int concurrency;
+
+    // ids looked up with one MGET and one SELECT
+    @Value("${product.reactive.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * Fetch products by IDs, batch by batch: one cache MGET per batch, then one query for the batch's misses.
+     *
+     * @param ids        Product IDs to fetch.
+     * @param isParallel Whether several batches may be in flight at once.
+     * @return Found products in request order; missing IDs are skipped.
+     */
+    public Flux<Product> getProductByIds(List<Long> ids, boolean isParallel) {
+        return Flux.fromIterable(ids)
+                .buffer(batchSize)
+                .flatMapSequential(this::loadBatch, concurrency(isParallel));
+    }
+
+    /**
+     * Save or update products. As in the servlet stack, a product without ID is inserted and an update
+     * of an unknown ID yields an empty result.
+     *
+     * @param productRequestDtos Products to save or update.
+     * @param isUpdate           Flag for update or save operation.
+     * @param isParallel         Whether several products may be written at once.
+     * @return One result per requested product, in request order.
+     */
+    public Flux<Optional<Product>> saveOrUpdateProducts(List<ProductRequestDto> productRequestDtos, boolean isUpdate, boolean isParallel) {
+        return Flux.fromIterable(productRequestDtos)
+                .map(productMapper::toEntity)
+                .flatMapSequential(product -> isUpdate && product.getId() != null ? update(product) : insert(product).map(Optional::of),
+                        concurrency(isParallel));
+    }
+
+    /**
+     * @param ids        Product IDs to delete.
+     * @param isParallel Whether several deletes may run at once.
+     * @return IDs that existed and were deleted, in request order.
+     */
+    public Flux<Long> deleteByIds(List<Long> ids, boolean isParallel) {
+        return Flux.fromIterable(ids)
+                .flatMapSequential(id -> productRepository.deleteById(id)
+                        .filter(deletedRows -> deletedRows > 0)
+                        .flatMap(deletedRows -> productCache.evict(id).thenReturn(id)), concurrency(isParallel));
+    }
+
+    private Flux<Product> loadBatch(List<Long> ids) {
+        return productCache.getAll(ids).flatMapMany(cachedProducts -> {
+            List<Long> missedIds = ids.stream().filter(id -> !cachedProducts.containsKey(id)).distinct().toList();
+            Mono<Map<Long, Product>> loadedProducts = missedIds.isEmpty()
+                    ? Mono.just(Map.of())
+                    : productRepository.findAllByIds(missedIds)
+                    .flatMap(product -> productCache.put(product).thenReturn(product))
+                    .collectMap(Product::getId);
+            return loadedProducts.flatMapIterable(databaseProducts -> ids.stream()
+                    .map(id -> cachedProducts.containsKey(id) ? cachedProducts.get(id) : databaseProducts.get(id))
+                    .filter(Objects::nonNull)
+                    .toList());
+        });
+    }
+
+    private Mono<Product> insert(Product product) {
+        LocalDateTime now = LocalDateTime.now();
+        product.setCreatedAt(now);
+        product.setLastUpdatedAt(now);
+        return productRepository.insert(product)
+                .flatMap(savedProduct -> productCache.put(savedProduct).thenReturn(savedProduct));
+    }
+
+    private Mono<Optional<Product>> update(Product product) {
+        product.setLastUpdatedAt(LocalDateTime.now());
+        return productRepository.update(product)
+                .flatMap(updatedRows -> updatedRows == 0
+                        ? Mono.just(Optional.<Product>empty())
+                        : productRepository.findAllByIds(List.of(product.getId())).next()
+                        .flatMap(updatedProduct -> productCache.putUpdated(updatedProduct).thenReturn(updatedProduct))
+                        .map(Optional::of));
+    }
+
+    private int concurrency(boolean isParallel) {
+        return isParallel ? concurrency : 1;
+    }
+}
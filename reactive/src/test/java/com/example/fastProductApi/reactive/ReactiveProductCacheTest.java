@@ -0,0 +1,41 @@
+package com.example.fastProductApi.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ReactiveProductCacheTest {
+
+    private final ReactiveRedisConnectionFactory connectionFactory = mock(ReactiveRedisConnectionFactory.class);
+
+    @Test
+    void keys_shouldMatchTheServletStack() {
+        // Arrange
+        ReactiveProductCache productCache = new ReactiveProductCache(connectionFactory, Duration.ofMinutes(1), 0, false);
+
+        // Act & Assert
+        assertEquals("products::42", productCache.key(42L));
+        assertEquals(List.of("productVersions::42", "productFragments::42", "productHashes::42"), productCache.derivedKeys(42L));
+    }
+
+    @Test
+    void keys_shouldCarryTheHashTagWhenASpanIsSet() {
+        // Arrange
+        ReactiveProductCache productCache = new ReactiveProductCache(connectionFactory, Duration.ofMinutes(1), 10, false);
+
+        // Act & Assert
+        assertEquals("products::{4}42", productCache.key(42L));
+        assertEquals(List.of("productVersions::{4}42", "productFragments::{4}42", "productHashes::{4}42"), productCache.derivedKeys(42L));
+    }
+
+    @Test
+    void constructor_shouldRejectTheHashLayout() {
+        assertThrows(IllegalStateException.class,
+                () -> new ReactiveProductCache(connectionFactory, Duration.ofMinutes(1), 0, true));
+    }
+}
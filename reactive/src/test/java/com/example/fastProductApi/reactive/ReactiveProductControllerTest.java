@@ -0,0 +1,141 @@
+package com.example.fastProductApi.reactive;
+
+import com.example.fastProductApi.dto.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactivedb?options=DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.sql.init.mode=always",
+        "product.reactive.batch-size=2"
+})
+@AutoConfigureWebTestClient
+class ReactiveProductControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @MockitoBean
+    private ReactiveProductCache productCache;
+
+    @BeforeEach
+    void setUp() {
+        // every lookup misses the cache, so reads go through R2DBC
+        when(productCache.getAll(anyList())).thenReturn(Mono.just(new HashMap<>()));
+        when(productCache.put(any())).thenReturn(Mono.just(true));
+        when(productCache.putUpdated(any())).thenReturn(Mono.just(true));
+        when(productCache.evict(anyLong())).thenReturn(Mono.just(1L));
+    }
+
+    @Test
+    void getProductByIds_shouldReturnUploadedProductsInRequestOrder() {
+        List<Long> ids = new ArrayList<>(upload(3));
+        ids.add(1, 999_999L);
+
+        ProductsByIdResponseDto response = webTestClient.post().uri("/products/getProductByIds")
+                .bodyValue(new ProductByIdRequestDto(ids))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductsByIdResponseDto.class)
+                .returnResult().getResponseBody();
+
+        assertNotNull(response);
+        assertEquals(List.of(ids.get(0), ids.get(2), ids.get(3)), response.getProduct().stream().map(ProductResponseDto::getId).toList());
+        assertTrue(response.getResponseStatus().message().contains("999999"));
+    }
+
+    @Test
+    void streamProductsById_shouldStreamNdjson() {
+        List<Long> ids = upload(3);
+
+        List<ProductResponseDto> products = webTestClient.post().uri("/products/getProductByIds/stream?isParallel=false")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(new ProductByIdRequestDto(ids))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(ProductResponseDto.class)
+                .getResponseBody().collectList().block();
+
+        assertEquals(ids, products.stream().map(ProductResponseDto::getId).toList());
+    }
+
+    @Test
+    void updateProductList_shouldUpdateExistingAndReportUnknownAsNull() {
+        Long id = upload(1).get(0);
+        UploadProductListRequestDto request = new UploadProductListRequestDto(List.of(
+                new ProductRequestDto(id, "Updated", "Updated description", BigDecimal.valueOf(42), 7),
+                new ProductRequestDto(999_999L, "Unknown", "Unknown", BigDecimal.ONE, 1)));
+
+        ProductListResponseDto response = webTestClient.put().uri("/products/updateProductsByIds")
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ProductListResponseDto.class)
+                .returnResult().getResponseBody();
+
+        assertEquals("Updated", response.getProducts().get(0).getName());
+        assertEquals(7, response.getProducts().get(0).getStock());
+        assertNotNull(response.getProducts().get(0).getCreatedAt());
+        assertNull(response.getProducts().get(1));
+    }
+
+    @Test
+    void deleteProducts_shouldDeleteAndReportMissingIds() {
+        List<Long> ids = new ArrayList<>(upload(2));
+        ids.add(999_998L);
+
+        ProductsDeleteResponseDto response = webTestClient.method(HttpMethod.DELETE).uri("/products/deleteProductsByIds")
+                .bodyValue(new ProductByIdRequestDto(ids))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductsDeleteResponseDto.class)
+                .returnResult().getResponseBody();
+
+        assertEquals(ids.subList(0, 2), response.getDeletedProductIds());
+        assertTrue(response.getResponseStatus().message().contains("999998"));
+        assertEquals(ids.subList(0, 2), databaseClient.sql("SELECT product_id FROM product_tombstones WHERE product_id IN (:ids) ORDER BY product_id")
+                .bind("ids", ids)
+                .map(row -> row.get("product_id", Long.class))
+                .all().collectList().block(), "a tombstone for each deleted product only");
+    }
+
+    private List<Long> upload(int count) {
+        List<ProductRequestDto> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            products.add(new ProductRequestDto(null, "Product " + i, "Description " + i, BigDecimal.valueOf(10 + i), i));
+        }
+        ProductListResponseDto response = webTestClient.post().uri("/products/uploadProducts")
+                .bodyValue(new UploadProductListRequestDto(products))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ProductListResponseDto.class)
+                .returnResult().getResponseBody();
+        return response.getProducts().stream().map(ProductResponseDto::getId).toList();
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.fastProductApi.batching;
+
+import com.example.fastProductApi.cache.ProductCacheOperations;
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.exception.CustomException;
+import com.example.fastProductApi.jfr.ProductStageEvent;
+import com.example.fastProductApi.jfr.ProductStages;
+import com.example.fastProductApi.repository.ProductRepository;
+import com.example.fastProductApi.sharding.ShardedProductStore;
+import com.example.fastProductApi.util.ConstantMessages;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects product lookups of concurrent requests into shared batches, DataLoader style: the first lookup of a
+ * batch waits up to {@code window} for others to join, or less once {@code max-batch-size} lookups are pending.
+ * Each batch is then served with one multi-key cache read and one query for the misses, and every caller's future
+ * is completed from the result. An ID asked for by several callers in the same batch is loaded once.
+ * <p>
+ * Loaded products are written back to the {@code products} cache, so the batches see the same entries as
+ * {@code ProductServiceForBasicCrud.getProductById}.
+ */
+public class ProductBatchLoader implements DisposableBean {
+    static Logger log = LoggerFactory.getLogger(ProductBatchLoader.class);
+
+    private record PendingLoad(Long id, CompletableFuture<Optional<Product>> future) {
+    }
+
+    @Autowired
+    private ProductCacheOperations productCacheOperations;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // only present when product.sharding.enabled=true
+    @Autowired(required = false)
+    private ShardedProductStore shardedProductStore;
+
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService batchExecutor;
+
+    private final Object lock = new Object();
+    private List<PendingLoad> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledDispatch;
+
+    public ProductBatchLoader(ProductBatchLoaderProperties properties) {
+        this.windowNanos = properties.getWindow().toNanos();
+        this.maxBatchSize = properties.getMaxBatchSize();
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "product-batch-timer"));
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.batchExecutor = Executors.newFixedThreadPool(properties.getConcurrency(),
+                runnable -> daemon(runnable, "product-batch-" + threadNumber.incrementAndGet()));
+    }
+
+    /**
+     * Queue one lookup.
+     *
+     * @param id Product ID to fetch.
+     * @return Future of the product, empty when it does not exist.
+     */
+    public CompletableFuture<Optional<Product>> load(Long id) {
+        CompletableFuture<Optional<Product>> future = new CompletableFuture<>();
+        List<PendingLoad> fullBatch;
+        synchronized (lock) {
+            fullBatch = enqueue(new PendingLoad(id, future));
+        }
+        if (fullBatch != null) {
+            batchExecutor.execute(() -> loadBatch(fullBatch));
+        }
+        return future;
+    }
+
+    /**
+     * Queue the lookups of one request and wait for them; they may share batches with other requests.
+     *
+     * @param ids Product IDs to fetch.
+     * @return List of Optional<Product> in the order of the requested IDs.
+     */
+    public List<Optional<Product>> loadAll(List<Long> ids) throws CustomException {
+        List<CompletableFuture<Optional<Product>>> futures = new ArrayList<>(ids.size());
+        List<List<PendingLoad>> fullBatches = new ArrayList<>();
+        synchronized (lock) {
+            for (Long id : ids) {
+                CompletableFuture<Optional<Product>> future = new CompletableFuture<>();
+                futures.add(future);
+                List<PendingLoad> fullBatch = enqueue(new PendingLoad(id, future));
+                if (fullBatch != null) {
+                    fullBatches.add(fullBatch);
+                }
+            }
+        }
+        fullBatches.forEach(batch -> batchExecutor.execute(() -> loadBatch(batch)));
+
+        List<Optional<Product>> products = new ArrayList<>(ids.size());
+        try {
+            for (CompletableFuture<Optional<Product>> future : futures) {
+                products.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomException(e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof CustomException customException ? customException : new CustomException(e);
+        }
+        return products;
+    }
+
+    /**
+     * Add a lookup to the pending batch; must hold {@link #lock}.
+     *
+     * @return The batch to load now when it just became full, otherwise null.
+     */
+    private List<PendingLoad> enqueue(PendingLoad load) {
+        pending.add(load);
+        if (pending.size() >= maxBatchSize) {
+            return takePending();
+        }
+        if (pending.size() == 1) {
+            scheduledDispatch = timer.schedule(this::dispatchPending, windowNanos, TimeUnit.NANOSECONDS);
+        }
+        return null;
+    }
+
+    // must hold lock
+    private List<PendingLoad> takePending() {
+        if (scheduledDispatch != null) {
+            scheduledDispatch.cancel(false);
+            scheduledDispatch = null;
+        }
+        List<PendingLoad> batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    private void dispatchPending() {
+        List<PendingLoad> batch;
+        synchronized (lock) {
+            // a full batch may have been taken since this was scheduled
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            batchExecutor.execute(() -> loadBatch(batch));
+        }
+    }
+
+    private void loadBatch(List<PendingLoad> batch) {
+        try {
+            Set<Long> ids = new LinkedHashSet<>();
+            batch.forEach(load -> ids.add(load.id()));
+            Map<Long, Product> products = new HashMap<>(productCacheOperations.getAll(ids));
+            List<Long> missedIds = ids.stream().filter(id -> !products.containsKey(id)).toList();
+            if (!missedIds.isEmpty()) {
+                Map<Long, Product> loadedProducts = findAllByIds(missedIds);
+                productCacheOperations.putAll(loadedProducts.values());
+                products.putAll(loadedProducts);
+            }
+            batch.forEach(load -> load.future().complete(Optional.ofNullable(products.get(load.id()))));
+        } catch (Exception e) {
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+            CustomException failure = e instanceof CustomException customException ? customException : new CustomException(e);
+            batch.forEach(load -> load.future().completeExceptionally(failure));
+        }
+    }
+
+    private Map<Long, Product> findAllByIds(List<Long> ids) throws CustomException {
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.DATABASE, "findAllByIds");
+        try {
+            if (shardedProductStore != null) {
+                return shardedProductStore.findAllByIds(ids);
+            }
+            // read-only, so a replica can serve it
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            Map<Long, Product> products = new HashMap<>();
+            readOnly.executeWithoutResult(status -> productRepository.findAllById(ids)
+                    .forEach(product -> products.put(product.getId(), product)));
+            return products;
+        } finally {
+            ProductStages.end(stage);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        timer.shutdownNow();
+        batchExecutor.shutdown();
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
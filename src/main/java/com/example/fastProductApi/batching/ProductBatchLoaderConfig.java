@@ -0,0 +1,17 @@
+package com.example.fastProductApi.batching;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "product.batch-loader", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ProductBatchLoaderProperties.class)
+public class ProductBatchLoaderConfig {
+
+    @Bean
+    public ProductBatchLoader productBatchLoader(ProductBatchLoaderProperties properties) {
+        return new ProductBatchLoader(properties);
+    }
+}
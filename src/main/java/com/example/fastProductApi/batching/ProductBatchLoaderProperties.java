@@ -0,0 +1,52 @@
+package com.example.fastProductApi.batching;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for collecting product lookups of concurrent requests into shared batches.
+ */
+@ConfigurationProperties(prefix = "product.batch-loader")
+public class ProductBatchLoaderProperties {
+
+    private boolean enabled;
+    // how long the first lookup of a batch waits for others to join
+    private Duration window = Duration.ofMillis(2);
+    // a batch is loaded right away once it has this many lookups
+    private int maxBatchSize = 100;
+    // batches loaded at the same time
+    private int concurrency = 4;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.fastProductApi.bulkhead;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Routes read-only transactions to the read pool and everything else to the write pool, both on the same
+ * database, so bulk writes holding every write connection never make reads wait for one. Must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the lookup happens once the
+ * transaction's read-only flag is known.
+ */
+public class BulkheadRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String READ = "read";
+    static final String WRITE = "write";
+
+    private final DataSource readPool;
+    private final DataSource writePool;
+
+    public BulkheadRoutingDataSource(DataSource readPool, DataSource writePool) {
+        this.readPool = readPool;
+        this.writePool = writePool;
+        setTargetDataSources(Map.of(READ, readPool, WRITE, writePool));
+        setDefaultTargetDataSource(writePool);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? READ : WRITE;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource dataSource : new DataSource[]{readPool, writePool}) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.fastProductApi.bulkhead;
+
+import java.time.Duration;
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Work queue of a bulkhead executor that dispatches fairly between requests instead of in arrival order, so a
+ * five-ID lookup does not wait behind every task of a 50,000-item upload.
+ * <p>
+ * Every submitting thread is a flow, which is one request while it fans out its tasks. Flows share the workers by
+ * start-time fair queuing: a task is tagged {@code start = max(virtualTime, finish of the flow's previous task)}
+ * and {@code finish = start + 1 / weight}, and the task with the lowest start tag runs next. A flow that has
+ * submitted at most {@code interactiveTasks} tasks has weight {@code interactiveWeight}, larger flows weight 1, so
+ * small requests go first while large ones keep progressing. As a bound for the weighted share, the oldest task
+ * is dispatched regardless of its tag once it has waited {@code maxWait}.
+ * <p>
+ * Holds at most {@code capacity} tasks; {@link #offer} returns false beyond that, which makes the executor apply
+ * its rejection policy.
+ */
+class FairTaskQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    private static final class Flow {
+        double lastFinish;
+        int queued;
+        int submitted;
+    }
+
+    private static final class Task {
+        final Runnable runnable;
+        final Flow flow;
+        final double start;
+        final long sequence;
+        final long enqueuedAt;
+        boolean taken;
+
+        Task(Runnable runnable, Flow flow, double start, long sequence, long enqueuedAt) {
+            this.runnable = runnable;
+            this.flow = flow;
+            this.start = start;
+            this.sequence = sequence;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    private final int capacity;
+    private final int interactiveTasks;
+    private final double interactiveWeight;
+    private final long maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Map<Thread, Flow> flows = new HashMap<>();
+    // both hold every queued task; taken tasks are skipped lazily when they reach the head
+    private final PriorityQueue<Task> byStart = new PriorityQueue<>(
+            Comparator.comparingDouble((Task task) -> task.start).thenComparingLong(task -> task.sequence));
+    private final ArrayDeque<Task> byArrival = new ArrayDeque<>();
+    private double virtualTime;
+    private long nextSequence;
+    private int count;
+
+    FairTaskQueue(int capacity, int interactiveTasks, double interactiveWeight, Duration maxWait) {
+        this.capacity = capacity;
+        this.interactiveTasks = interactiveTasks;
+        this.interactiveWeight = interactiveWeight;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Override
+    public boolean offer(Runnable runnable) {
+        if (runnable == null) {
+            throw new NullPointerException();
+        }
+        lock.lock();
+        try {
+            if (count >= capacity) {
+                return false;
+            }
+            Flow flow = flows.computeIfAbsent(Thread.currentThread(), thread -> new Flow());
+            flow.submitted++;
+            flow.queued++;
+            double weight = flow.submitted <= interactiveTasks ? interactiveWeight : 1;
+            double start = Math.max(virtualTime, flow.lastFinish);
+            flow.lastFinish = start + 1 / weight;
+            Task task = new Task(runnable, flow, start, nextSequence++, System.nanoTime());
+            byStart.add(task);
+            byArrival.add(task);
+            count++;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable runnable, long timeout, TimeUnit unit) {
+        return offer(runnable);
+    }
+
+    @Override
+    public void put(Runnable runnable) {
+        offer(runnable);
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll() {
+        lock.lock();
+        try {
+            return count == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable peek() {
+        lock.lock();
+        try {
+            return count == 0 ? null : next(false).runnable;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return capacity - count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object runnable) {
+        lock.lock();
+        try {
+            for (Task task : byArrival) {
+                if (!task.taken && task.runnable.equals(runnable)) {
+                    take(task);
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> target) {
+        return drainTo(target, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> target, int maxElements) {
+        lock.lock();
+        try {
+            int drained = 0;
+            while (count > 0 && drained < maxElements) {
+                target.add(dequeue());
+                drained++;
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // a snapshot in arrival order; remove() takes the task out of the queue
+    @Override
+    public Iterator<Runnable> iterator() {
+        List<Runnable> snapshot = new ArrayList<>();
+        lock.lock();
+        try {
+            byArrival.stream().filter(task -> !task.taken).forEach(task -> snapshot.add(task.runnable));
+        } finally {
+            lock.unlock();
+        }
+        Iterator<Runnable> iterator = snapshot.iterator();
+        return new Iterator<>() {
+            private Runnable last;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Runnable next() {
+                last = iterator.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                FairTaskQueue.this.remove(last);
+            }
+        };
+    }
+
+    // called with the lock held and count > 0
+    private Runnable dequeue() {
+        Task task = next(true);
+        virtualTime = Math.max(virtualTime, task.start);
+        take(task);
+        return task.runnable;
+    }
+
+    private Task next(boolean dispatch) {
+        skipTaken();
+        Task oldest = byArrival.peekFirst();
+        if (dispatch && System.nanoTime() - oldest.enqueuedAt >= maxWaitNanos) {
+            return oldest;
+        }
+        return byStart.peek();
+    }
+
+    private void take(Task task) {
+        task.taken = true;
+        count--;
+        if (--task.flow.queued == 0) {
+            // the request has no task waiting any more; its thread starts a new flow with the next request
+            flows.values().remove(task.flow);
+        }
+        skipTaken();
+    }
+
+    private void skipTaken() {
+        while (!byStart.isEmpty() && byStart.peek().taken) {
+            byStart.poll();
+        }
+        while (!byArrival.isEmpty() && byArrival.peekFirst().taken) {
+            byArrival.pollFirst();
+        }
+    }
+}
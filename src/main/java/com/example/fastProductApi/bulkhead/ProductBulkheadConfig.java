@@ -0,0 +1,70 @@
+package com.example.fastProductApi.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(ProductBulkheadProperties.class)
+public class ProductBulkheadConfig {
+
+    @Bean
+    public ProductBulkheads productBulkheads(ProductBulkheadProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        ProductBulkheads bulkheads = new ProductBulkheads(properties);
+        meterRegistry.ifAvailable(bulkheads::bindTo);
+        return bulkheads;
+    }
+
+    /**
+     * Replaces the single {@code spring.datasource} pool with a read pool and a write pool on the same database.
+     * Replica routing and sharding bring their own pools, so they cannot be combined with it.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "product.bulkhead", name = "separate-pools", havingValue = "true")
+    static class SeparatePoolsConfig {
+
+        @Bean
+        public BulkheadRoutingDataSource bulkheadRoutingDataSource(DataSourceProperties dataSourceProperties, ProductBulkheadProperties properties,
+                                                                   ObjectProvider<MeterRegistry> meterRegistry, Environment environment) {
+            for (String conflicting : new String[]{"product.datasource.routing.enabled", "product.sharding.enabled"}) {
+                if (environment.getProperty(conflicting, Boolean.class, false)) {
+                    throw new IllegalStateException("product.bulkhead.separate-pools cannot be combined with " + conflicting);
+                }
+            }
+            HikariDataSource readPool = pool(dataSourceProperties, environment, "read", properties.getRead(), meterRegistry);
+            readPool.setReadOnly(true);
+            HikariDataSource writePool = pool(dataSourceProperties, environment, "write", properties.getWrite(), meterRegistry);
+            return new BulkheadRoutingDataSource(readPool, writePool);
+        }
+
+        // lazy proxy defers the physical connection until the first statement, after the read-only flag is set
+        @Bean
+        @Primary
+        public DataSource dataSource(BulkheadRoutingDataSource bulkheadRoutingDataSource) {
+            return new LazyConnectionDataSourceProxy(bulkheadRoutingDataSource);
+        }
+
+        // spring.datasource.hikari settings apply to both pools; hikaricp.connections.* metrics are tagged with the pool name
+        private static HikariDataSource pool(DataSourceProperties dataSourceProperties, Environment environment, String name,
+                                             ProductBulkheadProperties.Compartment compartment, ObjectProvider<MeterRegistry> meterRegistry) {
+            HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+            dataSource.setPoolName(name);
+            dataSource.setMaximumPoolSize(compartment.getConnections());
+            meterRegistry.ifAvailable(dataSource::setMetricRegistry);
+            return dataSource;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.fastProductApi.bulkhead;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Sizes of the read and write bulkheads: the executors bulk requests fan out on and, with
+ * {@code separate-pools=true}, the connection pools their transactions use.
+ */
+@ConfigurationProperties(prefix = "product.bulkhead")
+public class ProductBulkheadProperties {
+
+    private Compartment read = new Compartment(10, 10000, 6);
+    private Compartment write = new Compartment(4, 1000, 4);
+    // split the spring.datasource pool into a read pool and a write pool; single database only, not with routing or sharding
+    private boolean separatePools;
+    private Scheduling scheduling = new Scheduling();
+
+    public Compartment getRead() {
+        return read;
+    }
+
+    public void setRead(Compartment read) {
+        this.read = read;
+    }
+
+    public Compartment getWrite() {
+        return write;
+    }
+
+    public void setWrite(Compartment write) {
+        this.write = write;
+    }
+
+    public boolean isSeparatePools() {
+        return separatePools;
+    }
+
+    public void setSeparatePools(boolean separatePools) {
+        this.separatePools = separatePools;
+    }
+
+    public Scheduling getScheduling() {
+        return scheduling;
+    }
+
+    public void setScheduling(Scheduling scheduling) {
+        this.scheduling = scheduling;
+    }
+
+    public static class Scheduling {
+        // share the workers fairly between requests; false dispatches in arrival order
+        private boolean fair = true;
+        // a request that has submitted at most this many tasks counts as interactive
+        private int interactiveTasks = 100;
+        // share of an interactive request relative to a large one
+        private double interactiveWeight = 8;
+        // a task that has waited this long runs next, whatever its request
+        private Duration maxWait = Duration.ofSeconds(1);
+
+        public boolean isFair() {
+            return fair;
+        }
+
+        public void setFair(boolean fair) {
+            this.fair = fair;
+        }
+
+        public int getInteractiveTasks() {
+            return interactiveTasks;
+        }
+
+        public void setInteractiveTasks(int interactiveTasks) {
+            this.interactiveTasks = interactiveTasks;
+        }
+
+        public double getInteractiveWeight() {
+            return interactiveWeight;
+        }
+
+        public void setInteractiveWeight(double interactiveWeight) {
+            this.interactiveWeight = interactiveWeight;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+
+    public static class Compartment {
+        private int threads;
+        // tasks beyond this are run by the submitting request thread, which slows down only that caller
+        private int queueCapacity;
+        // connections of the compartment's pool when separate-pools=true
+        private int connections;
+
+        public Compartment() {
+        }
+
+        public Compartment(int threads, int queueCapacity, int connections) {
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+            this.connections = connections;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getConnections() {
+            return connections;
+        }
+
+        public void setConnections(int connections) {
+            this.connections = connections;
+        }
+    }
+}
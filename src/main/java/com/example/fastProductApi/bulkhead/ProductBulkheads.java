@@ -0,0 +1,101 @@
+package com.example.fastProductApi.bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Separate executors for the fan-out of bulk reads and bulk writes, so a large upload queues behind its own
+ * threads while {@code getProductByIds} keeps its own. Each executor has a bounded queue; when it is full the
+ * submitting request thread runs the task itself, which slows down that request instead of the other compartment.
+ * <p>
+ * Within a compartment, queued tasks are dispatched by {@link FairTaskQueue}: fairly between the requests that
+ * submitted them and small requests first, so a five-ID lookup does not wait for every task of an upload ahead of it.
+ * <p>
+ * The executors report {@code executor.*} metrics tagged {@code name=product.read} and {@code name=product.write}.
+ */
+public class ProductBulkheads implements DisposableBean {
+    static Logger log = LoggerFactory.getLogger(ProductBulkheads.class);
+
+    public static final String READ = "product.read";
+    public static final String WRITE = "product.write";
+
+    // unlike CallerRunsPolicy, rejects once shut down instead of discarding the task, which would leave its future pending
+    private static final RejectedExecutionHandler RUN_IN_CALLER = (task, executor) -> {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Bulkhead executor has been shut down");
+        }
+        task.run();
+    };
+
+    private final ThreadPoolExecutor readExecutor;
+    private final ThreadPoolExecutor writeExecutor;
+
+    public ProductBulkheads(ProductBulkheadProperties properties) {
+        this.readExecutor = newExecutor("product-read-", properties.getRead(), properties.getScheduling());
+        this.writeExecutor = newExecutor("product-write-", properties.getWrite(), properties.getScheduling());
+    }
+
+    /**
+     * For lookups by ID and other reads that fan out per item or per shard.
+     */
+    public ExecutorService reads() {
+        return readExecutor;
+    }
+
+    /**
+     * For saves, upserts and deletes that fan out per item, chunk or shard.
+     */
+    public ExecutorService writes() {
+        return writeExecutor;
+    }
+
+    public void bindTo(MeterRegistry meterRegistry) {
+        new ExecutorServiceMetrics(readExecutor, READ, Tags.empty()).bindTo(meterRegistry);
+        new ExecutorServiceMetrics(writeExecutor, WRITE, Tags.empty()).bindTo(meterRegistry);
+    }
+
+    // waits for running bulk requests to complete, as the shutdown hook of the single executor did
+    @Override
+    public void destroy() {
+        log.info("Commencing graceful bulkhead shutdown. Waiting for active requests to complete");
+        readExecutor.shutdown();
+        writeExecutor.shutdown();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            if (!(readExecutor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)
+                    && writeExecutor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS))) {
+                readExecutor.shutdownNow();
+                writeExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            readExecutor.shutdownNow();
+            writeExecutor.shutdownNow();
+        }
+    }
+
+    private static ThreadPoolExecutor newExecutor(String threadPrefix, ProductBulkheadProperties.Compartment compartment,
+                                                  ProductBulkheadProperties.Scheduling scheduling) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        BlockingQueue<Runnable> queue = scheduling.isFair()
+                ? new FairTaskQueue(compartment.getQueueCapacity(), scheduling.getInteractiveTasks(),
+                        scheduling.getInteractiveWeight(), scheduling.getMaxWait())
+                : new ArrayBlockingQueue<>(compartment.getQueueCapacity());
+        return new ThreadPoolExecutor(compartment.getThreads(), compartment.getThreads(), 0L, TimeUnit.MILLISECONDS, queue,
+                runnable -> new Thread(runnable, threadPrefix + threadNumber.incrementAndGet()),
+                RUN_IN_CALLER);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.fastProductApi.cache;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.format.support.DefaultFormattingConversionService;
+
+import java.util.Collection;
+
+/**
+ * Declares the Redis cache defaults as a bean, built from {@code spring.cache.redis.*} the same way Spring Boot
+ * does, so that {@link ProductCacheOperations} can write {@code products} entries in a pipeline with exactly the
+ * keys, serialization and TTL of the {@code RedisCacheManager}. With {@code product.cache.hash-layout=true} the
+ * {@code products} cache is a {@link ProductHashCache} instead. With {@code product.cache.cluster.hash-tag-span}
+ * set, product IDs become keys with a hash tag, e.g. {@code products::{4}42}, on every path alike.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+@EnableConfigurationProperties(CacheProperties.class)
+public class ProductCacheConfig {
+
+    @Bean
+    public RedisCacheConfiguration redisCacheConfiguration(CacheProperties cacheProperties, ResourceLoader resourceLoader,
+                                                           ObjectProvider<ProductClusterCacheProperties> clusterCacheProperties) {
+        CacheProperties.Redis redisProperties = cacheProperties.getRedis();
+        ClassLoader classLoader = resourceLoader.getClassLoader();
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig(classLoader)
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new JdkSerializationRedisSerializer(classLoader)));
+        if (redisProperties.getTimeToLive() != null) {
+            config = config.entryTtl(redisProperties.getTimeToLive());
+        }
+        if (redisProperties.getKeyPrefix() != null) {
+            config = config.prefixCacheNameWith(redisProperties.getKeyPrefix());
+        }
+        if (!redisProperties.isCacheNullValues()) {
+            config = config.disableCachingNullValues();
+        }
+        if (!redisProperties.isUseKeyPrefix()) {
+            config = config.disableKeyPrefix();
+        }
+        ProductClusterCacheProperties clusterProperties = clusterCacheProperties.getIfAvailable();
+        if (clusterProperties != null && clusterProperties.getHashTagSpan() > 0) {
+            config = config.withConversionService(hashTaggingConversionService(clusterProperties.getHashTagSpan()));
+        }
+        return config;
+    }
+
+    // Long keys as {id / span}id, so that Redis Cluster hashes only the block number and neighbouring IDs share a slot;
+    // also used by the reactive module, so that both stacks agree on the keys
+    public static ConversionService hashTaggingConversionService(int span) {
+        DefaultFormattingConversionService conversionService = new DefaultFormattingConversionService();
+        RedisCacheConfiguration.registerDefaultConverters(conversionService);
+        conversionService.addConverter(Long.class, String.class, id -> "{" + Math.floorDiv(id, span) + "}" + id);
+        return conversionService;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "product.cache", name = "hash-layout", havingValue = "true")
+    public ProductHashCache productHashCache(RedisConnectionFactory redisConnectionFactory, RedisCacheConfiguration redisCacheConfiguration) {
+        return new ProductHashCache(redisConnectionFactory, redisCacheConfiguration);
+    }
+
+    /**
+     * Serve the {@code products} cache from {@link ProductHashCache}. Runs before the other cache manager
+     * post-processors, so their wrappers (snapshot, stage timing) end up around the hash cache.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "product.cache", name = "hash-layout", havingValue = "true")
+    public static BeanPostProcessor productHashCacheManager(ObjectProvider<ProductHashCache> productHashCache) {
+        return new HashCacheManagerPostProcessor(productHashCache);
+    }
+
+    private record HashCacheManagerPostProcessor(ObjectProvider<ProductHashCache> productHashCache)
+            implements BeanPostProcessor, PriorityOrdered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof CacheManager cacheManager)) {
+                return bean;
+            }
+            return new CacheManager() {
+                @Override
+                public Cache getCache(String name) {
+                    return ProductCacheOperations.PRODUCTS_CACHE.equals(name)
+                            ? productHashCache.getObject()
+                            : cacheManager.getCache(name);
+                }
+
+                @Override
+                public Collection<String> getCacheNames() {
+                    return cacheManager.getCacheNames();
+                }
+            };
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.fastProductApi.cache;
+
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.jfr.ProductStageEvent;
+import com.example.fastProductApi.jfr.ProductStages;
+import com.example.fastProductApi.projection.ProductField;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Multi-key access to the {@code products} cache for bulk paths that bypass the
+ * {@code @Cacheable}/{@code @CachePut}/{@code @CacheEvict} methods of {@code ProductServiceForBasicCrud}.
+ * Entries use the same keys and values as those annotations. The other caches keyed by product ID
+ * ({@code productVersions}, {@code productFragments}) use the same multi-key paths.
+ */
+@Component
+public class ProductCacheOperations {
+
+    public static final String PRODUCTS_CACHE = "products";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // only present with spring.cache.type=redis, see ProductCacheConfig
+    @Autowired(required = false)
+    private RedisCacheConfiguration redisCacheConfiguration;
+
+    @Autowired(required = false)
+    private RedisConnectionFactory redisConnectionFactory;
+
+    // only present with product.cache.hash-layout=true, see ProductCacheConfig
+    @Autowired(required = false)
+    private ProductHashCache productHashCache;
+
+    // only present when product.cache.cluster.enabled=true
+    @Autowired(required = false)
+    private ProductClusterCache productClusterCache;
+
+    /**
+     * Look up products; on Redis with one {@code MGET} round trip, read with the cache's own key prefix and
+     * serializer. On Redis Cluster one {@code MGET} per slot, on the hash layout one read per product.
+     *
+     * @param ids Product IDs to look up.
+     * @return Cached products by ID; misses are absent from the map.
+     */
+    public Map<Long, Product> getAll(Collection<Long> ids) {
+        if (productClusterCache != null) {
+            return productClusterCache.getAll(ids);
+        }
+        if (productHashCache == null && redisCacheConfiguration != null && redisConnectionFactory != null && ids.size() > 1) {
+            return getAllMultiKey(PRODUCTS_CACHE, redisCacheConfiguration, ids, Product.class);
+        }
+        Cache cache = productsCache();
+        Map<Long, Product> products = new HashMap<>();
+        for (Long id : ids) {
+            Product product = cache.get(id, Product.class);
+            if (product != null) {
+                products.put(id, product);
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Put the products into the cache; on Redis as one pipelined round trip of {@code SET}s, written with the
+     * cache's own key prefix, serializer and TTL. On the hash layout one pipelined hash write per product, on
+     * Redis Cluster one pipeline per node.
+     */
+    public void putAll(Collection<Product> products) {
+        if (productHashCache != null) {
+            productHashCache.putAll(products);
+            return;
+        }
+        if (productClusterCache != null) {
+            productClusterCache.putAll(products);
+            return;
+        }
+        if (redisCacheConfiguration != null && redisConnectionFactory != null && products.size() > 1) {
+            Map<Long, Product> values = new LinkedHashMap<>();
+            for (Product product : products) {
+                values.put(product.getId(), product);
+            }
+            putAllPipelined(PRODUCTS_CACHE, redisCacheConfiguration, values, false);
+            return;
+        }
+        Cache cache = productsCache();
+        for (Product product : products) {
+            cache.put(product.getId(), product);
+        }
+    }
+
+    /**
+     * Bring the entries of patched products up to date: on the hash layout by setting just the changed fields
+     * in place, otherwise by putting the whole products.
+     *
+     * @param products      Products as saved.
+     * @param changedFields Fields that changed, by product ID.
+     */
+    public void patchAll(Collection<Product> products, Map<Long, Set<ProductField>> changedFields) {
+        if (productHashCache != null) {
+            productHashCache.patchAll(products, changedFields);
+            return;
+        }
+        putAll(products);
+    }
+
+    public void evictAll(Collection<Long> ids) {
+        if (productClusterCache != null) {
+            productClusterCache.evictAll(ids);
+            return;
+        }
+        Cache cache = productsCache();
+        for (Long id : ids) {
+            cache.evict(id);
+        }
+    }
+
+    /**
+     * Look up entries of another cache keyed by product ID; on Redis with one {@code MGET} round trip as in
+     * {@link #getAll(Collection)}, on Redis Cluster and the other cache types one read per ID.
+     *
+     * @param cacheName          Name of the cache.
+     * @param cacheConfiguration Derives the cache's Redis configuration from the defaults, the way its
+     *                           {@code RedisCacheManagerBuilderCustomizer} does, if it has one.
+     * @param ids                Product IDs to look up.
+     * @param type               Type of the cached values.
+     * @return Cached values by ID; misses and cached nulls are absent from the map.
+     */
+    public <T> Map<Long, T> getAll(String cacheName, UnaryOperator<RedisCacheConfiguration> cacheConfiguration,
+                                   Collection<Long> ids, Class<T> type) {
+        if (productClusterCache == null && redisCacheConfiguration != null && redisConnectionFactory != null && ids.size() > 1) {
+            return getAllMultiKey(cacheName, cacheConfiguration.apply(redisCacheConfiguration), ids, type);
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        Map<Long, T> values = new HashMap<>();
+        for (Long id : ids) {
+            T value = cache.get(id, type);
+            if (value != null) {
+                values.put(id, value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Put entries into another cache keyed by product ID; on Redis as one pipelined round trip of {@code SET}s
+     * as in {@link #putAll(Collection)}, on Redis Cluster and the other cache types one write per ID.
+     *
+     * @param cacheName          Name of the cache.
+     * @param cacheConfiguration Derives the cache's Redis configuration from the defaults, see
+     *                           {@link #getAll(String, UnaryOperator, Collection, Class)}.
+     * @param values             Values by product ID.
+     * @param ifAbsent           Keep existing entries, as {@link Cache#putIfAbsent}; on Redis {@code SET NX} with the TTL.
+     */
+    public void putAll(String cacheName, UnaryOperator<RedisCacheConfiguration> cacheConfiguration,
+                       Map<Long, ?> values, boolean ifAbsent) {
+        if (productClusterCache == null && redisCacheConfiguration != null && redisConnectionFactory != null && values.size() > 1) {
+            putAllPipelined(cacheName, cacheConfiguration.apply(redisCacheConfiguration), values, ifAbsent);
+            return;
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        values.forEach((id, value) -> {
+            if (ifAbsent) {
+                cache.putIfAbsent(id, value);
+            } else {
+                cache.put(id, value);
+            }
+        });
+    }
+
+    private <T> Map<Long, T> getAllMultiKey(String cacheName, RedisCacheConfiguration cacheConfiguration,
+                                            Collection<Long> ids, Class<T> type) {
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.CACHE, cacheName + ".getAll");
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        byte[][] keys = new byte[distinctIds.size()][];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = cacheKey(cacheConfiguration, cacheName, distinctIds.get(i));
+        }
+        Map<Long, T> entries = new HashMap<>();
+        try (RedisConnection connection = redisConnectionFactory.getConnection()) {
+            List<byte[]> values = connection.stringCommands().mGet(keys);
+            for (int i = 0; i < keys.length; i++) {
+                byte[] value = values == null ? null : values.get(i);
+                if (value == null) {
+                    continue;
+                }
+                // an empty Optional is cached as NullValue, a miss as for Cache.get(id, type)
+                Object entry = cacheConfiguration.getValueSerializationPair().read(ByteBuffer.wrap(value));
+                if (type.isInstance(entry)) {
+                    entries.put(distinctIds.get(i), type.cast(entry));
+                }
+            }
+        } finally {
+            ProductStages.end(stage);
+        }
+        return entries;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void putAllPipelined(String cacheName, RedisCacheConfiguration cacheConfiguration, Map<Long, ?> values, boolean ifAbsent) {
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.CACHE, cacheName + ".putAll");
+        RedisSerializationContext.SerializationPair<Object> valueSerializationPair =
+                (RedisSerializationContext.SerializationPair<Object>) cacheConfiguration.getValueSerializationPair();
+        try (RedisConnection connection = redisConnectionFactory.getConnection()) {
+            connection.openPipeline();
+            values.forEach((id, value) -> {
+                Duration ttl = cacheConfiguration.getTtlFunction().getTimeToLive(id, value);
+                connection.stringCommands().set(cacheKey(cacheConfiguration, cacheName, id),
+                        ByteUtils.getBytes(valueSerializationPair.write(value)),
+                        ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl),
+                        ifAbsent ? RedisStringCommands.SetOption.ifAbsent() : RedisStringCommands.SetOption.upsert());
+            });
+            connection.closePipeline();
+        } finally {
+            ProductStages.end(stage);
+        }
+    }
+
+    // same key as RedisCache.createCacheKey, e.g. products::42
+    static byte[] cacheKey(RedisCacheConfiguration redisCacheConfiguration, Long id) {
+        return cacheKey(redisCacheConfiguration, PRODUCTS_CACHE, id);
+    }
+
+    private static byte[] cacheKey(RedisCacheConfiguration redisCacheConfiguration, String cacheName, Long id) {
+        String key = redisCacheConfiguration.getConversionService().convert(id, String.class);
+        if (redisCacheConfiguration.usePrefix()) {
+            key = redisCacheConfiguration.getKeyPrefixFor(cacheName) + key;
+        }
+        return ByteUtils.getBytes(redisCacheConfiguration.getKeySerializationPair().write(key));
+    }
+
+    private Cache productsCache() {
+        return cacheManager.getCache(PRODUCTS_CACHE);
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.fastProductApi.cache;
+
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.jfr.ProductStageEvent;
+import com.example.fastProductApi.jfr.ProductStages;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisCommandInterruptedException;
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.SlotHash;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.lettuce.core.cluster.models.partitions.RedisClusterNode;
+import io.lettuce.core.codec.ByteArrayCodec;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Bulk reads, writes and evictions of {@code products} entries on Redis Cluster, where a multi-key command fails
+ * unless all its keys hash to one slot and a command per key costs a round trip per key.
+ * <p>
+ * Keys are grouped by the node that serves their slot and then by slot. Every node gets its commands on its own
+ * connection: one {@code MGET} or {@code DEL} per slot, or one {@code SET} per product. Commands are written
+ * without waiting for replies, so they are pipelined on each node and the nodes work in parallel. The replies are
+ * merged once all have arrived. With {@code hash-tag-span} set, neighbouring IDs share a slot, so a bulk request
+ * for a range of IDs needs one command per block of IDs instead of one per key.
+ * <p>
+ * A slot that has moved since the last topology refresh is answered with {@code MOVED}. Its batch is then sent
+ * again through the cluster connection, which follows the redirect.
+ * <p>
+ * The commands go over one cluster connection of the factory's Lettuce client, opened on first use and shared
+ * by all callers, since Spring's cluster connection does not hand out the Lettuce connection behind it.
+ */
+public class ProductClusterCache implements DisposableBean {
+
+    private final LettuceConnectionFactory connectionFactory;
+    private final RedisCacheConfiguration cacheConfiguration;
+    private volatile StatefulRedisClusterConnection<byte[], byte[]> connection;
+
+    public ProductClusterCache(LettuceConnectionFactory connectionFactory, RedisCacheConfiguration cacheConfiguration) {
+        this.connectionFactory = connectionFactory;
+        this.cacheConfiguration = cacheConfiguration;
+    }
+
+    /**
+     * @return Cached products by ID; misses are absent from the map.
+     */
+    public Map<Long, Product> getAll(Collection<Long> ids) {
+        Map<Long, Product> products = new HashMap<>();
+        execute(ProductCacheOperations.PRODUCTS_CACHE + ".getAll", ids, (commands, slotIds) -> {
+            byte[][] keys = slotIds.stream().map(this::cacheKey).toArray(byte[][]::new);
+            return List.of(commands.mget(keys));
+        }).forEach((slotIds, replies) -> {
+            @SuppressWarnings("unchecked")
+            List<KeyValue<byte[], byte[]>> values = (List<KeyValue<byte[], byte[]>>) replies.get(0);
+            for (int i = 0; i < slotIds.size(); i++) {
+                KeyValue<byte[], byte[]> value = values.get(i);
+                if (value.hasValue() && cacheConfiguration.getValueSerializationPair().read(ByteBuffer.wrap(value.getValue())) instanceof Product product) {
+                    products.put(slotIds.get(i), product);
+                }
+            }
+        });
+        return products;
+    }
+
+    /**
+     * Write the products with the cache's own keys, serializer and TTL.
+     */
+    public void putAll(Collection<Product> products) {
+        Map<Long, Product> productsById = new LinkedHashMap<>();
+        products.forEach(product -> productsById.put(product.getId(), product));
+        execute(ProductCacheOperations.PRODUCTS_CACHE + ".putAll", productsById.keySet(), (commands, slotIds) -> {
+            List<RedisFuture<?>> futures = new ArrayList<>(slotIds.size());
+            for (Long id : slotIds) {
+                Product product = productsById.get(id);
+                byte[] value = ByteUtils.getBytes(cacheConfiguration.getValueSerializationPair().write(product));
+                Duration ttl = cacheConfiguration.getTtlFunction().getTimeToLive(id, product);
+                futures.add(ttl.isZero() || ttl.isNegative()
+                        ? commands.set(cacheKey(id), value)
+                        : commands.set(cacheKey(id), value, SetArgs.Builder.px(ttl)));
+            }
+            return futures;
+        });
+    }
+
+    public void evictAll(Collection<Long> ids) {
+        execute(ProductCacheOperations.PRODUCTS_CACHE + ".evictAll", ids, (commands, slotIds) ->
+                List.of(commands.del(slotIds.stream().map(this::cacheKey).toArray(byte[][]::new))));
+    }
+
+    /**
+     * Send each slot's batch to its node and wait for all replies.
+     *
+     * @param batch Commands for the IDs of one slot, all of which must be keyed in that slot.
+     * @return Replies of every batch, by the IDs of its slot.
+     */
+    private Map<List<Long>, List<Object>> execute(String operation, Collection<Long> ids,
+                                                  BiFunction<RedisClusterAsyncCommands<byte[], byte[]>, List<Long>, List<RedisFuture<?>>> batch) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.CACHE, operation);
+        try {
+            StatefulRedisClusterConnection<byte[], byte[]> connection = connection();
+            Map<List<Long>, List<RedisFuture<?>>> pending = new LinkedHashMap<>();
+            groupByNode(connection, ids).forEach((node, slots) -> {
+                RedisAsyncCommands<byte[], byte[]> nodeCommands = connection.getConnection(node.getNodeId()).async();
+                slots.values().forEach(slotIds -> pending.put(slotIds, batch.apply(nodeCommands, slotIds)));
+            });
+            awaitDone(connection.getTimeout(), pending.values());
+
+            Map<List<Long>, List<Object>> replies = new LinkedHashMap<>();
+            for (Map.Entry<List<Long>, List<RedisFuture<?>>> entry : pending.entrySet()) {
+                replies.put(entry.getKey(), isRedirected(entry.getValue())
+                        ? await(connection, batch.apply(connection.async(), entry.getKey()))
+                        : await(connection, entry.getValue()));
+            }
+            return replies;
+        } finally {
+            ProductStages.end(stage);
+        }
+    }
+
+    private StatefulRedisClusterConnection<byte[], byte[]> connection() {
+        StatefulRedisClusterConnection<byte[], byte[]> current = connection;
+        if (current == null) {
+            synchronized (this) {
+                current = connection;
+                if (current == null) {
+                    if (!(connectionFactory.getRequiredNativeClient() instanceof RedisClusterClient client)) {
+                        throw new IllegalStateException("product.cache.cluster needs spring.data.redis.cluster.nodes");
+                    }
+                    current = client.connect(ByteArrayCodec.INSTANCE);
+                    current.setTimeout(connectionFactory.getClientConfiguration().getCommandTimeout());
+                    connection = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (connection != null) {
+            connection.close();
+            connection = null;
+        }
+    }
+
+    // slots in ascending order within each node, IDs in request order within each slot
+    private Map<RedisClusterNode, Map<Integer, List<Long>>> groupByNode(StatefulRedisClusterConnection<byte[], byte[]> connection, Collection<Long> ids) {
+        Map<RedisClusterNode, Map<Integer, List<Long>>> nodes = new LinkedHashMap<>();
+        ids.stream().distinct().forEach(id -> {
+            int slot = SlotHash.getSlot(cacheKey(id));
+            RedisClusterNode node = connection.getPartitions().getPartitionBySlot(slot);
+            if (node == null) {
+                throw new IllegalStateException("No Redis Cluster node serves slot " + slot);
+            }
+            nodes.computeIfAbsent(node, n -> new TreeMap<>()).computeIfAbsent(slot, s -> new ArrayList<>()).add(id);
+        });
+        return nodes;
+    }
+
+    // errors are left in the futures, so that redirected batches can be told apart and sent again
+    private static void awaitDone(Duration timeout, Collection<List<RedisFuture<?>>> batches) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            for (List<RedisFuture<?>> futures : batches) {
+                for (RedisFuture<?> future : futures) {
+                    if (!future.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                        throw new RedisCommandTimeoutException("Bulk cache command timed out after " + timeout);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisCommandInterruptedException(e);
+        }
+    }
+
+    private static boolean isRedirected(List<RedisFuture<?>> futures) {
+        return futures.stream().anyMatch(future -> future.getError() != null
+                && (future.getError().startsWith("MOVED") || future.getError().startsWith("ASK")));
+    }
+
+    private static List<Object> await(StatefulRedisClusterConnection<byte[], byte[]> connection, List<RedisFuture<?>> futures) {
+        List<Object> replies = new ArrayList<>(futures.size());
+        for (RedisFuture<?> future : futures) {
+            replies.add(LettuceFutures.awaitOrCancel(future, connection.getTimeout().toNanos(), TimeUnit.NANOSECONDS));
+        }
+        return replies;
+    }
+
+    private byte[] cacheKey(Long id) {
+        return ProductCacheOperations.cacheKey(cacheConfiguration, id);
+    }
+}
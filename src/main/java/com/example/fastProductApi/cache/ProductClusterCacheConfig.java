@@ -0,0 +1,25 @@
+package com.example.fastProductApi.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+@Configuration
+@ConditionalOnProperty(prefix = "product.cache.cluster", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ProductClusterCacheProperties.class)
+public class ProductClusterCacheConfig {
+
+    // the hash layout pipelines on a single connection, which Redis Cluster does not offer
+    @Bean
+    public ProductClusterCache productClusterCache(LettuceConnectionFactory redisConnectionFactory, RedisCacheConfiguration redisCacheConfiguration,
+                                                   Environment environment) {
+        if (environment.getProperty("product.cache.hash-layout", Boolean.class, false)) {
+            throw new IllegalStateException("product.cache.cluster cannot be combined with product.cache.hash-layout");
+        }
+        return new ProductClusterCache(redisConnectionFactory, redisCacheConfiguration);
+    }
+}
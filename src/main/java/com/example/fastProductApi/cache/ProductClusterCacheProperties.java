@@ -0,0 +1,31 @@
+package com.example.fastProductApi.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Bulk access to the {@code products} cache on Redis Cluster.
+ */
+@ConfigurationProperties(prefix = "product.cache.cluster")
+public class ProductClusterCacheProperties {
+
+    // group the keys of bulk reads, writes and evictions by node and slot; needs spring.data.redis.cluster.nodes
+    private boolean enabled;
+    // IDs in the same block of this many share a hash tag, e.g. products::{4}42 for 10, and so a slot; 0 for no tags
+    private int hashTagSpan;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getHashTagSpan() {
+        return hashTagSpan;
+    }
+
+    public void setHashTagSpan(int hashTagSpan) {
+        this.hashTagSpan = hashTagSpan;
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.fastProductApi.cache;
+
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.jfr.ProductStageEvent;
+import com.example.fastProductApi.jfr.ProductStages;
+import com.example.fastProductApi.projection.ProductField;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@code products} cache that keeps each product as a Redis hash with one field per {@link ProductField}
+ * ({@code id}, {@code name}, {@code price}, ...) instead of one serialized value, so that a patch rewrites only
+ * the changed fields with {@code HSET} instead of replacing or evicting the entry.
+ * <p>
+ * Keys carry the prefix of a cache named {@value #KEY_PREFIX_CACHE}, e.g. {@code productHashes::42}, so entries
+ * written in the serialized layout before switching are never read as hashes. TTL and key prefix come from the
+ * Redis cache defaults. A hash without an {@code id} field is a miss: a patch that races an eviction leaves only
+ * the patched fields behind, which expire with the TTL or are replaced by the next full put. Nulls are not cached.
+ */
+public class ProductHashCache implements Cache {
+
+    static final String KEY_PREFIX_CACHE = "productHashes";
+
+    private static final Map<String, ProductField> FIELDS_BY_PROPERTY = Arrays.stream(ProductField.values())
+            .collect(Collectors.toMap(ProductField::getProperty, Function.identity()));
+
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisCacheConfiguration cacheConfiguration;
+
+    public ProductHashCache(RedisConnectionFactory connectionFactory, RedisCacheConfiguration cacheConfiguration) {
+        this.connectionFactory = connectionFactory;
+        this.cacheConfiguration = cacheConfiguration;
+    }
+
+    @Override
+    public String getName() {
+        return ProductCacheOperations.PRODUCTS_CACHE;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return connectionFactory;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Product product = lookup(key);
+        return product == null ? null : new SimpleValueWrapper(product);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        Product product = lookup(key);
+        if (product == null || type == null) {
+            return (T) product;
+        }
+        if (!type.isInstance(product)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + product);
+        }
+        return type.cast(product);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Product product = lookup(key);
+        if (product != null) {
+            return (T) product;
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        if (!(value instanceof Product product)) {
+            throw new IllegalArgumentException("Cache '" + getName() + "' only holds products, not " + value.getClass().getName());
+        }
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            writeProduct(connection, key, product);
+            connection.closePipeline();
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = get(key);
+        if (existing == null) {
+            put(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictIfPresent(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            Long removed = connection.keyCommands().del(cacheKey(key));
+            return removed != null && removed > 0;
+        }
+    }
+
+    @Override
+    public void clear() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            Set<byte[]> keys = connection.keyCommands().keys(cacheKey("*"));
+            if (keys != null && !keys.isEmpty()) {
+                connection.keyCommands().del(keys.toArray(new byte[0][]));
+            }
+        }
+    }
+
+    /**
+     * Write whole products in one pipelined round trip; each replaces its hash, so no field of an older entry
+     * survives.
+     */
+    public void putAll(Collection<Product> products) {
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.CACHE, KEY_PREFIX_CACHE + ".putAll");
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            for (Product product : products) {
+                writeProduct(connection, product.getId(), product);
+            }
+            connection.closePipeline();
+        } finally {
+            ProductStages.end(stage);
+        }
+    }
+
+    /**
+     * Update cached products in place with one pipelined {@code HSET} per product of just the changed fields and
+     * {@code lastUpdatedAt}; the TTL starts over as on a put.
+     *
+     * @param products      Products as saved.
+     * @param changedFields Fields that changed, by product ID.
+     */
+    public void patchAll(Collection<Product> products, Map<Long, Set<ProductField>> changedFields) {
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.CACHE, KEY_PREFIX_CACHE + ".patchAll");
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            for (Product product : products) {
+                Set<ProductField> fields = EnumSet.of(ProductField.LAST_UPDATED_AT);
+                fields.addAll(changedFields.getOrDefault(product.getId(), Set.of()));
+                byte[] key = cacheKey(product.getId());
+                connection.hashCommands().hMSet(key, toHash(product, fields));
+                expire(connection, key, product);
+            }
+            connection.closePipeline();
+        } finally {
+            ProductStages.end(stage);
+        }
+    }
+
+    private Product lookup(Object key) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            return fromHash(connection.hashCommands().hGetAll(cacheKey(key)));
+        }
+    }
+
+    // must run in a pipeline, so that no reader sees the hash between DEL and HSET
+    private void writeProduct(RedisConnection connection, Object key, Product product) {
+        byte[] cacheKey = cacheKey(key);
+        connection.keyCommands().del(cacheKey);
+        connection.hashCommands().hMSet(cacheKey, toHash(product, EnumSet.allOf(ProductField.class)));
+        expire(connection, cacheKey, product);
+    }
+
+    private void expire(RedisConnection connection, byte[] key, Product product) {
+        Duration ttl = cacheConfiguration.getTtlFunction().getTimeToLive(product.getId(), product);
+        if (!ttl.isZero() && !ttl.isNegative()) {
+            connection.keyCommands().pExpire(key, ttl.toMillis());
+        }
+    }
+
+    // null fields are left out of the hash
+    private static Map<byte[], byte[]> toHash(Product product, Set<ProductField> fields) {
+        Map<byte[], byte[]> hash = new LinkedHashMap<>();
+        for (ProductField field : fields) {
+            Object value = field.read(product);
+            if (value != null) {
+                String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+                hash.put(field.getProperty().getBytes(StandardCharsets.UTF_8), text.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return hash;
+    }
+
+    private static Product fromHash(Map<byte[], byte[]> hash) {
+        if (hash == null || hash.isEmpty()) {
+            return null;
+        }
+        Map<ProductField, String> values = new HashMap<>();
+        hash.forEach((name, value) -> {
+            ProductField field = FIELDS_BY_PROPERTY.get(new String(name, StandardCharsets.UTF_8));
+            if (field != null) {
+                values.put(field, new String(value, StandardCharsets.UTF_8));
+            }
+        });
+        if (!values.containsKey(ProductField.ID)) {
+            return null;
+        }
+        Product product = new Product();
+        values.forEach((field, value) -> {
+            switch (field) {
+                case ID -> product.setId(Long.valueOf(value));
+                case NAME -> product.setName(value);
+                case DESCRIPTION -> product.setDescription(value);
+                case PRICE -> product.setPrice(new BigDecimal(value));
+                case STOCK -> product.setStock(Integer.valueOf(value));
+                case CREATED_AT -> product.setCreatedAt(LocalDateTime.parse(value));
+                case LAST_UPDATED_AT -> product.setLastUpdatedAt(LocalDateTime.parse(value));
+            }
+        });
+        return product;
+    }
+
+    // e.g. productHashes::42; always prefixed, even with spring.cache.redis.use-key-prefix=false
+    private byte[] cacheKey(Object key) {
+        String id = cacheConfiguration.getConversionService().convert(key, String.class);
+        return ByteUtils.getBytes(cacheConfiguration.getKeySerializationPair().write(cacheConfiguration.getKeyPrefixFor(KEY_PREFIX_CACHE) + id));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.fastProductApi.cache;
+
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.event.ProductChangeEvent;
+import com.example.fastProductApi.util.ConstantMessages;
+import com.example.fastProductApi.util.ProductETags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Small {@code productVersions} cache (product ID to {@link ProductETags#version(Product)}) that lets
+ * conditional reads be answered without loading or deserializing the products themselves.
+ * Writes replace the entry through {@link ProductChangeEvent}s once their transaction has committed; reads only
+ * fill in missing entries, so a read from a lagging replica cannot roll a version back.
+ * Bulk lookups and recordings go through {@link ProductCacheOperations}, on Redis one {@code MGET} and one
+ * pipeline of {@code SET NX} with the TTL.
+ */
+@Component
+public class ProductVersionCache {
+    static Logger log = LoggerFactory.getLogger(ProductVersionCache.class);
+
+    public static final String PRODUCT_VERSIONS_CACHE = "productVersions";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ProductCacheOperations productCacheOperations;
+
+    /**
+     * @param ids Product IDs to look up.
+     * @return Known versions by ID; unknown IDs are absent from the map.
+     */
+    public Map<Long, Long> getVersions(Collection<Long> ids) {
+        try {
+            return productCacheOperations.getAll(PRODUCT_VERSIONS_CACHE, UnaryOperator.identity(), ids, Long.class);
+        } catch (Exception e) {
+            // treat as unknown, the caller falls back to loading the products
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Remember the versions of products that have just been read.
+     */
+    public void recordAll(Collection<Product> products) {
+        Map<Long, Long> versions = new LinkedHashMap<>();
+        for (Product product : products) {
+            versions.put(product.getId(), ProductETags.version(product));
+        }
+        try {
+            productCacheOperations.putAll(PRODUCT_VERSIONS_CACHE, UnaryOperator.identity(), versions, true);
+        } catch (Exception e) {
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+        }
+    }
+
+    // after commit, so a rolled-back write changes nothing and a read before the commit cannot put the old version back
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        try {
+            if (event.type() == ProductChangeEvent.Type.DELETED) {
+                versionsCache().evict(event.productId());
+            } else {
+                versionsCache().put(event.productId(), ProductETags.version(event.product()));
+            }
+        } catch (Exception e) {
+            // the write itself has succeeded, so never fail (and retry) it because of this cache
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+        }
+    }
+
+    private Cache versionsCache() {
+        return cacheManager.getCache(PRODUCT_VERSIONS_CACHE);
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.fastProductApi.changefeed;
+
+import com.example.fastProductApi.dto.ProductChangeVo;
+import com.example.fastProductApi.event.ProductChangeEvent;
+import com.example.fastProductApi.util.ConstantMessages;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans product changes out to server-sent event streams. Every {@link ProductChangeEvent} is appended to an
+ * in-memory {@link ProductChangeRing} and each subscriber is sent what it has not seen yet, on a small pool of
+ * delivery threads, so writers never wait for clients.
+ * <p>
+ * Event IDs are {@code <stream>-<sequence>}, where the stream ID is random per process: a client that reconnects
+ * with {@code Last-Event-ID} resumes after that change when it comes back to the same process and the change is
+ * still buffered. Otherwise it first gets a {@code reset} event, meaning it may have missed changes and should
+ * reload what it caches. With a Redis channel configured, local changes are also published there and changes of
+ * other nodes are appended to the local ring, so every node streams every change.
+ */
+public class ProductChangeFeed implements MessageListener, DisposableBean {
+    static Logger log = LoggerFactory.getLogger(ProductChangeFeed.class);
+
+    static final String RESET_EVENT = "reset";
+
+    // changes relayed over Redis, tagged with the stream ID of the node they come from
+    record RelayedChange(String origin, ProductChangeVo change) {
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        // only touched by the delivery task, which never runs twice at the same time for a subscriber
+        long cursor;
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+
+    private static final int DELIVERY_BATCH = 256;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // only present when spring-data-redis is configured; used when product.change-feed.redis-channel is set
+    @Autowired(required = false)
+    private RedisConnectionFactory redisConnectionFactory;
+
+    private final String streamId = HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextInt());
+    private final ProductChangeRing ring;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final String redisChannel;
+    private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService deliveryExecutor;
+    private final ExecutorService relayExecutor;
+    private final ScheduledExecutorService heartbeat;
+
+    public ProductChangeFeed(ProductChangeFeedProperties properties) {
+        this.ring = new ProductChangeRing(properties.getBufferSize());
+        this.maxSubscribers = properties.getMaxSubscribers();
+        this.timeoutMillis = properties.getTimeout().toMillis();
+        this.redisChannel = properties.getRedisChannel();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.deliveryExecutor = Executors.newFixedThreadPool(properties.getDeliveryThreads(),
+                runnable -> daemon(runnable, "product-change-feed-" + threadNumber.incrementAndGet()));
+        // one thread keeps the published order
+        this.relayExecutor = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "product-change-relay"));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "product-change-heartbeat"));
+        long heartbeatMillis = properties.getHeartbeat().toMillis();
+        heartbeat.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open a stream.
+     *
+     * @param lastEventId ID of the last event the client has seen, from {@code Last-Event-ID}; null for a new
+     *                    client, which only gets changes from now on.
+     * @return Emitter for the response.
+     * @throws IllegalStateException When {@code max-subscribers} streams are open already.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many open change streams, at most " + maxSubscribers);
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Long resumeAfter = resumeSequence(lastEventId);
+        Subscriber subscriber = new Subscriber(emitter, resumeAfter != null ? resumeAfter : ring.lastSequence());
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(error -> subscribers.remove(emitter));
+        subscribers.put(emitter, subscriber);
+        if (lastEventId != null && resumeAfter == null) {
+            sendReset(subscriber);
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // after commit, so clients never see a change that is rolled back
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        try {
+            ProductChangeVo change = ProductChangeVo.of(event);
+            append(change);
+            if (redisChannel != null && redisConnectionFactory != null) {
+                relayExecutor.execute(() -> publish(change));
+            }
+        } catch (Exception e) {
+            // the write itself has succeeded, so never fail (and retry) it because of the feed
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+        }
+    }
+
+    /**
+     * A change relayed by another node over the Redis channel.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            RelayedChange relayed = objectMapper.readValue(message.getBody(), RelayedChange.class);
+            if (!streamId.equals(relayed.origin())) {
+                append(relayed.change());
+            }
+        } catch (Exception e) {
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+        }
+    }
+
+    private void append(ProductChangeVo change) {
+        ring.append(change);
+        subscribers.values().forEach(this::schedule);
+    }
+
+    private void publish(ProductChangeVo change) {
+        try (RedisConnection connection = redisConnectionFactory.getConnection()) {
+            connection.publish(redisChannel.getBytes(StandardCharsets.UTF_8),
+                    objectMapper.writeValueAsBytes(new RelayedChange(streamId, change)));
+        } catch (Exception e) {
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            deliveryExecutor.execute(() -> deliver(subscriber));
+        }
+    }
+
+    private void deliver(Subscriber subscriber) {
+        try {
+            while (subscribers.containsKey(subscriber.emitter)) {
+                List<ProductChangeRing.Entry> entries = ring.readAfter(subscriber.cursor, DELIVERY_BATCH);
+                if (entries == null) {
+                    // fell further behind than the buffer reaches
+                    subscriber.cursor = ring.lastSequence();
+                    sendReset(subscriber);
+                    continue;
+                }
+                if (entries.isEmpty()) {
+                    break;
+                }
+                for (ProductChangeRing.Entry entry : entries) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(eventId(entry.sequence()))
+                            .data(entry.change(), MediaType.APPLICATION_JSON));
+                    subscriber.cursor = entry.sequence();
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // client went away or the stream has ended
+            subscribers.remove(subscriber.emitter);
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        // a change appended after the last read found the task still scheduled
+        if (ring.lastSequence() > subscriber.cursor) {
+            schedule(subscriber);
+        }
+    }
+
+    private void sendReset(Subscriber subscriber) {
+        try {
+            subscriber.emitter.send(SseEmitter.event().id(eventId(subscriber.cursor)).name(RESET_EVENT).data(""));
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber.emitter);
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers.values()) {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(subscriber.emitter);
+            }
+        }
+    }
+
+    private String eventId(long sequence) {
+        return streamId + "-" + sequence;
+    }
+
+    /**
+     * @return Sequence to resume after, or null when the ID is from another process or no longer buffered.
+     */
+    private Long resumeSequence(String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(streamId + "-")) {
+            return null;
+        }
+        try {
+            long sequence = Long.parseLong(lastEventId.substring(streamId.length() + 1));
+            return sequence <= ring.lastSequence() && ring.readAfter(sequence, 0) != null ? sequence : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        heartbeat.shutdownNow();
+        relayExecutor.shutdown();
+        deliveryExecutor.shutdownNow();
+        subscribers.keySet().forEach(SseEmitter::complete);
+        subscribers.clear();
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
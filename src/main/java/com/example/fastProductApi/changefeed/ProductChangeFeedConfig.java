@@ -0,0 +1,34 @@
+package com.example.fastProductApi.changefeed;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+@ConditionalOnProperty(prefix = "product.change-feed", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ProductChangeFeedProperties.class)
+public class ProductChangeFeedConfig {
+
+    @Bean
+    public ProductChangeFeed productChangeFeed(ProductChangeFeedProperties properties) {
+        return new ProductChangeFeed(properties);
+    }
+
+    /**
+     * Receives the changes other nodes publish on {@code product.change-feed.redis-channel}.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "product.change-feed", name = "redis-channel")
+    public RedisMessageListenerContainer productChangeListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                       ProductChangeFeed productChangeFeed,
+                                                                       ProductChangeFeedProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(productChangeFeed, new ChannelTopic(properties.getRedisChannel()));
+        return container;
+    }
+}
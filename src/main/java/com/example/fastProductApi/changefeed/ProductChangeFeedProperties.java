@@ -0,0 +1,82 @@
+package com.example.fastProductApi.changefeed;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the server-sent change stream behind {@code GET /products/changes}.
+ */
+@ConfigurationProperties(prefix = "product.change-feed")
+public class ProductChangeFeedProperties {
+
+    private boolean enabled;
+    // changes kept for resuming; a client further behind than this gets a reset event
+    private int bufferSize = 10000;
+    // open streams on this node; more are answered with 503
+    private int maxSubscribers = 1000;
+    // threads writing to the streams, so a slow client only holds up its own stream
+    private int deliveryThreads = 4;
+    // comment line sent on idle streams, keeps proxies from closing them and detects gone clients
+    private Duration heartbeat = Duration.ofSeconds(15);
+    // a stream ends after this long; EventSource clients reconnect and resume with Last-Event-ID
+    private Duration timeout = Duration.ofMinutes(30);
+    // Redis pub/sub channel that carries changes between nodes; unset keeps the stream local
+    private String redisChannel;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getMaxSubscribers() {
+        return maxSubscribers;
+    }
+
+    public void setMaxSubscribers(int maxSubscribers) {
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    public int getDeliveryThreads() {
+        return deliveryThreads;
+    }
+
+    public void setDeliveryThreads(int deliveryThreads) {
+        this.deliveryThreads = deliveryThreads;
+    }
+
+    public Duration getHeartbeat() {
+        return heartbeat;
+    }
+
+    public void setHeartbeat(Duration heartbeat) {
+        this.heartbeat = heartbeat;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public String getRedisChannel() {
+        return redisChannel;
+    }
+
+    public void setRedisChannel(String redisChannel) {
+        this.redisChannel = redisChannel;
+    }
+}
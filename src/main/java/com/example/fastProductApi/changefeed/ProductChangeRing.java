@@ -0,0 +1,60 @@
+package com.example.fastProductApi.changefeed;
+
+import com.example.fastProductApi.dto.ProductChangeVo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size ring of the latest changes, numbered from 1 without gaps; an append overwrites the oldest entry
+ * once the ring is full.
+ */
+final class ProductChangeRing {
+
+    record Entry(long sequence, ProductChangeVo change) {
+    }
+
+    private final Entry[] entries;
+    private long lastSequence;
+
+    ProductChangeRing(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Ring capacity must be at least 1, was " + capacity);
+        }
+        this.entries = new Entry[capacity];
+    }
+
+    /**
+     * @return Sequence number of the appended change.
+     */
+    synchronized long append(ProductChangeVo change) {
+        long sequence = ++lastSequence;
+        entries[(int) (sequence % entries.length)] = new Entry(sequence, change);
+        return sequence;
+    }
+
+    /**
+     * @return Sequence number of the latest change, 0 before the first one.
+     */
+    synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * @param sequence Last sequence number the reader has seen.
+     * @param max      Most entries to return.
+     * @return The following entries in order, empty when there are none, or null when some of them have
+     * already been overwritten.
+     */
+    synchronized List<Entry> readAfter(long sequence, int max) {
+        long oldest = Math.max(1, lastSequence - entries.length + 1);
+        if (sequence + 1 < oldest) {
+            return null;
+        }
+        List<Entry> read = new ArrayList<>((int) Math.min(max, Math.max(0, lastSequence - sequence)));
+        for (long next = sequence + 1; next <= lastSequence && read.size() < max; next++) {
+            read.add(entries[(int) (next % entries.length)]);
+        }
+        return read;
+    }
+}
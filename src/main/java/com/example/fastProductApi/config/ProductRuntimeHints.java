@@ -0,0 +1,67 @@
+package com.example.fastProductApi.config;
+
+import com.example.fastProductApi.dto.ProductByIdRequestDto;
+import com.example.fastProductApi.dto.ProductChangeVo;
+import com.example.fastProductApi.dto.ProductCsvImportResponseDto;
+import com.example.fastProductApi.dto.ProductDeltaResponseDto;
+import com.example.fastProductApi.dto.ProductJobFailureVo;
+import com.example.fastProductApi.dto.ProductJobRequestDto;
+import com.example.fastProductApi.dto.ProductJobResponseDto;
+import com.example.fastProductApi.dto.ProductListResponseDto;
+import com.example.fastProductApi.dto.ProductPageResponseDto;
+import com.example.fastProductApi.dto.ProductPatchListRequestDto;
+import com.example.fastProductApi.dto.ProductPatchRequestDto;
+import com.example.fastProductApi.dto.ProductPatchResponseDto;
+import com.example.fastProductApi.dto.ProductRequestDto;
+import com.example.fastProductApi.dto.ProductResponseDto;
+import com.example.fastProductApi.dto.ProductUpsertResponseDto;
+import com.example.fastProductApi.dto.ProductsByIdResponseDto;
+import com.example.fastProductApi.dto.ProductsDeleteResponseDto;
+import com.example.fastProductApi.dto.ResponseStatusVo;
+import com.example.fastProductApi.dto.UploadProductListRequestDto;
+import com.example.fastProductApi.entity.Product;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.cache.support.NullValue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hints for the AOT build ({@code -Paot-cds}) and native images: Jackson binding of the DTOs, and JDK
+ * serialization of what the Redis caches store with the default serializer.
+ */
+public class ProductRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> DTOS = List.of(
+            ProductByIdRequestDto.class, ProductRequestDto.class, UploadProductListRequestDto.class,
+            ProductResponseDto.class, ProductsByIdResponseDto.class, ProductListResponseDto.class,
+            ProductsDeleteResponseDto.class, ProductPageResponseDto.class, ProductUpsertResponseDto.class,
+            ProductJobRequestDto.class, ProductJobResponseDto.class, ProductJobFailureVo.class, ProductCsvImportResponseDto.class,
+            ProductPatchRequestDto.class, ProductPatchListRequestDto.class, ProductPatchResponseDto.class, ProductChangeVo.class, ProductDeltaResponseDto.class,
+            ResponseStatusVo.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+        DTOS.forEach(dto -> bindingRegistrar.registerReflectionHints(hints.reflection(), dto));
+
+        // products cache (Product), productVersions cache (Long) and cached nulls
+        hints.serialization()
+                .registerType(Product.class)
+                .registerType(BigDecimal.class)
+                .registerType(BigInteger.class)
+                .registerType(Number.class)
+                .registerType(Long.class)
+                .registerType(Integer.class)
+                .registerType(ArrayList.class)
+                .registerType(NullValue.class)
+                .registerType(TypeReference.of("java.time.Ser"));
+
+        hints.resources().registerPattern("proto/*.proto");
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.fastProductApi.config;
+
+import com.example.fastProductApi.util.ConstantMessages;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically probes every replica and keeps the list of replicas that are reachable and
+ * within the allowed replication lag. Reads are only routed to replicas on this list.
+ */
+public class ReplicaLagMonitor implements AutoCloseable {
+    static Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String SECONDS_BEHIND_SOURCE = "Seconds_Behind_Source";
+
+    private final Map<String, DataSource> replicas;
+    private final Duration maxReplicaLag;
+    private final String lagQuery;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile List<String> healthyReplicas = Collections.emptyList();
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, Duration maxReplicaLag, String lagQuery) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.maxReplicaLag = maxReplicaLag;
+        this.lagQuery = lagQuery;
+    }
+
+    /**
+     * Run a first check synchronously so that routing decisions are valid from the first request,
+     * then keep checking in the background.
+     *
+     * @param interval Delay between two checks.
+     */
+    public void start(Duration interval) {
+        checkReplicas();
+        scheduler.scheduleWithFixedDelay(this::checkReplicas, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return Keys of the replicas currently eligible for reads, in configuration order.
+     */
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    /**
+     * Probe all replicas once and publish the new healthy list.
+     */
+    public void checkReplicas() {
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            if (isHealthy(replica.getKey(), replica.getValue())) {
+                healthy.add(replica.getKey());
+            }
+        }
+        if (!healthy.equals(healthyReplicas)) {
+            log.info("Healthy read replicas changed from {} to {}", healthyReplicas, healthy);
+        }
+        healthyReplicas = Collections.unmodifiableList(healthy);
+    }
+
+    private boolean isHealthy(String key, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                return connection.isValid(1);
+            }
+            Long lagSeconds = readLagSeconds(connection);
+            if (lagSeconds == null || lagSeconds > maxReplicaLag.toSeconds()) {
+                log.warn("Replica {} is lagging ({} s), reads fall back to the primary", key, lagSeconds);
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+            return false;
+        }
+    }
+
+    // a null lag means replication is not running, which is treated as unhealthy
+    private Long readLagSeconds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                return null;
+            }
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            int column = 1;
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                if (SECONDS_BEHIND_SOURCE.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                    column = i;
+                    break;
+                }
+            }
+            long lag = resultSet.getLong(column);
+            return resultSet.wasNull() ? null : lag;
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.fastProductApi.config;
+
+import com.example.fastProductApi.protobuf.ProductProtobufCodec;
+import com.example.fastProductApi.protobuf.ProductProtobufHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.ZoneId;
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    // appended after Jackson: JSON stays the default, application/x-protobuf is used when asked for
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ProductProtobufHttpMessageConverter(new ProductProtobufCodec(ZoneId.systemDefault())));
+    }
+}
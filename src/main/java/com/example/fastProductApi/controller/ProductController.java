@@ -1,20 +1,46 @@
 package com.example.fastProductApi.controller;
 
+import com.example.fastProductApi.cache.ProductVersionCache;
+import com.example.fastProductApi.changefeed.ProductChangeFeed;
+import com.example.fastProductApi.csvimport.ProductCsvImporter;
+import com.example.fastProductApi.delta.ProductDeltaService;
 import com.example.fastProductApi.dto.*;
 import com.example.fastProductApi.entity.Product;
 import com.example.fastProductApi.exception.CustomException;
+import com.example.fastProductApi.fragment.ProductFragmentsResponseDto;
+import com.example.fastProductApi.fragment.ProductJsonFragmentCache;
+import com.example.fastProductApi.jfr.ProductStageEvent;
+import com.example.fastProductApi.job.ProductJobService;
+import com.example.fastProductApi.jfr.ProductStages;
 import com.example.fastProductApi.mapper.ProductMapper;
+import com.example.fastProductApi.projection.ProductField;
+import com.example.fastProductApi.protobuf.ProductProtobufHttpMessageConverter;
+import com.example.fastProductApi.search.ProductFilterService;
+import com.example.fastProductApi.search.ProductSearchIndex;
+import com.example.fastProductApi.search.ProductSearchService;
 import com.example.fastProductApi.service.ProductServiceForBasicCrud;
 import com.example.fastProductApi.service.ProductServiceForBulkCrud;
 import com.example.fastProductApi.util.ConstantMessages;
+import com.example.fastProductApi.util.ProductETags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/products")
@@ -30,22 +56,200 @@ public class ProductController {
     @Autowired
     private ProductMapper productMapper;
 
+    @Autowired
+    private ProductVersionCache productVersionCache;
+
+    // absent when product.search.enabled=false
+    @Autowired(required = false)
+    private ProductSearchService productSearchService;
+
+    // absent when product.filter-index.enabled=false
+    @Autowired(required = false)
+    private ProductFilterService productFilterService;
+
+    // absent unless product.fragments.enabled=true
+    @Autowired(required = false)
+    private ProductJsonFragmentCache productJsonFragmentCache;
+
+    // only present when product.csv-import.enabled=true
+    @Autowired(required = false)
+    private ProductCsvImporter productCsvImporter;
+
+    // only present when product.jobs.enabled=true
+    @Autowired(required = false)
+    private ProductJobService productJobService;
+
+    // only present when product.change-feed.enabled=true
+    @Autowired(required = false)
+    private ProductChangeFeed productChangeFeed;
+
+    @Autowired
+    private ProductDeltaService productDeltaService;
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Fetch a single product. Answers 304 Not Modified when {@code If-None-Match} carries its current ETag.
+     *
+     * @param id          Product ID.
+     * @param ifNoneMatch ETags of the client's cached copies, if any.
+     * @return ResponseEntity containing the product and its ETag, 404 if it does not exist.
+     */
+    @GetMapping("/{id:\\d+}")
+    public ResponseEntity<ProductResponseDto> getProduct(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        // answer from the version cache without loading the product when possible
+        if (ifNoneMatch != null) {
+            Long version = productVersionCache.getVersions(List.of(id)).get(id);
+            if (version != null && ProductETags.matches(ifNoneMatch, ProductETags.forProduct(id, version))) {
+                return notModified(ProductETags.forProduct(id, version));
+            }
+        }
+
+        Optional<Product> product;
+        try {
+            product = productServiceForBasicCrud.getProductById(id);
+        } catch (CustomException e) {
+            log.error(ConstantMessages.EXCEPTION_OCCUR_IN_API, e.getClass().getName(), e.getMessage());
+            logInCaseOfDbConnectionFailure(e);
+            return ResponseEntity.internalServerError().build();
+        }
+        if (product.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (ifNoneMatch != null) {
+            productVersionCache.recordAll(List.of(product.get()));
+        }
+        String etag = ProductETags.forProduct(id, ProductETags.version(product.get()));
+        if (ProductETags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).body(productMapper.toDTO(product.get()));
+    }
+
+
+    /**
+     * Full-text search over product name and description.
+     *
+     * @param query Search terms; products matching more and rarer terms rank first.
+     * @param page  Zero-based page number.
+     * @param size  Page size, at most {@value #MAX_PAGE_SIZE}.
+     * @return ResponseEntity containing one page of ranked products and the total number of matches.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ProductPageResponseDto> searchProducts(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        if (!isValidPage(page, size)) {
+            return ResponseEntity.badRequest().body(new ProductPageResponseDto(new ArrayList<>(), page, size, 0,
+                    new ResponseStatusVo("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE, HttpStatus.BAD_REQUEST.toString())));
+        }
+        if (productSearchService == null || !productSearchService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ProductPageResponseDto(new ArrayList<>(), page, size, 0,
+                    new ResponseStatusVo("Search index is not available", HttpStatus.SERVICE_UNAVAILABLE.toString())));
+        }
+
+        return toPageResponse(productSearchService.search(query, page, size), page, size);
+    }
+
+    /**
+     * List products filtered by price range and stock, sorted by price, from the in-memory price/stock index.
+     *
+     * @param minPrice Lowest price, inclusive.
+     * @param maxPrice Highest price, inclusive.
+     * @param minStock Lowest stock, inclusive; 1 lists only products in stock.
+     * @param sort     {@code price,asc} or {@code price,desc}.
+     * @param page     Zero-based page number.
+     * @param size     Page size, at most {@value #MAX_PAGE_SIZE}.
+     * @return ResponseEntity containing one page of products and the total number of matches.
+     */
+    @GetMapping
+    public ResponseEntity<ProductPageResponseDto> listProducts(
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "0") int minStock,
+            @RequestParam(defaultValue = "price,asc") String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        boolean descending = sort.equalsIgnoreCase("price,desc");
+        if (!descending && !sort.equalsIgnoreCase("price,asc") && !sort.equalsIgnoreCase("price")) {
+            return ResponseEntity.badRequest().body(new ProductPageResponseDto(new ArrayList<>(), page, size, 0,
+                    new ResponseStatusVo("sort must be price,asc or price,desc", HttpStatus.BAD_REQUEST.toString())));
+        }
+        if (!isValidPage(page, size)) {
+            return ResponseEntity.badRequest().body(new ProductPageResponseDto(new ArrayList<>(), page, size, 0,
+                    new ResponseStatusVo("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE, HttpStatus.BAD_REQUEST.toString())));
+        }
+        if (productFilterService == null || !productFilterService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ProductPageResponseDto(new ArrayList<>(), page, size, 0,
+                    new ResponseStatusVo("Price/stock index is not available", HttpStatus.SERVICE_UNAVAILABLE.toString())));
+        }
+
+        return toPageResponse(productFilterService.filter(minPrice, maxPrice, minStock, descending, page, size), page, size);
+    }
 
     /**
      * Fetch products by IDs with an option for sequential or parallel processing.
+     * The response carries an ETag over the requested IDs and their versions; a matching
+     * {@code If-None-Match} is answered with 304 Not Modified and no body.
+     *
+     * With {@code fields}, e.g. {@code fields=price,stock}, only those fields (and {@code id}) are loaded and
+     * returned; products in the cache are projected without a query.
      *
      * @param isParallel            Indicates if the operation should use parallel processing.
+     * @param fields                Comma-separated fields to return; all fields when absent.
      * @param productByIdRequestDto Contains the list of product IDs to fetch.
+     * @param ifNoneMatch           ETags of the client's cached copies, if any.
+     * @param accept                Accept header, selects between the JSON and binary representation and ETag.
      * @return ResponseEntity containing found products and any missing IDs.
      */
     @PostMapping("/getProductByIds")
     public ResponseEntity<ProductsByIdResponseDto> getProductById(
             @RequestParam(defaultValue = "true") boolean isParallel,
-            @RequestBody ProductByIdRequestDto productByIdRequestDto) {
+            @RequestParam(required = false) String fields,
+            @RequestBody ProductByIdRequestDto productByIdRequestDto,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+        List<Long> ids = productByIdRequestDto.ids();
+        ProductStages.setBatchSize(ids.size());
+        Set<ProductField> selectedFields;
+        try {
+            selectedFields = ProductField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ProductsByIdResponseDto(new ArrayList<>(),
+                    new ResponseStatusVo(e.getMessage(), HttpStatus.BAD_REQUEST.toString())));
+        }
+        boolean sparse = selectedFields != ProductField.ALL;
+        MediaType mediaType = negotiateBulkMediaType(accept);
+        String representation = (ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF.equals(mediaType) ? "protobuf" : "json")
+                + (sparse ? ";fields=" + ProductField.key(selectedFields) : "");
+
+        // answer from the version cache without loading the products when every ID is known there
+        if (ifNoneMatch != null) {
+            Map<Long, Long> knownVersions = productVersionCache.getVersions(ids);
+            if (knownVersions.keySet().containsAll(ids)) {
+                String etag = ProductETags.forProducts(ids, knownVersions, representation);
+                if (ProductETags.matches(ifNoneMatch, etag)) {
+                    return notModified(etag);
+                }
+            }
+        }
+
+        if (productJsonFragmentCache != null && representation.equals("json")) {
+            return getProductFragments(ids, isParallel, ifNoneMatch, mediaType);
+        }
 
         List<Optional<Product>> products;
         try {
-            products = fetchProductsByIds(productByIdRequestDto.ids(), isParallel);
+            products = sparse
+                    ? productServiceForBulkCrud.getProductFieldsByIds(ids, selectedFields)
+                    : fetchProductsByIds(ids, isParallel);
         } catch (CustomException e) {
             log.error(ConstantMessages.EXCEPTION_OCCUR_IN_API, e.getClass().getName(), e.getMessage());
             String message = e.getMessage() + " " + e.getCause() + " " + e.getLocalizedMessage();
@@ -54,7 +258,31 @@ public class ProductController {
             }
             return ResponseEntity.internalServerError().body(new ProductsByIdResponseDto(new ArrayList<>(), new ResponseStatusVo(message, HttpStatus.INTERNAL_SERVER_ERROR.toString())));
         }
-        return ResponseEntity.ok(mapProductsToResponse(products, productByIdRequestDto.ids()));
+
+        Map<Long, Long> versions = new HashMap<>();
+        for (int i = 0; i < products.size(); i++) {
+            Long id = ids.get(i);
+            products.get(i).ifPresent(product -> versions.put(id, ProductETags.version(product)));
+        }
+        if (ifNoneMatch != null) {
+            productVersionCache.recordAll(products.stream().flatMap(Optional::stream).toList());
+        }
+        String etag = ProductETags.forProducts(ids, versions, representation);
+        if (ProductETags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.MAPPING, "toDTO");
+        ProductsByIdResponseDto response;
+        try {
+            response = mapProductsToResponse(products, ids, selectedFields);
+        } finally {
+            ProductStages.end(stage);
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .headers(headers -> headers.setContentType(mediaType))
+                .body(response);
     }
 
 
@@ -99,6 +327,9 @@ public class ProductController {
 
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(processProductList(uploadProductListRequestDto, isParallel, true));
+        } catch (ProductServiceForBulkCrud.PartialUpsertException e) {
+            log.error(ConstantMessages.EXCEPTION_OCCUR_IN_API, e.getClass().getName(), e.getMessage());
+            return ResponseEntity.internalServerError().body(e.getResponse());
         } catch (CustomException e) {
             log.error(ConstantMessages.EXCEPTION_OCCUR_IN_API, e.getClass().getName(), e.getMessage());
             String message = e.getMessage() + " " + e.getCause() + " " + e.getLocalizedMessage();
@@ -109,6 +340,68 @@ public class ProductController {
         }
     }
 
+    /**
+     * Change some fields of one product; only those columns are written. Accepts {@code application/json} and
+     * {@code application/merge-patch+json}.
+     *
+     * @param id    Product ID.
+     * @param patch New values of name, description, price and/or stock; absent fields stay unchanged.
+     * @return ResponseEntity containing the whole patched product and its ETag, 404 if it does not exist.
+     */
+    @PatchMapping("/{id:\\d+}")
+    public ResponseEntity<ProductResponseDto> patchProduct(@PathVariable Long id, @RequestBody ProductPatchRequestDto patch) {
+        if (patch.id() != null && !patch.id().equals(id)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Product product = productMapper.toPatch(patch);
+        product.setId(id);
+        try {
+            ProductPatchResponseDto response = productServiceForBulkCrud.patchProducts(List.of(product));
+            if (response.getProducts().isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            ProductResponseDto patched = response.getProducts().get(0);
+            return ResponseEntity.ok()
+                    .eTag(ProductETags.forProduct(id, ProductETags.version(patched.getLastUpdatedAt())))
+                    .body(patched);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (CustomException e) {
+            log.error(ConstantMessages.EXCEPTION_OCCUR_IN_API, e.getClass().getName(), e.getMessage());
+            logInCaseOfDbConnectionFailure(e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Change some fields of many products, with one {@code UPDATE} batch per combination of changed fields.
+     *
+     * @param request Patches, each with the product's ID; absent fields stay unchanged.
+     * @return ResponseEntity with the whole patched products and the IDs that do not exist.
+     */
+    @PatchMapping
+    public ResponseEntity<ProductPatchResponseDto> patchProducts(@RequestBody ProductPatchListRequestDto request) {
+        if (request.products() == null || request.products().isEmpty()) {
+            return ResponseEntity.badRequest().body(new ProductPatchResponseDto(
+                    new ResponseStatusVo("products is required", HttpStatus.BAD_REQUEST.toString())));
+        }
+        ProductStages.setBatchSize(request.products().size());
+        try {
+            List<Product> patches = request.products().stream().map(productMapper::toPatch).collect(Collectors.toList());
+            return ResponseEntity.ok(productServiceForBulkCrud.patchProducts(patches));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ProductPatchResponseDto(
+                    new ResponseStatusVo(e.getMessage(), HttpStatus.BAD_REQUEST.toString())));
+        } catch (CustomException e) {
+            log.error(ConstantMessages.EXCEPTION_OCCUR_IN_API, e.getClass().getName(), e.getMessage());
+            String message = e.getMessage() + " " + e.getCause() + " " + e.getLocalizedMessage();
+            if (logInCaseOfDbConnectionFailure(e)) {
+                message = "Exception occur in api, DB connection failed";
+            }
+            return ResponseEntity.internalServerError().body(new ProductPatchResponseDto(new ResponseStatusVo(message, HttpStatus.INTERNAL_SERVER_ERROR.toString())));
+        }
+    }
+
     /**
      * Delete products by IDs with an option for sequential or parallel processing.
      *
@@ -120,6 +413,7 @@ public class ProductController {
     public ResponseEntity<ProductsDeleteResponseDto> deleteProducts(
             @RequestParam(defaultValue = "true") boolean isParallel,
             @RequestBody ProductByIdRequestDto ids) throws CustomException {
+        ProductStages.setBatchSize(ids.ids().size());
         try {
 
             ProductsDeleteResponseDto response = isParallel
@@ -138,6 +432,270 @@ public class ProductController {
 
     }
 
+    /**
+     * Import products from a CSV file with a header row (name, price, optionally description and stock), either
+     * uploaded as multipart {@code file} or read from {@code path} below the configured import directory.
+     *
+     * @param file Uploaded CSV file.
+     * @param path Server-local CSV file, relative to {@code product.csv-import.allowed-directory}.
+     * @return ResponseEntity with imported and failed row counts and the path of the error report.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ProductCsvImportResponseDto> importProducts(
+            @RequestParam(required = false) MultipartFile file,
+            @RequestParam(required = false) String path) {
+        if (productCsvImporter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ProductCsvImportResponseDto(
+                    new ResponseStatusVo("CSV import is not enabled", HttpStatus.SERVICE_UNAVAILABLE.toString())));
+        }
+        if ((file == null) == (path == null)) {
+            return ResponseEntity.badRequest().body(new ProductCsvImportResponseDto(
+                    new ResponseStatusVo("Either file or path is required", HttpStatus.BAD_REQUEST.toString())));
+        }
+        Path upload = null;
+        try {
+            Path csv;
+            if (file != null) {
+                // a multipart file may only be buffered in memory; the importer maps a file on disk
+                upload = Files.createTempFile("product-import-", ".csv");
+                file.transferTo(upload);
+                csv = upload;
+            } else {
+                csv = productCsvImporter.resolveLocalFile(path);
+            }
+            ProductCsvImporter.ImportResult result = productCsvImporter.importFile(csv);
+            ProductCsvImportResponseDto response = new ProductCsvImportResponseDto(new ResponseStatusVo("SUCCESS", HttpStatus.OK.toString()));
+            response.setImportedRows(result.importedRows());
+            response.setFailedRows(result.failedRows());
+            response.setChunks(result.chunks());
+            response.setElapsedMillis(result.elapsedMillis());
+            response.setRowsPerSecond(result.importedRows() * 1000.0 / Math.max(result.elapsedMillis(), 1));
+            response.setErrorReport(result.errorReport() == null ? null : result.errorReport().toString());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ProductCsvImportResponseDto(
+                    new ResponseStatusVo(e.getMessage(), HttpStatus.BAD_REQUEST.toString())));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ProductCsvImportResponseDto(
+                    new ResponseStatusVo(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE.toString())));
+        } catch (IOException | CustomException e) {
+            log.error(ConstantMessages.EXCEPTION_OCCUR_IN_API, e.getClass().getName(), e.getMessage());
+            String message = e.getMessage() + " " + e.getCause() + " " + e.getLocalizedMessage();
+            if (logInCaseOfDbConnectionFailure(e)) {
+                message = "Exception occur in api, DB connection failed";
+            }
+            return ResponseEntity.internalServerError().body(new ProductCsvImportResponseDto(new ResponseStatusVo(message, HttpStatus.INTERNAL_SERVER_ERROR.toString())));
+        } finally {
+            if (upload != null) {
+                try {
+                    Files.deleteIfExists(upload);
+                } catch (IOException e) {
+                    log.warn("Could not delete {}: {}", upload, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Queue a bulk upload, update or delete to run in the background, in chunks that survive restarts.
+     *
+     * @param request Operation plus the products or IDs.
+     * @return 202 Accepted with the job's status and its URL in {@code Location}.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<ProductJobResponseDto> submitJob(@RequestBody ProductJobRequestDto request) {
+        if (productJobService == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ProductJobResponseDto(
+                    new ResponseStatusVo("Bulk jobs are not enabled", HttpStatus.SERVICE_UNAVAILABLE.toString())));
+        }
+        try {
+            ProductJobResponseDto response = productJobService.submit(request);
+            response.setResponseStatus(new ResponseStatusVo("ACCEPTED", HttpStatus.ACCEPTED.toString()));
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(response.getJobId()).toUri())
+                    .body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ProductJobResponseDto(
+                    new ResponseStatusVo(e.getMessage(), HttpStatus.BAD_REQUEST.toString())));
+        } catch (CustomException e) {
+            log.error(ConstantMessages.EXCEPTION_OCCUR_IN_API, e.getClass().getName(), e.getMessage());
+            String message = e.getMessage() + " " + e.getCause() + " " + e.getLocalizedMessage();
+            if (logInCaseOfDbConnectionFailure(e)) {
+                message = "Exception occur in api, DB connection failed";
+            }
+            return ResponseEntity.internalServerError().body(new ProductJobResponseDto(new ResponseStatusVo(message, HttpStatus.INTERNAL_SERVER_ERROR.toString())));
+        }
+    }
+
+    /**
+     * Progress of a bulk job: processed chunks and items, throughput, and the chunks with failed items.
+     *
+     * @param id Job ID.
+     * @return ResponseEntity with the job's status, 404 if it does not exist.
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ProductJobResponseDto> getJob(@PathVariable Long id) {
+        if (productJobService == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ProductJobResponseDto(
+                    new ResponseStatusVo("Bulk jobs are not enabled", HttpStatus.SERVICE_UNAVAILABLE.toString())));
+        }
+        return productJobService.getJob(id)
+                .map(response -> {
+                    response.setResponseStatus(new ResponseStatusVo("SUCCESS", HttpStatus.OK.toString()));
+                    return ResponseEntity.ok(response);
+                })
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ProductJobResponseDto(
+                        new ResponseStatusVo("Job not found for ID: " + id, HttpStatus.NOT_FOUND.toString()))));
+    }
+
+
+    /**
+     * Stream product changes as server-sent events: one JSON event per save, update and delete, with type, ID,
+     * price, stock and timestamp. Reconnecting clients resume after {@code Last-Event-ID}; when that is not
+     * possible they get a {@code reset} event first.
+     *
+     * @param lastEventId ID of the last event the client has seen, sent by EventSource on reconnect.
+     * @param since       Same as {@code Last-Event-ID}, for clients that cannot set headers.
+     * @return The open stream, 503 when the feed is disabled or has too many subscribers.
+     */
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) String since) {
+        if (productChangeFeed == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        try {
+            return ResponseEntity.ok(productChangeFeed.subscribe(lastEventId != null ? lastEventId : since));
+        } catch (IllegalStateException e) {
+            log.warn(e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * Products created, updated and deleted since a cursor, oldest change first, for clients that keep a mirror
+     * of the catalog. Start without {@code since}, then pass the returned {@code nextCursor} each time; while
+     * {@code hasMore} is true the next page is ready right away.
+     *
+     * @param since Cursor of the previous page, absent for a first sync of the whole catalog.
+     * @param limit Maximum number of changes in the page.
+     * @return ResponseEntity with the changed products, deleted IDs and next cursor; 400 for an invalid cursor or
+     * limit, 410 when the cursor is older than the tombstone retention and the client has to sync from scratch.
+     */
+    @GetMapping("/delta")
+    public ResponseEntity<ProductDeltaResponseDto> getProductDelta(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        ProductDeltaService.Page page;
+        try {
+            page = productDeltaService.findChangesSince(since, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ProductDeltaResponseDto(
+                    new ResponseStatusVo(e.getMessage(), HttpStatus.BAD_REQUEST.toString())));
+        } catch (ProductDeltaService.CursorExpiredException e) {
+            return ResponseEntity.status(HttpStatus.GONE).body(new ProductDeltaResponseDto(
+                    new ResponseStatusVo(e.getMessage(), HttpStatus.GONE.toString())));
+        } catch (CustomException e) {
+            log.error(ConstantMessages.EXCEPTION_OCCUR_IN_API, e.getClass().getName(), e.getMessage());
+            String message = e.getMessage() + " " + e.getCause() + " " + e.getLocalizedMessage();
+            if (logInCaseOfDbConnectionFailure(e)) {
+                message = "Exception occur in api, DB connection failed";
+            }
+            return ResponseEntity.internalServerError().body(new ProductDeltaResponseDto(
+                    new ResponseStatusVo(message, HttpStatus.INTERNAL_SERVER_ERROR.toString())));
+        }
+
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.MAPPING, "toDTO");
+        List<ProductResponseDto> productDTOs;
+        try {
+            productDTOs = page.products().stream().map(productMapper::toDTO).collect(Collectors.toList());
+        } finally {
+            ProductStages.end(stage);
+        }
+        return ResponseEntity.ok(new ProductDeltaResponseDto(productDTOs, page.deletedIds(), page.nextCursor(), page.hasMore(),
+                new ResponseStatusVo("SUCCESS", HttpStatus.OK.toString())));
+    }
+
+
+    /**
+     * Page numbers and sizes the in-memory indexes accept; keeps page * size within an int.
+     */
+    private boolean isValidPage(int page, int size) {
+        return page >= 0 && page <= Integer.MAX_VALUE / MAX_PAGE_SIZE && size >= 1 && size <= MAX_PAGE_SIZE;
+    }
+
+    /**
+     * Load one page of products found by an in-memory index through the bulk cache path, keeping the index order.
+     */
+    private ResponseEntity<ProductPageResponseDto> toPageResponse(ProductSearchIndex.SearchResult result, int page, int size) {
+        List<Optional<Product>> products;
+        try {
+            products = result.ids().isEmpty() ? List.of() : fetchProductsByIds(result.ids(), true);
+        } catch (CustomException e) {
+            log.error(ConstantMessages.EXCEPTION_OCCUR_IN_API, e.getClass().getName(), e.getMessage());
+            String message = e.getMessage() + " " + e.getCause() + " " + e.getLocalizedMessage();
+            if (logInCaseOfDbConnectionFailure(e)) {
+                message = "Exception occur in api, DB connection failed";
+            }
+            return ResponseEntity.internalServerError().body(new ProductPageResponseDto(new ArrayList<>(), page, size, 0,
+                    new ResponseStatusVo(message, HttpStatus.INTERNAL_SERVER_ERROR.toString())));
+        }
+
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.MAPPING, "toDTO");
+        List<ProductResponseDto> productDTOs;
+        try {
+            productDTOs = products.stream().flatMap(Optional::stream).map(productMapper::toDTO).collect(Collectors.toList());
+        } finally {
+            ProductStages.end(stage);
+        }
+        return ResponseEntity.ok(new ProductPageResponseDto(productDTOs, page, size, result.total(),
+                new ResponseStatusVo("SUCCESS", HttpStatus.OK.toString())));
+    }
+
+    /**
+     * Representation of a bulk read chosen from {@code Accept}: by quality, then the more specific type, with JSON
+     * first among equals as without the header. Types refused with {@code q=0} are never chosen. The response is
+     * sent as the chosen type, so its ETag always describes the body the client gets.
+     *
+     * @return JSON or protobuf; null when the header accepts neither, which is left to the message converters.
+     */
+    static MediaType negotiateBulkMediaType(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed()
+                .thenComparing(MediaType::isWildcardType)
+                .thenComparing(MediaType::isWildcardSubtype));
+        List<MediaType> refused = accepted.stream().filter(type -> type.getQualityValue() == 0).toList();
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                break;
+            }
+            for (MediaType candidate : List.of(MediaType.APPLICATION_JSON, ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF)) {
+                if (type.isCompatibleWith(candidate) && refused.stream().noneMatch(refusedType -> refusedType.includes(candidate))) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 304 Not Modified carrying the current ETag, without a body.
+     */
+    private <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
 
     /**
      * check if the exception related to DB connection failed.
@@ -159,36 +717,91 @@ public class ProductController {
                 : productServiceForBulkCrud.getProductByIdsInSeq(ids);
     }
 
+    /**
+     * JSON bulk read with {@code product.fragments.enabled=true}: cached fragments go into the response as they
+     * are, only the misses are loaded through the bulk path and serialized (and cached) one by one.
+     */
+    private ResponseEntity<ProductsByIdResponseDto> getProductFragments(List<Long> ids, boolean isParallel, String ifNoneMatch, MediaType mediaType) {
+        Map<Long, byte[]> fragments = new HashMap<>(productJsonFragmentCache.getAll(ids));
+        List<Long> missedIds = ids.stream().filter(id -> !fragments.containsKey(id)).distinct().collect(Collectors.toList());
+        if (!missedIds.isEmpty()) {
+            try {
+                List<Product> products = fetchProductsByIds(missedIds, isParallel).stream().flatMap(Optional::stream).collect(Collectors.toList());
+                fragments.putAll(productJsonFragmentCache.putAll(products));
+                if (ifNoneMatch != null) {
+                    productVersionCache.recordAll(products);
+                }
+            } catch (CustomException | IOException e) {
+                log.error(ConstantMessages.EXCEPTION_OCCUR_IN_API, e.getClass().getName(), e.getMessage());
+                String message = e.getMessage() + " " + e.getCause() + " " + e.getLocalizedMessage();
+                if (logInCaseOfDbConnectionFailure(e)) {
+                    message = "Exception occur in api, DB connection failed";
+                }
+                return ResponseEntity.internalServerError().body(new ProductsByIdResponseDto(new ArrayList<>(), new ResponseStatusVo(message, HttpStatus.INTERNAL_SERVER_ERROR.toString())));
+            }
+        }
+
+        List<byte[]> orderedFragments = new ArrayList<>();
+        List<String> notFoundIds = new ArrayList<>();
+        Map<Long, Long> versions = new HashMap<>();
+        for (Long id : ids) {
+            byte[] fragment = fragments.get(id);
+            if (fragment != null) {
+                orderedFragments.add(fragment);
+                versions.put(id, ProductJsonFragmentCache.version(fragment));
+            } else {
+                notFoundIds.add(id.toString());
+            }
+        }
+        String etag = ProductETags.forProducts(ids, versions, "json");
+        if (ProductETags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .headers(headers -> headers.setContentType(mediaType))
+                .body(new ProductFragmentsResponseDto(orderedFragments, responseStatusFor(notFoundIds)));
+    }
+
     /**
      * Maps a list of products (some optional) to a response DTO, identifying missing products.
      */
-    private ProductsByIdResponseDto mapProductsToResponse(List<Optional<Product>> products, List<Long> ids) {
+    private ProductsByIdResponseDto mapProductsToResponse(List<Optional<Product>> products, List<Long> ids, Set<ProductField> fields) {
         List<String> notFoundIds = new ArrayList<>();
         List<ProductResponseDto> productDTOs = new ArrayList<>();
 
         for (int i = 0; i < products.size(); i++) {
             Optional<Product> optionalProduct = products.get(i);
             if (optionalProduct.isPresent()) {
-                productDTOs.add(productMapper.toDTO(optionalProduct.get()));
+                productDTOs.add(ProductField.retain(productMapper.toDTO(optionalProduct.get()), fields));
             } else {
                 notFoundIds.add(ids.get(i).toString());
             }
         }
 
+        return new ProductsByIdResponseDto(productDTOs, responseStatusFor(notFoundIds));
+    }
+
+    /**
+     * SUCCESS, or PARTIAL_CONTENT listing the requested IDs that were not found.
+     */
+    private ResponseStatusVo responseStatusFor(List<String> notFoundIds) {
         if (notFoundIds.isEmpty()) {
-            return new ProductsByIdResponseDto(productDTOs,
-                    new ResponseStatusVo("SUCCESS", HttpStatus.OK.toString()));
-        } else {
-            String errorMessage = "Products not found for the following IDs: " + String.join(", ", notFoundIds);
-            return new ProductsByIdResponseDto(productDTOs,
-                    new ResponseStatusVo(errorMessage, HttpStatus.PARTIAL_CONTENT.toString()));
+            return new ResponseStatusVo("SUCCESS", HttpStatus.OK.toString());
         }
+        String errorMessage = "Products not found for the following IDs: " + String.join(", ", notFoundIds);
+        return new ResponseStatusVo(errorMessage, HttpStatus.PARTIAL_CONTENT.toString());
     }
 
     /**
      * Handles both product saving and updating with an option for sequential or parallel processing.
      */
     private ProductListResponseDto processProductList(UploadProductListRequestDto dto, boolean isParallel, boolean isUpdate) throws CustomException {
+        ProductStages.setBatchSize(dto.getProducts().size());
+        if (isUpdate && productServiceForBulkCrud.isUpsertEnabled()) {
+            return productServiceForBulkCrud.upsertProducts(dto.getProducts(), isParallel);
+        }
         return isParallel
                 ? productServiceForBulkCrud.saveOrUpdateProductInParallel(dto, isUpdate)
                 : processProductsSequentially(dto.getProducts(), isUpdate);
@@ -0,0 +1,18 @@
+package com.example.fastProductApi.csvimport;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@ConditionalOnProperty(prefix = "product.csv-import", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ProductCsvImportProperties.class)
+public class ProductCsvImportConfig {
+
+    @Bean
+    public ProductCsvImporter productCsvImporter(ProductCsvImportProperties properties, PlatformTransactionManager transactionManager) {
+        return new ProductCsvImporter(properties, transactionManager);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.fastProductApi.csvimport;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for the CSV import behind {@code POST /products/import}.
+ */
+@ConfigurationProperties(prefix = "product.csv-import")
+public class ProductCsvImportProperties {
+
+    private boolean enabled;
+    // server-local files may only be imported from below this directory; unset refuses every path
+    private String allowedDirectory;
+    // bytes per parse task, extended to the next line break; each task maps its range of the file
+    private DataSize chunkSize = DataSize.ofMegabytes(64);
+    // chunks parsed and inserted at the same time
+    private int concurrency = Runtime.getRuntime().availableProcessors();
+    // rows per insert batch and transaction
+    private int batchSize = 1000;
+    // rows written to the error report; rows beyond are only counted
+    private int maxErrors = 10000;
+    // where the error reports are written
+    private String errorDirectory = "imports";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getAllowedDirectory() {
+        return allowedDirectory;
+    }
+
+    public void setAllowedDirectory(String allowedDirectory) {
+        this.allowedDirectory = allowedDirectory;
+    }
+
+    public DataSize getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(DataSize chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxErrors() {
+        return maxErrors;
+    }
+
+    public void setMaxErrors(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public String getErrorDirectory() {
+        return errorDirectory;
+    }
+
+    public void setErrorDirectory(String errorDirectory) {
+        this.errorDirectory = errorDirectory;
+    }
+}
@@ -0,0 +1,362 @@
+package com.example.fastProductApi.csvimport;
+
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.event.ProductChangeEvent;
+import com.example.fastProductApi.exception.CustomException;
+import com.example.fastProductApi.jfr.ProductStageEvent;
+import com.example.fastProductApi.jfr.ProductStages;
+import com.example.fastProductApi.sharding.ShardedProductStore;
+import com.example.fastProductApi.util.ConstantMessages;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports products from a CSV file with a header row. The file is split into ranges of about {@code chunk-size}
+ * bytes that end at a line feed; each range is memory-mapped and parsed by its own task, which inserts its rows
+ * in batches of {@code batch-size}, one transaction per batch. At most {@code concurrency} ranges are processed
+ * at a time, so memory use does not grow with the file.
+ * <p>
+ * Rows that cannot be parsed or inserted are skipped and listed with their line number in an error report next
+ * to the other imports in {@code error-directory}. Imported products are announced as created, but not put in
+ * the {@code products} cache; a multi-GB feed would only evict the entries that are actually being read.
+ */
+public class ProductCsvImporter implements DisposableBean {
+    static Logger log = LoggerFactory.getLogger(ProductCsvImporter.class);
+
+    /**
+     * @param importedRows  Rows inserted as products.
+     * @param failedRows    Rows skipped because they could not be parsed or inserted.
+     * @param chunks        Ranges the file was split into.
+     * @param elapsedMillis Time from opening the file to the last insert.
+     * @param errorReport   The error report, null when every row was imported.
+     */
+    public record ImportResult(long importedRows, long failedRows, int chunks, long elapsedMillis, Path errorReport) {
+    }
+
+    private record RowError(long line, String message, String row) {
+    }
+
+    // outcome of one range; lines are counted within the range and made absolute once all ranges are done
+    private record ChunkResult(int lines, long importedRows, long failedRows, List<RowError> errors) {
+    }
+
+    private static final String INSERT = """
+            INSERT INTO products (name, description, price, stock, created_at, last_updated_at)
+            VALUES (?, ?, ?, ?, ?, ?)""";
+
+    // longest header line looked at
+    private static final int MAX_HEADER_LENGTH = 64 * 1024;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // only present when product.sharding.enabled=true; the import then refuses to run
+    @Autowired(required = false)
+    private ShardedProductStore shardedProductStore;
+
+    private final ProductCsvImportProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService chunkExecutor;
+
+    public ProductCsvImporter(ProductCsvImportProperties properties, PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.chunkExecutor = Executors.newFixedThreadPool(properties.getConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "product-csv-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Resolve a server-local path for {@link #importFile}.
+     *
+     * @param path Absolute, or relative to {@code allowed-directory}.
+     * @return The real path of the file.
+     * @throws IllegalArgumentException When local imports are disabled, or the file is not a regular file below
+     *                                  {@code allowed-directory} (symbolic links resolved).
+     */
+    public Path resolveLocalFile(String path) {
+        if (properties.getAllowedDirectory() == null || properties.getAllowedDirectory().isBlank()) {
+            throw new IllegalArgumentException("Importing server-local files is disabled; set product.csv-import.allowed-directory");
+        }
+        try {
+            Path allowedDirectory = Path.of(properties.getAllowedDirectory()).toRealPath();
+            Path file = allowedDirectory.resolve(path).toRealPath();
+            if (!file.startsWith(allowedDirectory) || !Files.isRegularFile(file)) {
+                throw new IllegalArgumentException("Not a file below the allowed import directory: " + path);
+            }
+            return file;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Import every row of a CSV file as a new product.
+     *
+     * @param file CSV file whose first line names the columns: name and price, optionally description and stock.
+     * @return Counts and the error report, if any.
+     * @throws IllegalArgumentException When the header lacks a required column.
+     * @throws IllegalStateException    When sharding is enabled.
+     */
+    public ImportResult importFile(Path file) throws CustomException {
+        if (shardedProductStore != null) {
+            throw new IllegalStateException("CSV import does not support sharding");
+        }
+        long startNanos = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long headerEnd = nextLineStart(channel, 0, size);
+            if (headerEnd > MAX_HEADER_LENGTH) {
+                throw new IllegalArgumentException("CSV header is longer than " + MAX_HEADER_LENGTH + " bytes");
+            }
+            ByteBuffer header = ByteBuffer.allocate((int) headerEnd);
+            channel.read(header, 0);
+            ProductCsvParser.Columns columns = ProductCsvParser.Columns.fromHeader(
+                    new String(header.array(), 0, (int) headerEnd, StandardCharsets.UTF_8));
+
+            List<long[]> ranges = split(channel, headerEnd, size);
+            AtomicInteger errorBudget = new AtomicInteger(properties.getMaxErrors());
+            List<Future<ChunkResult>> futures = new ArrayList<>(ranges.size());
+            for (long[] range : ranges) {
+                futures.add(chunkExecutor.submit(ProductStages.queued("csvImport",
+                        () -> importChunk(channel, range[0], range[1], columns, errorBudget))));
+            }
+
+            long importedRows = 0;
+            long failedRows = 0;
+            // the header is line 1
+            long linesBefore = 1;
+            List<RowError> errors = new ArrayList<>();
+            try {
+                for (Future<ChunkResult> future : futures) {
+                    ChunkResult result = future.get();
+                    importedRows += result.importedRows();
+                    failedRows += result.failedRows();
+                    for (RowError error : result.errors()) {
+                        errors.add(new RowError(linesBefore + error.line(), error.message(), error.row()));
+                    }
+                    linesBefore += result.lines();
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                // the file is closed on the way out; the remaining ranges would fail anyway
+                futures.forEach(future -> future.cancel(true));
+                throw e;
+            }
+            // rows of a rejected batch are reported after the parse errors of their range
+            errors.sort(Comparator.comparingLong(RowError::line));
+            Path errorReport = errors.isEmpty() ? null : writeErrorReport(errors, failedRows);
+            long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            log.info("Imported {}: {} rows, {} failed, {} chunks in {} ms", file.getFileName(), importedRows, failedRows, ranges.size(), elapsedMillis);
+            return new ImportResult(importedRows, failedRows, ranges.size(), elapsedMillis, errorReport);
+        } catch (IOException e) {
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+            throw new CustomException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomException(e);
+        } catch (ExecutionException e) {
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+            throw e.getCause() instanceof CustomException customException ? customException : new CustomException(e);
+        }
+    }
+
+    /**
+     * Split {@code [start, size)} into ranges of at least {@code chunk-size} bytes that end after a line feed or
+     * at the end of the file.
+     */
+    private List<long[]> split(FileChannel channel, long start, long size) throws IOException {
+        // a mapping cannot exceed 2 GB
+        long chunkSize = Math.min(Math.max(properties.getChunkSize().toBytes(), 1), Integer.MAX_VALUE / 2);
+        List<long[]> ranges = new ArrayList<>();
+        long position = start;
+        while (position < size) {
+            long end = position + chunkSize >= size ? size : nextLineStart(channel, position + chunkSize, size);
+            if (end - position > Integer.MAX_VALUE) {
+                throw new IOException("No line break within 2 GB after byte " + position);
+            }
+            ranges.add(new long[]{position, end});
+            position = end;
+        }
+        return ranges;
+    }
+
+    /**
+     * @return Offset just after the first line feed at or after {@code position}, or {@code size} if there is none.
+     */
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private ChunkResult importChunk(FileChannel channel, long start, long end, ProductCsvParser.Columns columns,
+                                    AtomicInteger errorBudget) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        List<Product> batch = new ArrayList<>(properties.getBatchSize());
+        List<Integer> batchLines = new ArrayList<>(properties.getBatchSize());
+        List<RowError> errors = new ArrayList<>();
+        long[] counts = new long[2];
+
+        ProductCsvParser.RowHandler handler = new ProductCsvParser.RowHandler() {
+            @Override
+            public void row(int line, Product product) {
+                batch.add(product);
+                batchLines.add(line);
+                if (batch.size() >= properties.getBatchSize()) {
+                    flush(batch, batchLines, errors, counts, errorBudget);
+                }
+            }
+
+            @Override
+            public void error(int line, String message, String row) {
+                counts[1]++;
+                if (errorBudget.getAndDecrement() > 0) {
+                    errors.add(new RowError(line, message, row));
+                }
+            }
+        };
+        int lines = new ProductCsvParser(columns).parse(buffer, handler);
+        flush(batch, batchLines, errors, counts, errorBudget);
+        return new ChunkResult(lines, counts[0], counts[1], errors);
+    }
+
+    /**
+     * Insert a batch in one transaction and announce the new products; a batch the database rejects is counted
+     * as failed row by row.
+     */
+    private void flush(List<Product> batch, List<Integer> batchLines, List<RowError> errors, long[] counts,
+                       AtomicInteger errorBudget) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.DATABASE, "csvImport");
+        try {
+            List<Product> inserted = transactionTemplate.execute(status -> insert(batch));
+            counts[0] += inserted.size();
+            inserted.forEach(product -> eventPublisher.publishEvent(ProductChangeEvent.created(product)));
+        } catch (RuntimeException e) {
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+            counts[1] += batch.size();
+            String message = "Insert failed: " + e.getMessage();
+            for (Integer line : batchLines) {
+                if (errorBudget.getAndDecrement() > 0) {
+                    errors.add(new RowError(line, message, null));
+                }
+            }
+        } finally {
+            ProductStages.end(stage);
+            batch.clear();
+            batchLines.clear();
+        }
+    }
+
+    private List<Product> insert(List<Product> products) {
+        LocalDateTime now = LocalDateTime.now();
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT, new String[]{"id"}), new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Product product = products.get(i);
+                ps.setString(1, product.getName());
+                ps.setString(2, product.getDescription());
+                ps.setBigDecimal(3, product.getPrice());
+                ps.setInt(4, product.getStock());
+                ps.setObject(5, now);
+                ps.setObject(6, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return products.size();
+            }
+        }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        List<Product> inserted = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            long id = ((Number) keys.get(i).values().iterator().next()).longValue();
+            inserted.add(new Product(id, product.getName(), product.getDescription(), product.getPrice(),
+                    product.getStock(), now, now));
+        }
+        return inserted;
+    }
+
+    private Path writeErrorReport(List<RowError> errors, long failedRows) throws IOException {
+        Path directory = Path.of(properties.getErrorDirectory());
+        Files.createDirectories(directory);
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path report = Files.createTempFile(directory, "product-import-" + timestamp + "-", "-errors.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+            writer.write("line,error,row");
+            writer.newLine();
+            for (RowError error : errors) {
+                writer.write(error.line() + "," + quote(error.message()) + "," + quote(error.row()));
+                writer.newLine();
+            }
+            if (failedRows > errors.size()) {
+                writer.write("," + quote((failedRows - errors.size()) + " more failed rows not listed") + ",");
+                writer.newLine();
+            }
+        }
+        return report.toAbsolutePath();
+    }
+
+    private static String quote(String value) {
+        return value == null ? "" : "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    @Override
+    public void destroy() {
+        chunkExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.fastProductApi.csvimport;
+
+import com.example.fastProductApi.entity.Product;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses product rows straight from a (memory-mapped) buffer. Fields are unquoted into a scratch array that is
+ * reused for every row; price and stock are parsed from those bytes, so only name and description become Strings.
+ * <p>
+ * A row ends at every line feed, also inside quotes, which is what allows a file to be split at any line feed.
+ * Quoted fields can contain commas and doubled quotes but no line breaks. Not thread-safe; use one per chunk.
+ */
+final class ProductCsvParser {
+
+    // length of the name and description columns
+    static final int MAX_TEXT_LENGTH = 255;
+
+    // longest unscaled value that always fits in a long
+    private static final int MAX_FAST_DIGITS = 18;
+
+    /**
+     * Positions of the known columns in a row; -1 for a missing optional column.
+     */
+    record Columns(int name, int description, int price, int stock, int count) {
+
+        /**
+         * @param headerLine First line of the file, e.g. {@code name,description,price,stock} in any order.
+         * @throws IllegalArgumentException When name or price is missing.
+         */
+        static Columns fromHeader(String headerLine) {
+            List<String> header = new ArrayList<>();
+            for (String column : headerLine.replace("\uFEFF", "").strip().split(",", -1)) {
+                header.add(column.strip().replace("\"", "").toLowerCase(Locale.ROOT));
+            }
+            int name = header.indexOf("name");
+            int price = header.indexOf("price");
+            if (name < 0 || price < 0) {
+                throw new IllegalArgumentException("CSV header must contain the columns name and price, found " + header);
+            }
+            return new Columns(name, header.indexOf("description"), price, header.indexOf("stock"), header.size());
+        }
+    }
+
+    interface RowHandler {
+
+        /**
+         * @param line    Line number within the parsed buffer, starting at 1.
+         * @param product Product without ID and timestamps.
+         */
+        void row(int line, Product product);
+
+        /**
+         * @param line    Line number within the parsed buffer, starting at 1.
+         * @param message What is wrong with the row.
+         * @param row     The row as it appears in the file.
+         */
+        void error(int line, String message, String row);
+    }
+
+    private final Columns columns;
+    private final int[] fieldStart;
+    private final int[] fieldLength;
+    private byte[] scratch = new byte[512];
+
+    ProductCsvParser(Columns columns) {
+        this.columns = columns;
+        this.fieldStart = new int[columns.count()];
+        this.fieldLength = new int[columns.count()];
+    }
+
+    /**
+     * Parse every line between the buffer's position and limit; blank lines are skipped.
+     *
+     * @return Number of lines in the buffer, including blank and failed ones.
+     */
+    int parse(ByteBuffer buffer, RowHandler handler) {
+        int line = 0;
+        int position = buffer.position();
+        int limit = buffer.limit();
+        while (position < limit) {
+            int end = position;
+            while (end < limit && buffer.get(end) != '\n') {
+                end++;
+            }
+            line++;
+            int contentEnd = end > position && buffer.get(end - 1) == '\r' ? end - 1 : end;
+            if (contentEnd > position) {
+                parseRow(buffer, position, contentEnd, line, handler);
+            }
+            position = end + 1;
+        }
+        return line;
+    }
+
+    private void parseRow(ByteBuffer buffer, int start, int end, int line, RowHandler handler) {
+        String error = splitFields(buffer, start, end);
+        if (error == null) {
+            error = toProduct(line, handler);
+        }
+        if (error != null) {
+            byte[] row = new byte[end - start];
+            buffer.get(start, row);
+            handler.error(line, error, new String(row, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Copy the unquoted fields of a row into {@link #scratch}.
+     *
+     * @return Null, or why the row cannot be split.
+     */
+    private String splitFields(ByteBuffer buffer, int start, int end) {
+        // unquoting never makes a row longer
+        if (scratch.length < end - start) {
+            scratch = new byte[Math.max(end - start, scratch.length * 2)];
+        }
+        int field = 0;
+        int out = 0;
+        int position = start;
+        while (true) {
+            if (field == columns.count()) {
+                return "Expected " + columns.count() + " fields, found more";
+            }
+            fieldStart[field] = out;
+            if (position < end && buffer.get(position) == '"') {
+                position++;
+                boolean closed = false;
+                while (position < end) {
+                    byte b = buffer.get(position++);
+                    if (b != '"') {
+                        scratch[out++] = b;
+                    } else if (position < end && buffer.get(position) == '"') {
+                        scratch[out++] = '"';
+                        position++;
+                    } else {
+                        closed = true;
+                        break;
+                    }
+                }
+                if (!closed) {
+                    return "Unterminated quoted field " + (field + 1);
+                }
+                if (position < end && buffer.get(position) != ',') {
+                    return "Unexpected character after quoted field " + (field + 1);
+                }
+            } else {
+                while (position < end && buffer.get(position) != ',') {
+                    scratch[out++] = buffer.get(position++);
+                }
+            }
+            fieldLength[field] = out - fieldStart[field];
+            field++;
+            if (position >= end) {
+                break;
+            }
+            // skip the comma; a trailing one starts an empty last field
+            position++;
+        }
+        if (field != columns.count()) {
+            return "Expected " + columns.count() + " fields, found " + field;
+        }
+        return null;
+    }
+
+    private String toProduct(int line, RowHandler handler) {
+        String name = text(columns.name());
+        if (name.isBlank()) {
+            return "name is empty";
+        }
+        if (name.length() > MAX_TEXT_LENGTH) {
+            return "name is longer than " + MAX_TEXT_LENGTH + " characters";
+        }
+        String description = columns.description() < 0 ? "" : text(columns.description());
+        if (description.length() > MAX_TEXT_LENGTH) {
+            return "description is longer than " + MAX_TEXT_LENGTH + " characters";
+        }
+        BigDecimal price = decimal(columns.price());
+        if (price == null) {
+            return "price is not a number: '" + text(columns.price()) + "'";
+        }
+        int stock = 0;
+        if (columns.stock() >= 0 && fieldLength[columns.stock()] > 0) {
+            Integer parsedStock = integer(columns.stock());
+            if (parsedStock == null) {
+                return "stock is not an integer: '" + text(columns.stock()) + "'";
+            }
+            stock = parsedStock;
+        }
+        handler.row(line, new Product(null, name, description, price, stock, null, null));
+        return null;
+    }
+
+    private String text(int field) {
+        return new String(scratch, fieldStart[field], fieldLength[field], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return The field as a decimal such as {@code -12.50}, or null when it is not one.
+     */
+    private BigDecimal decimal(int field) {
+        int position = fieldStart[field];
+        int end = position + fieldLength[field];
+        while (position < end && scratch[position] == ' ') {
+            position++;
+        }
+        while (end > position && scratch[end - 1] == ' ') {
+            end--;
+        }
+        int digitsStart = position;
+        boolean negative = position < end && scratch[position] == '-';
+        if (negative || (position < end && scratch[position] == '+')) {
+            position++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; position < end; position++) {
+            byte b = scratch[position];
+            if (b == '.' && scale < 0) {
+                scale = 0;
+            } else if (b >= '0' && b <= '9') {
+                unscaled = unscaled * 10 + (b - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else {
+                return null;
+            }
+        }
+        if (digits == 0) {
+            return null;
+        }
+        if (digits > MAX_FAST_DIGITS) {
+            return new BigDecimal(new String(scratch, digitsStart, end - digitsStart, StandardCharsets.US_ASCII));
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+    }
+
+    /**
+     * @return The field as an int, or null when it is not one or out of range.
+     */
+    private Integer integer(int field) {
+        int position = fieldStart[field];
+        int end = position + fieldLength[field];
+        while (position < end && scratch[position] == ' ') {
+            position++;
+        }
+        while (end > position && scratch[end - 1] == ' ') {
+            end--;
+        }
+        boolean negative = position < end && scratch[position] == '-';
+        if (negative || (position < end && scratch[position] == '+')) {
+            position++;
+        }
+        if (position == end) {
+            return null;
+        }
+        long value = 0;
+        for (; position < end; position++) {
+            byte b = scratch[position];
+            if (b < '0' || b > '9') {
+                return null;
+            }
+            value = value * 10 + (b - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return null;
+            }
+        }
+        value = negative ? -value : value;
+        return value > Integer.MAX_VALUE ? null : (int) value;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.fastProductApi.delta;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// always on: deletes write tombstones either way, so a client can sync from any cursor within the retention
+@Configuration
+@EnableConfigurationProperties(ProductDeltaProperties.class)
+public class ProductDeltaConfig {
+
+    @Bean
+    public ProductDeltaService productDeltaService(ProductDeltaProperties properties) {
+        return new ProductDeltaService(properties);
+    }
+}
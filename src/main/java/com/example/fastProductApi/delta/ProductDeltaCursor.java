@@ -0,0 +1,37 @@
+package com.example.fastProductApi.delta;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in the {@code (changedAt, id)} order of product changes, sent to clients as an opaque string.
+ *
+ * @param changedAt Time of the last change seen.
+ * @param id        ID of the product of the last change seen.
+ */
+record ProductDeltaCursor(LocalDateTime changedAt, long id) {
+
+    // before every change, for a first sync
+    static final ProductDeltaCursor START = new ProductDeltaCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0);
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((changedAt + "," + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException When the cursor was not made by {@link #encode()}.
+     */
+    static ProductDeltaCursor parse(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",", -1);
+            if (parts.length == 2) {
+                return new ProductDeltaCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.fastProductApi.delta;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@code GET /products/delta} and the tombstones deletes leave for it.
+ */
+@ConfigurationProperties(prefix = "product.delta")
+public class ProductDeltaProperties {
+
+    // changes younger than this are held back, so writes stamped earlier but still committing are not skipped
+    private Duration settleTime = Duration.ofSeconds(5);
+    // largest page a client may ask for
+    private int maxLimit = 1000;
+    // tombstones are kept this long; older cursors answer 410 Gone and the client has to sync from scratch
+    private Duration tombstoneRetention = Duration.ofDays(30);
+    // how often expired tombstones are removed
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    public Duration getSettleTime() {
+        return settleTime;
+    }
+
+    public void setSettleTime(Duration settleTime) {
+        this.settleTime = settleTime;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public Duration getTombstoneRetention() {
+        return tombstoneRetention;
+    }
+
+    public void setTombstoneRetention(Duration tombstoneRetention) {
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+}
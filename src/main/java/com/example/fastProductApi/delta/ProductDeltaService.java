@@ -0,0 +1,156 @@
+package com.example.fastProductApi.delta;
+
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.exception.CustomException;
+import com.example.fastProductApi.repository.ProductProjectionRepository;
+import com.example.fastProductApi.service.ProductServiceForBasicCrud;
+import com.example.fastProductApi.sharding.ShardedProductStore;
+import com.example.fastProductApi.util.ConstantMessages;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Incremental sync for clients that mirror the catalog: everything updated or deleted after a cursor, in
+ * {@code (lastUpdatedAt, id)} order, read with keyset scans of the {@code last_updated_at} index and of the
+ * tombstones deletes leave behind. A sync costs what changed since the last one, not the size of the catalog.
+ * <p>
+ * Changes of the last {@code settle-time} are held back: {@code lastUpdatedAt} is set before the write commits,
+ * so a later page could otherwise skip a change that becomes visible behind the cursor. Tombstones older than
+ * {@code tombstone-retention} are purged in the background, and cursors that old are rejected.
+ */
+public class ProductDeltaService implements DisposableBean {
+    static Logger log = LoggerFactory.getLogger(ProductDeltaService.class);
+
+    /**
+     * One page of changes; a product changed several times within the page appears once, as last seen.
+     *
+     * @param products   Products created or updated, in change order.
+     * @param deletedIds IDs of deleted products.
+     * @param nextCursor Cursor for the next page; once caught up, the settled watermark, so an idle client's cursor
+     *                   keeps moving and does not expire.
+     * @param hasMore    Whether more changes are ready right away.
+     */
+    public record Page(List<Product> products, List<Long> deletedIds, String nextCursor, boolean hasMore) {
+    }
+
+    /**
+     * The cursor is older than the tombstone retention, so deletions since then may be gone.
+     */
+    public static class CursorExpiredException extends RuntimeException {
+        public CursorExpiredException(String message) {
+            super(message);
+        }
+    }
+
+    @Autowired
+    private ProductServiceForBasicCrud productServiceForBasicCrud;
+
+    // only present when product.sharding.enabled=true
+    @Autowired(required = false)
+    private ShardedProductStore shardedProductStore;
+
+    private final Duration settleTime;
+    private final int maxLimit;
+    private final Duration tombstoneRetention;
+    private final ScheduledExecutorService purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-tombstone-purger");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProductDeltaService(ProductDeltaProperties properties) {
+        this.settleTime = properties.getSettleTime();
+        this.maxLimit = properties.getMaxLimit();
+        this.tombstoneRetention = properties.getTombstoneRetention();
+        long purgeMillis = properties.getPurgeInterval().toMillis();
+        purger.scheduleWithFixedDelay(this::purgeTombstones, purgeMillis, purgeMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * @param since Cursor of the previous page, null for a first sync of the whole catalog.
+     * @param limit Maximum number of changes, at most {@code max-limit}.
+     * @throws IllegalArgumentException When the cursor or the limit is invalid.
+     * @throws CursorExpiredException   When the cursor is older than the tombstone retention.
+     */
+    public Page findChangesSince(String since, int limit) throws CustomException {
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+        ProductDeltaCursor after = since == null || since.isBlank() ? ProductDeltaCursor.START : ProductDeltaCursor.parse(since);
+        LocalDateTime now = LocalDateTime.now();
+        if (after != ProductDeltaCursor.START && after.changedAt().isBefore(now.minus(tombstoneRetention))) {
+            throw new CursorExpiredException("Cursor is older than the tombstone retention of " + tombstoneRetention + ", sync from scratch");
+        }
+        LocalDateTime until = now.minus(settleTime);
+        // one more than asked tells whether there is another page
+        List<ProductProjectionRepository.Change> changes = shardedProductStore != null
+                ? shardedProductStore.findChangesAfter(after.changedAt(), after.id(), until, limit + 1)
+                : productServiceForBasicCrud.findChangesAfter(after.changedAt(), after.id(), until, limit + 1);
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+
+        Map<Long, ProductProjectionRepository.Change> latest = new LinkedHashMap<>();
+        for (ProductProjectionRepository.Change change : changes) {
+            latest.remove(change.id());
+            latest.put(change.id(), change);
+        }
+        List<Product> products = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        for (ProductProjectionRepository.Change change : latest.values()) {
+            if (change.product() != null) {
+                products.add(change.product());
+            } else {
+                deletedIds.add(change.id());
+            }
+        }
+        ProductDeltaCursor next = after;
+        if (hasMore) {
+            ProductProjectionRepository.Change last = changes.get(changes.size() - 1);
+            next = new ProductDeltaCursor(last.changedAt(), last.id());
+        } else if (until.isAfter(after.changedAt())) {
+            // every change up to until has been read, whatever its id
+            next = new ProductDeltaCursor(until, Long.MAX_VALUE);
+        }
+        return new Page(products, deletedIds, next.encode(), hasMore);
+    }
+
+    /**
+     * Remove the tombstones older than the retention.
+     */
+    public void purgeTombstones() {
+        try {
+            LocalDateTime before = LocalDateTime.now().minus(tombstoneRetention);
+            int purged = shardedProductStore != null
+                    ? shardedProductStore.deleteTombstonesBefore(before)
+                    : productServiceForBasicCrud.deleteTombstonesBefore(before);
+            if (purged > 0) {
+                log.info("Purged {} product tombstones of deletions before {}", purged, before);
+            }
+        } catch (Exception e) {
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        purger.shutdownNow();
+    }
+}
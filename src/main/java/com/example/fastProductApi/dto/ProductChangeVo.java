@@ -0,0 +1,37 @@
+package com.example.fastProductApi.dto;
+
+import com.example.fastProductApi.event.ProductChangeEvent;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the {@code GET /products/changes} stream; clients fetch the product for anything beyond price
+ * and stock.
+ *
+ * @param type          Kind of change.
+ * @param id            Product ID.
+ * @param price         Price after the change, absent for deletes.
+ * @param stock         Stock after the change, absent for deletes.
+ * @param lastUpdatedAt Timestamp of the change, absent for deletes.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductChangeVo(
+        ProductChangeEvent.Type type,
+        Long id,
+        BigDecimal price,
+        Integer stock,
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime lastUpdatedAt
+) {
+
+    public static ProductChangeVo of(ProductChangeEvent event) {
+        if (event.product() == null) {
+            return new ProductChangeVo(event.type(), event.productId(), null, null, null);
+        }
+        return new ProductChangeVo(event.type(), event.productId(), event.product().getPrice(),
+                event.product().getStock(), event.product().getLastUpdatedAt());
+    }
+}
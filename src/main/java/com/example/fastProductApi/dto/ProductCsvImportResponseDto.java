@@ -0,0 +1,86 @@
+package com.example.fastProductApi.dto;
+
+public class ProductCsvImportResponseDto {
+    private long importedRows;
+    private long failedRows;
+    private int chunks;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    // server-side path of the per-row error report, null when every row was imported
+    private String errorReport;
+    private ResponseStatusVo responseStatus;
+
+    public ProductCsvImportResponseDto() {
+    }
+
+    public ProductCsvImportResponseDto(ResponseStatusVo responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductCsvImportResponseDto{" +
+                "importedRows=" + importedRows +
+                ", failedRows=" + failedRows +
+                ", chunks=" + chunks +
+                ", elapsedMillis=" + elapsedMillis +
+                ", errorReport='" + errorReport + '\'' +
+                '}';
+    }
+
+    public long getImportedRows() {
+        return importedRows;
+    }
+
+    public void setImportedRows(long importedRows) {
+        this.importedRows = importedRows;
+    }
+
+    public long getFailedRows() {
+        return failedRows;
+    }
+
+    public void setFailedRows(long failedRows) {
+        this.failedRows = failedRows;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(int chunks) {
+        this.chunks = chunks;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public String getErrorReport() {
+        return errorReport;
+    }
+
+    public void setErrorReport(String errorReport) {
+        this.errorReport = errorReport;
+    }
+
+    public ResponseStatusVo getResponseStatus() {
+        return responseStatus;
+    }
+
+    public void setResponseStatus(ResponseStatusVo responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+}
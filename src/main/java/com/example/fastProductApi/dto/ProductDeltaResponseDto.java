@@ -0,0 +1,61 @@
+package com.example.fastProductApi.dto;
+
+import java.util.List;
+
+/**
+ * One page of a delta sync: products created or updated and IDs deleted since the request's cursor, plus the
+ * cursor to ask for the next page with.
+ */
+public class ProductDeltaResponseDto extends ProductListResponseDto {
+    private List<Long> deletedProductIds;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public ProductDeltaResponseDto() {
+    }
+
+    public ProductDeltaResponseDto(ResponseStatusVo responseStatus) {
+        super(null, responseStatus);
+    }
+
+    public ProductDeltaResponseDto(List<ProductResponseDto> products, List<Long> deletedProductIds, String nextCursor, boolean hasMore, ResponseStatusVo responseStatus) {
+        super(products, responseStatus);
+        this.deletedProductIds = deletedProductIds;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductDeltaResponseDto{" +
+                "products=" + getProducts() +
+                ", deletedProductIds=" + deletedProductIds +
+                ", nextCursor='" + nextCursor + '\'' +
+                ", hasMore=" + hasMore +
+                '}';
+    }
+
+    public List<Long> getDeletedProductIds() {
+        return deletedProductIds;
+    }
+
+    public void setDeletedProductIds(List<Long> deletedProductIds) {
+        this.deletedProductIds = deletedProductIds;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
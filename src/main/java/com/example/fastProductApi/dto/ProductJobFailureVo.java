@@ -0,0 +1,15 @@
+package com.example.fastProductApi.dto;
+
+/**
+ * Failed items of one chunk of a bulk job.
+ *
+ * @param chunkIndex  Zero-based chunk number; the chunk holds items chunkIndex * chunkSize onwards.
+ * @param failedItems Items of the chunk that were not written.
+ * @param error       Why, e.g. the IDs that were not found.
+ */
+public record ProductJobFailureVo(
+        int chunkIndex,
+        int failedItems,
+        String error
+) {
+}
@@ -0,0 +1,13 @@
+package com.example.fastProductApi.dto;
+
+import java.util.List;
+
+/**
+ * A bulk job: {@code products} for {@code UPLOAD} and {@code UPDATE}, {@code ids} for {@code DELETE}.
+ */
+public record ProductJobRequestDto(
+        String operation,
+        List<ProductRequestDto> products,
+        List<Long> ids
+) {
+}
@@ -0,0 +1,163 @@
+package com.example.fastProductApi.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ProductJobResponseDto {
+    private Long jobId;
+    private String operation;
+    private String status;
+    private int totalItems;
+    private int totalChunks;
+    private int completedChunks;
+    private long succeededItems;
+    private long failedItems;
+    // processed items per second since the job started
+    private double itemsPerSecond;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime startedAt;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime finishedAt;
+
+    private List<ProductJobFailureVo> failures;
+    private ResponseStatusVo responseStatus;
+
+    public ProductJobResponseDto() {
+    }
+
+    public ProductJobResponseDto(ResponseStatusVo responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductJobResponseDto{" +
+                "jobId=" + jobId +
+                ", operation='" + operation + '\'' +
+                ", status='" + status + '\'' +
+                ", completedChunks=" + completedChunks +
+                ", totalChunks=" + totalChunks +
+                ", succeededItems=" + succeededItems +
+                ", failedItems=" + failedItems +
+                '}';
+    }
+
+    public Long getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(Long jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getTotalItems() {
+        return totalItems;
+    }
+
+    public void setTotalItems(int totalItems) {
+        this.totalItems = totalItems;
+    }
+
+    public int getTotalChunks() {
+        return totalChunks;
+    }
+
+    public void setTotalChunks(int totalChunks) {
+        this.totalChunks = totalChunks;
+    }
+
+    public int getCompletedChunks() {
+        return completedChunks;
+    }
+
+    public void setCompletedChunks(int completedChunks) {
+        this.completedChunks = completedChunks;
+    }
+
+    public long getSucceededItems() {
+        return succeededItems;
+    }
+
+    public void setSucceededItems(long succeededItems) {
+        this.succeededItems = succeededItems;
+    }
+
+    public long getFailedItems() {
+        return failedItems;
+    }
+
+    public void setFailedItems(long failedItems) {
+        this.failedItems = failedItems;
+    }
+
+    public double getItemsPerSecond() {
+        return itemsPerSecond;
+    }
+
+    public void setItemsPerSecond(double itemsPerSecond) {
+        this.itemsPerSecond = itemsPerSecond;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public List<ProductJobFailureVo> getFailures() {
+        return failures;
+    }
+
+    public void setFailures(List<ProductJobFailureVo> failures) {
+        this.failures = failures;
+    }
+
+    public ResponseStatusVo getResponseStatus() {
+        return responseStatus;
+    }
+
+    public void setResponseStatus(ResponseStatusVo responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.fastProductApi.dto;
+
+import java.util.List;
+
+public class ProductPageResponseDto {
+    private List<ProductResponseDto> products;
+    private int page;
+    private int size;
+    private long totalElements;
+    private ResponseStatusVo responseStatus;
+
+    public ProductPageResponseDto() {
+    }
+
+    public ProductPageResponseDto(List<ProductResponseDto> products, int page, int size, long totalElements, ResponseStatusVo responseStatus) {
+        this.products = products;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.responseStatus = responseStatus;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductPageResponseDto{" +
+                "products=" + products +
+                ", page=" + page +
+                ", size=" + size +
+                ", totalElements=" + totalElements +
+                ", responseStatus=" + responseStatus +
+                '}';
+    }
+
+    public List<ProductResponseDto> getProducts() {
+        return products;
+    }
+
+    public void setProducts(List<ProductResponseDto> products) {
+        this.products = products;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public ResponseStatusVo getResponseStatus() {
+        return responseStatus;
+    }
+
+    public void setResponseStatus(ResponseStatusVo responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.fastProductApi.dto;
+
+import java.util.List;
+
+public record ProductPatchListRequestDto(
+        List<ProductPatchRequestDto> products
+) {
+}
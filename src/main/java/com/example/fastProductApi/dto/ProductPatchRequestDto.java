@@ -0,0 +1,15 @@
+package com.example.fastProductApi.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Partial update of one product; absent or null fields are left unchanged.
+ */
+public record ProductPatchRequestDto(
+        Long id,
+        String name,
+        String description,
+        BigDecimal price,
+        Integer stock
+) {
+}
@@ -0,0 +1,38 @@
+package com.example.fastProductApi.dto;
+
+import java.util.List;
+
+/**
+ * Response of a bulk patch: the patched products, whole, plus the IDs that do not exist.
+ */
+public class ProductPatchResponseDto extends ProductListResponseDto {
+    private List<Long> notFoundProductIds;
+
+    public ProductPatchResponseDto() {
+    }
+
+    public ProductPatchResponseDto(ResponseStatusVo responseStatus) {
+        super(null, responseStatus);
+    }
+
+    public ProductPatchResponseDto(List<ProductResponseDto> products, List<Long> notFoundProductIds, ResponseStatusVo responseStatus) {
+        super(products, responseStatus);
+        this.notFoundProductIds = notFoundProductIds;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductPatchResponseDto{" +
+                "products=" + getProducts() +
+                ", notFoundProductIds=" + notFoundProductIds +
+                '}';
+    }
+
+    public List<Long> getNotFoundProductIds() {
+        return notFoundProductIds;
+    }
+
+    public void setNotFoundProductIds(List<Long> notFoundProductIds) {
+        this.notFoundProductIds = notFoundProductIds;
+    }
+}
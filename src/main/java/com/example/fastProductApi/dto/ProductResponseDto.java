@@ -1,17 +1,20 @@
 package com.example.fastProductApi.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+// fields left out with fields= are null and not serialized
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ProductResponseDto {
 
         private Long id;
         private String name;
         private String description;
         private BigDecimal price;
-        private int stock;
+        private Integer stock;
 
         @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
         private LocalDateTime createdAt;
@@ -77,11 +80,11 @@ public class ProductResponseDto {
                 this.price = price;
         }
 
-        public int getStock() {
+        public Integer getStock() {
                 return stock;
         }
 
-        public void setStock(int stock) {
+        public void setStock(Integer stock) {
                 this.stock = stock;
         }
 
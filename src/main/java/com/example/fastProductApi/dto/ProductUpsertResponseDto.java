@@ -0,0 +1,46 @@
+package com.example.fastProductApi.dto;
+
+import java.util.List;
+
+/**
+ * Response of a batched upsert: the saved products in request order, plus which of them were inserted and which
+ * updated.
+ */
+public class ProductUpsertResponseDto extends ProductListResponseDto {
+    private List<Long> insertedProductIds;
+    private List<Long> updatedProductIds;
+
+    public ProductUpsertResponseDto() {
+    }
+
+    public ProductUpsertResponseDto(List<ProductResponseDto> products, List<Long> insertedProductIds, List<Long> updatedProductIds, ResponseStatusVo responseStatus) {
+        super(products, responseStatus);
+        this.insertedProductIds = insertedProductIds;
+        this.updatedProductIds = updatedProductIds;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductUpsertResponseDto{" +
+                "products=" + getProducts() +
+                ", insertedProductIds=" + insertedProductIds +
+                ", updatedProductIds=" + updatedProductIds +
+                '}';
+    }
+
+    public List<Long> getInsertedProductIds() {
+        return insertedProductIds;
+    }
+
+    public void setInsertedProductIds(List<Long> insertedProductIds) {
+        this.insertedProductIds = insertedProductIds;
+    }
+
+    public List<Long> getUpdatedProductIds() {
+        return updatedProductIds;
+    }
+
+    public void setUpdatedProductIds(List<Long> updatedProductIds) {
+        this.updatedProductIds = updatedProductIds;
+    }
+}
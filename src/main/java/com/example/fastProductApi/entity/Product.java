@@ -7,7 +7,8 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+// (last_updated_at, id) serves the keyset scans of GET /products/delta and the catalog snapshot delta
+@Table(name = "products", indexes = @Index(name = "idx_products_last_updated_at", columnList = "last_updated_at, id"))
 public class Product implements Serializable {
 
     // Recommended to define serialVersionUID
@@ -0,0 +1,50 @@
+package com.example.fastProductApi.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Left behind by a deleted product, written in the same transaction as the delete, so that
+ * {@code GET /products/delta} can report deletions; purged after {@code product.delta.tombstone-retention}.
+ */
+@Entity
+@Table(name = "product_tombstones", indexes = @Index(name = "idx_product_tombstones_deleted_at", columnList = "deleted_at, product_id"))
+public class ProductTombstone {
+
+    // ID of the deleted product; an upsert that re-creates the ID removes the tombstone again
+    @Id
+    private Long productId;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+
+    public ProductTombstone() {
+    }
+
+    public ProductTombstone(Long productId, LocalDateTime deletedAt) {
+        this.productId = productId;
+        this.deletedAt = deletedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductTombstone{" + "productId=" + productId + ", deletedAt=" + deletedAt + '}';
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
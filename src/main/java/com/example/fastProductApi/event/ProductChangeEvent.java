@@ -0,0 +1,29 @@
+package com.example.fastProductApi.event;
+
+import com.example.fastProductApi.entity.Product;
+
+/**
+ * Published after a product has been written to the database.
+ *
+ * @param type      Kind of change.
+ * @param productId ID of the changed product.
+ * @param product   Product as saved, null for {@link Type#DELETED}.
+ */
+public record ProductChangeEvent(Type type, Long productId, Product product) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static ProductChangeEvent created(Product product) {
+        return new ProductChangeEvent(Type.CREATED, product.getId(), product);
+    }
+
+    public static ProductChangeEvent updated(Product product) {
+        return new ProductChangeEvent(Type.UPDATED, product.getId(), product);
+    }
+
+    public static ProductChangeEvent deleted(Long productId) {
+        return new ProductChangeEvent(Type.DELETED, productId, null);
+    }
+}
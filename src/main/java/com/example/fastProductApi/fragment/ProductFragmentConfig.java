@@ -0,0 +1,39 @@
+package com.example.fastProductApi.fragment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(prefix = "product.fragments", name = "enabled", havingValue = "true")
+public class ProductFragmentConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Bean
+    public RedisCacheManagerBuilderCustomizer productFragmentsCacheCustomizer() {
+        return builder -> builder.withCacheConfiguration(ProductJsonFragmentCache.PRODUCT_FRAGMENTS_CACHE,
+                fragmentsCacheConfiguration(builder.cacheDefaults()));
+    }
+
+    // fragments are stored as raw bytes in Redis, not wrapped in JDK serialization; the TTL stays the default one
+    public static RedisCacheConfiguration fragmentsCacheConfiguration(RedisCacheConfiguration defaults) {
+        return defaults.serializeValuesWith(RedisSerializationContext.SerializationPair.byteArray());
+    }
+
+    // first in line, the Jackson converter would otherwise write the fragment response as a plain bean
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new ProductFragmentsHttpMessageConverter(objectMapper));
+    }
+}
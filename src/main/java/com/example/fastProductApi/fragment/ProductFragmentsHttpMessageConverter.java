@@ -0,0 +1,69 @@
+package com.example.fastProductApi.fragment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes a {@link ProductFragmentsResponseDto} as the same JSON Jackson produces for a
+ * {@code ProductsByIdResponseDto}, copying the cached product fragments straight into the response body.
+ * Registered ahead of the Jackson converter.
+ */
+public class ProductFragmentsHttpMessageConverter extends AbstractHttpMessageConverter<ProductFragmentsResponseDto> {
+
+    private static final byte[] PREFIX = "{\"product\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] STATUS = "],\"responseStatus\":".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+
+    public ProductFragmentsHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == ProductFragmentsResponseDto.class;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ProductFragmentsResponseDto readInternal(Class<? extends ProductFragmentsResponseDto> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Fragment responses are write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(ProductFragmentsResponseDto response, HttpOutputMessage outputMessage) throws IOException {
+        List<byte[]> fragments = response.getFragments();
+        byte[] status = objectMapper.writeValueAsBytes(response.getResponseStatus());
+        long length = PREFIX.length + STATUS.length + status.length + 1 + Math.max(0, fragments.size() - 1);
+        for (byte[] fragment : fragments) {
+            length += ProductJsonFragmentCache.jsonLength(fragment);
+        }
+        outputMessage.getHeaders().setContentLength(length);
+
+        OutputStream body = outputMessage.getBody();
+        body.write(PREFIX);
+        for (int i = 0; i < fragments.size(); i++) {
+            if (i > 0) {
+                body.write(',');
+            }
+            ProductJsonFragmentCache.writeJson(fragments.get(i), body);
+        }
+        body.write(STATUS);
+        body.write(status);
+        body.write('}');
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.fastProductApi.fragment;
+
+import com.example.fastProductApi.dto.ProductsByIdResponseDto;
+import com.example.fastProductApi.dto.ResponseStatusVo;
+
+import java.util.List;
+
+/**
+ * {@link ProductsByIdResponseDto} whose products are already serialized: it carries cached JSON fragments
+ * instead of {@code ProductResponseDto}s and is written by {@link ProductFragmentsHttpMessageConverter}.
+ */
+public class ProductFragmentsResponseDto extends ProductsByIdResponseDto {
+
+    private final List<byte[]> fragments;
+
+    public ProductFragmentsResponseDto(List<byte[]> fragments, ResponseStatusVo responseStatus) {
+        super(null, responseStatus);
+        this.fragments = fragments;
+    }
+
+    public List<byte[]> getFragments() {
+        return fragments;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductFragmentsResponseDto{" +
+                "fragments=" + fragments.size() +
+                ", responseStatus=" + getResponseStatus() +
+                '}';
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.fastProductApi.fragment;
+
+import com.example.fastProductApi.cache.ProductCacheOperations;
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.event.ProductChangeEvent;
+import com.example.fastProductApi.mapper.ProductMapper;
+import com.example.fastProductApi.util.ConstantMessages;
+import com.example.fastProductApi.util.ProductETags;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code productFragments} cache holding the final JSON of each product's {@code ProductResponseDto}, so bulk
+ * JSON responses can be assembled from bytes without deserializing, mapping and serializing every product.
+ * <p>
+ * An entry is the product's {@link ProductETags#version(Product) version} as 8 big-endian bytes followed by the
+ * UTF-8 JSON, so ETags can be computed from fragments alone. Entries are evicted on every
+ * {@link ProductChangeEvent}, i.e. together with the {@code products} cache entry, and rebuilt on the next read.
+ * Bulk reads and writes go through {@link ProductCacheOperations}, on Redis one {@code MGET} and one pipeline of
+ * {@code SET}s.
+ */
+@Component
+@ConditionalOnProperty(prefix = "product.fragments", name = "enabled", havingValue = "true")
+public class ProductJsonFragmentCache {
+    static Logger log = LoggerFactory.getLogger(ProductJsonFragmentCache.class);
+
+    public static final String PRODUCT_FRAGMENTS_CACHE = "productFragments";
+    static final int VERSION_BYTES = Long.BYTES;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private ProductCacheOperations productCacheOperations;
+
+    /**
+     * @param ids Product IDs to look up.
+     * @return Cached fragments by ID; misses are absent from the map.
+     */
+    public Map<Long, byte[]> getAll(Collection<Long> ids) {
+        try {
+            return productCacheOperations.getAll(PRODUCT_FRAGMENTS_CACHE, ProductFragmentConfig::fragmentsCacheConfiguration, ids, byte[].class);
+        } catch (Exception e) {
+            // treat as misses, the caller loads the products instead
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Serialize products that have just been read and cache their fragments.
+     *
+     * @return The fragments by product ID, also when they could not be cached.
+     */
+    public Map<Long, byte[]> putAll(Collection<Product> products) throws IOException {
+        Map<Long, byte[]> fragments = new HashMap<>();
+        for (Product product : products) {
+            fragments.put(product.getId(), toFragment(product));
+        }
+        try {
+            productCacheOperations.putAll(PRODUCT_FRAGMENTS_CACHE, ProductFragmentConfig::fragmentsCacheConfiguration, fragments, false);
+        } catch (Exception e) {
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+        }
+        return fragments;
+    }
+
+    // after commit, so a read racing the write cannot put the old fragment back
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        try {
+            fragmentsCache().evict(event.productId());
+        } catch (Exception e) {
+            // the write itself has succeeded, so never fail (and retry) it because of this cache
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+        }
+    }
+
+    byte[] toFragment(Product product) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(productMapper.toDTO(product));
+        return ByteBuffer.allocate(VERSION_BYTES + json.length)
+                .putLong(ProductETags.version(product))
+                .put(json)
+                .array();
+    }
+
+    /**
+     * @return The {@link ProductETags#version(Product) version} of the product the fragment was built from.
+     */
+    public static long version(byte[] fragment) {
+        return ByteBuffer.wrap(fragment, 0, VERSION_BYTES).getLong();
+    }
+
+    static int jsonLength(byte[] fragment) {
+        return fragment.length - VERSION_BYTES;
+    }
+
+    static void writeJson(byte[] fragment, OutputStream out) throws IOException {
+        out.write(fragment, VERSION_BYTES, jsonLength(fragment));
+    }
+
+    private Cache fragmentsCache() {
+        return cacheManager.getCache(PRODUCT_FRAGMENTS_CACHE);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.fastProductApi.jfr;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+
+/**
+ * Wiring for {@code product.jfr.enabled=true}: request IDs, cache and connection-pool stage events and the
+ * {@code productrecording} endpoint. The events in the services and the controller are always compiled in and
+ * cost a single check while no recording is running.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "product.jfr", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ProductJfrProperties.class)
+public class ProductJfrConfig {
+
+    @Bean
+    public FilterRegistrationBean<ProductStageFilter> productStageFilter() {
+        FilterRegistrationBean<ProductStageFilter> registration = new FilterRegistrationBean<>(new ProductStageFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public ProductRecordingEndpoint productRecordingEndpoint(ProductJfrProperties properties) {
+        return new ProductRecordingEndpoint(properties);
+    }
+
+    /**
+     * Time every cache call and every connection taken from the pool behind the {@code dataSource} bean. With read
+     * replicas or shards the pools sit behind a lazy proxy that only fetches a connection on the first statement,
+     * so its target is wrapped instead of the proxy.
+     */
+    @Bean
+    public static BeanPostProcessor stageTimingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CacheManager cacheManager) {
+                    return stageTimingCacheManager(cacheManager);
+                }
+                if (bean instanceof LazyConnectionDataSourceProxy proxy && proxy.getTargetDataSource() != null) {
+                    proxy.setTargetDataSource(new StageTimingDataSource(proxy.getTargetDataSource()));
+                    return proxy;
+                }
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                    return new StageTimingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static CacheManager stageTimingCacheManager(CacheManager cacheManager) {
+        return new CacheManager() {
+            @Override
+            public Cache getCache(String name) {
+                Cache cache = cacheManager.getCache(name);
+                return cache == null ? null : new StageTimingCache(cache);
+            }
+
+            @Override
+            public Collection<String> getCacheNames() {
+                return cacheManager.getCacheNames();
+            }
+        };
+    }
+}
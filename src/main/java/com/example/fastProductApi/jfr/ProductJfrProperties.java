@@ -0,0 +1,63 @@
+package com.example.fastProductApi.jfr;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for the per-stage Flight Recorder events and the {@code productrecording} actuator endpoint.
+ */
+@ConfigurationProperties(prefix = "product.jfr")
+public class ProductJfrProperties {
+
+    private boolean enabled;
+    // where the endpoint's recordings are written
+    private String directory = "recordings";
+    // used when the start request names no duration
+    private Duration defaultDuration = Duration.ofSeconds(60);
+    // longest recording the endpoint starts, whatever the request asks for
+    private Duration maxDuration = Duration.ofMinutes(10);
+    // older data is dropped from a recording that grows beyond this
+    private DataSize maxSize = DataSize.ofMegabytes(100);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public Duration getDefaultDuration() {
+        return defaultDuration;
+    }
+
+    public void setDefaultDuration(Duration defaultDuration) {
+        this.defaultDuration = defaultDuration;
+    }
+
+    public Duration getMaxDuration() {
+        return maxDuration;
+    }
+
+    public void setMaxDuration(Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+}
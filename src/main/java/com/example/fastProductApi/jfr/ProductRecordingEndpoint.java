@@ -0,0 +1,100 @@
+package com.example.fastProductApi.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/productrecording}: POST starts a bounded Flight Recorder recording (JDK default settings plus
+ * {@link ProductStageEvent}s) that is written to a file when it ends, GET shows it, DELETE ends it early.
+ * One recording at a time.
+ */
+@Endpoint(id = "productrecording")
+public class ProductRecordingEndpoint {
+    static Logger log = LoggerFactory.getLogger(ProductRecordingEndpoint.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final ProductJfrProperties properties;
+    private Recording recording;
+
+    public ProductRecordingEndpoint(ProductJfrProperties properties) {
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("state", recording.getState().name());
+        status.put("file", String.valueOf(recording.getDestination()));
+        status.put("startedAt", String.valueOf(recording.getStartTime()));
+        status.put("duration", String.valueOf(recording.getDuration()));
+        status.put("maxSizeBytes", recording.getMaxSize());
+        return status;
+    }
+
+    /**
+     * @param duration How long to record, e.g. {@code 30s}; capped at {@code product.jfr.max-duration}.
+     */
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable Duration duration) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+        Duration requested = duration == null ? properties.getDefaultDuration() : duration;
+        Duration bounded = requested.compareTo(properties.getMaxDuration()) > 0 ? properties.getMaxDuration() : requested;
+        try {
+            Path directory = Files.createDirectories(Path.of(properties.getDirectory()));
+            Path file = directory.resolve("product-stages-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+            if (recording != null) {
+                recording.close();
+            }
+            recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName("productrecording");
+            recording.enable(ProductStageEvent.class);
+            recording.setToDisk(true);
+            recording.setMaxSize(properties.getMaxSize().toBytes());
+            recording.setDuration(bounded);
+            // written here when the duration has passed or the recording is stopped
+            recording.setDestination(file.toAbsolutePath());
+            recording.start();
+            log.info("Flight recording to {} started for {}", file.toAbsolutePath(), bounded);
+            return status();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("JDK default recording settings are not readable", e);
+        }
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Flight recording stopped and written to {}", recording.getDestination());
+        }
+        return status();
+    }
+}
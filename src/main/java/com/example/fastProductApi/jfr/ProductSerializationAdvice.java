@@ -0,0 +1,32 @@
+package com.example.fastProductApi.jfr;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Starts the {@link ProductStages.Stage#SERIALIZATION} event right before a response body is handed to its
+ * message converter; {@link ProductStageFilter} ends it once the response is written.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(prefix = "product.jfr", name = "enabled", havingValue = "true")
+public class ProductSerializationAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        ProductStages.beginSerialization(selectedConverterType.getSimpleName() + " " + selectedContentType);
+        return body;
+    }
+}
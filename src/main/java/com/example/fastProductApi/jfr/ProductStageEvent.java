@@ -0,0 +1,33 @@
+package com.example.fastProductApi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for the time one product operation spends in one {@link ProductStages.Stage}.
+ * Created through {@link ProductStages}, which skips it entirely while no recording asks for it.
+ */
+@Name("fastProductApi.ProductStage")
+@Label("Product Stage")
+@Category("fastProductApi")
+@Description("Time spent by a product operation in one stage: queueing, cache, connection, database, mapping or serialization")
+@StackTrace(false)
+public class ProductStageEvent extends Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Request ID")
+    String requestId;
+
+    @Label("Batch Size")
+    @Description("Number of products the request asked for")
+    int batchSize;
+}
@@ -0,0 +1,38 @@
+package com.example.fastProductApi.jfr;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tags everything a request does with a request ID ({@code X-Request-Id}, taken from the request or generated and
+ * echoed in the response) and records the whole request as a {@link ProductStages.Stage#REQUEST} event.
+ */
+public class ProductStageFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || requestId.isBlank()) {
+            requestId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        ProductStages.open(requestId);
+        ProductStageEvent event = ProductStages.begin(ProductStages.Stage.REQUEST, request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ProductStages.endRequest(event);
+            ProductStages.close();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.fastProductApi.jfr;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Emits {@link ProductStageEvent}s and carries the request ID and batch size they are tagged with, also into
+ * executor tasks. While no Flight Recorder recording has the event enabled, {@link #begin} returns null after a
+ * single check and nothing else happens.
+ * <pre>
+ * ProductStageEvent event = ProductStages.begin(ProductStages.Stage.DATABASE, "findById");
+ * try {
+ *     ...
+ * } finally {
+ *     ProductStages.end(event);
+ * }
+ * </pre>
+ */
+public final class ProductStages {
+
+    public enum Stage {
+        // whole request, from the servlet filter
+        REQUEST,
+        // waiting in the bulk executor's queue
+        QUEUE,
+        // products, productVersions and productFragments cache calls
+        CACHE,
+        // waiting for a JDBC connection from the pool
+        CONNECTION,
+        // repository calls, i.e. SQL plus Hibernate
+        DATABASE,
+        // entity / DTO mapping
+        MAPPING,
+        // writing the response body
+        SERIALIZATION
+    }
+
+    static final class Context {
+        final String requestId;
+        volatile int batchSize;
+        ProductStageEvent serialization;
+
+        Context(String requestId) {
+            this.requestId = requestId;
+        }
+    }
+
+    private static final ThreadLocal<Context> CONTEXT = new ThreadLocal<>();
+
+    private ProductStages() {
+    }
+
+    /**
+     * @return A started event, or null when no recording is interested; pass either to {@link #end}.
+     */
+    public static ProductStageEvent begin(Stage stage, String operation) {
+        ProductStageEvent event = new ProductStageEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.stage = stage.name();
+        event.operation = operation;
+        Context context = CONTEXT.get();
+        if (context != null) {
+            event.requestId = context.requestId;
+            event.batchSize = context.batchSize;
+        }
+        event.begin();
+        return event;
+    }
+
+    public static void end(ProductStageEvent event) {
+        if (event != null) {
+            event.commit();
+        }
+    }
+
+    /**
+     * Record the number of products the current request works on; no-op outside of a tagged request.
+     */
+    public static void setBatchSize(int batchSize) {
+        Context context = CONTEXT.get();
+        if (context != null) {
+            context.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * Wrap a task for the bulk executor: its time in the queue is recorded as {@link Stage#QUEUE} and it runs
+     * with the request ID and batch size of the submitting thread.
+     */
+    public static <T> Callable<T> queued(String operation, Callable<T> task) {
+        Context context = CONTEXT.get();
+        ProductStageEvent queueEvent = begin(Stage.QUEUE, operation);
+        if (context == null && queueEvent == null) {
+            return task;
+        }
+        return () -> {
+            end(queueEvent);
+            Context previous = CONTEXT.get();
+            CONTEXT.set(context);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    static void open(String requestId) {
+        CONTEXT.set(new Context(requestId));
+    }
+
+    /**
+     * End the {@link Stage#REQUEST} event, tagged with the batch size the controller has set meanwhile.
+     */
+    static void endRequest(ProductStageEvent event) {
+        Context context = CONTEXT.get();
+        if (event != null && context != null) {
+            event.batchSize = context.batchSize;
+        }
+        end(event);
+    }
+
+    static void close() {
+        Context context = CONTEXT.get();
+        if (context != null) {
+            end(context.serialization);
+        }
+        CONTEXT.remove();
+    }
+
+    /**
+     * Start the {@link Stage#SERIALIZATION} event that {@link #close} ends once the response is written.
+     */
+    static void beginSerialization(String operation) {
+        Context context = CONTEXT.get();
+        if (context != null && context.serialization == null) {
+            context.serialization = begin(Stage.SERIALIZATION, operation);
+        }
+    }
+
+    private static void restore(Context previous) {
+        if (previous == null) {
+            CONTEXT.remove();
+        } else {
+            CONTEXT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.fastProductApi.jfr;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Records every call to the wrapped cache as a {@link ProductStages.Stage#CACHE} event, e.g. {@code products.get}.
+ */
+class StageTimingCache implements Cache {
+
+    private final Cache delegate;
+
+    StageTimingCache(Cache delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ProductStageEvent event = begin("get");
+        try {
+            return delegate.get(key);
+        } finally {
+            ProductStages.end(event);
+        }
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        ProductStageEvent event = begin("get");
+        try {
+            return delegate.get(key, type);
+        } finally {
+            ProductStages.end(event);
+        }
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ProductStageEvent event = begin("get");
+        try {
+            return delegate.get(key, valueLoader);
+        } finally {
+            ProductStages.end(event);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        ProductStageEvent event = begin("put");
+        try {
+            delegate.put(key, value);
+        } finally {
+            ProductStages.end(event);
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ProductStageEvent event = begin("putIfAbsent");
+        try {
+            return delegate.putIfAbsent(key, value);
+        } finally {
+            ProductStages.end(event);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        ProductStageEvent event = begin("evict");
+        try {
+            delegate.evict(key);
+        } finally {
+            ProductStages.end(event);
+        }
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        ProductStageEvent event = begin("evict");
+        try {
+            return delegate.evictIfPresent(key);
+        } finally {
+            ProductStages.end(event);
+        }
+    }
+
+    @Override
+    public void clear() {
+        ProductStageEvent event = begin("clear");
+        try {
+            delegate.clear();
+        } finally {
+            ProductStages.end(event);
+        }
+    }
+
+    private ProductStageEvent begin(String operation) {
+        return ProductStages.begin(ProductStages.Stage.CACHE, delegate.getName() + "." + operation);
+    }
+}
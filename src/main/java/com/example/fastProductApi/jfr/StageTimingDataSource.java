@@ -0,0 +1,37 @@
+package com.example.fastProductApi.jfr;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Records the time to obtain a connection from the wrapped pool as a {@link ProductStages.Stage#CONNECTION} event.
+ */
+class StageTimingDataSource extends DelegatingDataSource {
+
+    StageTimingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        ProductStageEvent event = ProductStages.begin(ProductStages.Stage.CONNECTION, "getConnection");
+        try {
+            return super.getConnection();
+        } finally {
+            ProductStages.end(event);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        ProductStageEvent event = ProductStages.begin(ProductStages.Stage.CONNECTION, "getConnection");
+        try {
+            return super.getConnection(username, password);
+        } finally {
+            ProductStages.end(event);
+        }
+    }
+}
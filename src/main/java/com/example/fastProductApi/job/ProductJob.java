@@ -0,0 +1,122 @@
+package com.example.fastProductApi.job;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A bulk upload, update or delete processed in the background, chunk by chunk. The counters are advanced in the
+ * same transaction as each chunk's writes, so they always match what has been committed.
+ */
+@Entity
+@Table(name = "product_jobs", indexes = @Index(name = "idx_product_jobs_status", columnList = "status"))
+public class ProductJob {
+
+    public enum Operation {
+        UPLOAD, UPDATE, DELETE
+    }
+
+    public enum Status {
+        // waiting for a worker
+        QUEUED,
+        // claimed by the node in owner, which refreshes heartbeatAt after every chunk
+        RUNNING,
+        // every chunk was processed; failedItems tells whether all of them succeeded
+        COMPLETED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Operation operation;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    private int totalItems;
+    private int totalChunks;
+    private int completedChunks;
+    private long succeededItems;
+    private long failedItems;
+
+    private String owner;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime heartbeatAt;
+    private LocalDateTime finishedAt;
+
+    public ProductJob() {
+    }
+
+    public ProductJob(Operation operation, int totalItems, int totalChunks, LocalDateTime createdAt) {
+        this.operation = operation;
+        this.status = Status.QUEUED;
+        this.totalItems = totalItems;
+        this.totalChunks = totalChunks;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getTotalItems() {
+        return totalItems;
+    }
+
+    public int getTotalChunks() {
+        return totalChunks;
+    }
+
+    public int getCompletedChunks() {
+        return completedChunks;
+    }
+
+    public long getSucceededItems() {
+        return succeededItems;
+    }
+
+    public long getFailedItems() {
+        return failedItems;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
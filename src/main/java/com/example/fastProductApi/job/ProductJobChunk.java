@@ -0,0 +1,114 @@
+package com.example.fastProductApi.job;
+
+import jakarta.persistence.*;
+import org.hibernate.Length;
+
+/**
+ * One chunk of a {@link ProductJob}: its share of the request as JSON, and the checkpoint written when it has been
+ * processed.
+ */
+@Entity
+@Table(name = "product_job_chunks", indexes = @Index(name = "idx_product_job_chunks_job", columnList = "jobId, chunkIndex"))
+public class ProductJobChunk {
+
+    public enum Status {
+        PENDING, DONE, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long jobId;
+
+    private int chunkIndex;
+
+    // ProductRequestDtos for uploads and updates, IDs for deletes; LONGTEXT on MySQL, a full chunk is far beyond TINYTEXT
+    @Lob
+    @Column(nullable = false, length = Length.LONG32)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    private int itemCount;
+    private int succeededItems;
+    private int failedItems;
+    private int attempts;
+
+    @Column(length = 1000)
+    private String error;
+
+    public ProductJobChunk() {
+    }
+
+    public ProductJobChunk(Long jobId, int chunkIndex, String payload, int itemCount) {
+        this.jobId = jobId;
+        this.chunkIndex = chunkIndex;
+        this.payload = payload;
+        this.itemCount = itemCount;
+        this.status = Status.PENDING;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getJobId() {
+        return jobId;
+    }
+
+    public int getChunkIndex() {
+        return chunkIndex;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public int getSucceededItems() {
+        return succeededItems;
+    }
+
+    public void setSucceededItems(int succeededItems) {
+        this.succeededItems = succeededItems;
+    }
+
+    public int getFailedItems() {
+        return failedItems;
+    }
+
+    public void setFailedItems(int failedItems) {
+        this.failedItems = failedItems;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.fastProductApi.job;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ProductJobChunkRepository extends JpaRepository<ProductJobChunk, Long> {
+
+    List<ProductJobChunk> findByJobIdAndStatusOrderByChunkIndex(Long jobId, ProductJobChunk.Status status);
+
+    List<ProductJobChunk> findTop100ByJobIdAndFailedItemsGreaterThanOrderByChunkIndex(Long jobId, int failedItems);
+}
@@ -0,0 +1,18 @@
+package com.example.fastProductApi.job;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@ConditionalOnProperty(prefix = "product.jobs", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ProductJobProperties.class)
+public class ProductJobConfig {
+
+    @Bean
+    public ProductJobService productJobService(ProductJobProperties properties, PlatformTransactionManager transactionManager) {
+        return new ProductJobService(properties, transactionManager);
+    }
+}
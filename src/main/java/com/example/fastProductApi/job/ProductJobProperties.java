@@ -0,0 +1,62 @@
+package com.example.fastProductApi.job;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the background bulk jobs behind {@code POST /products/jobs}.
+ */
+@ConfigurationProperties(prefix = "product.jobs")
+public class ProductJobProperties {
+
+    private boolean enabled;
+    // items per chunk; each chunk is one transaction and one checkpoint
+    private int chunkSize = 1000;
+    // jobs processed at the same time on this node
+    private int concurrency = 2;
+    // a running job whose owner has not checkpointed for this long is taken over, e.g. after a crash
+    private Duration lease = Duration.ofMinutes(1);
+    // attempts per chunk before its items are counted as failed and the job moves on
+    private int maxChunkAttempts = 3;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public Duration getLease() {
+        return lease;
+    }
+
+    public void setLease(Duration lease) {
+        this.lease = lease;
+    }
+
+    public int getMaxChunkAttempts() {
+        return maxChunkAttempts;
+    }
+
+    public void setMaxChunkAttempts(int maxChunkAttempts) {
+        this.maxChunkAttempts = maxChunkAttempts;
+    }
+}
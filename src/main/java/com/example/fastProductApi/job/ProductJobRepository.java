@@ -0,0 +1,42 @@
+package com.example.fastProductApi.job;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ProductJobRepository extends JpaRepository<ProductJob, Long> {
+
+    /**
+     * Queued jobs, and running jobs whose owner stopped sending heartbeats, oldest first.
+     */
+    @Query("select j.id from ProductJob j where j.status = :queued or (j.status = :running and j.heartbeatAt < :staleBefore) order by j.id")
+    List<Long> findRunnableIds(@Param("queued") ProductJob.Status queued, @Param("running") ProductJob.Status running,
+                               @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Take over a runnable job; only one node's update matches.
+     *
+     * @return 1 when this owner got the job, 0 when it is not runnable (anymore).
+     */
+    @Modifying
+    @Query("update ProductJob j set j.status = :running, j.owner = :owner, j.heartbeatAt = :now, j.startedAt = coalesce(j.startedAt, :now) "
+            + "where j.id = :id and (j.status = :queued or (j.status = :running and j.heartbeatAt < :staleBefore))")
+    int claim(@Param("id") Long id, @Param("owner") String owner, @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore, @Param("queued") ProductJob.Status queued,
+              @Param("running") ProductJob.Status running);
+
+    /**
+     * Count one processed chunk, as long as the job still belongs to this owner.
+     *
+     * @return 1 when the checkpoint was written, 0 when another node has taken the job over.
+     */
+    @Modifying
+    @Query("update ProductJob j set j.completedChunks = j.completedChunks + 1, j.succeededItems = j.succeededItems + :succeeded, "
+            + "j.failedItems = j.failedItems + :failed, j.heartbeatAt = :now where j.id = :id and j.owner = :owner")
+    int checkpoint(@Param("id") Long id, @Param("owner") String owner, @Param("succeeded") long succeeded,
+                   @Param("failed") long failed, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,444 @@
+package com.example.fastProductApi.job;
+
+import com.example.fastProductApi.cache.ProductCacheOperations;
+import com.example.fastProductApi.dto.ProductJobFailureVo;
+import com.example.fastProductApi.dto.ProductJobRequestDto;
+import com.example.fastProductApi.dto.ProductJobResponseDto;
+import com.example.fastProductApi.dto.ProductRequestDto;
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.event.ProductChangeEvent;
+import com.example.fastProductApi.exception.CustomException;
+import com.example.fastProductApi.mapper.ProductMapper;
+import com.example.fastProductApi.repository.ProductRepository;
+import com.example.fastProductApi.upsert.ProductUpsertStore;
+import com.example.fastProductApi.util.ConstantMessages;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs bulk uploads, updates and deletes in the background. A submitted request is split into chunks that are
+ * stored with the job, then processed one transaction per chunk; the same transaction marks the chunk done and
+ * advances the job's counters, so a job interrupted by a crash or shutdown resumes at its first unfinished chunk
+ * without repeating committed ones.
+ * <p>
+ * A node claims a job by writing its owner ID and refreshes the claim with every checkpoint. Jobs whose owner has
+ * not checkpointed for {@code lease} are taken over by the next scan of any node. A chunk that keeps failing is
+ * given up after {@code max-chunk-attempts} and its items are counted as failed.
+ */
+public class ProductJobService implements DisposableBean {
+    static Logger log = LoggerFactory.getLogger(ProductJobService.class);
+
+    // the side effects of a committed chunk
+    private record ChunkResult(List<Product> savedProducts, Set<Long> createdIds, List<Long> deletedIds,
+                               int succeededItems, int failedItems, String error) {
+    }
+
+    // thrown inside a chunk transaction to roll it back when another node has taken the job over
+    private static class LostOwnershipException extends RuntimeException {
+        LostOwnershipException(Long jobId) {
+            super("Job " + jobId + " is now owned by another node");
+        }
+    }
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private ProductJobRepository productJobRepository;
+
+    @Autowired
+    private ProductJobChunkRepository productJobChunkRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private ProductCacheOperations productCacheOperations;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // only present when product.upsert.enabled=true; updates then insert unknown IDs, as the synchronous path does
+    @Autowired(required = false)
+    private ProductUpsertStore productUpsertStore;
+
+    private final ProductJobProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    private final ExecutorService workers;
+    private final ScheduledExecutorService scanner;
+    // jobs this node is processing or has queued for its workers
+    private final Set<Long> activeJobs = ConcurrentHashMap.newKeySet();
+    private volatile boolean stopping;
+
+    public ProductJobService(ProductJobProperties properties, PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(properties.getConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "product-job-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scanner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-job-scanner");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Resume unfinished jobs once the application is up, then look for orphaned jobs every half lease.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startScanning() {
+        long period = Math.max(1, properties.getLease().toMillis() / 2);
+        scanner.scheduleWithFixedDelay(this::scan, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Store the job and its chunks, then start processing it in the background.
+     *
+     * @param request Operation plus products or IDs.
+     * @return Status of the new job.
+     * @throws IllegalArgumentException When the operation is unknown or has nothing to do.
+     */
+    public ProductJobResponseDto submit(ProductJobRequestDto request) throws CustomException {
+        ProductJob.Operation operation = parseOperation(request.operation());
+        List<?> items = operation == ProductJob.Operation.DELETE ? request.ids() : request.products();
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException(operation == ProductJob.Operation.DELETE
+                    ? "ids must not be empty for DELETE" : "products must not be empty for " + operation);
+        }
+
+        int chunkSize = properties.getChunkSize();
+        int totalChunks = (items.size() + chunkSize - 1) / chunkSize;
+        ProductJob job;
+        try {
+            job = transactionTemplate.execute(status -> {
+                ProductJob newJob = productJobRepository.save(new ProductJob(operation, items.size(), totalChunks, LocalDateTime.now()));
+                for (int chunkIndex = 0; chunkIndex < totalChunks; chunkIndex++) {
+                    List<?> chunkItems = items.subList(chunkIndex * chunkSize, Math.min((chunkIndex + 1) * chunkSize, items.size()));
+                    productJobChunkRepository.save(new ProductJobChunk(newJob.getId(), chunkIndex, toJson(chunkItems), chunkItems.size()));
+                }
+                return newJob;
+            });
+        } catch (RuntimeException e) {
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+            throw new CustomException(e);
+        }
+        log.info("Job {} queued: {} of {} items in {} chunks", job.getId(), operation, items.size(), totalChunks);
+        dispatch(job.getId());
+        return toResponse(job);
+    }
+
+    /**
+     * @param id Job ID.
+     * @return Progress, throughput and failed chunks of the job, empty if it does not exist.
+     */
+    public Optional<ProductJobResponseDto> getJob(Long id) {
+        return productJobRepository.findById(id).map(this::toResponse);
+    }
+
+    void scan() {
+        try {
+            LocalDateTime staleBefore = LocalDateTime.now().minus(properties.getLease());
+            productJobRepository.findRunnableIds(ProductJob.Status.QUEUED, ProductJob.Status.RUNNING, staleBefore)
+                    .forEach(this::dispatch);
+        } catch (RuntimeException e) {
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+        }
+    }
+
+    private void dispatch(Long jobId) {
+        if (!stopping && activeJobs.add(jobId)) {
+            workers.execute(() -> {
+                try {
+                    runJob(jobId);
+                } catch (RuntimeException e) {
+                    log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+                } finally {
+                    activeJobs.remove(jobId);
+                }
+            });
+        }
+    }
+
+    void runJob(Long jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status -> productJobRepository.claim(jobId, owner, now,
+                now.minus(properties.getLease()), ProductJob.Status.QUEUED, ProductJob.Status.RUNNING));
+        if (claimed == null || claimed == 0) {
+            return;
+        }
+        ProductJob job = productJobRepository.findById(jobId).orElseThrow();
+        List<ProductJobChunk> chunks = productJobChunkRepository.findByJobIdAndStatusOrderByChunkIndex(jobId, ProductJobChunk.Status.PENDING);
+        log.info("Job {} running on {}: {} of {} chunks left", jobId, owner, chunks.size(), job.getTotalChunks());
+        for (ProductJobChunk chunk : chunks) {
+            if (stopping || !processChunk(job, chunk)) {
+                return;
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> productJobRepository.findById(jobId)
+                .filter(finishedJob -> owner.equals(finishedJob.getOwner()))
+                .ifPresent(finishedJob -> {
+                    finishedJob.setStatus(ProductJob.Status.COMPLETED);
+                    finishedJob.setFinishedAt(LocalDateTime.now());
+                }));
+        log.info("Job {} completed", jobId);
+    }
+
+    /**
+     * Process one chunk in its own transaction, retrying it up to {@code max-chunk-attempts} times.
+     *
+     * @return False when the job has been taken over by another node and this one must stop.
+     */
+    private boolean processChunk(ProductJob job, ProductJobChunk chunk) {
+        while (true) {
+            try {
+                ChunkResult result = transactionTemplate.execute(status -> applyChunk(job, chunk));
+                publish(result);
+                return true;
+            } catch (LostOwnershipException e) {
+                log.warn("{}", e.getMessage());
+                return false;
+            } catch (RuntimeException e) {
+                log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+                chunk.setAttempts(chunk.getAttempts() + 1);
+                boolean giveUp = chunk.getAttempts() >= properties.getMaxChunkAttempts();
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        if (giveUp) {
+                            chunk.setStatus(ProductJobChunk.Status.FAILED);
+                            chunk.setFailedItems(chunk.getItemCount());
+                            chunk.setError(truncate(e.getClass().getSimpleName() + ": " + e.getMessage()));
+                            checkpoint(job, 0, chunk.getItemCount());
+                        }
+                        productJobChunkRepository.save(chunk);
+                    });
+                } catch (LostOwnershipException lost) {
+                    return false;
+                }
+                if (giveUp) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    private ChunkResult applyChunk(ProductJob job, ProductJobChunk chunk) {
+        ChunkResult result = switch (job.getOperation()) {
+            case UPLOAD -> upload(fromJson(chunk.getPayload(), new TypeReference<List<ProductRequestDto>>() {
+            }));
+            case UPDATE -> update(fromJson(chunk.getPayload(), new TypeReference<List<ProductRequestDto>>() {
+            }));
+            case DELETE -> delete(fromJson(chunk.getPayload(), new TypeReference<List<Long>>() {
+            }));
+        };
+        chunk.setStatus(ProductJobChunk.Status.DONE);
+        chunk.setSucceededItems(result.succeededItems());
+        chunk.setFailedItems(result.failedItems());
+        chunk.setError(result.error());
+        productJobChunkRepository.save(chunk);
+        checkpoint(job, result.succeededItems(), result.failedItems());
+        return result;
+    }
+
+    private void checkpoint(ProductJob job, int succeededItems, int failedItems) {
+        if (productJobRepository.checkpoint(job.getId(), owner, succeededItems, failedItems, LocalDateTime.now()) == 0) {
+            throw new LostOwnershipException(job.getId());
+        }
+    }
+
+    private ChunkResult upload(List<ProductRequestDto> productRequestDtos) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Product> products = productRequestDtos.stream().map(productRequestDto -> {
+            Product product = productMapper.toEntity(productRequestDto);
+            product.setId(null);
+            product.setCreatedAt(now);
+            product.setLastUpdatedAt(now);
+            return product;
+        }).collect(Collectors.toList());
+        List<Product> savedProducts = productRepository.saveAll(products);
+        Set<Long> createdIds = savedProducts.stream().map(Product::getId).collect(Collectors.toSet());
+        return new ChunkResult(savedProducts, createdIds, List.of(), savedProducts.size(), 0, null);
+    }
+
+    // same rules as ProductServiceForBasicCrud.updateProduct: no ID inserts, an unknown ID fails
+    private ChunkResult update(List<ProductRequestDto> productRequestDtos) {
+        List<Product> products = productRequestDtos.stream().map(productMapper::toEntity).collect(Collectors.toList());
+        if (productUpsertStore != null) {
+            try {
+                ProductUpsertStore.UpsertResult result = productUpsertStore.upsert(products);
+                return new ChunkResult(result.products(), new HashSet<>(result.insertedIds()), List.of(), products.size(), 0, null);
+            } catch (CustomException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = products.stream().map(Product::getId).filter(id -> id != null).distinct().toList();
+        Map<Long, Product> existingProducts = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> targets = new ArrayList<>();
+        List<Long> unknownIds = new ArrayList<>();
+        for (Product product : products) {
+            Product existingProduct = product.getId() == null ? null : existingProducts.get(product.getId());
+            if (existingProduct != null) {
+                existingProduct.setName(product.getName());
+                existingProduct.setPrice(product.getPrice());
+                existingProduct.setStock(product.getStock());
+                existingProduct.setDescription(product.getDescription());
+                existingProduct.setLastUpdatedAt(now);
+                targets.add(existingProduct);
+            } else if (product.getId() == null) {
+                product.setCreatedAt(now);
+                product.setLastUpdatedAt(now);
+                targets.add(product);
+            } else {
+                unknownIds.add(product.getId());
+            }
+        }
+        List<Product> savedProducts = productRepository.saveAll(targets);
+        Set<Long> createdIds = savedProducts.stream().map(Product::getId)
+                .filter(id -> !existingProducts.containsKey(id)).collect(Collectors.toSet());
+        return new ChunkResult(savedProducts, createdIds, List.of(), savedProducts.size(), unknownIds.size(), notFound(unknownIds));
+    }
+
+    private ChunkResult delete(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        List<Long> existingIds = productRepository.findAllById(distinctIds).stream().map(Product::getId).toList();
+        if (!existingIds.isEmpty()) {
+            productRepository.deleteWithTombstones(existingIds, LocalDateTime.now());
+        }
+        Set<Long> deleted = new HashSet<>(existingIds);
+        List<Long> unknownIds = distinctIds.stream().filter(id -> !deleted.contains(id)).toList();
+        return new ChunkResult(List.of(), Set.of(), existingIds, ids.size() - unknownIds.size(), unknownIds.size(), notFound(unknownIds));
+    }
+
+    // cache and change events only once the chunk is committed
+    private void publish(ChunkResult result) {
+        if (!result.savedProducts().isEmpty()) {
+            productCacheOperations.putAll(result.savedProducts());
+            result.savedProducts().forEach(product -> eventPublisher.publishEvent(result.createdIds().contains(product.getId())
+                    ? ProductChangeEvent.created(product)
+                    : ProductChangeEvent.updated(product)));
+        }
+        if (!result.deletedIds().isEmpty()) {
+            productCacheOperations.evictAll(result.deletedIds());
+            result.deletedIds().forEach(id -> eventPublisher.publishEvent(ProductChangeEvent.deleted(id)));
+        }
+    }
+
+    private ProductJobResponseDto toResponse(ProductJob job) {
+        ProductJobResponseDto response = new ProductJobResponseDto();
+        response.setJobId(job.getId());
+        response.setOperation(job.getOperation().name());
+        response.setStatus(job.getStatus().name());
+        response.setTotalItems(job.getTotalItems());
+        response.setTotalChunks(job.getTotalChunks());
+        response.setCompletedChunks(job.getCompletedChunks());
+        response.setSucceededItems(job.getSucceededItems());
+        response.setFailedItems(job.getFailedItems());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setStartedAt(job.getStartedAt());
+        response.setFinishedAt(job.getFinishedAt());
+        if (job.getStartedAt() != null) {
+            LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : LocalDateTime.now();
+            double seconds = Math.max(Duration.between(job.getStartedAt(), end).toMillis(), 1) / 1000.0;
+            response.setItemsPerSecond((job.getSucceededItems() + job.getFailedItems()) / seconds);
+        }
+        response.setFailures(job.getFailedItems() == 0 ? List.of() : productJobChunkRepository
+                .findTop100ByJobIdAndFailedItemsGreaterThanOrderByChunkIndex(job.getId(), 0).stream()
+                .map(chunk -> new ProductJobFailureVo(chunk.getChunkIndex(), chunk.getFailedItems(), chunk.getError()))
+                .collect(Collectors.toList()));
+        return response;
+    }
+
+    private static ProductJob.Operation parseOperation(String operation) {
+        try {
+            return ProductJob.Operation.valueOf(String.valueOf(operation).toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("operation must be UPLOAD, UPDATE or DELETE");
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T fromJson(String json, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String notFound(List<Long> unknownIds) {
+        if (unknownIds.isEmpty()) {
+            return null;
+        }
+        return truncate("Products not found for the following IDs: "
+                + unknownIds.stream().map(String::valueOf).collect(Collectors.joining(", ")));
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH - 3) + "...";
+    }
+
+    @Override
+    public void destroy() {
+        stopping = true;
+        scanner.shutdownNow();
+        workers.shutdown();
+        try {
+            // let running chunks commit; the rest of each job is resumed by the next owner
+            if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+    }
+}
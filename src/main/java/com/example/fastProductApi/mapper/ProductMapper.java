@@ -1,5 +1,6 @@
 package com.example.fastProductApi.mapper;
 
+import com.example.fastProductApi.dto.ProductPatchRequestDto;
 import com.example.fastProductApi.dto.ProductRequestDto;
 import com.example.fastProductApi.dto.ProductResponseDto;
 import com.example.fastProductApi.entity.Product;
@@ -26,6 +27,22 @@ public class ProductMapper {
         return product;
     }
 
+    // fields left out of the patch stay null
+    public Product toPatch(ProductPatchRequestDto dto) {
+        if (dto == null) {
+            return null;
+        }
+
+        Product product = new Product();
+        product.setId(dto.id());
+        product.setName(dto.name());
+        product.setDescription(dto.description());
+        product.setPrice(dto.price());
+        product.setStock(dto.stock());
+
+        return product;
+    }
+
     public ProductResponseDto toDTO(Product entity) {
         if (entity == null) {
             return null;
@@ -0,0 +1,134 @@
+package com.example.fastProductApi.projection;
+
+import com.example.fastProductApi.dto.ProductResponseDto;
+import com.example.fastProductApi.entity.Product;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The fields a client can select with {@code fields=}; each name is both the JSON property of
+ * {@link ProductResponseDto} and the attribute of the {@code Product} entity.
+ */
+public enum ProductField {
+    ID("id", "id"),
+    NAME("name", "name"),
+    DESCRIPTION("description", "description"),
+    PRICE("price", "price"),
+    STOCK("stock", "stock"),
+    CREATED_AT("createdAt", "created_at"),
+    LAST_UPDATED_AT("lastUpdatedAt", "last_updated_at");
+
+    public static final Set<ProductField> ALL = Collections.unmodifiableSet(EnumSet.allOf(ProductField.class));
+
+    // the fields a PATCH may change; the ID and timestamps are not the client's to set
+    public static final Set<ProductField> PATCHABLE = Collections.unmodifiableSet(EnumSet.of(NAME, DESCRIPTION, PRICE, STOCK));
+
+    private final String property;
+    private final String column;
+
+    ProductField(String property, String column) {
+        this.property = property;
+        this.column = column;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * @return This field's value in the product, possibly null.
+     */
+    public Object read(Product product) {
+        return switch (this) {
+            case ID -> product.getId();
+            case NAME -> product.getName();
+            case DESCRIPTION -> product.getDescription();
+            case PRICE -> product.getPrice();
+            case STOCK -> product.getStock();
+            case CREATED_AT -> product.getCreatedAt();
+            case LAST_UPDATED_AT -> product.getLastUpdatedAt();
+        };
+    }
+
+    /**
+     * @param patch Product carrying only the values to change; null fields stay as they are.
+     * @return The patchable fields the patch sets, in declaration order.
+     */
+    public static Set<ProductField> changedBy(Product patch) {
+        Set<ProductField> changed = EnumSet.noneOf(ProductField.class);
+        for (ProductField field : PATCHABLE) {
+            if (field.read(patch) != null) {
+                changed.add(field);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @param fields Comma-separated property names, e.g. {@code price,stock}; null or blank selects every field.
+     * @return The selected fields, always including {@link #ID}.
+     * @throws IllegalArgumentException When a name is not a product field.
+     */
+    public static Set<ProductField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<ProductField> selected = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String property = name.strip();
+            if (property.isEmpty()) {
+                continue;
+            }
+            selected.add(Arrays.stream(values())
+                    .filter(field -> field.property.equalsIgnoreCase(property))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown field '" + property + "'; valid fields are "
+                            + Arrays.stream(values()).map(ProductField::getProperty).collect(Collectors.joining(", ")))));
+        }
+        return selected.size() == values().length ? ALL : selected;
+    }
+
+    /**
+     * Canonical form of a selection for cache keys and ETags, independent of the order the client listed it in.
+     */
+    public static String key(Set<ProductField> fields) {
+        return fields.stream().sorted().map(ProductField::getProperty).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Clear every field of the DTO that is not selected; cleared fields are left out of the JSON and protobuf
+     * responses.
+     */
+    public static ProductResponseDto retain(ProductResponseDto dto, Set<ProductField> fields) {
+        if (dto == null || fields.size() == values().length) {
+            return dto;
+        }
+        if (!fields.contains(NAME)) {
+            dto.setName(null);
+        }
+        if (!fields.contains(DESCRIPTION)) {
+            dto.setDescription(null);
+        }
+        if (!fields.contains(PRICE)) {
+            dto.setPrice(null);
+        }
+        if (!fields.contains(STOCK)) {
+            dto.setStock(null);
+        }
+        if (!fields.contains(CREATED_AT)) {
+            dto.setCreatedAt(null);
+        }
+        if (!fields.contains(LAST_UPDATED_AT)) {
+            dto.setLastUpdatedAt(null);
+        }
+        return dto;
+    }
+}
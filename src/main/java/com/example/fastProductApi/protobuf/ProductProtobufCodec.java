@@ -0,0 +1,254 @@
+package com.example.fastProductApi.protobuf;
+
+import com.example.fastProductApi.dto.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encodes the product DTOs in the protobuf wire format described by {@code proto/products.proto}:
+ * id lists as packed varints, prices as longs scaled by 100 and timestamps as epoch milliseconds.
+ */
+public class ProductProtobufCodec {
+
+    // DECIMAL(38, 2) in the products table
+    static final int PRICE_SCALE = 2;
+
+    private final ZoneId zoneId;
+
+    public ProductProtobufCodec(ZoneId zoneId) {
+        this.zoneId = zoneId;
+    }
+
+    public ProductByIdRequestDto decodeProductByIdRequest(byte[] bytes) {
+        ProtobufReader reader = new ProtobufReader(bytes);
+        List<Long> ids = new ArrayList<>();
+        for (int field = reader.nextField(); field != 0; field = reader.nextField()) {
+            if (field == 1) {
+                reader.readRepeatedInt64(ids);
+            } else {
+                reader.skipField();
+            }
+        }
+        return new ProductByIdRequestDto(ids);
+    }
+
+    public byte[] encodeProductByIdRequest(ProductByIdRequestDto dto) {
+        ProtobufWriter writer = new ProtobufWriter();
+        writer.writePackedInt64(1, dto.ids());
+        return writer.toByteArray();
+    }
+
+    public UploadProductListRequestDto decodeUploadProductListRequest(byte[] bytes) {
+        ProtobufReader reader = new ProtobufReader(bytes);
+        List<ProductRequestDto> products = new ArrayList<>();
+        for (int field = reader.nextField(); field != 0; field = reader.nextField()) {
+            if (field == 1) {
+                products.add(decodeProductRequest(reader.readMessage()));
+            } else {
+                reader.skipField();
+            }
+        }
+        return new UploadProductListRequestDto(products);
+    }
+
+    public byte[] encodeUploadProductListRequest(UploadProductListRequestDto dto) {
+        ProtobufWriter writer = new ProtobufWriter(dto.getProducts().size() * 64 + 16);
+        for (ProductRequestDto product : dto.getProducts()) {
+            ProtobufWriter message = new ProtobufWriter(64);
+            message.writeInt64(1, product.id());
+            message.writeString(2, product.name());
+            message.writeString(3, product.description());
+            message.writeInt64(4, toScaledPrice(product.price()));
+            message.writeInt64(5, product.stock());
+            writer.writeMessage(1, message);
+        }
+        return writer.toByteArray();
+    }
+
+    public byte[] encodeProductsByIdResponse(ProductsByIdResponseDto dto) {
+        ProtobufWriter writer = new ProtobufWriter();
+        writeProducts(writer, dto.getProduct());
+        writeResponseStatus(writer, dto.getResponseStatus());
+        return writer.toByteArray();
+    }
+
+    public ProductsByIdResponseDto decodeProductsByIdResponse(byte[] bytes) {
+        ProductsByIdResponseDto dto = new ProductsByIdResponseDto();
+        ProtobufReader reader = new ProtobufReader(bytes);
+        List<ProductResponseDto> products = new ArrayList<>();
+        for (int field = reader.nextField(); field != 0; field = reader.nextField()) {
+            switch (field) {
+                case 1 -> products.add(decodeProductResponse(reader.readMessage()));
+                case 2 -> dto.setResponseStatus(decodeResponseStatus(reader.readMessage()));
+                default -> reader.skipField();
+            }
+        }
+        dto.setProduct(products);
+        return dto;
+    }
+
+    public byte[] encodeProductListResponse(ProductListResponseDto dto) {
+        ProtobufWriter writer = new ProtobufWriter();
+        writeProducts(writer, dto.getProducts());
+        writeResponseStatus(writer, dto.getResponseStatus());
+        if (dto instanceof ProductUpsertResponseDto upsertDto) {
+            if (upsertDto.getInsertedProductIds() != null) {
+                writer.writePackedInt64(3, upsertDto.getInsertedProductIds());
+            }
+            if (upsertDto.getUpdatedProductIds() != null) {
+                writer.writePackedInt64(4, upsertDto.getUpdatedProductIds());
+            }
+        }
+        return writer.toByteArray();
+    }
+
+    public ProductListResponseDto decodeProductListResponse(byte[] bytes) {
+        return decodeProductListResponse(bytes, new ProductListResponseDto(), new ArrayList<>(), new ArrayList<>());
+    }
+
+    public ProductUpsertResponseDto decodeProductUpsertResponse(byte[] bytes) {
+        ProductUpsertResponseDto dto = new ProductUpsertResponseDto();
+        dto.setInsertedProductIds(new ArrayList<>());
+        dto.setUpdatedProductIds(new ArrayList<>());
+        return decodeProductListResponse(bytes, dto, dto.getInsertedProductIds(), dto.getUpdatedProductIds());
+    }
+
+    private <T extends ProductListResponseDto> T decodeProductListResponse(byte[] bytes, T dto, List<Long> insertedIds, List<Long> updatedIds) {
+        ProtobufReader reader = new ProtobufReader(bytes);
+        List<ProductResponseDto> products = new ArrayList<>();
+        for (int field = reader.nextField(); field != 0; field = reader.nextField()) {
+            switch (field) {
+                case 1 -> products.add(decodeProductResponse(reader.readMessage()));
+                case 2 -> dto.setResponseStatus(decodeResponseStatus(reader.readMessage()));
+                case 3 -> reader.readRepeatedInt64(insertedIds);
+                case 4 -> reader.readRepeatedInt64(updatedIds);
+                default -> reader.skipField();
+            }
+        }
+        dto.setProducts(products);
+        return dto;
+    }
+
+    public byte[] encodeProductsDeleteResponse(ProductsDeleteResponseDto dto) {
+        ProtobufWriter writer = new ProtobufWriter();
+        if (dto.getDeletedProductIds() != null) {
+            writer.writePackedInt64(1, dto.getDeletedProductIds());
+        }
+        writeResponseStatus(writer, dto.getResponseStatus());
+        return writer.toByteArray();
+    }
+
+    public ProductsDeleteResponseDto decodeProductsDeleteResponse(byte[] bytes) {
+        ProductsDeleteResponseDto dto = new ProductsDeleteResponseDto();
+        ProtobufReader reader = new ProtobufReader(bytes);
+        List<Long> deletedIds = new ArrayList<>();
+        for (int field = reader.nextField(); field != 0; field = reader.nextField()) {
+            switch (field) {
+                case 1 -> reader.readRepeatedInt64(deletedIds);
+                case 2 -> dto.setResponseStatus(decodeResponseStatus(reader.readMessage()));
+                default -> reader.skipField();
+            }
+        }
+        dto.setDeletedProductIds(deletedIds);
+        return dto;
+    }
+
+    // a null entry (update of an unknown id) is written as an empty message
+    private void writeProducts(ProtobufWriter writer, List<ProductResponseDto> products) {
+        if (products == null) {
+            return;
+        }
+        for (ProductResponseDto product : products) {
+            ProtobufWriter message = new ProtobufWriter(64);
+            if (product != null) {
+                message.writeInt64(1, product.getId());
+                message.writeString(2, product.getName());
+                message.writeString(3, product.getDescription());
+                message.writeInt64(4, toScaledPrice(product.getPrice()));
+                message.writeInt64(5, product.getStock() == null ? null : product.getStock().longValue());
+                message.writeInt64(6, toEpochMillis(product.getCreatedAt()));
+                message.writeInt64(7, toEpochMillis(product.getLastUpdatedAt()));
+            }
+            writer.writeMessage(1, message);
+        }
+    }
+
+    private void writeResponseStatus(ProtobufWriter writer, ResponseStatusVo responseStatus) {
+        if (responseStatus != null) {
+            ProtobufWriter message = new ProtobufWriter(64);
+            message.writeString(1, responseStatus.message());
+            message.writeString(2, responseStatus.status());
+            writer.writeMessage(2, message);
+        }
+    }
+
+    private ProductRequestDto decodeProductRequest(ProtobufReader reader) {
+        Long id = null;
+        String name = null;
+        String description = null;
+        BigDecimal price = null;
+        int stock = 0;
+        for (int field = reader.nextField(); field != 0; field = reader.nextField()) {
+            switch (field) {
+                case 1 -> id = reader.readInt64();
+                case 2 -> name = reader.readString();
+                case 3 -> description = reader.readString();
+                case 4 -> price = BigDecimal.valueOf(reader.readInt64(), PRICE_SCALE);
+                case 5 -> stock = reader.readInt32();
+                default -> reader.skipField();
+            }
+        }
+        return new ProductRequestDto(id, name, description, price, stock);
+    }
+
+    private ProductResponseDto decodeProductResponse(ProtobufReader reader) {
+        ProductResponseDto dto = null;
+        for (int field = reader.nextField(); field != 0; field = reader.nextField()) {
+            if (dto == null) {
+                dto = new ProductResponseDto();
+            }
+            switch (field) {
+                case 1 -> dto.setId(reader.readInt64());
+                case 2 -> dto.setName(reader.readString());
+                case 3 -> dto.setDescription(reader.readString());
+                case 4 -> dto.setPrice(BigDecimal.valueOf(reader.readInt64(), PRICE_SCALE));
+                case 5 -> dto.setStock(reader.readInt32());
+                case 6 -> dto.setCreatedAt(fromEpochMillis(reader.readInt64()));
+                case 7 -> dto.setLastUpdatedAt(fromEpochMillis(reader.readInt64()));
+                default -> reader.skipField();
+            }
+        }
+        return dto;
+    }
+
+    private ResponseStatusVo decodeResponseStatus(ProtobufReader reader) {
+        String message = null;
+        String status = null;
+        for (int field = reader.nextField(); field != 0; field = reader.nextField()) {
+            switch (field) {
+                case 1 -> message = reader.readString();
+                case 2 -> status = reader.readString();
+                default -> reader.skipField();
+            }
+        }
+        return new ResponseStatusVo(message, status);
+    }
+
+    private Long toScaledPrice(BigDecimal price) {
+        return price == null ? null : price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private Long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.atZone(zoneId).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime fromEpochMillis(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zoneId);
+    }
+}
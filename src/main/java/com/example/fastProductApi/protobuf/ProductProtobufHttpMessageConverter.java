@@ -0,0 +1,82 @@
+package com.example.fastProductApi.protobuf;
+
+import com.example.fastProductApi.dto.*;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Reads and writes the bulk request and response DTOs as {@code application/x-protobuf}.
+ * Registered after the Jackson converter, so JSON stays the default representation.
+ */
+public class ProductProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private static final Set<Class<?>> SUPPORTED_TYPES = Set.of(
+            ProductByIdRequestDto.class,
+            UploadProductListRequestDto.class,
+            ProductsByIdResponseDto.class,
+            ProductListResponseDto.class,
+            ProductUpsertResponseDto.class,
+            ProductsDeleteResponseDto.class);
+
+    private final ProductProtobufCodec codec;
+
+    public ProductProtobufHttpMessageConverter(ProductProtobufCodec codec) {
+        super(APPLICATION_PROTOBUF);
+        this.codec = codec;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return SUPPORTED_TYPES.contains(clazz);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        byte[] bytes = inputMessage.getBody().readAllBytes();
+        try {
+            if (clazz == ProductByIdRequestDto.class) {
+                return codec.decodeProductByIdRequest(bytes);
+            } else if (clazz == UploadProductListRequestDto.class) {
+                return codec.decodeUploadProductListRequest(bytes);
+            } else if (clazz == ProductsByIdResponseDto.class) {
+                return codec.decodeProductsByIdResponse(bytes);
+            } else if (clazz == ProductListResponseDto.class) {
+                return codec.decodeProductListResponse(bytes);
+            } else if (clazz == ProductUpsertResponseDto.class) {
+                return codec.decodeProductUpsertResponse(bytes);
+            }
+            return codec.decodeProductsDeleteResponse(bytes);
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException("Invalid protobuf payload: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, HttpOutputMessage outputMessage) throws IOException {
+        byte[] bytes;
+        if (object instanceof ProductsByIdResponseDto dto) {
+            bytes = codec.encodeProductsByIdResponse(dto);
+        } else if (object instanceof ProductListResponseDto dto) {
+            bytes = codec.encodeProductListResponse(dto);
+        } else if (object instanceof ProductsDeleteResponseDto dto) {
+            bytes = codec.encodeProductsDeleteResponse(dto);
+        } else if (object instanceof ProductByIdRequestDto dto) {
+            bytes = codec.encodeProductByIdRequest(dto);
+        } else if (object instanceof UploadProductListRequestDto dto) {
+            bytes = codec.encodeUploadProductListRequest(dto);
+        } else {
+            throw new HttpMessageNotWritableException("Unsupported type " + object.getClass());
+        }
+        outputMessage.getHeaders().setContentLength(bytes.length);
+        outputMessage.getBody().write(bytes);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.fastProductApi.protobuf;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Minimal protobuf wire-format reader over a byte array; unknown fields are skipped.
+ */
+public class ProtobufReader {
+
+    private final byte[] buffer;
+    private int position;
+    private final int limit;
+    private int lastTag;
+
+    public ProtobufReader(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    private ProtobufReader(byte[] buffer, int offset, int limit) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * @return Next field number, or 0 at the end of the message.
+     */
+    public int nextField() {
+        if (position >= limit) {
+            return 0;
+        }
+        lastTag = (int) readVarint();
+        return lastTag >>> 3;
+    }
+
+    public long readInt64() {
+        return readVarint();
+    }
+
+    public int readInt32() {
+        return (int) readVarint();
+    }
+
+    public String readString() {
+        int length = readLength();
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public ProtobufReader readMessage() {
+        int length = readLength();
+        ProtobufReader message = new ProtobufReader(buffer, position, position + length);
+        position += length;
+        return message;
+    }
+
+    /**
+     * Read a repeated int64 field, accepting both the packed and the unpacked encoding.
+     */
+    public void readRepeatedInt64(List<Long> values) {
+        if ((lastTag & 0x7) != ProtobufWriter.WIRE_TYPE_LENGTH_DELIMITED) {
+            values.add(readVarint());
+            return;
+        }
+        int end = position + readLength();
+        while (position < end) {
+            values.add(readVarint());
+        }
+    }
+
+    public void skipField() {
+        switch (lastTag & 0x7) {
+            case 0 -> readVarint();
+            case 1 -> position += 8;
+            case 2 -> position += readLength();
+            case 5 -> position += 4;
+            default -> throw new IllegalArgumentException("Unsupported wire type in tag " + lastTag);
+        }
+    }
+
+    private int readLength() {
+        int length = (int) readVarint();
+        if (length < 0 || position + length > limit) {
+            throw new IllegalArgumentException("Truncated protobuf message");
+        }
+        return length;
+    }
+
+    private long readVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= limit) {
+                throw new IllegalArgumentException("Truncated protobuf message");
+            }
+            byte b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
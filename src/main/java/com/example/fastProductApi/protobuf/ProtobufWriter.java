@@ -0,0 +1,95 @@
+package com.example.fastProductApi.protobuf;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal protobuf wire-format writer (varint and length-delimited fields only).
+ */
+public class ProtobufWriter {
+
+    static final int WIRE_TYPE_VARINT = 0;
+    static final int WIRE_TYPE_LENGTH_DELIMITED = 2;
+
+    private final Buffer out;
+
+    public ProtobufWriter() {
+        this(256);
+    }
+
+    public ProtobufWriter(int initialCapacity) {
+        this.out = new Buffer(initialCapacity);
+    }
+
+    public void writeInt64(int fieldNumber, long value) {
+        writeTag(fieldNumber, WIRE_TYPE_VARINT);
+        writeVarint(value);
+    }
+
+    public void writeInt64(int fieldNumber, Long value) {
+        if (value != null) {
+            writeInt64(fieldNumber, value.longValue());
+        }
+    }
+
+    public void writeString(int fieldNumber, String value) {
+        if (value != null) {
+            writeBytes(fieldNumber, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Write a nested message.
+     */
+    public void writeMessage(int fieldNumber, ProtobufWriter message) {
+        writeTag(fieldNumber, WIRE_TYPE_LENGTH_DELIMITED);
+        writeVarint(message.out.size());
+        message.out.copyTo(out);
+    }
+
+    /**
+     * Write a repeated int64 field in packed encoding: one tag and length, then the varints back to back.
+     */
+    public void writePackedInt64(int fieldNumber, Iterable<Long> values) {
+        ProtobufWriter packed = new ProtobufWriter(64);
+        for (Long value : values) {
+            packed.writeVarint(value);
+        }
+        writeTag(fieldNumber, WIRE_TYPE_LENGTH_DELIMITED);
+        writeVarint(packed.out.size());
+        packed.out.copyTo(out);
+    }
+
+    public byte[] toByteArray() {
+        return out.toByteArray();
+    }
+
+    private void writeBytes(int fieldNumber, byte[] bytes) {
+        writeTag(fieldNumber, WIRE_TYPE_LENGTH_DELIMITED);
+        writeVarint(bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private void writeTag(int fieldNumber, int wireType) {
+        writeVarint(((long) fieldNumber << 3) | wireType);
+    }
+
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    // exposes the internal array so nested messages are copied once, without an intermediate toByteArray()
+    private static class Buffer extends ByteArrayOutputStream {
+        Buffer(int initialCapacity) {
+            super(initialCapacity);
+        }
+
+        void copyTo(Buffer target) {
+            target.write(buf, 0, count);
+        }
+    }
+}
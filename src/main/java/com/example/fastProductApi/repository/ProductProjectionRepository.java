@@ -0,0 +1,73 @@
+package com.example.fastProductApi.repository;
+
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.projection.ProductField;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Queries of {@link ProductRepository} whose columns are chosen at runtime: projections and partial updates, plus
+ * the statements that span products and their tombstones.
+ */
+public interface ProductProjectionRepository {
+
+    /**
+     * A product changed or deleted at {@code changedAt}; changes are ordered by {@code (changedAt, id)}.
+     *
+     * @param product The product, or null when it has been deleted.
+     */
+    record Change(LocalDateTime changedAt, Long id, Product product) {
+
+        public static final Comparator<Change> ORDER = Comparator.comparing(Change::changedAt).thenComparing(Change::id);
+    }
+
+    /**
+     * Select only the given columns of products, plus {@code id} and {@code lastUpdatedAt}, which responses
+     * need for their ETag.
+     *
+     * @param ids    Product IDs.
+     * @param fields Columns to select.
+     * @return Unmanaged products with every other field null; missing IDs are left out.
+     */
+    List<Product> findFieldsByIds(Collection<Long> ids, Set<ProductField> fields);
+
+    /**
+     * Write only the fields each patch sets, plus {@code lastUpdatedAt}, e.g.
+     * {@code UPDATE products SET price = ?, last_updated_at = ? WHERE id = ?}. Patches changing the same fields
+     * share one statement batch. Must run inside a transaction; unknown IDs are skipped silently.
+     *
+     * @param patches       Products with ID whose non-null patchable fields are the new values, at most one per ID.
+     * @param lastUpdatedAt New {@code lastUpdatedAt} of every patched product.
+     */
+    void updateFields(Collection<Product> patches, LocalDateTime lastUpdatedAt);
+
+    /**
+     * Delete products and leave a tombstone for each one that existed, replacing an older tombstone of the same ID.
+     * Must run inside a transaction.
+     *
+     * @param ids       Product IDs; unknown IDs are skipped.
+     * @param deletedAt Time of the deletion, recorded in the tombstones.
+     * @return Number of deleted products.
+     */
+    int deleteWithTombstones(Collection<Long> ids, LocalDateTime deletedAt);
+
+    /**
+     * Products updated and deleted after a {@code (changedAt, id)} position, in that order, read with one keyset
+     * scan of each table: {@code WHERE last_updated_at > ? OR (last_updated_at = ? AND id > ?)}.
+     *
+     * @param afterChangedAt Time of the last change already seen.
+     * @param afterId        ID of the last change already seen.
+     * @param until          Changes after this time are left out.
+     * @param limit          Maximum number of changes.
+     */
+    List<Change> findChangesAfter(LocalDateTime afterChangedAt, long afterId, LocalDateTime until, int limit);
+
+    /**
+     * @return Number of tombstones of deletions before the given time that were removed.
+     */
+    int deleteTombstonesBefore(LocalDateTime before);
+}
@@ -0,0 +1,147 @@
+package com.example.fastProductApi.repository;
+
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.entity.ProductTombstone;
+import com.example.fastProductApi.projection.ProductField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.Session;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+class ProductProjectionRepositoryImpl implements ProductProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Product> findFieldsByIds(Collection<Long> ids, Set<ProductField> fields) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<ProductField> selected = EnumSet.of(ProductField.ID, ProductField.LAST_UPDATED_AT);
+        selected.addAll(fields);
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+        List<Selection<?>> selections = new ArrayList<>(selected.size());
+        for (ProductField field : selected) {
+            selections.add(product.get(field.getProperty()).alias(field.getProperty()));
+        }
+        query.multiselect(selections).where(product.get("id").in(ids));
+
+        List<Product> products = new ArrayList<>(ids.size());
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Product projected = new Product();
+            for (ProductField field : selected) {
+                Object value = tuple.get(field.getProperty());
+                switch (field) {
+                    case ID -> projected.setId((Long) value);
+                    case NAME -> projected.setName((String) value);
+                    case DESCRIPTION -> projected.setDescription((String) value);
+                    case PRICE -> projected.setPrice((BigDecimal) value);
+                    case STOCK -> projected.setStock((Integer) value);
+                    case CREATED_AT -> projected.setCreatedAt((LocalDateTime) value);
+                    case LAST_UPDATED_AT -> projected.setLastUpdatedAt((LocalDateTime) value);
+                }
+            }
+            products.add(projected);
+        }
+        return products;
+    }
+
+    @Override
+    public void updateFields(Collection<Product> patches, LocalDateTime lastUpdatedAt) {
+        Map<Set<ProductField>, List<Product>> patchesByFields = new LinkedHashMap<>();
+        for (Product patch : patches) {
+            patchesByFields.computeIfAbsent(ProductField.changedBy(patch), fields -> new ArrayList<>()).add(patch);
+        }
+        // on the connection of the surrounding transaction, so it goes to the same primary or shard as the entity operations
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            for (Map.Entry<Set<ProductField>, List<Product>> group : patchesByFields.entrySet()) {
+                List<ProductField> fields = new ArrayList<>(group.getKey());
+                List<String> assignments = fields.stream().map(field -> field.getColumn() + " = ?").collect(Collectors.toCollection(ArrayList::new));
+                assignments.add(ProductField.LAST_UPDATED_AT.getColumn() + " = ?");
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "UPDATE products SET " + String.join(", ", assignments) + " WHERE id = ?")) {
+                    for (Product patch : group.getValue()) {
+                        int index = 1;
+                        for (ProductField field : fields) {
+                            statement.setObject(index++, field.read(patch));
+                        }
+                        statement.setObject(index++, lastUpdatedAt);
+                        statement.setLong(index, patch.getId());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            }
+        });
+    }
+
+    @Override
+    public int deleteWithTombstones(Collection<Long> ids, LocalDateTime deletedAt) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // a product re-created with the ID of a deleted one may still have the tombstone of that deletion
+        entityManager.createQuery("delete from ProductTombstone t where t.productId in :ids and exists (select 1 from Product p where p.id = t.productId)")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        entityManager.createQuery("insert into ProductTombstone (productId, deletedAt) select p.id, :deletedAt from Product p where p.id in :ids")
+                .setParameter("deletedAt", deletedAt)
+                .setParameter("ids", ids)
+                .executeUpdate();
+        return entityManager.createQuery("delete from Product p where p.id in :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    @Override
+    public List<Change> findChangesAfter(LocalDateTime afterChangedAt, long afterId, LocalDateTime until, int limit) {
+        List<Change> changes = new ArrayList<>();
+        entityManager.createQuery("select p from Product p"
+                        + " where (p.lastUpdatedAt > :at or (p.lastUpdatedAt = :at and p.id > :id)) and p.lastUpdatedAt <= :until"
+                        + " order by p.lastUpdatedAt, p.id", Product.class)
+                .setParameter("at", afterChangedAt)
+                .setParameter("id", afterId)
+                .setParameter("until", until)
+                .setMaxResults(limit)
+                .getResultList()
+                .forEach(product -> changes.add(new Change(product.getLastUpdatedAt(), product.getId(), product)));
+        entityManager.createQuery("select t from ProductTombstone t"
+                        + " where (t.deletedAt > :at or (t.deletedAt = :at and t.productId > :id)) and t.deletedAt <= :until"
+                        + " order by t.deletedAt, t.productId", ProductTombstone.class)
+                .setParameter("at", afterChangedAt)
+                .setParameter("id", afterId)
+                .setParameter("until", until)
+                .setMaxResults(limit)
+                .getResultList()
+                .forEach(tombstone -> changes.add(new Change(tombstone.getDeletedAt(), tombstone.getProductId(), null)));
+        changes.sort(Change.ORDER);
+        return changes.size() > limit ? new ArrayList<>(changes.subList(0, limit)) : changes;
+    }
+
+    @Override
+    public int deleteTombstonesBefore(LocalDateTime before) {
+        return entityManager.createQuery("delete from ProductTombstone t where t.deletedAt < :before")
+                .setParameter("before", before)
+                .executeUpdate();
+    }
+}
@@ -1,7 +1,44 @@
 package com.example.fastProductApi.repository;
 
 import com.example.fastProductApi.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductProjectionRepository {
+
+    /**
+     * Scan the whole table without materializing it; must be consumed inside a transaction and closed.
+     * MySQL only streams with {@code useCursorFetch=true} on the JDBC URL.
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Product p")
+    Stream<Product> streamAll();
+
+    /**
+     * Products created or changed since the given time, streamed like {@link #streamAll()}.
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Product p where p.lastUpdatedAt >= :since")
+    Stream<Product> streamUpdatedSince(@Param("since") LocalDateTime since);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("select p.id from Product p")
+    Stream<Long> streamAllIds();
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("select t.productId from ProductTombstone t where t.deletedAt >= :since")
+    Stream<Long> streamIdsDeletedSince(@Param("since") LocalDateTime since);
 }
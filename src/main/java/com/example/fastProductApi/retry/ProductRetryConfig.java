@@ -0,0 +1,15 @@
+package com.example.fastProductApi.retry;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ProductRetryProperties.class)
+public class ProductRetryConfig {
+
+    @Bean
+    public ProductRetryScheduler productRetryScheduler(ProductRetryProperties properties) {
+        return new ProductRetryScheduler(properties);
+    }
+}
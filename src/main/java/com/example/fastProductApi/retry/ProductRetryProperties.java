@@ -0,0 +1,61 @@
+package com.example.fastProductApi.retry;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Backoff and budget of the retries of bulk tasks, which wait on a timer instead of on a worker thread.
+ */
+@ConfigurationProperties(prefix = "product.retry")
+public class ProductRetryProperties {
+
+    // including the first, as the @Retryable of the single-product methods
+    private int maxAttempts = 3;
+    // upper bound of the first backoff; it doubles with every retry up to max-delay, each delay drawn at random below it
+    private Duration initialDelay = Duration.ofMillis(200);
+    private Duration maxDelay = Duration.ofSeconds(2);
+    // retries a bulk request may spend, as a share of its tasks, but at least min-budget
+    private double budgetRatio = 0.1;
+    private int minBudget = 3;
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getInitialDelay() {
+        return initialDelay;
+    }
+
+    public void setInitialDelay(Duration initialDelay) {
+        this.initialDelay = initialDelay;
+    }
+
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    public void setMaxDelay(Duration maxDelay) {
+        this.maxDelay = maxDelay;
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    public void setBudgetRatio(double budgetRatio) {
+        this.budgetRatio = budgetRatio;
+    }
+
+    public int getMinBudget() {
+        return minBudget;
+    }
+
+    public void setMinBudget(int minBudget) {
+        this.minBudget = minBudget;
+    }
+}
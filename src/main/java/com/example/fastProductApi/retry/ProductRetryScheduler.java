@@ -0,0 +1,173 @@
+package com.example.fastProductApi.retry;
+
+import com.example.fastProductApi.exception.CustomException;
+import io.lettuce.core.RedisException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.TransientDataAccessException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs bulk tasks on a bulkhead executor and retries transient failures without holding a worker during the
+ * backoff: a failed attempt returns its thread at once and a timer submits the next attempt after an exponential
+ * delay with full jitter, so a burst of failures neither parks the pool nor retries in lockstep.
+ * <p>
+ * Every bulk request gets a {@link Budget} that caps its retries in total, so a failing dependency costs a request
+ * at most a fraction more work instead of {@code max-attempts} times as much. While a task runs here,
+ * {@code @Retryable} methods it calls do not retry in place; see {@link #RETRY_IN_PLACE}.
+ * <p>
+ * When the executor's queue is full, the attempt waits another backoff step on the timer instead of running on the
+ * timer thread, where it would hold up every other pending retry; after {@code max-attempts} such deferrals it fails
+ * with its last failure.
+ */
+public class ProductRetryScheduler implements DisposableBean {
+
+    /**
+     * {@code exceptionExpression} of {@code @Retryable} methods: retry in place, except inside a task of this
+     * scheduler, which gets the failure at once and retries it on the timer.
+     */
+    public static final String RETRY_IN_PLACE = "T(com.example.fastProductApi.retry.ProductRetryScheduler).isRetryingInPlace()";
+
+    private static final ThreadLocal<Boolean> RESCHEDULING = new ThreadLocal<>();
+
+    // set while the timer hands an attempt to the executor, so an attempt the executor runs in the caller can tell
+    private static final ThreadLocal<Boolean> DISPATCHING = new ThreadLocal<>();
+
+    /**
+     * Retries one bulk request may still spend, shared by all its tasks.
+     */
+    public static final class Budget {
+        private final AtomicInteger remaining;
+
+        Budget(int retries) {
+            this.remaining = new AtomicInteger(retries);
+        }
+
+        boolean tryAcquire() {
+            return remaining.getAndUpdate(retries -> retries > 0 ? retries - 1 : 0) > 0;
+        }
+
+        public int getRemaining() {
+            return remaining.get();
+        }
+    }
+
+    private final int maxAttempts;
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final double budgetRatio;
+    private final int minBudget;
+    private final ScheduledExecutorService timer;
+
+    public ProductRetryScheduler(ProductRetryProperties properties) {
+        this.maxAttempts = properties.getMaxAttempts();
+        this.initialDelayMillis = properties.getInitialDelay().toMillis();
+        this.maxDelayMillis = properties.getMaxDelay().toMillis();
+        this.budgetRatio = properties.getBudgetRatio();
+        this.minBudget = properties.getMinBudget();
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-retry-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static boolean isRetryingInPlace() {
+        return RESCHEDULING.get() == null;
+    }
+
+    /**
+     * @param tasks Number of tasks the request submits.
+     */
+    public Budget budgetFor(int tasks) {
+        return new Budget(Math.max(minBudget, (int) Math.ceil(tasks * budgetRatio)));
+    }
+
+    /**
+     * Run a task on the executor, retrying transient failures while attempts and budget remain.
+     *
+     * @return Completes with the result of the first successful attempt, or the failure of the last one.
+     * @throws RejectedExecutionException When the executor has been shut down.
+     */
+    public <T> Future<T> submit(ExecutorService executor, Budget budget, Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        executor.execute(() -> attempt(executor, budget, task, 1, result));
+        return result;
+    }
+
+    private <T> void attempt(ExecutorService executor, Budget budget, Callable<T> task, int attempt, CompletableFuture<T> result) {
+        Boolean previous = RESCHEDULING.get();
+        RESCHEDULING.set(Boolean.TRUE);
+        try {
+            result.complete(task.call());
+        } catch (Exception e) {
+            if (attempt < maxAttempts && isTransient(e) && budget.tryAcquire()) {
+                retryLater(executor, budget, task, attempt + 1, result, e, 0);
+            } else {
+                result.completeExceptionally(e);
+            }
+        } catch (Throwable t) {
+            result.completeExceptionally(t);
+        } finally {
+            RESCHEDULING.set(previous);
+        }
+    }
+
+    private <T> void retryLater(ExecutorService executor, Budget budget, Callable<T> task, int attempt,
+                                CompletableFuture<T> result, Exception failure, int deferrals) {
+        try {
+            timer.schedule(() -> dispatch(executor, budget, task, attempt, result, failure, deferrals),
+                    delayMillis(attempt + deferrals), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(failure);
+        }
+    }
+
+    private <T> void dispatch(ExecutorService executor, Budget budget, Callable<T> task, int attempt,
+                              CompletableFuture<T> result, Exception failure, int deferrals) {
+        DISPATCHING.set(Boolean.TRUE);
+        try {
+            executor.execute(() -> {
+                if (DISPATCHING.get() == null) {
+                    attempt(executor, budget, task, attempt, result);
+                } else if (deferrals < maxAttempts) {
+                    // the queue is full and the executor handed the attempt back to the timer: back off further
+                    retryLater(executor, budget, task, attempt, result, failure, deferrals + 1);
+                } else {
+                    result.completeExceptionally(failure);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(failure);
+        } finally {
+            DISPATCHING.remove();
+        }
+    }
+
+    // full jitter: anywhere below initial-delay * 2^(retry - 1), capped at max-delay
+    long delayMillis(int attempt) {
+        long ceiling = initialDelayMillis << Math.min(attempt - 2, 30);
+        ceiling = ceiling < 0 ? maxDelayMillis : Math.min(ceiling, maxDelayMillis);
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    // the failures the single-product methods retry, plus transient database errors of batched writes
+    private static boolean isTransient(Exception e) {
+        return e instanceof CustomException || e instanceof RedisException || e instanceof TransientDataAccessException;
+    }
+
+    // pending retries are submitted at once, so their requests complete or fail instead of waiting forever
+    @Override
+    public void destroy() {
+        timer.shutdownNow().forEach(Runnable::run);
+    }
+}
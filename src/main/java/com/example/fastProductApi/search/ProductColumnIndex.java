@@ -0,0 +1,353 @@
+package com.example.fastProductApi.search;
+
+import com.example.fastProductApi.entity.Product;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar in-memory index of product ID, price (in cents) and stock for price range and stock filters
+ * sorted by price.
+ * <p>
+ * Rows live in primitive arrays sorted by price, then ID, so a price range is found with two binary searches
+ * and walked in either direction. A stock change at the same price is applied in place. Other changes go to a
+ * small pending set that queries merge in, until it is large enough to be folded into new arrays.
+ * Safe for concurrent use: queries share a read lock, updates take the write lock.
+ */
+public class ProductColumnIndex {
+
+    static final int PRICE_SCALE = 2;
+    private static final int MIN_PENDING_BEFORE_COMPACTION = 1024;
+
+    // price-sorted columns, ties broken by ID
+    private long[] prices = new long[0];
+    private long[] ids = new long[0];
+    private int[] stocks = new int[0];
+    // the same IDs in ascending order with their position in the columns, to find a row on update
+    private long[] sortedIds = new long[0];
+    private int[] positions = new int[0];
+    // rows replaced or deleted by a pending change
+    private final BitSet superseded = new BitSet();
+    private final Map<Long, Row> pending = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record Row(long id, long price, int stock, boolean deleted) {
+    }
+
+    /**
+     * Collects the rows of a full load in primitive arrays.
+     */
+    public static class Builder {
+        private long[] prices = new long[1024];
+        private long[] ids = new long[1024];
+        private int[] stocks = new int[1024];
+        private int size;
+
+        public Builder add(Product product) {
+            if (size == ids.length) {
+                prices = Arrays.copyOf(prices, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+                stocks = Arrays.copyOf(stocks, size * 2);
+            }
+            prices[size] = scale(product.getPrice());
+            ids[size] = product.getId();
+            stocks[size] = stockOf(product);
+            size++;
+            return this;
+        }
+    }
+
+    /**
+     * Replace the columns with a full load. Changes recorded while the load was running take precedence.
+     */
+    public void load(Builder builder) {
+        int size = builder.size;
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        sortByPriceThenId(order, builder.prices, builder.ids);
+        long[] newPrices = new long[size];
+        long[] newIds = new long[size];
+        int[] newStocks = new int[size];
+        for (int i = 0; i < size; i++) {
+            newPrices[i] = builder.prices[order[i]];
+            newIds[i] = builder.ids[order[i]];
+            newStocks[i] = builder.stocks[order[i]];
+        }
+
+        lock.writeLock().lock();
+        try {
+            setColumns(newPrices, newIds, newStocks);
+            for (Long id : pending.keySet()) {
+                int position = positionOf(id);
+                if (position >= 0) {
+                    superseded.set(position);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(Product product) {
+        long id = product.getId();
+        long price = scale(product.getPrice());
+        int stock = stockOf(product);
+        lock.writeLock().lock();
+        try {
+            int position = positionOf(id);
+            if (position >= 0 && !superseded.get(position) && prices[position] == price) {
+                stocks[position] = stock;
+                return;
+            }
+            if (position >= 0) {
+                superseded.set(position);
+            }
+            pending.put(id, new Row(id, price, stock, false));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int position = positionOf(id);
+            if (position >= 0) {
+                superseded.set(position);
+            }
+            // kept until the next compaction so that a running load cannot bring the row back
+            pending.put(id, new Row(id, 0, 0, true));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param minPrice   Lowest price, inclusive; null for no lower bound.
+     * @param maxPrice   Highest price, inclusive; null for no upper bound.
+     * @param minStock   Lowest stock, inclusive.
+     * @param descending Sort by price descending instead of ascending (ties by ID in the same direction).
+     * @param offset     Number of matching rows to skip.
+     * @param limit      Maximum number of IDs to return.
+     * @return One page of product IDs and the total number of matches.
+     */
+    public ProductSearchIndex.SearchResult query(BigDecimal minPrice, BigDecimal maxPrice, int minStock,
+                                                 boolean descending, int offset, int limit) {
+        long low = minPrice == null ? Long.MIN_VALUE : scale(minPrice);
+        long high = maxPrice == null ? Long.MAX_VALUE : scale(maxPrice);
+        List<Long> page = new ArrayList<>(Math.max(0, Math.min(limit, 1024)));
+        long total = 0;
+
+        lock.readLock().lock();
+        try {
+            List<Row> extra = new ArrayList<>();
+            for (Row row : pending.values()) {
+                if (!row.deleted() && row.price() >= low && row.price() <= high && row.stock() >= minStock) {
+                    extra.add(row);
+                }
+            }
+            Comparator<Row> rowOrder = Comparator.comparingLong(Row::price).thenComparingLong(Row::id);
+            extra.sort(descending ? rowOrder.reversed() : rowOrder);
+
+            int from = lowerBound(prices, low);
+            int to = upperBound(prices, high);
+            int step = descending ? -1 : 1;
+            int i = descending ? to - 1 : from;
+            int j = 0;
+            while (true) {
+                while (i >= from && i < to && (superseded.get(i) || stocks[i] < minStock)) {
+                    i += step;
+                }
+                boolean columnLeft = i >= from && i < to;
+                boolean extraLeft = j < extra.size();
+                if (!columnLeft && !extraLeft) {
+                    break;
+                }
+                long id;
+                if (columnLeft && (!extraLeft || comesFirst(prices[i], ids[i], extra.get(j), descending))) {
+                    id = ids[i];
+                    i += step;
+                } else {
+                    id = extra.get(j).id();
+                    j++;
+                }
+                if (total >= offset && page.size() < limit) {
+                    page.add(id);
+                }
+                total++;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ProductSearchIndex.SearchResult(page, total);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            int size = ids.length - superseded.cardinality();
+            for (Row row : pending.values()) {
+                if (!row.deleted()) {
+                    size++;
+                }
+            }
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static long scale(BigDecimal price) {
+        return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static int stockOf(Product product) {
+        return product.getStock() == null ? 0 : product.getStock();
+    }
+
+    private static boolean comesFirst(long price, long id, Row row, boolean descending) {
+        int order = price != row.price() ? Long.compare(price, row.price()) : Long.compare(id, row.id());
+        return descending ? order > 0 : order < 0;
+    }
+
+    private int positionOf(long id) {
+        int index = Arrays.binarySearch(sortedIds, id);
+        return index >= 0 ? positions[index] : -1;
+    }
+
+    /**
+     * Merge the pending rows into new columns once they would slow queries down noticeably.
+     */
+    private void compactIfNeeded() {
+        if (pending.size() < Math.max(MIN_PENDING_BEFORE_COMPACTION, ids.length / 8)) {
+            return;
+        }
+        List<Row> rows = new ArrayList<>();
+        for (Row row : pending.values()) {
+            if (!row.deleted()) {
+                rows.add(row);
+            }
+        }
+        rows.sort(Comparator.comparingLong(Row::price).thenComparingLong(Row::id));
+
+        int size = ids.length - superseded.cardinality() + rows.size();
+        long[] newPrices = new long[size];
+        long[] newIds = new long[size];
+        int[] newStocks = new int[size];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < size; k++) {
+            while (i < ids.length && superseded.get(i)) {
+                i++;
+            }
+            if (i < ids.length && (j == rows.size() || comesFirst(prices[i], ids[i], rows.get(j), false))) {
+                newPrices[k] = prices[i];
+                newIds[k] = ids[i];
+                newStocks[k] = stocks[i];
+                i++;
+            } else {
+                Row row = rows.get(j++);
+                newPrices[k] = row.price();
+                newIds[k] = row.id();
+                newStocks[k] = row.stock();
+            }
+        }
+        pending.clear();
+        setColumns(newPrices, newIds, newStocks);
+    }
+
+    private void setColumns(long[] newPrices, long[] newIds, int[] newStocks) {
+        long[] newSortedIds = newIds.clone();
+        Arrays.sort(newSortedIds);
+        int[] newPositions = new int[newIds.length];
+        for (int position = 0; position < newIds.length; position++) {
+            newPositions[Arrays.binarySearch(newSortedIds, newIds[position])] = position;
+        }
+        prices = newPrices;
+        ids = newIds;
+        stocks = newStocks;
+        sortedIds = newSortedIds;
+        positions = newPositions;
+        superseded.clear();
+    }
+
+    /**
+     * @return First position with a price >= the given one.
+     */
+    private static int lowerBound(long[] sorted, long value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return First position with a price > the given one.
+     */
+    private static int upperBound(long[] sorted, long value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Stable bottom-up merge sort of row numbers by price, then ID, without boxing.
+     */
+    private static void sortByPriceThenId(int[] order, long[] prices, long[] ids) {
+        int[] source = order;
+        int[] target = new int[order.length];
+        for (int width = 1; width < order.length; width *= 2) {
+            for (int start = 0; start < order.length; start += 2 * width) {
+                int middle = Math.min(start + width, order.length);
+                int end = Math.min(start + 2 * width, order.length);
+                int left = start;
+                int right = middle;
+                for (int k = start; k < end; k++) {
+                    if (left < middle && (right >= end || !lessThan(source[right], source[left], prices, ids))) {
+                        target[k] = source[left++];
+                    } else {
+                        target[k] = source[right++];
+                    }
+                }
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != order) {
+            System.arraycopy(source, 0, order, 0, order.length);
+        }
+    }
+
+    private static boolean lessThan(int a, int b, long[] prices, long[] ids) {
+        return prices[a] != prices[b] ? prices[a] < prices[b] : ids[a] < ids[b];
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.fastProductApi.search;
+
+import com.example.fastProductApi.event.ProductChangeEvent;
+import com.example.fastProductApi.service.ProductCatalogScanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+
+/**
+ * Keeps a {@link ProductColumnIndex} in sync with the database: loaded from a streaming scan once the
+ * application is ready, then updated from {@link ProductChangeEvent}s.
+ */
+@Service
+@ConditionalOnProperty(prefix = "product.filter-index", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ProductFilterService {
+    static Logger log = LoggerFactory.getLogger(ProductFilterService.class);
+
+    private final ProductColumnIndex index = new ProductColumnIndex();
+    private volatile boolean ready;
+
+    @Autowired
+    private ProductCatalogScanner productCatalogScanner;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        long start = System.currentTimeMillis();
+        try {
+            ProductColumnIndex.Builder builder = new ProductColumnIndex.Builder();
+            long scanned = productCatalogScanner.scan(builder::add);
+            index.load(builder);
+            ready = true;
+            log.info("Price/stock index built from {} products in {} ms", scanned, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Price/stock index bootstrap failed {}: {}", e.getClass(), e.getMessage());
+        }
+    }
+
+    // after commit, so a rolled-back write never shows up in filter results
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        if (event.type() == ProductChangeEvent.Type.DELETED) {
+            index.remove(event.productId());
+        } else {
+            index.upsert(event.product());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @param minPrice   Lowest price, inclusive; null for no lower bound.
+     * @param maxPrice   Highest price, inclusive; null for no upper bound.
+     * @param minStock   Lowest stock, inclusive.
+     * @param descending Sort by price descending.
+     * @param page       Zero-based page number.
+     * @param size       Page size.
+     * @return Product IDs of the page and the total number of matches.
+     */
+    public ProductSearchIndex.SearchResult filter(BigDecimal minPrice, BigDecimal maxPrice, int minStock,
+                                                  boolean descending, int page, int size) {
+        return index.query(minPrice, maxPrice, minStock, descending, page * size, size);
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.fastProductApi.search;
+
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.util.ProductETags;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name and description, ranked with BM25.
+ * A name match counts {@link #NAME_WEIGHT} times as much as a description match.
+ * Safe for concurrent use: searches share a read lock, updates take the write lock.
+ */
+public class ProductSearchIndex {
+
+    static final float NAME_WEIGHT = 3f;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    // term -> product ID -> weighted term frequency
+    private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private double totalLength;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record Document(Set<String> terms, float length, long version) {
+    }
+
+    /**
+     * @param ids   Product IDs of the requested page, best match first.
+     * @param total Number of matching products.
+     */
+    public record SearchResult(List<Long> ids, long total) {
+    }
+
+    /**
+     * Add or replace a product. An older version than the one already indexed is ignored.
+     *
+     * @return true if the index changed.
+     */
+    public boolean index(Product product) {
+        long version = ProductETags.version(product);
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = 0;
+        for (String term : tokenize(product.getName())) {
+            frequencies.merge(term, NAME_WEIGHT, Float::sum);
+            length += NAME_WEIGHT;
+        }
+        for (String term : tokenize(product.getDescription())) {
+            frequencies.merge(term, 1f, Float::sum);
+            length++;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Document existing = documents.get(product.getId());
+            if (existing != null && existing.version() > version) {
+                return false;
+            }
+            removeDocument(product.getId());
+            frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(product.getId(), frequency));
+            documents.put(product.getId(), new Document(frequencies.keySet(), length, version));
+            totalLength += length;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rank the products matching any of the query terms.
+     *
+     * @param query  Free text, tokenized like the indexed fields.
+     * @param offset Number of ranked results to skip.
+     * @param limit  Maximum number of IDs to return.
+     * @return One page of product IDs and the total number of matches.
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        Map<Long, Float> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return new SearchResult(List.of(), 0);
+            }
+            int documentCount = documents.size();
+            double averageLength = Math.max(totalLength / documentCount, 1d);
+            for (String term : new LinkedHashSet<>(tokenize(query))) {
+                Map<Long, Float> termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+                termPostings.forEach((id, frequency) -> {
+                    double norm = K1 * (1 - B + B * documents.get(id).length() / averageLength);
+                    scores.merge(id, (float) (idf * frequency * (K1 + 1) / (frequency + norm)), Float::sum);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new SearchResult(topRanked(scores, offset, limit), scores.size());
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower-cased runs of letters and digits.
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String term : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private void removeDocument(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms()) {
+            Map<Long, Float> termPostings = postings.get(term);
+            termPostings.remove(id);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= document.length();
+    }
+
+    /**
+     * Select one page with a bounded heap instead of sorting every match.
+     */
+    private static List<Long> topRanked(Map<Long, Float> scores, int offset, int limit) {
+        int wanted = offset + limit;
+        if (limit <= 0 || offset >= scores.size()) {
+            return List.of();
+        }
+        Comparator<Map.Entry<Long, Float>> ranking = Map.Entry.<Long, Float>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<Long, Float>> heap = new PriorityQueue<>(ranking.reversed());
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > wanted) {
+                heap.poll();
+            }
+        }
+        List<Map.Entry<Long, Float>> ranked = new ArrayList<>(heap);
+        ranked.sort(ranking);
+        return ranked.subList(offset, ranked.size()).stream().map(Map.Entry::getKey).toList();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.fastProductApi.search;
+
+import com.example.fastProductApi.event.ProductChangeEvent;
+import com.example.fastProductApi.service.ProductCatalogScanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a {@link ProductSearchIndex} in sync with the database: built from a streaming scan once the
+ * application is ready, then updated from {@link ProductChangeEvent}s.
+ */
+@Service
+@ConditionalOnProperty(prefix = "product.search", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ProductSearchService {
+    static Logger log = LoggerFactory.getLogger(ProductSearchService.class);
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    // products deleted while the initial scan runs, so the scan does not bring them back
+    private final Set<Long> deletedDuringBootstrap = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    @Autowired
+    private ProductCatalogScanner productCatalogScanner;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        long start = System.currentTimeMillis();
+        try {
+            long scanned = productCatalogScanner.scan(product -> {
+                if (!deletedDuringBootstrap.contains(product.getId())) {
+                    index.index(product);
+                }
+            });
+            ready = true;
+            deletedDuringBootstrap.clear();
+            log.info("Search index built from {} products in {} ms", scanned, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Search index bootstrap failed {}: {}", e.getClass(), e.getMessage());
+        }
+    }
+
+    // after commit, so a rolled-back write never shows up in search results
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        if (event.type() == ProductChangeEvent.Type.DELETED) {
+            if (!ready) {
+                deletedDuringBootstrap.add(event.productId());
+            }
+            index.remove(event.productId());
+        } else {
+            index.index(event.product());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @param query Free text matched against name and description.
+     * @param page  Zero-based page number.
+     * @param size  Page size.
+     * @return Product IDs of the page, best match first, and the total number of matches.
+     */
+    public ProductSearchIndex.SearchResult search(String query, int page, int size) {
+        return index.search(query, page * size, size);
+    }
+}
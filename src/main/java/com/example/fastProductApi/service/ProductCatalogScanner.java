@@ -0,0 +1,112 @@
+package com.example.fastProductApi.service;
+
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.repository.ProductRepository;
+import com.example.fastProductApi.sharding.ShardContext;
+import com.example.fastProductApi.sharding.ShardingStrategy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams the whole catalog for building in-memory indexes, one shard after the other when sharding is enabled.
+ * Each product is detached once the consumer has seen it, so memory stays flat however large the table is.
+ */
+@Component
+public class ProductCatalogScanner {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // only present when product.sharding.enabled=true
+    @Autowired(required = false)
+    private ShardingStrategy shardingStrategy;
+
+    /**
+     * @param consumer Called once per product.
+     * @return Number of products scanned.
+     */
+    public long scan(Consumer<Product> consumer) {
+        return onEveryShard(() -> forEach(productRepository.streamAll(), consumer));
+    }
+
+    /**
+     * @param since    Lower bound of {@code lastUpdatedAt}, inclusive.
+     * @param consumer Called once per product created or changed since then.
+     * @return Number of products scanned.
+     */
+    public long scanUpdatedSince(LocalDateTime since, Consumer<Product> consumer) {
+        return onEveryShard(() -> forEach(productRepository.streamUpdatedSince(since), consumer));
+    }
+
+    /**
+     * @param consumer Called once per existing product ID.
+     * @return Number of IDs scanned.
+     */
+    public long scanIds(LongConsumer consumer) {
+        return onEveryShard(() -> forEachId(productRepository.streamAllIds(), consumer));
+    }
+
+    /**
+     * @param since    Lower bound of the deletion time, inclusive.
+     * @param consumer Called once per ID whose product was deleted since then, from the tombstones.
+     * @return Number of IDs scanned.
+     */
+    public long scanDeletedSince(LocalDateTime since, LongConsumer consumer) {
+        return onEveryShard(() -> forEachId(productRepository.streamIdsDeletedSince(since), consumer));
+    }
+
+    private long forEachId(Stream<Long> ids, LongConsumer consumer) {
+        long scanned = 0;
+        try (ids) {
+            for (Long id : (Iterable<Long>) ids::iterator) {
+                consumer.accept(id);
+                scanned++;
+            }
+        }
+        return scanned;
+    }
+
+    private long forEach(Stream<Product> products, Consumer<Product> consumer) {
+        long scanned = 0;
+        try (products) {
+            for (Product product : (Iterable<Product>) products::iterator) {
+                consumer.accept(product);
+                entityManager.detach(product);
+                scanned++;
+            }
+        }
+        return scanned;
+    }
+
+    /**
+     * Run a scan in a read-only transaction on the current data source, or on every shard in turn.
+     */
+    private long onEveryShard(Supplier<Long> scan) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        if (shardingStrategy == null) {
+            return transactionTemplate.execute(status -> scan.get());
+        }
+        long scanned = 0;
+        for (int shard = 0; shard < shardingStrategy.shardCount(); shard++) {
+            scanned += ShardContext.callOnShard(shard, () -> transactionTemplate.execute(status -> scan.get()));
+        }
+        return scanned;
+    }
+}
@@ -1,8 +1,14 @@
 package com.example.fastProductApi.service;
 
 import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.event.ProductChangeEvent;
 import com.example.fastProductApi.exception.CustomException;
+import com.example.fastProductApi.jfr.ProductStageEvent;
+import com.example.fastProductApi.jfr.ProductStages;
+import com.example.fastProductApi.projection.ProductField;
+import com.example.fastProductApi.repository.ProductProjectionRepository;
 import com.example.fastProductApi.repository.ProductRepository;
+import com.example.fastProductApi.retry.ProductRetryScheduler;
 import com.example.fastProductApi.util.ConstantMessages;
 import io.lettuce.core.RedisException;
 import org.slf4j.Logger;
@@ -11,12 +17,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Service;
 import org.springframework.retry.annotation.Retryable;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class ProductServiceForBasicCrud {
@@ -24,13 +35,19 @@ public class ProductServiceForBasicCrud {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
 
-    // Delete product and evict from cache
-    @Retryable(value = {CustomException.class, RedisException.class}, maxAttempts = 3, backoff = @Backoff(delay = 2000))
+    // Delete product, leaving a tombstone for delta sync in the same transaction, and evict from cache
+    @Retryable(value = {CustomException.class, RedisException.class}, maxAttempts = 3, backoff = @Backoff(delay = 2000),
+            exceptionExpression = ProductRetryScheduler.RETRY_IN_PLACE)
     @CacheEvict(value = "products", key = "#product.id")
+    @Transactional(rollbackFor = CustomException.class)
     public void deleteProduct(Product product) throws CustomException {
         try {
-            productRepository.delete(product);
+            delete(product);
+            eventPublisher.publishEvent(ProductChangeEvent.deleted(product.getId()));
         } catch (Exception e) {
             log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
             throw new CustomException(e);
@@ -39,12 +56,16 @@ public class ProductServiceForBasicCrud {
 
 
     // save product and put into cache
-    @Retryable(value = {CustomException.class, RedisException.class}, maxAttempts = 3, backoff = @Backoff(delay = 2000))
+    @Retryable(value = {CustomException.class, RedisException.class}, maxAttempts = 3, backoff = @Backoff(delay = 2000),
+            exceptionExpression = ProductRetryScheduler.RETRY_IN_PLACE)
     @CachePut(value = "products", key = "#result.id")
+    @Transactional(rollbackFor = CustomException.class)
     public Product saveProduct(Product product) throws CustomException {
         try {
             if (product != null) {
-                return productRepository.save(product);
+                Product savedProduct = save(product, "save");
+                eventPublisher.publishEvent(ProductChangeEvent.created(savedProduct));
+                return savedProduct;
             }
             return null;
         } catch (Exception e) {
@@ -55,7 +76,8 @@ public class ProductServiceForBasicCrud {
 
 
     // update product and update into cache
-    @Retryable(value = {CustomException.class, RedisException.class}, maxAttempts = 3, backoff = @Backoff(delay = 2000))
+    @Retryable(value = {CustomException.class, RedisException.class}, maxAttempts = 3, backoff = @Backoff(delay = 2000),
+            exceptionExpression = ProductRetryScheduler.RETRY_IN_PLACE)
     @CachePut(value = "products", key = "#result.id")
     public Product updateProduct(Product product) throws CustomException {
         try {
@@ -63,10 +85,12 @@ public class ProductServiceForBasicCrud {
                 // If product doesn't have an ID, it's a new product, so save it
                 product.setCreatedAt(LocalDateTime.now());
                 product.setLastUpdatedAt(LocalDateTime.now());
-                return productRepository.save(product);
+                Product savedProduct = save(product, "save");
+                eventPublisher.publishEvent(ProductChangeEvent.created(savedProduct));
+                return savedProduct;
             } else {
                 // If product has an ID, check if it exists
-                Optional<Product> existingProduct = productRepository.findById(product.getId());
+                Optional<Product> existingProduct = findById(product.getId());
 
                 // If product exists, update it; otherwise, return null
                 if (existingProduct.isPresent()) {
@@ -77,7 +101,9 @@ public class ProductServiceForBasicCrud {
                     productToUpdate.setDescription(product.getDescription());
                     productToUpdate.setLastUpdatedAt(LocalDateTime.now());
 
-                    return productRepository.save(productToUpdate);  // Save updated product
+                    Product updatedProduct = save(productToUpdate, "update");  // Save updated product
+                    eventPublisher.publishEvent(ProductChangeEvent.updated(updatedProduct));
+                    return updatedProduct;
                 } else {
                     // Return null if the product is not found
                     return null;
@@ -90,16 +116,98 @@ public class ProductServiceForBasicCrud {
     }
 
 
-    // get product by id from cache and in case of miss, query to db
-    @Retryable(value = {CustomException.class, RedisException.class}, maxAttempts = 3, backoff = @Backoff(delay = 2000))
+    // get product by id from cache and in case of miss, query to db (read-only, so a replica can serve it)
+    @Retryable(value = {CustomException.class, RedisException.class}, maxAttempts = 3, backoff = @Backoff(delay = 2000),
+            exceptionExpression = ProductRetryScheduler.RETRY_IN_PLACE)
     @Cacheable(value = "products", key = "#id")
+    @Transactional(readOnly = true)
     public Optional<Product> getProductById(Long id) throws CustomException {
         try {
-            Optional<Product> optionalProduct = productRepository.findById(id);
+            return findById(id);
+        } catch (Exception e) {
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+            throw new CustomException(e);
+        }
+    }
+
+    // only the selected columns of products, bypassing the cache, which holds whole products (read-only, so a replica can serve it)
+    @Transactional(readOnly = true)
+    public List<Product> findProductFieldsByIds(Collection<Long> ids, Set<ProductField> fields) throws CustomException {
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.DATABASE, "findFieldsByIds");
+        try {
+            return productRepository.findFieldsByIds(ids, fields);
+        } catch (Exception e) {
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+            throw new CustomException(e);
+        } finally {
+            ProductStages.end(stage);
+        }
+    }
+
+    // write only the changed columns of each product, then read the products back whole for the response, cache and events
+    @Transactional(rollbackFor = CustomException.class)
+    public List<Product> patchProducts(Collection<Product> patches) throws CustomException {
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.DATABASE, "patch");
+        try {
+            productRepository.updateFields(patches, LocalDateTime.now());
+            return productRepository.findFieldsByIds(patches.stream().map(Product::getId).toList(), ProductField.ALL);
+        } catch (Exception e) {
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+            throw new CustomException(e);
+        } finally {
+            ProductStages.end(stage);
+        }
+    }
+
+    // products changed and deleted after the (changedAt, id) position, for delta sync (read-only, so a replica can serve it)
+    @Transactional(readOnly = true)
+    public List<ProductProjectionRepository.Change> findChangesAfter(LocalDateTime afterChangedAt, long afterId, LocalDateTime until, int limit) throws CustomException {
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.DATABASE, "findChangesAfter");
+        try {
+            return productRepository.findChangesAfter(afterChangedAt, afterId, until, limit);
         } catch (Exception e) {
             log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
             throw new CustomException(e);
+        } finally {
+            ProductStages.end(stage);
+        }
+    }
+
+    @Transactional(rollbackFor = CustomException.class)
+    public int deleteTombstonesBefore(LocalDateTime before) throws CustomException {
+        try {
+            return productRepository.deleteTombstonesBefore(before);
+        } catch (Exception e) {
+            log.error(ConstantMessages.EXCEPTION_LOGGER, e.getClass(), e.getMessage());
+            throw new CustomException(e);
+        }
+    }
+
+    // repository calls timed as DATABASE stage events when a flight recording is running
+    private Optional<Product> findById(Long id) {
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.DATABASE, "findById");
+        try {
+            return productRepository.findById(id);
+        } finally {
+            ProductStages.end(stage);
+        }
+    }
+
+    private void delete(Product product) {
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.DATABASE, "delete");
+        try {
+            productRepository.deleteWithTombstones(List.of(product.getId()), LocalDateTime.now());
+        } finally {
+            ProductStages.end(stage);
+        }
+    }
+
+    private Product save(Product product, String operation) {
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.DATABASE, operation);
+        try {
+            return productRepository.save(product);
+        } finally {
+            ProductStages.end(stage);
         }
-        return Optional.empty();
     }
 }
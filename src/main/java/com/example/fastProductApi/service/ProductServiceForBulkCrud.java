@@ -1,21 +1,39 @@
 package com.example.fastProductApi.service;
 
+import com.example.fastProductApi.batching.ProductBatchLoader;
+import com.example.fastProductApi.bulkhead.ProductBulkheads;
+import com.example.fastProductApi.cache.ProductCacheOperations;
 import com.example.fastProductApi.dto.*;
 import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.event.ProductChangeEvent;
 import com.example.fastProductApi.exception.CustomException;
+import com.example.fastProductApi.jfr.ProductStageEvent;
+import com.example.fastProductApi.jfr.ProductStages;
 import com.example.fastProductApi.mapper.ProductMapper;
+import com.example.fastProductApi.projection.ProductField;
+import com.example.fastProductApi.retry.ProductRetryScheduler;
+import com.example.fastProductApi.sharding.ShardedProductStore;
+import com.example.fastProductApi.upsert.ProductUpsertStore;
 import com.example.fastProductApi.util.ConstantMessages;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
@@ -29,7 +47,31 @@ public class ProductServiceForBulkCrud {
     @Autowired
     private ProductMapper productMapper;
 
-    public static final ExecutorService executorService = Executors.newFixedThreadPool(10);
+    @Autowired
+    private ProductCacheOperations productCacheOperations;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // only present when product.sharding.enabled=true
+    @Autowired(required = false)
+    private ShardedProductStore shardedProductStore;
+
+    // only present when product.batch-loader.enabled=true
+    @Autowired(required = false)
+    private ProductBatchLoader productBatchLoader;
+
+    // only present when product.upsert.enabled=true
+    @Autowired(required = false)
+    private ProductUpsertStore productUpsertStore;
+
+    // separate read and write executors, so bulk writes never hold the threads of bulk reads
+    @Autowired
+    private ProductBulkheads productBulkheads;
+
+    // retries failed tasks on a timer, within a budget per request, instead of sleeping on the worker
+    @Autowired
+    private ProductRetryScheduler productRetryScheduler;
 
     /**
      * Fetch products by IDs sequentially.
@@ -40,6 +82,12 @@ public class ProductServiceForBulkCrud {
     public List<Optional<Product>> getProductByIdsInSeq(List<Long> ids) throws CustomException {
         List<Optional<Product>> optionalProductList = new ArrayList<>();
         try {
+            if (productBatchLoader != null) {
+                return productBatchLoader.loadAll(ids);
+            }
+            if (shardedProductStore != null) {
+                return getProductByIdsFromShards(ids);
+            }
             for (Long id : ids) {
                 optionalProductList.add(productServiceForBasicCrud.getProductById(id));
             }
@@ -58,8 +106,17 @@ public class ProductServiceForBulkCrud {
      */
     public List<Optional<Product>> getProductByIdsInParallel(List<Long> ids) throws CustomException {
         try {
+            if (productBatchLoader != null) {
+                // batches are shared with concurrent requests and loaded on the loader's own threads
+                return productBatchLoader.loadAll(ids);
+            }
+            if (shardedProductStore != null) {
+                return getProductByIdsFromShards(ids);
+            }
             // Submit tasks for each product ID and collect futures
-            List<Future<Optional<Product>>> futures = ids.stream().map(id -> executorService.submit(() -> productServiceForBasicCrud.getProductById(id))).collect(Collectors.toList());
+            ProductRetryScheduler.Budget retryBudget = productRetryScheduler.budgetFor(ids.size());
+            List<Future<Optional<Product>>> futures = ids.stream().map(id -> productRetryScheduler.submit(productBulkheads.reads(), retryBudget,
+                    ProductStages.queued("getProductById", () -> productServiceForBasicCrud.getProductById(id)))).collect(Collectors.toList());
             // Retrieve results from futures
             return getFutureResults(futures, Optional.empty());
         } catch (Exception ex) {
@@ -68,6 +125,33 @@ public class ProductServiceForBulkCrud {
         }
     }
 
+    /**
+     * Fetch only some fields of products by IDs. Cached products are projected in memory; the misses are read
+     * with one query that selects just those columns and are not cached, since the cache holds whole products.
+     * With sharding enabled, the misses are loaded whole from the shards and cached as in {@link #getProductByIdsInSeq}.
+     *
+     * @param ids    List of product IDs to fetch.
+     * @param fields Fields the caller needs; the returned products may carry more.
+     * @return List of Optional<Product> in the order of the requested IDs.
+     */
+    public List<Optional<Product>> getProductFieldsByIds(List<Long> ids, Set<ProductField> fields) throws CustomException {
+        try {
+            if (shardedProductStore != null) {
+                return getProductByIdsFromShards(ids);
+            }
+            Map<Long, Product> products = new HashMap<>(productCacheOperations.getAll(ids));
+            List<Long> missedIds = ids.stream().filter(id -> !products.containsKey(id)).distinct().collect(Collectors.toList());
+            if (!missedIds.isEmpty()) {
+                productServiceForBasicCrud.findProductFieldsByIds(missedIds, fields)
+                        .forEach(product -> products.put(product.getId(), product));
+            }
+            return ids.stream().map(id -> Optional.ofNullable(products.get(id))).collect(Collectors.toList());
+        } catch (Exception ex) {
+            log.error(ConstantMessages.EXCEPTION_LOGGER, ex.getClass(), ex.getMessage());
+            throw new CustomException(ex);
+        }
+    }
+
     /**
      * Save or update products in parallel.
      *
@@ -79,14 +163,11 @@ public class ProductServiceForBulkCrud {
 
         List<ProductResponseDto> productResponseDtos = Collections.synchronizedList(new ArrayList<>());
         try {
-            // Submit tasks for each product request
-            List<Future<Object>> futures = uploadProductListRequestDto.getProducts().stream().map(productRequestDto -> executorService.submit(() -> {
-                processProduct(productRequestDto, isUpdate, productResponseDtos);
-                return null;
-            })).collect(Collectors.toList());
-
-            // Wait for all tasks to complete
-            waitForFutures(futures);
+            if (shardedProductStore != null) {
+                productResponseDtos = saveOrUpdateProductsOnShards(uploadProductListRequestDto.getProducts(), isUpdate);
+            } else {
+                processProductsInParallel(uploadProductListRequestDto.getProducts(), isUpdate, productResponseDtos);
+            }
 
             // Construct and return response
             ProductListResponseDto responseDto = new ProductListResponseDto();
@@ -99,6 +180,168 @@ public class ProductServiceForBulkCrud {
         }
     }
 
+    /**
+     * @return Whether updates go through {@link #upsertProducts}; sharded stores keep their own batched path.
+     */
+    public boolean isUpsertEnabled() {
+        return productUpsertStore != null && shardedProductStore == null;
+    }
+
+    /**
+     * A batched upsert failed after some of its chunks had committed; those are in the cache, their change events
+     * are published, and {@link #getResponse()} lists them.
+     */
+    public static class PartialUpsertException extends CustomException {
+        private final transient ProductUpsertResponseDto response;
+
+        public PartialUpsertException(Exception ex, ProductUpsertResponseDto response) {
+            super(ex);
+            this.response = response;
+        }
+
+        public ProductUpsertResponseDto getResponse() {
+            return response;
+        }
+    }
+
+    /**
+     * Insert or update products with one statement batch per chunk instead of a find plus save per product.
+     * Each chunk is its own transaction; with isParallel the chunks run on the executor. The cache is refreshed
+     * and change events are published per chunk as it commits, so a later failing chunk does not hide them.
+     *
+     * @param productRequestDtos Products to upsert, with or without ID.
+     * @param isParallel         Flag to write the chunks in parallel.
+     * @return Saved products in request order, with the IDs that were inserted and updated.
+     * @throws PartialUpsertException When a chunk failed after others had been saved.
+     */
+    public ProductUpsertResponseDto upsertProducts(List<ProductRequestDto> productRequestDtos, boolean isParallel) throws CustomException {
+        List<Product> savedProducts = new ArrayList<>(productRequestDtos.size());
+        List<Long> insertedIds = new ArrayList<>();
+        List<Long> updatedIds = new ArrayList<>();
+        Exception failure = null;
+        try {
+            List<Product> products = productRequestDtos.stream().map(this::toEntity).collect(Collectors.toList());
+            List<List<Product>> chunks = new ArrayList<>();
+            for (int from = 0; from < products.size(); from += productUpsertStore.getChunkSize()) {
+                chunks.add(products.subList(from, Math.min(from + productUpsertStore.getChunkSize(), products.size())));
+            }
+
+            if (isParallel && chunks.size() > 1) {
+                ProductRetryScheduler.Budget retryBudget = productRetryScheduler.budgetFor(chunks.size());
+                List<Future<ProductUpsertStore.UpsertResult>> futures = chunks.stream().map(chunk -> productRetryScheduler.submit(productBulkheads.writes(), retryBudget,
+                        ProductStages.queued("upsertProducts", () -> productUpsertStore.upsert(chunk)))).collect(Collectors.toList());
+                // every chunk is awaited: the ones after a failed chunk may have committed too
+                for (Future<ProductUpsertStore.UpsertResult> future : futures) {
+                    try {
+                        publishUpserted(future.get(), savedProducts, insertedIds, updatedIds);
+                    } catch (ExecutionException e) {
+                        failure = failure != null ? failure : e.getCause() instanceof Exception cause ? cause : e;
+                    }
+                }
+            } else {
+                for (List<Product> chunk : chunks) {
+                    publishUpserted(productUpsertStore.upsert(chunk), savedProducts, insertedIds, updatedIds);
+                }
+            }
+        } catch (Exception ex) {
+            failure = ex;
+        }
+
+        if (failure != null) {
+            log.error(ConstantMessages.EXCEPTION_LOGGER, failure.getClass(), failure.getMessage());
+            if (savedProducts.isEmpty()) {
+                throw new CustomException(failure);
+            }
+            throw new PartialUpsertException(failure, new ProductUpsertResponseDto(savedProducts.stream().map(this::toDTO).collect(Collectors.toList()),
+                    insertedIds, updatedIds, new ResponseStatusVo("Upsert failed after saving the listed products: " + failure.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR.toString())));
+        }
+        return new ProductUpsertResponseDto(savedProducts.stream().map(this::toDTO).collect(Collectors.toList()),
+                insertedIds, updatedIds, new ResponseStatusVo("SUCCESS", HttpStatus.CREATED.toString()));
+    }
+
+    // a committed chunk: refresh its cache entries and announce its changes, then add it to the response
+    private void publishUpserted(ProductUpsertStore.UpsertResult result, List<Product> savedProducts, List<Long> insertedIds, List<Long> updatedIds) {
+        productCacheOperations.putAll(result.products());
+        Set<Long> inserted = new HashSet<>(result.insertedIds());
+        for (Product savedProduct : result.products()) {
+            eventPublisher.publishEvent(inserted.remove(savedProduct.getId())
+                    ? ProductChangeEvent.created(savedProduct)
+                    : ProductChangeEvent.updated(savedProduct));
+        }
+        savedProducts.addAll(result.products());
+        insertedIds.addAll(result.insertedIds());
+        updatedIds.addAll(result.updatedIds());
+    }
+
+    /**
+     * Change only the given fields of products: one {@code UPDATE} batch per set of changed columns, then the
+     * products are read back whole. Cached entries are patched in place on the hash layout, replaced otherwise.
+     * Several patches of the same ID are merged, later values winning.
+     *
+     * @param patches Products with ID whose non-null name, description, price and stock are the new values.
+     * @return Patched products in the order of their first patch, and the IDs that do not exist.
+     * @throws IllegalArgumentException When a patch has no ID or changes no field, or sets a blank name.
+     */
+    public ProductPatchResponseDto patchProducts(List<Product> patches) throws CustomException {
+        Map<Long, Product> mergedPatches = mergePatches(patches);
+        try {
+            Map<Long, Product> patchedProducts;
+            if (shardedProductStore != null) {
+                ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.DATABASE, "patchAll");
+                try {
+                    patchedProducts = shardedProductStore.patchAll(mergedPatches.values());
+                } finally {
+                    ProductStages.end(stage);
+                }
+            } else {
+                patchedProducts = new HashMap<>();
+                productServiceForBasicCrud.patchProducts(mergedPatches.values())
+                        .forEach(product -> patchedProducts.put(product.getId(), product));
+            }
+
+            Map<Long, Set<ProductField>> changedFields = new HashMap<>();
+            mergedPatches.forEach((id, patch) -> changedFields.put(id, ProductField.changedBy(patch)));
+            productCacheOperations.patchAll(patchedProducts.values(), changedFields);
+
+            List<ProductResponseDto> productResponseDtos = new ArrayList<>();
+            List<Long> notFoundIds = new ArrayList<>();
+            for (Long id : mergedPatches.keySet()) {
+                Product patchedProduct = patchedProducts.get(id);
+                if (patchedProduct == null) {
+                    notFoundIds.add(id);
+                } else {
+                    eventPublisher.publishEvent(ProductChangeEvent.updated(patchedProduct));
+                    productResponseDtos.add(toDTO(patchedProduct));
+                }
+            }
+            return new ProductPatchResponseDto(productResponseDtos, notFoundIds, new ResponseStatusVo("SUCCESS", HttpStatus.OK.toString()));
+        } catch (Exception ex) {
+            log.error(ConstantMessages.EXCEPTION_LOGGER, ex.getClass(), ex.getMessage());
+            throw new CustomException(ex);
+        }
+    }
+
+    /**
+     * Submit one save or update task per product to the executor and wait for all of them.
+     *
+     * @param productRequestDtos  Products to save or update.
+     * @param isUpdate            Flag to determine save or update operation.
+     * @param productResponseDtos List to collect response DTOs.
+     */
+    private void processProductsInParallel(List<ProductRequestDto> productRequestDtos, boolean isUpdate, List<ProductResponseDto> productResponseDtos) {
+        // Submit tasks for each product request
+        ProductRetryScheduler.Budget retryBudget = productRetryScheduler.budgetFor(productRequestDtos.size());
+        List<Future<Object>> futures = productRequestDtos.stream().map(productRequestDto -> productRetryScheduler.submit(productBulkheads.writes(), retryBudget,
+                ProductStages.queued(isUpdate ? "updateProduct" : "saveProduct", () -> {
+                    processProduct(productRequestDto, isUpdate, productResponseDtos);
+                    return null;
+                }))).collect(Collectors.toList());
+
+        // Wait for all tasks to complete
+        waitForFutures(futures);
+    }
+
     /**
      * Delete products by IDs sequentially.
      *
@@ -137,12 +380,32 @@ public class ProductServiceForBulkCrud {
         List<Long> deletedProductIds = Collections.synchronizedList(new ArrayList<>());
         List<String> notDeletedProductIds = Collections.synchronizedList(new ArrayList<>());
 
-        if (isParallel) {
+        if (shardedProductStore != null) {
+            // One batched delete per shard, shards in parallel
+            Set<Long> deletedIds;
+            ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.DATABASE, "deleteAllByIds");
+            try {
+                deletedIds = new HashSet<>(shardedProductStore.deleteAllByIds(ids));
+            } finally {
+                ProductStages.end(stage);
+            }
+            productCacheOperations.evictAll(deletedIds);
+            deletedIds.forEach(id -> eventPublisher.publishEvent(ProductChangeEvent.deleted(id)));
+            ids.forEach(id -> {
+                if (deletedIds.contains(id)) {
+                    deletedProductIds.add(id);
+                } else {
+                    notDeletedProductIds.add(id.toString());
+                }
+            });
+        } else if (isParallel) {
             // Parallel execution using ExecutorService
-            List<Future<Object>> futures = ids.stream().map(id -> executorService.submit(() -> {
-                processDeletion(id, deletedProductIds, notDeletedProductIds);
-                return null;
-            })).collect(Collectors.toList());
+            ProductRetryScheduler.Budget retryBudget = productRetryScheduler.budgetFor(ids.size());
+            List<Future<Object>> futures = ids.stream().map(id -> productRetryScheduler.submit(productBulkheads.writes(), retryBudget,
+                    ProductStages.queued("deleteProduct", () -> {
+                        processDeletion(id, deletedProductIds, notDeletedProductIds);
+                        return null;
+                    }))).collect(Collectors.toList());
 
             // Wait for all parallel tasks to complete
             waitForFutures(futures);
@@ -169,21 +432,155 @@ public class ProductServiceForBulkCrud {
      * @param productResponseDtos List to collect response DTOs.
      */
     private void processProduct(ProductRequestDto productRequestDto, boolean isUpdate, List<ProductResponseDto> productResponseDtos) throws CustomException {
-        Product product = productMapper.toEntity(productRequestDto);
+        Product product = toEntity(productRequestDto);
 
         if (isUpdate) {
             Product updatedProduct = productServiceForBasicCrud.updateProduct(product);
-            productResponseDtos.add(productMapper.toDTO(updatedProduct));
+            productResponseDtos.add(toDTO(updatedProduct));
         } else {
             product.setCreatedAt(LocalDateTime.now());
             product.setLastUpdatedAt(LocalDateTime.now());
             Product savedProduct = productServiceForBasicCrud.saveProduct(product);
-            productResponseDtos.add(productMapper.toDTO(savedProduct));
+            productResponseDtos.add(toDTO(savedProduct));
         }
 
 
     }
 
+    /**
+     * Fetch products by IDs from the cache and load the misses with one batched query per shard.
+     *
+     * @param ids List of product IDs to fetch.
+     * @return List of Optional<Product> in the order of the requested IDs.
+     */
+    private List<Optional<Product>> getProductByIdsFromShards(List<Long> ids) throws CustomException {
+        Map<Long, Product> products = new HashMap<>(productCacheOperations.getAll(ids));
+        List<Long> missedIds = ids.stream().filter(id -> !products.containsKey(id)).distinct().collect(Collectors.toList());
+        if (!missedIds.isEmpty()) {
+            Map<Long, Product> loadedProducts = findAllOnShards(missedIds);
+            productCacheOperations.putAll(loadedProducts.values());
+            products.putAll(loadedProducts);
+        }
+        return ids.stream().map(id -> Optional.ofNullable(products.get(id))).collect(Collectors.toList());
+    }
+
+    /**
+     * Save or update products with one batch per shard. As in {@link #processProduct}, an update of an
+     * unknown ID yields a null entry in the response.
+     *
+     * @param productRequestDtos Products to save or update.
+     * @param isUpdate           Flag for update or save operation.
+     * @return Response DTOs in the order of the request.
+     */
+    private List<ProductResponseDto> saveOrUpdateProductsOnShards(List<ProductRequestDto> productRequestDtos, boolean isUpdate) throws CustomException {
+        LocalDateTime now = LocalDateTime.now();
+        List<Product> products = productRequestDtos.stream().map(this::toEntity).collect(Collectors.toList());
+        Map<Long, Product> existingProducts = new HashMap<>();
+        if (isUpdate) {
+            List<Long> ids = products.stream().map(Product::getId).filter(Objects::nonNull).distinct().collect(Collectors.toList());
+            existingProducts = findAllOnShards(ids);
+        }
+
+        // one entry per requested product, null when the product to update does not exist
+        List<Product> targets = new ArrayList<>();
+        for (Product product : products) {
+            Product existingProduct = product.getId() == null ? null : existingProducts.get(product.getId());
+            if (existingProduct != null) {
+                existingProduct.setName(product.getName());
+                existingProduct.setPrice(product.getPrice());
+                existingProduct.setStock(product.getStock());
+                existingProduct.setDescription(product.getDescription());
+                existingProduct.setLastUpdatedAt(now);
+                targets.add(existingProduct);
+            } else if (!isUpdate || product.getId() == null) {
+                product.setCreatedAt(now);
+                product.setLastUpdatedAt(now);
+                targets.add(product);
+            } else {
+                targets.add(null);
+            }
+        }
+
+        List<Product> savedProducts;
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.DATABASE, "saveAll");
+        try {
+            savedProducts = shardedProductStore.saveAll(targets.stream().filter(Objects::nonNull).collect(Collectors.toList()));
+        } finally {
+            ProductStages.end(stage);
+        }
+        productCacheOperations.putAll(savedProducts);
+
+        Iterator<Product> savedIterator = savedProducts.iterator();
+        List<ProductResponseDto> productResponseDtos = new ArrayList<>();
+        for (Product target : targets) {
+            Product savedProduct = target == null ? null : savedIterator.next();
+            if (savedProduct != null) {
+                eventPublisher.publishEvent(existingProducts.containsKey(savedProduct.getId())
+                        ? ProductChangeEvent.updated(savedProduct)
+                        : ProductChangeEvent.created(savedProduct));
+            }
+            productResponseDtos.add(toDTO(savedProduct));
+        }
+        return productResponseDtos;
+    }
+
+    /**
+     * One patch per ID, in the order the IDs first appear; fields of later patches override earlier ones.
+     */
+    private Map<Long, Product> mergePatches(List<Product> patches) {
+        Map<Long, Product> mergedPatches = new LinkedHashMap<>();
+        for (Product patch : patches) {
+            if (patch.getId() == null) {
+                throw new IllegalArgumentException("Every patch needs the id of the product to change");
+            }
+            if (ProductField.changedBy(patch).isEmpty()) {
+                throw new IllegalArgumentException("Patch of product " + patch.getId() + " changes no field; patchable fields are name, description, price and stock");
+            }
+            if (patch.getName() != null && patch.getName().isBlank()) {
+                throw new IllegalArgumentException("Patch of product " + patch.getId() + " sets a blank name");
+            }
+            Product merged = mergedPatches.computeIfAbsent(patch.getId(), id -> new Product(id, null, null, null, null, null, null));
+            for (ProductField field : ProductField.changedBy(patch)) {
+                switch (field) {
+                    case NAME -> merged.setName(patch.getName());
+                    case DESCRIPTION -> merged.setDescription(patch.getDescription());
+                    case PRICE -> merged.setPrice(patch.getPrice());
+                    case STOCK -> merged.setStock(patch.getStock());
+                    default -> throw new IllegalStateException("Not patchable: " + field);
+                }
+            }
+        }
+        return mergedPatches;
+    }
+
+    private Map<Long, Product> findAllOnShards(List<Long> ids) throws CustomException {
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.DATABASE, "findAllByIds");
+        try {
+            return shardedProductStore.findAllByIds(ids);
+        } finally {
+            ProductStages.end(stage);
+        }
+    }
+
+    // mapping timed as MAPPING stage events when a flight recording is running
+    private Product toEntity(ProductRequestDto productRequestDto) {
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.MAPPING, "toEntity");
+        try {
+            return productMapper.toEntity(productRequestDto);
+        } finally {
+            ProductStages.end(stage);
+        }
+    }
+
+    private ProductResponseDto toDTO(Product product) {
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.MAPPING, "toDTO");
+        try {
+            return productMapper.toDTO(product);
+        } finally {
+            ProductStages.end(stage);
+        }
+    }
+
     /**
      * Helper method to process product deletion.
      *
@@ -0,0 +1,43 @@
+package com.example.fastProductApi.sharding;
+
+/**
+ * Modulo sharding: shard {@code k} of {@code n} generates ids {@code k+1, k+1+n, k+1+2n, ...},
+ * so the owning shard is {@code (id - 1) mod n}.
+ */
+public class HashShardingStrategy implements ShardingStrategy {
+
+    private final int shardCount;
+
+    public HashShardingStrategy(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shardCount = shardCount;
+    }
+
+    @Override
+    public int shardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public int shardFor(long id) {
+        return (int) Math.floorMod(id - 1, (long) shardCount);
+    }
+
+    @Override
+    public long nextIdentityValue(int shard, long currentMaxId) {
+        long candidate = Math.max(currentMaxId + 1, shard + 1L);
+        return candidate + Math.floorMod(shard - (candidate - 1), (long) shardCount);
+    }
+
+    @Override
+    public long lastIdentityValue(int shard) {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public long identityIncrement() {
+        return shardCount;
+    }
+}
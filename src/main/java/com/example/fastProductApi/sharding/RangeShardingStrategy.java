@@ -0,0 +1,54 @@
+package com.example.fastProductApi.sharding;
+
+import java.util.Arrays;
+
+/**
+ * Range sharding: shard {@code k} owns ids from {@code rangeStarts[k]} up to the next shard's start.
+ * Ids below the first start belong to shard 0. Every shard but the last is full once it has generated the id
+ * just below the next start.
+ */
+public class RangeShardingStrategy implements ShardingStrategy {
+
+    private final long[] rangeStarts;
+
+    public RangeShardingStrategy(long[] rangeStarts) {
+        if (rangeStarts.length < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        for (int i = 1; i < rangeStarts.length; i++) {
+            if (rangeStarts[i] <= rangeStarts[i - 1]) {
+                throw new IllegalArgumentException("Shard range starts must be strictly increasing");
+            }
+        }
+        this.rangeStarts = rangeStarts.clone();
+    }
+
+    @Override
+    public int shardCount() {
+        return rangeStarts.length;
+    }
+
+    @Override
+    public int shardFor(long id) {
+        int position = Arrays.binarySearch(rangeStarts, id);
+        if (position >= 0) {
+            return position;
+        }
+        return Math.max(0, -position - 2);
+    }
+
+    @Override
+    public long nextIdentityValue(int shard, long currentMaxId) {
+        return Math.max(currentMaxId + 1, rangeStarts[shard]);
+    }
+
+    @Override
+    public long lastIdentityValue(int shard) {
+        return shard + 1 < rangeStarts.length ? rangeStarts[shard + 1] - 1 : Long.MAX_VALUE;
+    }
+
+    @Override
+    public long identityIncrement() {
+        return 1;
+    }
+}
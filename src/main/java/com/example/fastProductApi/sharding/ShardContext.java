@@ -0,0 +1,43 @@
+package com.example.fastProductApi.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the shard the current thread talks to; read by {@link ShardRoutingDataSource}.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer currentShard() {
+        return CURRENT_SHARD.get();
+    }
+
+    /**
+     * Run the action with every connection acquired on the given shard, restoring the previous shard afterwards.
+     */
+    public static <T> T callOnShard(int shard, Supplier<T> action) {
+        Integer previous = switchTo(shard);
+        try {
+            return action.get();
+        } finally {
+            switchTo(previous);
+        }
+    }
+
+    /**
+     * @return The shard selected before the switch, to be restored by the caller.
+     */
+    static Integer switchTo(Integer shard) {
+        Integer previous = CURRENT_SHARD.get();
+        if (shard == null) {
+            CURRENT_SHARD.remove();
+        } else {
+            CURRENT_SHARD.set(shard);
+        }
+        return previous;
+    }
+}
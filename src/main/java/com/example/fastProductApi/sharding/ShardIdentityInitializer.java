@@ -0,0 +1,77 @@
+package com.example.fastProductApi.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Aligns the identity column of every shard with the {@link ShardingStrategy}, so that ids generated on
+ * a shard always map back to it. Runs once all singletons (and so the JPA schema update) are ready.
+ * On MySQL the HASH strategy is applied per connection through {@code auto_increment_increment/offset}
+ * instead, see {@link ShardingConfig}.
+ * <p>
+ * A shard holding an id beyond the end of its range fails the start; a shard whose range is used up is
+ * left as it is and gets no new products from the {@link ShardRouter}.
+ */
+public class ShardIdentityInitializer implements SmartInitializingSingleton {
+    static Logger log = LoggerFactory.getLogger(ShardIdentityInitializer.class);
+
+    private final List<DataSource> shards;
+    private final ShardRouter shardRouter;
+    private final ShardingStrategy shardingStrategy;
+
+    public ShardIdentityInitializer(List<DataSource> shards, ShardRouter shardRouter) {
+        this.shards = shards;
+        this.shardRouter = shardRouter;
+        this.shardingStrategy = shardRouter.getShardingStrategy();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (int shard = 0; shard < shards.size(); shard++) {
+            try (Connection connection = shards.get(shard).getConnection();
+                 Statement statement = connection.createStatement()) {
+                long currentMaxId = currentMaxId(statement);
+                long lastId = shardingStrategy.lastIdentityValue(shard);
+                if (currentMaxId > lastId) {
+                    throw new IllegalStateException("Shard " + shard + " holds id " + currentMaxId + ", beyond the end of its id range at " + lastId);
+                }
+                shardRouter.startAfter(shard, currentMaxId);
+                if (currentMaxId == lastId) {
+                    log.warn("Shard {} has used up its id range up to {}, new products go to the other shards", shard, lastId);
+                    continue;
+                }
+                long nextId = shardingStrategy.nextIdentityValue(shard, currentMaxId);
+                String databaseName = connection.getMetaData().getDatabaseProductName();
+                if ("H2".equals(databaseName)) {
+                    statement.execute("ALTER TABLE products ALTER COLUMN id RESTART WITH " + nextId);
+                    statement.execute("ALTER TABLE products ALTER COLUMN id SET INCREMENT BY " + shardingStrategy.identityIncrement());
+                } else if ("MySQL".equals(databaseName)) {
+                    if (shardingStrategy.identityIncrement() == 1) {
+                        statement.execute("ALTER TABLE products AUTO_INCREMENT = " + nextId);
+                    }
+                } else {
+                    log.warn("Identity of shard {} not aligned, unsupported database {}", shard, databaseName);
+                    continue;
+                }
+                log.info("Shard {} generates ids from {} in steps of {}", shard, nextId, shardingStrategy.identityIncrement());
+            } catch (SQLException e) {
+                throw new IllegalStateException("Unable to align the identity column of shard " + shard, e);
+            }
+        }
+    }
+
+    private long currentMaxId(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM products")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.fastProductApi.sharding;
+
+import com.example.fastProductApi.entity.Product;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Picks the shard for existing ids through the {@link ShardingStrategy} and spreads new products round robin
+ * over the shards whose id range still has room. The last id of every shard is tracked from the ids it has
+ * generated, and each new product reserves the next one, so a shard stops taking inserts once its range is used
+ * up instead of generating ids that belong to the next shard.
+ */
+public class ShardRouter {
+
+    private final ShardingStrategy shardingStrategy;
+    private final AtomicInteger nextShardForInsert = new AtomicInteger();
+    // highest id each shard has generated or been assigned a product for
+    private final AtomicLongArray lastIds;
+
+    public ShardRouter(ShardingStrategy shardingStrategy) {
+        this.shardingStrategy = shardingStrategy;
+        this.lastIds = new AtomicLongArray(shardingStrategy.shardCount());
+    }
+
+    public ShardingStrategy getShardingStrategy() {
+        return shardingStrategy;
+    }
+
+    public int shardFor(Long id) {
+        return shardingStrategy.shardFor(id);
+    }
+
+    /**
+     * @return Shard owning the product, or the next shard in round robin order for a product without id.
+     * @throws IllegalStateException When no shard has ids left for a new product.
+     */
+    public int shardFor(Product product) {
+        if (product.getId() == null) {
+            int shardCount = shardingStrategy.shardCount();
+            for (int i = 0; i < shardCount; i++) {
+                int shard = Math.floorMod(nextShardForInsert.getAndIncrement(), shardCount);
+                if (tryReserveId(shard)) {
+                    return shard;
+                }
+            }
+            throw new IllegalStateException("Every shard has used up its id range, add a shard for new products");
+        }
+        return shardFor(product.getId());
+    }
+
+    /**
+     * Record ids a shard has generated for new products.
+     *
+     * @throws IllegalStateException When an id lies outside the shard's range; the shard takes no more inserts.
+     */
+    public void recordGeneratedIds(int shard, Collection<Long> ids) {
+        for (Long id : ids) {
+            if (shardFor(id) != shard) {
+                lastIds.set(shard, Long.MAX_VALUE);
+                throw new IllegalStateException("Shard " + shard + " generated id " + id + ", which belongs to shard " + shardFor(id)
+                        + "; its id range ends at " + shardingStrategy.lastIdentityValue(shard));
+            }
+            startAfter(shard, id);
+        }
+    }
+
+    // the shard's identity continues above lastId
+    void startAfter(int shard, long lastId) {
+        lastIds.accumulateAndGet(shard, lastId, Math::max);
+    }
+
+    // whether the shard still has an id for one more product, taking it if so
+    private boolean tryReserveId(int shard) {
+        long lastIdentityValue = shardingStrategy.lastIdentityValue(shard);
+        long previous = lastIds.getAndUpdate(shard, last -> last < lastIdentityValue ? shardingStrategy.nextIdentityValue(shard, last) : last);
+        return previous < lastIdentityValue;
+    }
+
+    /**
+     * Group ids by owning shard, keeping request order inside each group.
+     */
+    public Map<Integer, List<Long>> groupIdsByShard(Collection<Long> ids) {
+        Map<Integer, List<Long>> idsByShard = new LinkedHashMap<>();
+        for (Long id : ids) {
+            idsByShard.computeIfAbsent(shardFor(id), shard -> new ArrayList<>()).add(id);
+        }
+        return idsByShard;
+    }
+}
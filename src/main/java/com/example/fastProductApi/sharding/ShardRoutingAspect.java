@@ -0,0 +1,104 @@
+package com.example.fastProductApi.sharding;
+
+import com.example.fastProductApi.entity.Product;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Selects the shard for single-product {@code ProductRepository} calls (findById, save, delete, ...) from
+ * their first argument, so callers such as {@code ProductServiceForBasicCrud} stay unaware of sharding. A
+ * collection of IDs, as in {@code deleteWithTombstones(List.of(id), now)}, is routed when all of them live on
+ * one shard. Calls already running inside {@link ShardContext#callOnShard} keep their shard.
+ * <p>
+ * Ids a shard generates for saved products are checked against its range; one that belongs to another shard
+ * fails the save, so the caller's transaction rolls the row back instead of leaving it where no lookup finds it.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "product.sharding", name = "enabled", havingValue = "true")
+public class ShardRoutingAspect {
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Around("this(com.example.fastProductApi.repository.ProductRepository)")
+    public Object routeToShard(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object[] args = joinPoint.getArgs();
+        if (args.length == 0) {
+            return joinPoint.proceed();
+        }
+        Integer currentShard = ShardContext.currentShard();
+        if (currentShard != null) {
+            return proceedOnShard(joinPoint, currentShard);
+        }
+        Integer shard = shardOf(args[0]);
+        if (shard == null) {
+            return joinPoint.proceed();
+        }
+        Integer previous = ShardContext.switchTo(shard);
+        try {
+            return proceedOnShard(joinPoint, shard);
+        } finally {
+            ShardContext.switchTo(previous);
+        }
+    }
+
+    private Object proceedOnShard(ProceedingJoinPoint joinPoint, int shard) throws Throwable {
+        List<Product> newProducts = joinPoint.getSignature().getName().startsWith("save") ? newProducts(joinPoint.getArgs()[0]) : List.of();
+        Object result = joinPoint.proceed();
+        if (!newProducts.isEmpty()) {
+            try {
+                shardRouter.recordGeneratedIds(shard, newProducts.stream().map(Product::getId).toList());
+            } catch (IllegalStateException e) {
+                // the rows are rolled back, so a retry has to insert them again
+                newProducts.forEach(product -> product.setId(null));
+                throw e;
+            }
+        }
+        return result;
+    }
+
+    // products without id, which the save has them generated for
+    private static List<Product> newProducts(Object argument) {
+        List<Product> newProducts = new ArrayList<>();
+        if (argument instanceof Product product && product.getId() == null) {
+            newProducts.add(product);
+        } else if (argument instanceof Iterable<?> products) {
+            for (Object product : products) {
+                if (product instanceof Product newProduct && newProduct.getId() == null) {
+                    newProducts.add(newProduct);
+                }
+            }
+        }
+        return newProducts;
+    }
+
+    // null when the argument names no product, or products on several shards
+    private Integer shardOf(Object argument) {
+        if (argument instanceof Long id) {
+            return shardRouter.shardFor(id);
+        }
+        if (argument instanceof Product product) {
+            return shardRouter.shardFor(product);
+        }
+        if (argument instanceof Collection<?> ids && !ids.isEmpty()) {
+            Integer shard = null;
+            for (Object id : ids) {
+                if (!(id instanceof Long productId) || (shard != null && shard != shardRouter.shardFor(productId))) {
+                    return null;
+                }
+                shard = shardRouter.shardFor(productId);
+            }
+            return shard;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.fastProductApi.sharding;
+
+import com.example.fastProductApi.bulkhead.ProductBulkheads;
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.exception.CustomException;
+import com.example.fastProductApi.projection.ProductField;
+import com.example.fastProductApi.repository.ProductProjectionRepository;
+import com.example.fastProductApi.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+/**
+ * Scatter-gather access to sharded products: ids are grouped by shard, each shard runs one batched
+ * statement in its own transaction, shards are queried in parallel and results merged back.
+ */
+@Component
+@ConditionalOnProperty(prefix = "product.sharding", name = "enabled", havingValue = "true")
+public class ShardedProductStore {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ProductBulkheads productBulkheads;
+
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public ShardedProductStore(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * @param ids Product IDs to load.
+     * @return Products found on their shards, by ID.
+     */
+    public Map<Long, Product> findAllByIds(Collection<Long> ids) throws CustomException {
+        Map<Integer, List<Product>> productsByShard = scatter(productBulkheads.reads(), shardRouter.groupIdsByShard(ids),
+                (shard, shardIds) -> readOnlyTransactionTemplate.execute(status -> productRepository.findAllById(shardIds)));
+        Map<Long, Product> products = new HashMap<>();
+        productsByShard.values().forEach(shardProducts -> shardProducts.forEach(product -> products.put(product.getId(), product)));
+        return products;
+    }
+
+    /**
+     * Insert or update products, one batch per shard. New products are spread round robin over the shards.
+     *
+     * @param products Products to save.
+     * @return Saved products in the order of the input list.
+     */
+    public List<Product> saveAll(List<Product> products) throws CustomException {
+        Map<Integer, List<Integer>> positionsByShard = new LinkedHashMap<>();
+        for (int i = 0; i < products.size(); i++) {
+            positionsByShard.computeIfAbsent(shardRouter.shardFor(products.get(i)), shard -> new ArrayList<>()).add(i);
+        }
+        Map<Integer, List<Product>> savedByShard = scatter(productBulkheads.writes(), positionsByShard, (shard, positions) -> transactionTemplate.execute(status ->
+                productRepository.saveAll(positions.stream().map(products::get).toList())));
+
+        Product[] saved = new Product[products.size()];
+        positionsByShard.forEach((shard, positions) -> {
+            List<Product> shardProducts = savedByShard.get(shard);
+            for (int i = 0; i < positions.size(); i++) {
+                saved[positions.get(i)] = shardProducts.get(i);
+            }
+        });
+        return Arrays.asList(saved);
+    }
+
+    /**
+     * Write only the changed fields of products, one statement batch per shard, and read them back.
+     *
+     * @param patches Products with ID whose non-null patchable fields are the new values, at most one per ID.
+     * @return The patched products, whole, by ID; unknown IDs are absent.
+     */
+    public Map<Long, Product> patchAll(Collection<Product> patches) throws CustomException {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, List<Product>> patchesByShard = new LinkedHashMap<>();
+        patches.forEach(patch -> patchesByShard.computeIfAbsent(shardRouter.shardFor(patch.getId()), shard -> new ArrayList<>()).add(patch));
+        Map<Integer, List<Product>> patchedByShard = scatter(productBulkheads.writes(), patchesByShard, (shard, shardPatches) -> transactionTemplate.execute(status -> {
+            productRepository.updateFields(shardPatches, now);
+            return productRepository.findFieldsByIds(shardPatches.stream().map(Product::getId).toList(), ProductField.ALL);
+        }));
+        Map<Long, Product> products = new HashMap<>();
+        patchedByShard.values().forEach(shardProducts -> shardProducts.forEach(product -> products.put(product.getId(), product)));
+        return products;
+    }
+
+    /**
+     * @param ids Product IDs to delete.
+     * @return IDs that existed and were deleted.
+     */
+    public List<Long> deleteAllByIds(Collection<Long> ids) throws CustomException {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, List<Long>> deletedByShard = scatter(productBulkheads.writes(), shardRouter.groupIdsByShard(ids), (shard, shardIds) -> transactionTemplate.execute(status -> {
+            List<Long> existingIds = productRepository.findAllById(shardIds).stream().map(Product::getId).toList();
+            if (!existingIds.isEmpty()) {
+                productRepository.deleteWithTombstones(existingIds, now);
+            }
+            return existingIds;
+        }));
+        List<Long> deletedIds = new ArrayList<>();
+        deletedByShard.values().forEach(deletedIds::addAll);
+        return deletedIds;
+    }
+
+    /**
+     * Products changed and deleted after a {@code (changedAt, id)} position on all shards, merged in that order.
+     * Each shard reads at most {@code limit} changes, so the first {@code limit} of the merge are complete.
+     */
+    public List<ProductProjectionRepository.Change> findChangesAfter(LocalDateTime afterChangedAt, long afterId, LocalDateTime until, int limit) throws CustomException {
+        Map<Integer, List<ProductProjectionRepository.Change>> changesByShard = scatter(productBulkheads.reads(), allShards(), (shard, ignored) -> readOnlyTransactionTemplate.execute(status ->
+                productRepository.findChangesAfter(afterChangedAt, afterId, until, limit)));
+        List<ProductProjectionRepository.Change> changes = new ArrayList<>();
+        changesByShard.values().forEach(changes::addAll);
+        changes.sort(ProductProjectionRepository.Change.ORDER);
+        return changes.size() > limit ? new ArrayList<>(changes.subList(0, limit)) : changes;
+    }
+
+    /**
+     * @return Number of tombstones removed from all shards.
+     */
+    public int deleteTombstonesBefore(LocalDateTime before) throws CustomException {
+        Map<Integer, Integer> deletedByShard = scatter(productBulkheads.writes(), allShards(), (shard, ignored) -> transactionTemplate.execute(status ->
+                productRepository.deleteTombstonesBefore(before)));
+        return deletedByShard.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private Map<Integer, Integer> allShards() {
+        Map<Integer, Integer> shards = new LinkedHashMap<>();
+        for (int shard = 0; shard < shardRouter.getShardingStrategy().shardCount(); shard++) {
+            shards.put(shard, shard);
+        }
+        return shards;
+    }
+
+    /**
+     * Run the action once per shard, in parallel on the given bulkhead executor when more than one shard is involved.
+     */
+    private <T, R> Map<Integer, R> scatter(ExecutorService executor, Map<Integer, T> workByShard, BiFunction<Integer, T, R> action) throws CustomException {
+        Map<Integer, R> results = new HashMap<>();
+        if (workByShard.size() == 1) {
+            Map.Entry<Integer, T> work = workByShard.entrySet().iterator().next();
+            results.put(work.getKey(), ShardContext.callOnShard(work.getKey(), () -> action.apply(work.getKey(), work.getValue())));
+            return results;
+        }
+        Map<Integer, Future<R>> futures = new HashMap<>();
+        workByShard.forEach((shard, work) -> futures.put(shard, executor.submit(() ->
+                ShardContext.callOnShard(shard, () -> action.apply(shard, work)))));
+        try {
+            for (Map.Entry<Integer, Future<R>> future : futures.entrySet()) {
+                results.put(future.getKey(), future.getValue().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomException(e);
+        } catch (ExecutionException e) {
+            throw new CustomException(e);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.fastProductApi.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single {@code spring.datasource} pool with one pool per shard behind a routing datasource.
+ * Enabled with {@code product.sharding.enabled=true}; an alternative to read/write replica routing.
+ * Every shard must already contain the {@code products} table.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(prefix = "product.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ShardingStrategy shardingStrategy(ShardingProperties properties) {
+        List<ShardingProperties.Shard> shards = properties.getShards();
+        if (properties.getStrategy() == ShardingProperties.Strategy.RANGE) {
+            return new RangeShardingStrategy(shards.stream().mapToLong(ShardingProperties.Shard::getRangeStart).toArray());
+        }
+        return new HashShardingStrategy(shards.size());
+    }
+
+    @Bean
+    public ShardRouter shardRouter(ShardingStrategy shardingStrategy) {
+        return new ShardRouter(shardingStrategy);
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(ShardingProperties properties, ShardingStrategy shardingStrategy) {
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = properties.getShards().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + i);
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setUsername(shard.getUsername());
+            dataSource.setPassword(shard.getPassword());
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            if (shard.getUrl().startsWith("jdbc:mysql:") && shardingStrategy.identityIncrement() > 1) {
+                // MySQL has no per-table increment, so interleave the ids through session variables
+                dataSource.setConnectionInitSql("SET SESSION auto_increment_increment = " + shardingStrategy.identityIncrement()
+                        + ", auto_increment_offset = " + (i + 1));
+            }
+            shards.add(dataSource);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    // lazy proxy defers the physical connection until the first statement, after the shard is selected
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public ShardIdentityInitializer shardIdentityInitializer(ShardRoutingDataSource shardRoutingDataSource, ShardRouter shardRouter) {
+        return new ShardIdentityInitializer(shardRoutingDataSource.getShards(), shardRouter);
+    }
+}
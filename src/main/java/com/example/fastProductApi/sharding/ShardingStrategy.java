@@ -0,0 +1,34 @@
+package com.example.fastProductApi.sharding;
+
+/**
+ * Maps product ids to shards. Ids are generated by each shard's identity column, configured so that
+ * every id it hands out maps back to the same shard.
+ */
+public interface ShardingStrategy {
+
+    int shardCount();
+
+    /**
+     * @param id Product id.
+     * @return Index of the shard owning the id.
+     */
+    int shardFor(long id);
+
+    /**
+     * @param shard        Shard index.
+     * @param currentMaxId Highest id already stored on the shard, 0 if empty.
+     * @return Next value the shard's identity column should generate.
+     */
+    long nextIdentityValue(int shard, long currentMaxId);
+
+    /**
+     * @param shard Shard index.
+     * @return Highest id the shard may generate; above it, ids belong to another shard.
+     */
+    long lastIdentityValue(int shard);
+
+    /**
+     * @return Step between two ids generated by the same shard.
+     */
+    long identityIncrement();
+}
@@ -0,0 +1,171 @@
+package com.example.fastProductApi.snapshot;
+
+import com.example.fastProductApi.entity.Product;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Read-only, memory-mapped catalog snapshot written by {@link CatalogSnapshotWriter}.
+ * <p>
+ * File layout (big-endian):
+ * <pre>
+ * header   64 bytes   magic, format version, record count, record size, watermark, creation time, section offsets
+ * index    8 * n      product IDs in ascending order
+ *          4 * n      record number of each indexed ID
+ * records  52 * n     id, price in cents, stock, createdAt, lastUpdatedAt (microseconds), heap offset, name and description length
+ * heap                UTF-8 names and descriptions
+ * </pre>
+ * Lookups binary-search the ID index and decode one fixed-width record, touching only a few pages of the file.
+ * Files larger than 2 GB are not supported.
+ */
+public final class CatalogSnapshot {
+
+    static final int MAGIC = 0x46504353; // "FPCS"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 52;
+    static final int PRICE_SCALE = 2;
+    static final long NULL_TIMESTAMP = Long.MIN_VALUE;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int size;
+    private final LocalDateTime watermark;
+    private final LocalDateTime createdAt;
+    private final int idsOffset;
+    private final int recordNumbersOffset;
+    private final int recordsOffset;
+    private final int heapOffset;
+
+    private CatalogSnapshot(Path path, MappedByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a catalog snapshot: " + path);
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION || buffer.getInt(12) != RECORD_SIZE) {
+            throw new IOException("Unsupported catalog snapshot format " + buffer.getInt(4) + ": " + path);
+        }
+        if (buffer.getLong(56) != buffer.capacity()) {
+            throw new IOException("Truncated catalog snapshot: " + path);
+        }
+        this.size = buffer.getInt(8);
+        this.watermark = fromMicros(buffer.getLong(16));
+        this.createdAt = fromMicros(buffer.getLong(24));
+        this.idsOffset = HEADER_SIZE;
+        this.recordNumbersOffset = idsOffset + 8 * size;
+        this.recordsOffset = (int) buffer.getLong(40);
+        this.heapOffset = (int) buffer.getLong(48);
+    }
+
+    /**
+     * Map a snapshot file into memory.
+     *
+     * @throws IOException if the file cannot be read or is not a complete snapshot.
+     */
+    public static CatalogSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot larger than 2 GB: " + path);
+            }
+            // the mapping stays valid after the channel is closed
+            return new CatalogSnapshot(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @return The product as of the snapshot, or null if the snapshot does not contain the ID.
+     */
+    public Product find(long id) {
+        int index = indexOf(id);
+        if (index < 0) {
+            return null;
+        }
+        int record = recordsOffset + buffer.getInt(recordNumbersOffset + 4 * index) * RECORD_SIZE;
+        int heapPosition = heapOffset + (int) buffer.getLong(record + 36);
+        int nameLength = buffer.getInt(record + 44);
+        int descriptionLength = buffer.getInt(record + 48);
+        return new Product(
+                buffer.getLong(record),
+                readString(heapPosition, nameLength),
+                readString(heapPosition + Math.max(nameLength, 0), descriptionLength),
+                BigDecimal.valueOf(buffer.getLong(record + 8), PRICE_SCALE),
+                buffer.getInt(record + 16),
+                fromMicros(buffer.getLong(record + 20)),
+                fromMicros(buffer.getLong(record + 28)));
+    }
+
+    /**
+     * @return ID at the given position of the index, in ascending order.
+     */
+    public long idAt(int index) {
+        return buffer.getLong(idsOffset + 8 * index);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Time the scan behind the snapshot started; later changes have to be applied on top of it.
+     */
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    private int indexOf(long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = idAt(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private String readString(int position, int length) {
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return NULL_TIMESTAMP;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        if (micros == NULL_TIMESTAMP) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.fastProductApi.snapshot;
+
+import com.example.fastProductApi.cache.ProductCacheOperations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collection;
+
+@Configuration
+@ConditionalOnProperty(prefix = "product.snapshot", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(CatalogSnapshotProperties.class)
+public class CatalogSnapshotConfig {
+
+    @Bean
+    public CatalogSnapshotService catalogSnapshotService(CatalogSnapshotProperties properties) {
+        return new CatalogSnapshotService(properties);
+    }
+
+    @Bean
+    public CatalogSnapshotEndpoint catalogSnapshotEndpoint(CatalogSnapshotService catalogSnapshotService) {
+        return new CatalogSnapshotEndpoint(catalogSnapshotService);
+    }
+
+    /**
+     * Put the snapshot in front of the {@code products} cache, so both {@code @Cacheable} reads and the bulk
+     * cache path see it.
+     */
+    @Bean
+    public static BeanPostProcessor snapshotBackedCacheManager(ObjectProvider<CatalogSnapshotService> catalogSnapshotService) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof CacheManager cacheManager)) {
+                    return bean;
+                }
+                return new CacheManager() {
+                    @Override
+                    public Cache getCache(String name) {
+                        Cache cache = cacheManager.getCache(name);
+                        return cache != null && ProductCacheOperations.PRODUCTS_CACHE.equals(name)
+                                ? new SnapshotBackedCache(cache, catalogSnapshotService.getObject())
+                                : cache;
+                    }
+
+                    @Override
+                    public Collection<String> getCacheNames() {
+                        return cacheManager.getCacheNames();
+                    }
+                };
+            }
+        };
+    }
+}
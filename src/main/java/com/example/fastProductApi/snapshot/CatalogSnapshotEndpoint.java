@@ -0,0 +1,30 @@
+package com.example.fastProductApi.snapshot;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/catalogsnapshot}: GET shows the snapshot state, POST writes a new snapshot.
+ */
+@Endpoint(id = "catalogsnapshot")
+public class CatalogSnapshotEndpoint {
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    public CatalogSnapshotEndpoint(CatalogSnapshotService catalogSnapshotService) {
+        this.catalogSnapshotService = catalogSnapshotService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return catalogSnapshotService.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> generate() {
+        return catalogSnapshotService.generate();
+    }
+}
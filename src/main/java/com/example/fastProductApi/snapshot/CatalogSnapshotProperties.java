@@ -0,0 +1,71 @@
+package com.example.fastProductApi.snapshot;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the memory-mapped catalog snapshot that serves reads while a node warms up.
+ */
+@ConfigurationProperties(prefix = "product.snapshot")
+public class CatalogSnapshotProperties {
+
+    private boolean enabled;
+    private String path = "data/catalog.snapshot";
+    // how long after startup reads are served from the snapshot, after that the regular cache and database take over
+    private Duration serveFor = Duration.ofMinutes(10);
+    // changes made by other nodes are picked up from lastUpdatedAt this often while serving
+    private Duration deltaInterval = Duration.ofSeconds(5);
+    // allowance for clock skew between nodes when selecting changes by lastUpdatedAt
+    private Duration deltaOverlap = Duration.ofMinutes(1);
+    // a new snapshot is written this often, zero to only write it through the catalogsnapshot actuator endpoint
+    private Duration generateInterval = Duration.ofHours(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public Duration getServeFor() {
+        return serveFor;
+    }
+
+    public void setServeFor(Duration serveFor) {
+        this.serveFor = serveFor;
+    }
+
+    public Duration getDeltaInterval() {
+        return deltaInterval;
+    }
+
+    public void setDeltaInterval(Duration deltaInterval) {
+        this.deltaInterval = deltaInterval;
+    }
+
+    public Duration getDeltaOverlap() {
+        return deltaOverlap;
+    }
+
+    public void setDeltaOverlap(Duration deltaOverlap) {
+        this.deltaOverlap = deltaOverlap;
+    }
+
+    public Duration getGenerateInterval() {
+        return generateInterval;
+    }
+
+    public void setGenerateInterval(Duration generateInterval) {
+        this.generateInterval = generateInterval;
+    }
+}
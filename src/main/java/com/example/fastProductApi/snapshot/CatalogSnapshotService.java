@@ -0,0 +1,255 @@
+package com.example.fastProductApi.snapshot;
+
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.event.ProductChangeEvent;
+import com.example.fastProductApi.service.ProductCatalogScanner;
+import com.example.fastProductApi.util.ProductETags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Serves product reads from a memory-mapped {@link CatalogSnapshot} for {@code serve-for} after startup, so a
+ * cold node does not have to warm up against MySQL and Redis first.
+ * <p>
+ * Changes made after the snapshot was written are layered on top: on load, products changed since the
+ * snapshot watermark are read by {@code lastUpdatedAt} and deleted ones are found by comparing IDs; while
+ * serving, local writes arrive as {@link ProductChangeEvent}s, and writes and deletes of other nodes are polled
+ * every {@code delta-interval}, deletes from the tombstones they leave. The snapshot itself is rewritten every
+ * {@code generate-interval}.
+ */
+public class CatalogSnapshotService implements DisposableBean {
+    static Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private final CatalogSnapshotProperties properties;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    private ProductCatalogScanner productCatalogScanner;
+
+    private volatile CatalogSnapshot snapshot;
+    private volatile boolean serving;
+    private final Map<Long, Product> changedProducts = new ConcurrentHashMap<>();
+    private final Set<Long> deletedIds = ConcurrentHashMap.newKeySet();
+    private volatile LocalDateTime lastDeltaPoll;
+    private ScheduledFuture<?> deltaPolling;
+    private volatile String lastGeneration = "never";
+
+    public CatalogSnapshotService(CatalogSnapshotProperties properties) {
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        load();
+        long generateInterval = properties.getGenerateInterval().toMillis();
+        if (generateInterval > 0) {
+            scheduler.scheduleWithFixedDelay(this::generateQuietly, generateInterval, generateInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Map the snapshot file, apply what changed since it was written and start serving from it.
+     */
+    void load() {
+        Path path = Path.of(properties.getPath());
+        if (!Files.exists(path)) {
+            log.info("No catalog snapshot at {}, reads go to the cache and database", path.toAbsolutePath());
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            snapshot = CatalogSnapshot.open(path);
+            LocalDateTime pollStart = LocalDateTime.now();
+            long changed = applyChangesSince(snapshot.getWatermark().minus(properties.getDeltaOverlap()));
+            long deleted = findDeletedProducts();
+            lastDeltaPoll = pollStart;
+            serving = true;
+            long interval = properties.getDeltaInterval().toMillis();
+            deltaPolling = scheduler.scheduleWithFixedDelay(this::pollChanges, interval, interval, TimeUnit.MILLISECONDS);
+            scheduler.schedule(this::retire, properties.getServeFor().toMillis(), TimeUnit.MILLISECONDS);
+            log.info("Serving {} products from catalog snapshot of {} ({} changed, {} deleted since) after {} ms",
+                    snapshot.size(), snapshot.getCreatedAt(), changed, deleted, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Catalog snapshot {} not used {}: {}", path, e.getClass(), e.getMessage());
+            retire();
+        }
+    }
+
+    /**
+     * @return The current product if the snapshot can answer for it, null if the caller has to look further.
+     */
+    public Product find(Long id) {
+        CatalogSnapshot current = snapshot;
+        if (!serving || current == null || deletedIds.contains(id)) {
+            return null;
+        }
+        Product changed = changedProducts.get(id);
+        return changed != null ? copyOf(changed) : current.find(id);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        // after commit, so a rolled-back write is never served; also while loading, so that nothing written
+        // between the delta scan and serving is missed
+        if (snapshot == null) {
+            return;
+        }
+        if (event.type() == ProductChangeEvent.Type.DELETED) {
+            deletedIds.add(event.productId());
+            changedProducts.remove(event.productId());
+        } else {
+            recordChange(event.product());
+        }
+    }
+
+    /**
+     * Write a new snapshot of the whole catalog.
+     *
+     * @return Summary of the written snapshot.
+     */
+    public synchronized Map<String, Object> generate() {
+        Path path = Path.of(properties.getPath());
+        long start = System.currentTimeMillis();
+        // the scan is not a consistent read, so everything changed from its start on is applied as a delta
+        LocalDateTime watermark = LocalDateTime.now();
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(path)) {
+            long products = productCatalogScanner.scan(product -> {
+                try {
+                    writer.add(product);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            long bytes = writer.finish(watermark);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("path", path.toAbsolutePath().toString());
+            summary.put("products", products);
+            summary.put("bytes", bytes);
+            summary.put("millis", System.currentTimeMillis() - start);
+            lastGeneration = summary.toString();
+            log.info("Catalog snapshot written {}", summary);
+            return summary;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Map<String, Object> status() {
+        CatalogSnapshot current = snapshot;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("serving", serving);
+        status.put("path", Path.of(properties.getPath()).toAbsolutePath().toString());
+        status.put("products", current == null ? 0 : current.size());
+        status.put("snapshotCreatedAt", current == null ? null : current.getCreatedAt());
+        status.put("changedSinceSnapshot", changedProducts.size());
+        status.put("deletedSinceSnapshot", deletedIds.size());
+        status.put("lastGeneration", lastGeneration);
+        return status;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private void generateQuietly() {
+        try {
+            generate();
+        } catch (Exception e) {
+            log.error("Catalog snapshot generation failed {}: {}", e.getClass(), e.getMessage());
+        }
+    }
+
+    private void pollChanges() {
+        try {
+            LocalDateTime pollStart = LocalDateTime.now();
+            LocalDateTime since = lastDeltaPoll.minus(properties.getDeltaOverlap());
+            applyChangesSince(since);
+            applyDeletionsSince(since);
+            lastDeltaPoll = pollStart;
+        } catch (Exception e) {
+            // keep serving, the next poll reads the same window again
+            log.error("Catalog snapshot delta poll failed {}: {}", e.getClass(), e.getMessage());
+        }
+    }
+
+    private long applyChangesSince(LocalDateTime since) {
+        return productCatalogScanner.scanUpdatedSince(since, this::recordChange);
+    }
+
+    // after the changes, so a product deleted once it changed is dropped; a re-created product has no tombstone
+    private long applyDeletionsSince(LocalDateTime since) {
+        return productCatalogScanner.scanDeletedSince(since, id -> {
+            deletedIds.add(id);
+            changedProducts.remove(id);
+        });
+    }
+
+    /**
+     * Compare the snapshot's IDs with the database, since deletions leave no {@code lastUpdatedAt} behind.
+     */
+    private long findDeletedProducts() {
+        LongStream.Builder liveIds = LongStream.builder();
+        productCatalogScanner.scanIds(liveIds::add);
+        long[] sortedLiveIds = liveIds.build().sorted().toArray();
+        long deleted = 0;
+        for (int i = 0; i < snapshot.size(); i++) {
+            long id = snapshot.idAt(i);
+            if (Arrays.binarySearch(sortedLiveIds, id) < 0) {
+                deletedIds.add(id);
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    private void recordChange(Product product) {
+        changedProducts.merge(product.getId(), copyOf(product),
+                (existing, candidate) -> ProductETags.version(candidate) >= ProductETags.version(existing) ? candidate : existing);
+    }
+
+    /**
+     * Stop serving from the snapshot; the mapping is released once no reader holds it.
+     */
+    private void retire() {
+        serving = false;
+        snapshot = null;
+        changedProducts.clear();
+        deletedIds.clear();
+        if (deltaPolling != null) {
+            deltaPolling.cancel(false);
+        }
+        log.info("Catalog snapshot no longer serves reads");
+    }
+
+    private static Product copyOf(Product product) {
+        return new Product(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getStock(), product.getCreatedAt(), product.getLastUpdatedAt());
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.fastProductApi.snapshot;
+
+import com.example.fastProductApi.entity.Product;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static com.example.fastProductApi.snapshot.CatalogSnapshot.*;
+
+/**
+ * Writes a {@link CatalogSnapshot} while products are streamed in, in any order. Records and strings are
+ * spooled to temporary files next to the target, so memory use is 12 bytes per product for the index.
+ * The finished file replaces the target atomically; readers of the old file keep their mapping.
+ */
+public class CatalogSnapshotWriter implements Closeable {
+
+    private final Path target;
+    private final Path recordsFile;
+    private final Path heapFile;
+    private final DataOutputStream records;
+    private final DataOutputStream heap;
+    private long heapSize;
+    private long[] ids = new long[1024];
+    private int count;
+
+    public CatalogSnapshotWriter(Path target) throws IOException {
+        this.target = target.toAbsolutePath();
+        Files.createDirectories(this.target.getParent());
+        this.recordsFile = Files.createTempFile(this.target.getParent(), "catalog", ".records");
+        this.heapFile = Files.createTempFile(this.target.getParent(), "catalog", ".heap");
+        this.records = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(recordsFile), 1 << 16));
+        this.heap = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(heapFile), 1 << 16));
+    }
+
+    public void add(Product product) throws IOException {
+        byte[] name = bytesOf(product.getName());
+        byte[] description = bytesOf(product.getDescription());
+        records.writeLong(product.getId());
+        records.writeLong(product.getPrice().setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+        records.writeInt(product.getStock() == null ? 0 : product.getStock());
+        records.writeLong(toMicros(product.getCreatedAt()));
+        records.writeLong(toMicros(product.getLastUpdatedAt()));
+        records.writeLong(heapSize);
+        records.writeInt(name == null ? -1 : name.length);
+        records.writeInt(description == null ? -1 : description.length);
+        if (name != null) {
+            heap.write(name);
+            heapSize += name.length;
+        }
+        if (description != null) {
+            heap.write(description);
+            heapSize += description.length;
+        }
+        if (count == ids.length) {
+            ids = Arrays.copyOf(ids, count * 2);
+        }
+        ids[count++] = product.getId();
+    }
+
+    /**
+     * Assemble the snapshot file and move it into place.
+     *
+     * @param watermark Time the scan started; changes from then on are applied as deltas when the snapshot is loaded.
+     * @return Size of the snapshot file in bytes.
+     */
+    public long finish(LocalDateTime watermark) throws IOException {
+        records.close();
+        heap.close();
+
+        long[] sortedIds = Arrays.copyOf(ids, count);
+        Arrays.sort(sortedIds);
+        for (int i = 1; i < count; i++) {
+            if (sortedIds[i] == sortedIds[i - 1]) {
+                throw new IOException("Duplicate product ID in catalog snapshot: " + sortedIds[i]);
+            }
+        }
+        int[] recordNumbers = new int[count];
+        for (int record = 0; record < count; record++) {
+            recordNumbers[Arrays.binarySearch(sortedIds, ids[record])] = record;
+        }
+
+        long recordsOffset = align(HEADER_SIZE + 12L * count);
+        long heapOffset = recordsOffset + (long) RECORD_SIZE * count;
+        long fileLength = heapOffset + heapSize;
+        if (fileLength > Integer.MAX_VALUE) {
+            throw new IOException("Catalog snapshot would exceed 2 GB");
+        }
+
+        Path partFile = target.resolveSibling(target.getFileName() + ".part");
+        try (FileChannel channel = FileChannel.open(partFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer head = ByteBuffer.allocate((int) recordsOffset);
+            head.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(count).putInt(RECORD_SIZE)
+                    .putLong(toMicros(watermark)).putLong(toMicros(LocalDateTime.now()))
+                    .putLong(HEADER_SIZE).putLong(recordsOffset).putLong(heapOffset).putLong(fileLength);
+            for (long id : sortedIds) {
+                head.putLong(id);
+            }
+            for (int recordNumber : recordNumbers) {
+                head.putInt(recordNumber);
+            }
+            head.clear();
+            writeFully(channel, head);
+            transfer(recordsFile, channel, recordsOffset);
+            transfer(heapFile, channel, heapOffset);
+            channel.force(true);
+        }
+        try {
+            Files.move(partFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(partFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return fileLength;
+    }
+
+    /**
+     * Remove the temporary files; call in any case, also after {@link #finish}.
+     */
+    @Override
+    public void close() throws IOException {
+        records.close();
+        heap.close();
+        Files.deleteIfExists(recordsFile);
+        Files.deleteIfExists(heapFile);
+        Files.deleteIfExists(target.resolveSibling(target.getFileName() + ".part"));
+    }
+
+    private static byte[] bytesOf(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void transfer(Path source, FileChannel target, long position) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = in.size();
+            long transferred = 0;
+            while (transferred < size) {
+                transferred += target.transferFrom(in, position + transferred, size - transferred);
+            }
+        }
+    }
+}
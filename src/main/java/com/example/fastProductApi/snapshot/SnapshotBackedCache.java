@@ -0,0 +1,89 @@
+package com.example.fastProductApi.snapshot;
+
+import com.example.fastProductApi.entity.Product;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * {@code products} cache that answers from the catalog snapshot first while it is serving, and from the
+ * regular cache otherwise. Snapshot hits are not copied into the regular cache.
+ */
+public class SnapshotBackedCache implements Cache {
+
+    private final Cache delegate;
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    public SnapshotBackedCache(Cache delegate, CatalogSnapshotService catalogSnapshotService) {
+        this.delegate = delegate;
+        this.catalogSnapshotService = catalogSnapshotService;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Product product = fromSnapshot(key);
+        return product != null ? new SimpleValueWrapper(product) : delegate.get(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        Product product = fromSnapshot(key);
+        if (product != null && (type == null || type.isInstance(product))) {
+            return type == null ? (T) product : type.cast(product);
+        }
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Product product = fromSnapshot(key);
+        return product != null ? (T) product : delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    private Product fromSnapshot(Object key) {
+        return key instanceof Long id ? catalogSnapshotService.find(id) : null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.fastProductApi.upsert;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@ConditionalOnProperty(prefix = "product.upsert", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ProductUpsertProperties.class)
+public class ProductUpsertConfig {
+
+    @Bean
+    public ProductUpsertStore productUpsertStore(ProductUpsertProperties properties, PlatformTransactionManager transactionManager) {
+        return new ProductUpsertStore(properties, transactionManager);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.fastProductApi.upsert;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the batched upsert behind {@code PUT /products/updateProductsByIds}.
+ */
+@ConfigurationProperties(prefix = "product.upsert")
+public class ProductUpsertProperties {
+
+    private boolean enabled;
+    // products written per statement batch and transaction
+    private int chunkSize = 500;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.fastProductApi.upsert;
+
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.exception.CustomException;
+import com.example.fastProductApi.jfr.ProductStageEvent;
+import com.example.fastProductApi.jfr.ProductStages;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Writes a chunk of products with one statement batch instead of a find plus save per product: products with an
+ * ID are upserted ({@code INSERT ... ON DUPLICATE KEY UPDATE} on MySQL, {@code MERGE} on H2), products without
+ * one are inserted in a second batch. A single {@code SELECT} of the chunk's IDs beforehand tells inserts from
+ * updates and keeps {@code createdAt} of updated products. All of it runs in one transaction on the primary.
+ * <p>
+ * Unlike the per-product update path, an unknown ID is inserted with that ID, and a tombstone left by an earlier
+ * delete of that ID is removed in the same transaction, so delta sync does not report the product as deleted.
+ * H2 does not move its identity sequence past explicitly inserted IDs; MySQL does.
+ */
+public class ProductUpsertStore {
+
+    /**
+     * @param products    Saved products in the order of the chunk.
+     * @param insertedIds IDs of the products that did not exist before.
+     * @param updatedIds  IDs of the products that existed and were updated.
+     */
+    public record UpsertResult(List<Product> products, List<Long> insertedIds, List<Long> updatedIds) {
+    }
+
+    private static final String MYSQL_UPSERT = """
+            INSERT INTO products (id, name, description, price, stock, created_at, last_updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE name = VALUES(name), description = VALUES(description), price = VALUES(price),
+                stock = VALUES(stock), last_updated_at = VALUES(last_updated_at)""";
+
+    private static final String H2_UPSERT = """
+            MERGE INTO products p
+            USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS DECIMAL(38, 2)),
+                CAST(? AS INTEGER), CAST(? AS TIMESTAMP(6)), CAST(? AS TIMESTAMP(6))))
+                AS s (id, name, description, price, stock, created_at, last_updated_at)
+            ON p.id = s.id
+            WHEN MATCHED THEN UPDATE SET name = s.name, description = s.description, price = s.price, stock = s.stock,
+                last_updated_at = s.last_updated_at
+            WHEN NOT MATCHED THEN INSERT (id, name, description, price, stock, created_at, last_updated_at)
+                VALUES (s.id, s.name, s.description, s.price, s.stock, s.created_at, s.last_updated_at)""";
+
+    private static final String INSERT = """
+            INSERT INTO products (name, description, price, stock, created_at, last_updated_at)
+            VALUES (?, ?, ?, ?, ?, ?)""";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final int chunkSize;
+    private final TransactionTemplate transactionTemplate;
+    // resolved on first use, so startup does not need the database
+    private volatile String upsertSql;
+
+    public ProductUpsertStore(ProductUpsertProperties properties, PlatformTransactionManager transactionManager) {
+        this.chunkSize = properties.getChunkSize();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Upsert one chunk of products; name, description, price and stock are taken from the given products,
+     * timestamps are set here.
+     *
+     * @param products Products to write, with or without ID.
+     * @return Saved products and which of them were inserted or updated.
+     */
+    public UpsertResult upsert(List<Product> products) throws CustomException {
+        ProductStageEvent stage = ProductStages.begin(ProductStages.Stage.DATABASE, "upsert");
+        try {
+            String sql = upsertSql();
+            return transactionTemplate.execute(status -> write(products, sql));
+        } catch (RuntimeException e) {
+            throw new CustomException(e);
+        } finally {
+            ProductStages.end(stage);
+        }
+    }
+
+    private UpsertResult write(List<Product> products, String upsertSql) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Product> withId = products.stream().filter(product -> product.getId() != null).toList();
+        List<Product> withoutId = products.stream().filter(product -> product.getId() == null).toList();
+        Map<Long, LocalDateTime> existing = findCreatedAt(withId.stream().map(Product::getId).distinct().toList());
+
+        // a repeated new ID is inserted by its first row and updated by the others
+        Set<Long> seen = new HashSet<>(existing.keySet());
+        List<Boolean> upsertIsUpdate = new ArrayList<>(withId.size());
+        List<Product> upserted = new ArrayList<>(withId.size());
+        for (Product product : withId) {
+            upsertIsUpdate.add(!seen.add(product.getId()));
+            LocalDateTime createdAt = existing.getOrDefault(product.getId(), now);
+            upserted.add(new Product(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                    product.getStock(), createdAt, now));
+        }
+        deleteTombstones(withId.stream().map(Product::getId).filter(id -> !existing.containsKey(id)).distinct().toList());
+        if (!upserted.isEmpty()) {
+            jdbcTemplate.batchUpdate(upsertSql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Product product = upserted.get(i);
+                    ps.setLong(1, product.getId());
+                    setColumns(ps, 2, product);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return upserted.size();
+                }
+            });
+        }
+
+        List<Product> inserted = insert(withoutId, now);
+
+        // back into request order
+        List<Product> saved = new ArrayList<>(products.size());
+        List<Long> insertedIds = new ArrayList<>();
+        List<Long> updatedIds = new ArrayList<>();
+        int nextUpserted = 0;
+        int nextInserted = 0;
+        for (Product product : products) {
+            if (product.getId() == null) {
+                Product savedProduct = inserted.get(nextInserted++);
+                saved.add(savedProduct);
+                insertedIds.add(savedProduct.getId());
+            } else {
+                saved.add(upserted.get(nextUpserted));
+                (upsertIsUpdate.get(nextUpserted++) ? updatedIds : insertedIds).add(product.getId());
+            }
+        }
+        return new UpsertResult(saved, insertedIds, updatedIds);
+    }
+
+    private List<Product> insert(List<Product> products, LocalDateTime now) {
+        if (products.isEmpty()) {
+            return Collections.emptyList();
+        }
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT, new String[]{"id"}), new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Product product = products.get(i);
+                setColumns(ps, 1, new Product(null, product.getName(), product.getDescription(), product.getPrice(),
+                        product.getStock(), now, now));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return products.size();
+            }
+        }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        List<Product> inserted = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            long id = ((Number) keys.get(i).values().iterator().next()).longValue();
+            inserted.add(new Product(id, product.getName(), product.getDescription(), product.getPrice(),
+                    product.getStock(), now, now));
+        }
+        return inserted;
+    }
+
+    private Map<Long, LocalDateTime> findCreatedAt(List<Long> ids) {
+        Map<Long, LocalDateTime> createdAt = new HashMap<>();
+        if (ids.isEmpty()) {
+            return createdAt;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        jdbcTemplate.query("SELECT id, created_at FROM products WHERE id IN (" + placeholders + ")",
+                rs -> {
+                    createdAt.put(rs.getLong(1), rs.getObject(2, LocalDateTime.class));
+                }, ids.toArray());
+        return createdAt;
+    }
+
+    // IDs inserted again after a delete are no longer deleted
+    private void deleteTombstones(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+            jdbcTemplate.update("DELETE FROM product_tombstones WHERE product_id IN (" + placeholders + ")", ids.toArray());
+        }
+    }
+
+    // name, description, price, stock, created_at, last_updated_at from the given parameter index on
+    private static void setColumns(PreparedStatement ps, int index, Product product) throws SQLException {
+        ps.setString(index, product.getName());
+        ps.setString(index + 1, product.getDescription());
+        ps.setBigDecimal(index + 2, product.getPrice());
+        ps.setInt(index + 3, Objects.requireNonNullElse(product.getStock(), 0));
+        ps.setObject(index + 4, product.getCreatedAt());
+        ps.setObject(index + 5, product.getLastUpdatedAt());
+    }
+
+    private String upsertSql() {
+        String sql = upsertSql;
+        if (sql == null) {
+            String database = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            sql = switch (Objects.requireNonNull(database).toLowerCase(Locale.ROOT)) {
+                case "mysql", "mariadb" -> MYSQL_UPSERT;
+                case "h2" -> H2_UPSERT;
+                default -> throw new IllegalStateException("Batched upsert is not supported on " + database);
+            };
+            upsertSql = sql;
+        }
+        return sql;
+    }
+}
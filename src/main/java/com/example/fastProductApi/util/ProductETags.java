@@ -0,0 +1,107 @@
+package com.example.fastProductApi.util;
+
+import com.example.fastProductApi.entity.Product;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Strong entity tags derived from product IDs and {@code lastUpdatedAt}, so they can be computed from
+ * version metadata alone.
+ */
+public final class ProductETags {
+
+    // marks a requested ID that does not exist, it is reported in the response status
+    private static final long MISSING = -1L;
+
+    private ProductETags() {
+    }
+
+    /**
+     * @return {@code lastUpdatedAt} in microseconds since the epoch, 0 when it is not set.
+     */
+    public static long version(Product product) {
+        return version(product.getLastUpdatedAt());
+    }
+
+    /**
+     * @return The timestamp in microseconds since the epoch, 0 when it is null.
+     */
+    public static long version(LocalDateTime lastUpdatedAt) {
+        if (lastUpdatedAt == null) {
+            return 0L;
+        }
+        return lastUpdatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + lastUpdatedAt.getNano() / 1_000;
+    }
+
+    /**
+     * @return Quoted ETag of a single product.
+     */
+    public static String forProduct(Long id, long version) {
+        return "\"" + id + "-" + Long.toHexString(version) + "\"";
+    }
+
+    /**
+     * ETag of a bulk response: a digest over the requested IDs in order and their versions.
+     *
+     * @param ids            Requested product IDs.
+     * @param versions       Versions by ID; IDs without a version are taken as not found.
+     * @param representation Negotiated representation, since a strong ETag must differ between JSON and binary bodies.
+     * @return Quoted ETag.
+     */
+    public static String forProducts(List<Long> ids, Map<Long, Long> versions, String representation) {
+        MessageDigest digest = sha256();
+        digest.update(representation.getBytes(StandardCharsets.UTF_8));
+        byte[] entry = new byte[16];
+        for (Long id : ids) {
+            putLong(entry, 0, id);
+            putLong(entry, 8, versions.getOrDefault(id, MISSING));
+            digest.update(entry);
+        }
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    /**
+     * Weak comparison of an {@code If-None-Match} header against an ETag, as required for that header.
+     *
+     * @param ifNoneMatch Header value, may be null.
+     * @param etag        Quoted ETag of the current representation.
+     * @return true if the client's copy is still current.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void putLong(byte[] bytes, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
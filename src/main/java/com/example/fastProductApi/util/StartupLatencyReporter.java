@@ -0,0 +1,50 @@
+package com.example.fastProductApi.util;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Logs how long the JVM took to become ready and to answer its first request, to compare plain, CDS and
+ * AOT startups ({@code -Paot-cds}) on equal terms.
+ */
+@Component
+public class StartupLatencyReporter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupLatencyReporter.class);
+
+    private final AtomicBoolean firstRequestSeen = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        logger.info("Startup: ready {} ms after JVM start", ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (firstRequestSeen.get() || !firstRequestSeen.compareAndSet(false, true)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long startTime = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            logger.info("Startup: first request [{} {}] took {} ms, answered {} ms after JVM start",
+                    request.getMethod(), request.getRequestURI(), (System.nanoTime() - startTime) / 1_000_000,
+                    ManagementFactory.getRuntimeMXBean().getUptime());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.fastProductApi.batching;
+
+import com.example.fastProductApi.cache.ProductCacheOperations;
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.exception.CustomException;
+import com.example.fastProductApi.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+// a wide window so that concurrent callers reliably meet in one batch
+@SpringBootTest(properties = {
+        "product.batch-loader.enabled=true",
+        "product.batch-loader.window=200ms",
+        "product.batch-loader.max-batch-size=5"
+})
+@ActiveProfiles("test")
+class ProductBatchLoaderTest {
+
+    @Autowired
+    private ProductBatchLoader productBatchLoader;
+
+    @MockitoSpyBean
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+        cacheManager.getCache(ProductCacheOperations.PRODUCTS_CACHE).clear();
+    }
+
+    @Test
+    void concurrentLoads_shouldShareOneQuery() throws Exception {
+        // Arrange
+        List<Long> ids = save(3);
+        clearInvocations(productRepository);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        // Act
+        Future<List<Optional<Product>>> first = callers.submit(() -> productBatchLoader.loadAll(List.of(ids.get(0), ids.get(1))));
+        Future<List<Optional<Product>>> second = callers.submit(() -> productBatchLoader.loadAll(List.of(ids.get(1), ids.get(2), -1L)));
+        List<Optional<Product>> firstProducts = first.get();
+        List<Optional<Product>> secondProducts = second.get();
+        callers.shutdown();
+
+        // Assert
+        verify(productRepository, times(1)).findAllById(anyIterable());
+        assertEquals(ids.get(0), firstProducts.get(0).orElseThrow().getId());
+        assertEquals(ids.get(1), secondProducts.get(0).orElseThrow().getId());
+        assertEquals(ids.get(2), secondProducts.get(1).orElseThrow().getId());
+        assertTrue(secondProducts.get(2).isEmpty());
+        assertNotNull(cacheManager.getCache(ProductCacheOperations.PRODUCTS_CACHE).get(ids.get(2)), "loaded products are cached");
+    }
+
+    @Test
+    void fullBatch_shouldBeLoadedWithoutWaitingForTheWindow() throws CustomException {
+        // Arrange
+        List<Long> ids = save(5);
+        long start = System.nanoTime();
+
+        // Act
+        List<Optional<Product>> products = productBatchLoader.loadAll(ids);
+
+        // Assert
+        assertTrue(System.nanoTime() - start < 200_000_000L, "a full batch must not wait for the 200ms window");
+        assertEquals(ids, products.stream().map(product -> product.orElseThrow().getId()).toList());
+    }
+
+    @Test
+    void cachedProducts_shouldNotBeQueried() throws Exception {
+        // Arrange
+        List<Long> ids = save(2);
+        productBatchLoader.loadAll(ids);
+        clearInvocations(productRepository);
+
+        // Act
+        CompletableFuture<Optional<Product>> product = productBatchLoader.load(ids.get(0));
+
+        // Assert
+        assertEquals(ids.get(0), product.get().orElseThrow().getId());
+        verify(productRepository, never()).findAllById(anyIterable());
+    }
+
+    private List<Long> save(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        return IntStream.range(0, count).mapToObj(i -> {
+            Product product = new Product();
+            product.setName("Batch product " + i);
+            product.setDescription("Loaded in batches");
+            product.setPrice(BigDecimal.valueOf(10 + i));
+            product.setStock(i);
+            product.setCreatedAt(now);
+            product.setLastUpdatedAt(now);
+            return productRepository.save(product).getId();
+        }).toList();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.fastProductApi.bulkhead;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairTaskQueueTest {
+
+    private record Named(String name) implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+
+    @Test
+    void poll_shouldDispatchASmallRequestAheadOfTheQueuedTasksOfALargeOne() throws Exception {
+        // Arrange: an upload queues 50 tasks, then a lookup of 5 IDs arrives from another request thread
+        FairTaskQueue queue = new FairTaskQueue(1000, 10, 8, Duration.ofMinutes(1));
+        offerFromNewThread(queue, "upload", 50);
+        offerFromNewThread(queue, "lookup", 5);
+
+        // Act
+        List<String> firstTen = poll(queue, 10);
+
+        // Assert
+        assertEquals(5, firstTen.stream().filter(name -> name.startsWith("lookup")).count(), firstTen.toString());
+        assertEquals(45, queue.size());
+        assertEquals("upload-0", firstTen.get(0), "the upload is not starved either");
+    }
+
+    @Test
+    void poll_shouldDispatchATaskThatHasWaitedMaxWaitWhateverItsRequest() throws Exception {
+        // Arrange: past its first two tasks the upload has weight 1, so its last task is tagged behind a new lookup
+        FairTaskQueue queue = new FairTaskQueue(1000, 2, 8, Duration.ofMillis(50));
+        offerFromNewThread(queue, "upload", 4);
+        assertEquals(List.of("upload-0", "upload-1", "upload-2"), poll(queue, 3));
+        Thread.sleep(60);
+        offerFromNewThread(queue, "lookup", 2);
+
+        // Act
+        List<String> order = poll(queue, 3);
+
+        // Assert
+        assertEquals(List.of("upload-3", "lookup-0", "lookup-1"), order);
+    }
+
+    @Test
+    void offer_shouldRefuseTasksBeyondTheCapacity() {
+        // Arrange
+        FairTaskQueue queue = new FairTaskQueue(2, 100, 8, Duration.ofSeconds(1));
+
+        // Act & Assert
+        assertTrue(queue.offer(new Named("a")));
+        assertTrue(queue.offer(new Named("b")));
+        assertFalse(queue.offer(new Named("c")));
+        assertEquals(0, queue.remainingCapacity());
+        assertTrue(queue.remove(new Named("a")));
+        List<Runnable> drained = new ArrayList<>();
+        assertEquals(1, queue.drainTo(drained));
+        assertEquals(List.of(new Named("b")), drained);
+        assertNull(queue.poll());
+    }
+
+    private static void offerFromNewThread(FairTaskQueue queue, String request, int tasks) throws InterruptedException {
+        Thread thread = new Thread(() -> {
+            for (int i = 0; i < tasks; i++) {
+                assertTrue(queue.offer(new Named(request + "-" + i)));
+            }
+        });
+        thread.start();
+        thread.join();
+    }
+
+    private static List<String> poll(FairTaskQueue queue, int count) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            names.add(((Named) queue.poll()).name());
+        }
+        return names;
+    }
+}
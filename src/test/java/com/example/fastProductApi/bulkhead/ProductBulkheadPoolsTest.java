@@ -0,0 +1,77 @@
+package com.example.fastProductApi.bulkhead;
+
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.repository.ProductRepository;
+import com.example.fastProductApi.service.ProductServiceForBasicCrud;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// one write connection and a short connection timeout: a read waiting for the write pool would fail
+@SpringBootTest(properties = {
+        "product.bulkhead.separate-pools=true",
+        "product.bulkhead.write.connections=1",
+        "product.bulkhead.read.connections=2",
+        "spring.datasource.hikari.connection-timeout=250"
+})
+@ActiveProfiles("test")
+class ProductBulkheadPoolsTest {
+
+    @Autowired
+    private ProductServiceForBasicCrud productServiceForBasicCrud;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void readOnlyTransactions_shouldNotWaitForTheWritePool() throws Exception {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        Product product = productRepository.save(new Product(null, "Shelf", "", BigDecimal.TEN, 2, now, now));
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> write = CompletableFuture.runAsync(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE products SET stock = stock + 1 WHERE id = ?", product.getId());
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        // Act: the only write connection is taken
+        Product read = productServiceForBasicCrud.getProductById(product.getId()).orElseThrow();
+
+        // Assert
+        assertEquals("Shelf", read.getName());
+        release.countDown();
+        write.get(5, TimeUnit.SECONDS);
+        assertEquals(3, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+}
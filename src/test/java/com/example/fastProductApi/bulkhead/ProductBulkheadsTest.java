@@ -0,0 +1,82 @@
+package com.example.fastProductApi.bulkhead;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductBulkheadsTest {
+
+    private final ProductBulkheads bulkheads = new ProductBulkheads(properties());
+
+    @AfterEach
+    void shutDown() {
+        bulkheads.destroy();
+    }
+
+    @Test
+    void reads_shouldRunWhileEveryWriteThreadIsBusy() throws Exception {
+        // Arrange: the one write thread busy and its queue of one full
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<?>> writes = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            writes.add(bulkheads.writes().submit(() -> {
+                release.await();
+                return null;
+            }));
+        }
+
+        // Act
+        Future<String> read = bulkheads.reads().submit(() -> Thread.currentThread().getName());
+
+        // Assert
+        assertTrue(read.get(1, TimeUnit.SECONDS).startsWith("product-read-"));
+        assertTrue(writes.stream().noneMatch(Future::isDone));
+        release.countDown();
+        for (Future<?> write : writes) {
+            write.get(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void submit_shouldRunInTheCallerWhenTheQueueIsFull() throws Exception {
+        // Arrange: one busy write thread and a full queue of one
+        CountDownLatch release = new CountDownLatch(1);
+        bulkheads.writes().submit(() -> {
+            release.await();
+            return null;
+        });
+        bulkheads.writes().submit(() -> null);
+
+        // Act
+        Future<String> overflow = bulkheads.writes().submit(() -> Thread.currentThread().getName());
+
+        // Assert
+        assertTrue(overflow.isDone(), "ran before submit returned");
+        assertEquals(Thread.currentThread().getName(), overflow.get());
+        release.countDown();
+    }
+
+    @Test
+    void submit_shouldBeRejectedAfterShutdown() {
+        // Act
+        bulkheads.destroy();
+
+        // Assert
+        assertThrows(RejectedExecutionException.class, () -> bulkheads.reads().submit(() -> null));
+    }
+
+    private static ProductBulkheadProperties properties() {
+        ProductBulkheadProperties properties = new ProductBulkheadProperties();
+        properties.setRead(new ProductBulkheadProperties.Compartment(2, 10, 1));
+        properties.setWrite(new ProductBulkheadProperties.Compartment(1, 1, 1));
+        return properties;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.fastProductApi.cache;
+
+import com.example.fastProductApi.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class ProductCacheOperationsTest {
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private RedisConnectionFactory redisConnectionFactory;
+
+    @Mock
+    private RedisConnection redisConnection;
+
+    @Mock
+    private RedisStringCommands redisStringCommands;
+
+    @Spy
+    private RedisCacheConfiguration redisCacheConfiguration = RedisCacheConfiguration.defaultCacheConfig()
+            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new JdkSerializationRedisSerializer()));
+
+    @InjectMocks
+    private ProductCacheOperations productCacheOperations;
+
+    @Test
+    void getAll_shouldReadEveryIdWithOneMget() {
+        // Arrange: 1 is cached, 2 is cached as not found, 3 is not cached
+        Product product = new Product(1L, "Phone", "Smartphone", BigDecimal.TEN, 5, LocalDateTime.now(), LocalDateTime.now());
+        List<byte[]> values = Arrays.asList(serialize(product), serialize(NullValue.INSTANCE), null);
+        when(redisConnectionFactory.getConnection()).thenReturn(redisConnection);
+        when(redisConnection.stringCommands()).thenReturn(redisStringCommands);
+        when(redisStringCommands.mGet(any(byte[][].class))).thenReturn(values);
+
+        // Act
+        Map<Long, Product> products = productCacheOperations.getAll(List.of(1L, 2L, 3L, 1L));
+
+        // Assert
+        assertEquals(List.of(1L), List.copyOf(products.keySet()));
+        assertEquals("Phone", products.get(1L).getName());
+        verify(redisStringCommands).mGet("products::1".getBytes(StandardCharsets.UTF_8), "products::2".getBytes(StandardCharsets.UTF_8),
+                "products::3".getBytes(StandardCharsets.UTF_8));
+        verify(redisConnection).close();
+        verifyNoInteractions(cacheManager);
+    }
+
+    private byte[] serialize(Object value) {
+        return ByteUtils.getBytes(redisCacheConfiguration.getValueSerializationPair().write(value));
+    }
+}
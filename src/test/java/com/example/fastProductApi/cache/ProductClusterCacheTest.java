@@ -0,0 +1,135 @@
+package com.example.fastProductApi.cache;
+
+import com.example.fastProductApi.entity.Product;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.SlotHash;
+import io.lettuce.core.protocol.ProtocolVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductClusterCacheTest {
+
+    private RedisClusterStandIn cluster;
+    private LettuceConnectionFactory connectionFactory;
+
+    @BeforeEach
+    void startCluster() throws Exception {
+        cluster = new RedisClusterStandIn(3);
+        connectionFactory = new LettuceConnectionFactory(new RedisClusterConfiguration(cluster.nodeAddresses()),
+                LettuceClientConfiguration.builder()
+                        .clientOptions(ClusterClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                        .commandTimeout(Duration.ofSeconds(5))
+                        .build());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterEach
+    void stopCluster() throws Exception {
+        connectionFactory.destroy();
+        cluster.close();
+    }
+
+    @Test
+    void bulkOperations_shouldSendOneCommandPerSlotToTheNodeServingIt() {
+        // Arrange: 60 products spread over all three nodes
+        ProductClusterCache cache = new ProductClusterCache(connectionFactory, cacheConfiguration());
+        List<Product> products = products(1, 60);
+        List<Long> ids = ids(products);
+        int slots = slotsOf(ids, "products::").size();
+
+        // Act
+        cache.putAll(products);
+        Map<Long, Product> cached = cache.getAll(ids);
+        cache.evictAll(ids.subList(0, 30));
+        Map<Long, Product> afterEviction = cache.getAll(ids);
+
+        // Assert
+        assertEquals(List.of(), cluster.errors(), "no command crossed slots or went to the wrong node");
+        assertEquals(cluster.nodeCount(), slotsOf(ids, "products::").stream().map(cluster::nodeOf).distinct().count());
+        assertEquals(ids.size(), cached.size());
+        assertEquals("Product 42", cached.get(42L).getName());
+        assertEquals(Set.copyOf(ids.subList(30, 60)), afterEviction.keySet());
+        assertEquals(60, cluster.count("SET"));
+        assertEquals(2 * slots, cluster.count("MGET"), "one MGET per slot and call");
+        assertEquals(slotsOf(ids.subList(0, 30), "products::").size(), cluster.count("DEL"));
+        assertEquals(0, cluster.count("GET"));
+    }
+
+    @Test
+    void getAll_shouldReadNeighbouringIdsWithOneCommandWhenTheyShareAHashTag() {
+        // Arrange: IDs 100-149 share the tag {1} with a span of 100
+        RedisCacheConfiguration cacheConfiguration = cacheConfiguration()
+                .withConversionService(ProductCacheConfig.hashTaggingConversionService(100));
+        ProductClusterCache cache = new ProductClusterCache(connectionFactory, cacheConfiguration);
+        List<Product> products = products(100, 149);
+        cache.putAll(products);
+
+        // Act
+        Map<Long, Product> cached = cache.getAll(ids(products));
+
+        // Assert
+        assertEquals(50, cached.size());
+        assertEquals(1, cluster.count("MGET"));
+        assertTrue(cluster.containsKey("products::{1}142"), "@Cacheable uses the same tagged key");
+        assertEquals(List.of(), cluster.errors());
+    }
+
+    @Test
+    void getAll_shouldFollowTheRedirectOfASlotThatHasMoved() {
+        // Arrange: the slot of product 7 moves to another node after the client has read the topology
+        ProductClusterCache cache = new ProductClusterCache(connectionFactory, cacheConfiguration());
+        List<Product> products = products(1, 20);
+        cache.putAll(products);
+        int slot = SlotHash.getSlot("products::7".getBytes(StandardCharsets.UTF_8));
+        cluster.moveSlot(slot, (cluster.nodeOf(slot) + 1) % cluster.nodeCount());
+
+        // Act
+        Map<Long, Product> cached = cache.getAll(ids(products));
+
+        // Assert
+        assertFalse(cluster.errors().isEmpty());
+        assertTrue(cluster.errors().stream().allMatch(("MOVED " + slot)::equals), cluster.errors().toString());
+        assertEquals(20, cached.size(), "the moved slot is read again from its new node");
+    }
+
+    private static RedisCacheConfiguration cacheConfiguration() {
+        return RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofMinutes(10))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new JdkSerializationRedisSerializer()));
+    }
+
+    private static List<Product> products(long firstId, long lastId) {
+        LocalDateTime now = LocalDateTime.now();
+        return LongStream.rangeClosed(firstId, lastId)
+                .mapToObj(id -> new Product(id, "Product " + id, "Description", BigDecimal.TEN, 1, now, now))
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).collect(Collectors.toList());
+    }
+
+    private static Set<Integer> slotsOf(List<Long> ids, String prefix) {
+        return ids.stream().map(id -> SlotHash.getSlot((prefix + id).getBytes(StandardCharsets.UTF_8))).collect(Collectors.toSet());
+    }
+}
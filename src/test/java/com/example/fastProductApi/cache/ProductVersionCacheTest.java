@@ -0,0 +1,83 @@
+package com.example.fastProductApi.cache;
+
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.event.ProductChangeEvent;
+import com.example.fastProductApi.util.ProductETags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductVersionCacheTest {
+
+    private static final Long ID = 7L;
+
+    @Autowired
+    private ProductVersionCache productVersionCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void cleanUp() {
+        cacheManager.getCache(ProductVersionCache.PRODUCT_VERSIONS_CACHE).clear();
+    }
+
+    @Test
+    void onProductChange_shouldApplyWritesOnlyOnceCommitted() {
+        // Arrange
+        Product old = product(LocalDateTime.now().minusMinutes(1));
+        Product updated = product(LocalDateTime.now());
+        productVersionCache.recordAll(List.of(old));
+
+        // Act: a read racing the write inside its transaction
+        Map<Long, Long> beforeCommit = transactionTemplate.execute(status -> {
+            eventPublisher.publishEvent(ProductChangeEvent.updated(updated));
+            productVersionCache.recordAll(List.of(old));
+            return productVersionCache.getVersions(List.of(ID));
+        });
+
+        // Assert
+        assertEquals(Map.of(ID, ProductETags.version(old)), beforeCommit);
+        assertEquals(Map.of(ID, ProductETags.version(updated)), productVersionCache.getVersions(List.of(ID)));
+    }
+
+    @Test
+    void onProductChange_shouldIgnoreRolledBackWrites() {
+        // Arrange
+        Product old = product(LocalDateTime.now().minusMinutes(1));
+        productVersionCache.recordAll(List.of(old));
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(ProductChangeEvent.deleted(ID));
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertEquals(Map.of(ID, ProductETags.version(old)), productVersionCache.getVersions(List.of(ID)));
+    }
+
+    private static Product product(LocalDateTime lastUpdatedAt) {
+        return new Product(ID, "Kettle", "", BigDecimal.TEN, 1, lastUpdatedAt, lastUpdatedAt);
+    }
+}
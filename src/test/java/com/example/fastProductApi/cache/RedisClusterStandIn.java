@@ -0,0 +1,282 @@
+package com.example.fastProductApi.cache;
+
+import io.lettuce.core.cluster.SlotHash;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A Redis Cluster of a few primaries on localhost, speaking just enough RESP2 for the Lettuce cluster client and the
+ * bulk cache commands: {@code CLUSTER NODES}, {@code GET}, {@code MGET}, {@code SET}, {@code DEL}. Like Redis, a node
+ * answers {@code CROSSSLOT} to a multi-key command across slots and {@code MOVED} for a key of a slot it does not
+ * serve, and the stand-in records both, so tests can assert that no command relied on the client to fix it up.
+ * {@link #standalone()} stands in for a single Redis server instead, without slot checks. Options of {@code SET} are
+ * ignored.
+ */
+public final class RedisClusterStandIn implements AutoCloseable {
+
+    private static final int SLOTS = 16384;
+
+    private final List<ServerSocket> servers = new ArrayList<>();
+    private final List<String> nodeIds = new ArrayList<>();
+    private final AtomicIntegerArray slotOwners = new AtomicIntegerArray(SLOTS);
+    private final Map<String, byte[]> data = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> commandCounts = new ConcurrentHashMap<>();
+    private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+    private final boolean cluster;
+
+    public RedisClusterStandIn(int nodes) throws IOException {
+        this(nodes, true);
+    }
+
+    private RedisClusterStandIn(int nodes, boolean cluster) throws IOException {
+        this.cluster = cluster;
+        for (int node = 0; node < nodes; node++) {
+            ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            servers.add(server);
+            nodeIds.add(HexFormat.of().formatHex(String.format("%020d", node).getBytes(StandardCharsets.US_ASCII)));
+            for (int slot = node * SLOTS / nodes; slot < (node + 1) * SLOTS / nodes; slot++) {
+                slotOwners.set(slot, node);
+            }
+            int nodeIndex = node;
+            Thread acceptor = new Thread(() -> accept(nodeIndex, server), "redis-stand-in-" + node);
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+    }
+
+    public static RedisClusterStandIn standalone() throws IOException {
+        return new RedisClusterStandIn(1, false);
+    }
+
+    public List<String> nodeAddresses() {
+        return servers.stream().map(server -> "127.0.0.1:" + server.getLocalPort()).toList();
+    }
+
+    /**
+     * Serve a slot from another node without telling the clients, as during resharding.
+     */
+    void moveSlot(int slot, int toNode) {
+        slotOwners.set(slot, toNode);
+    }
+
+    int nodeOf(int slot) {
+        return slotOwners.get(slot);
+    }
+
+    int nodeCount() {
+        return servers.size();
+    }
+
+    /**
+     * @return Number of times the command was received, e.g. {@code MGET}, including those answered with an error.
+     */
+    public int count(String command) {
+        AtomicInteger count = commandCounts.get(command);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * @return {@code CROSSSLOT} and {@code MOVED} errors sent so far.
+     */
+    List<String> errors() {
+        return List.copyOf(errors);
+    }
+
+    boolean containsKey(String key) {
+        return data.containsKey(key);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (ServerSocket server : servers) {
+            server.close();
+        }
+    }
+
+    private void accept(int node, ServerSocket server) {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread connection = new Thread(() -> serve(node, socket), "redis-stand-in-" + node + "-connection");
+                connection.setDaemon(true);
+                connection.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(int node, Socket socket) {
+        try (socket; InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            List<byte[]> command;
+            while ((command = readCommand(in)) != null) {
+                handle(node, command, out);
+                // replies of pipelined commands are flushed once no further command is waiting
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // client went away or the stand-in has been closed
+        }
+    }
+
+    private void handle(int node, List<byte[]> command, OutputStream out) throws IOException {
+        String name = text(command.get(0)).toUpperCase(Locale.ROOT);
+        commandCounts.computeIfAbsent(name, n -> new AtomicInteger()).incrementAndGet();
+        switch (name) {
+            case "PING" -> simple(out, "PONG");
+            case "CLIENT", "READONLY", "READWRITE" -> simple(out, "OK");
+            case "COMMAND" -> out.write("*0\r\n".getBytes(StandardCharsets.US_ASCII));
+            case "INFO" -> bulk(out, "# Server\r\nredis_version:7.2.0\r\n# Clients\r\nconnected_clients:1\r\n".getBytes(StandardCharsets.UTF_8));
+            case "CLUSTER" -> {
+                if ("NODES".equalsIgnoreCase(text(command.get(1)))) {
+                    bulk(out, clusterNodes(node).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    error(out, "ERR unsupported CLUSTER subcommand");
+                }
+            }
+            case "GET", "MGET" -> {
+                List<byte[]> keys = command.subList(1, command.size());
+                if (checkSlot(node, keys, out)) {
+                    if (name.equals("GET")) {
+                        bulk(out, data.get(text(keys.get(0))));
+                    } else {
+                        out.write(("*" + keys.size() + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                        for (byte[] key : keys) {
+                            bulk(out, data.get(text(key)));
+                        }
+                    }
+                }
+            }
+            case "SET" -> {
+                if (checkSlot(node, command.subList(1, 2), out)) {
+                    data.put(text(command.get(1)), command.get(2));
+                    simple(out, "OK");
+                }
+            }
+            case "DEL", "UNLINK" -> {
+                List<byte[]> keys = command.subList(1, command.size());
+                if (checkSlot(node, keys, out)) {
+                    long removed = keys.stream().filter(key -> data.remove(text(key)) != null).count();
+                    out.write((":" + removed + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                }
+            }
+            default -> error(out, "ERR unknown command '" + name + "'");
+        }
+    }
+
+    private boolean checkSlot(int node, List<byte[]> keys, OutputStream out) throws IOException {
+        if (!cluster) {
+            return true;
+        }
+        int slot = SlotHash.getSlot(keys.get(0));
+        for (byte[] key : keys) {
+            if (SlotHash.getSlot(key) != slot) {
+                errors.add("CROSSSLOT");
+                error(out, "CROSSSLOT Keys in request don't hash to the same slot");
+                return false;
+            }
+        }
+        int owner = slotOwners.get(slot);
+        if (owner != node) {
+            errors.add("MOVED " + slot);
+            error(out, "MOVED " + slot + " " + nodeAddresses().get(owner));
+            return false;
+        }
+        return true;
+    }
+
+    private String clusterNodes(int myself) {
+        StringBuilder nodes = new StringBuilder();
+        for (int node = 0; node < servers.size(); node++) {
+            int port = servers.get(node).getLocalPort();
+            nodes.append(nodeIds.get(node)).append(" 127.0.0.1:").append(port).append('@').append(port + 10000)
+                    .append(node == myself ? " myself,master" : " master").append(" - 0 0 ").append(node + 1).append(" connected");
+            int start = -1;
+            for (int slot = 0; slot <= SLOTS; slot++) {
+                boolean owned = slot < SLOTS && slotOwners.get(slot) == node;
+                if (owned && start < 0) {
+                    start = slot;
+                } else if (!owned && start >= 0) {
+                    nodes.append(' ').append(start == slot - 1 ? String.valueOf(start) : start + "-" + (slot - 1));
+                    start = -1;
+                }
+            }
+            nodes.append('\n');
+        }
+        return nodes.toString();
+    }
+
+    // a RESP array of bulk strings, as clients send commands; null at the end of the stream
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        String header = readLine(in);
+        if (header == null) {
+            return null;
+        }
+        if (header.charAt(0) != '*') {
+            throw new IOException("Expected an array, got " + header);
+        }
+        int count = Integer.parseInt(header.substring(1));
+        List<byte[]> command = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = Integer.parseInt(readLine(in).substring(1));
+            command.add(in.readNBytes(length));
+            in.readNBytes(2);
+        }
+        return command;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b < 0) {
+                return null;
+            }
+            line.append((char) b);
+        }
+        in.read();
+        return line.toString();
+    }
+
+    private static void simple(OutputStream out, String reply) throws IOException {
+        out.write(("+" + reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void error(OutputStream out, String message) throws IOException {
+        out.write(("-" + message + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void bulk(OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        out.write(("$" + value.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(value);
+        out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.fastProductApi.changefeed;
+
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.event.ProductChangeEvent;
+import com.example.fastProductApi.repository.ProductRepository;
+import com.example.fastProductApi.service.ProductServiceForBasicCrud;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest(properties = {
+        "product.change-feed.enabled=true",
+        "product.change-feed.buffer-size=4"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductChangeFeedTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductServiceForBasicCrud productServiceForBasicCrud;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void streamChanges_shouldSendEveryWriteAndResumeAfterLastEventId() throws Exception {
+        // Arrange
+        MvcResult stream = mockMvc.perform(get("/products/changes")).andExpect(request().asyncStarted()).andReturn();
+
+        // Act
+        Product saved = productServiceForBasicCrud.saveProduct(product("Kettle", 3));
+        saved.setStock(2);
+        productServiceForBasicCrud.updateProduct(saved);
+
+        // Assert
+        String events = awaitContent(stream.getResponse(), "\"type\":\"UPDATED\"");
+        assertTrue(events.contains("\"type\":\"CREATED\",\"id\":" + saved.getId()));
+        assertTrue(events.contains("\"stock\":2"));
+
+        // Act: reconnect with the ID of the first event, then delete
+        String firstEventId = firstEventId(events);
+        MvcResult resumed = mockMvc.perform(get("/products/changes").header("Last-Event-ID", firstEventId))
+                .andExpect(request().asyncStarted()).andReturn();
+        productServiceForBasicCrud.deleteProduct(saved);
+
+        // Assert: the update is sent again, the create is not
+        String resumedEvents = awaitContent(resumed.getResponse(), "\"type\":\"DELETED\"");
+        assertFalse(resumedEvents.contains("CREATED"));
+        assertTrue(resumedEvents.indexOf("UPDATED") < resumedEvents.indexOf("DELETED"));
+    }
+
+    @Test
+    void streamChanges_shouldSendResetWhenTheLastEventCannotBeResumed() throws Exception {
+        // Arrange: changes the client missed, and an event ID of another process
+        for (int i = 0; i < 5; i++) {
+            productServiceForBasicCrud.saveProduct(product("Cup " + i, i));
+        }
+
+        // Act
+        MvcResult stream = mockMvc.perform(get("/products/changes").param("since", "0badcafe-1"))
+                .andExpect(request().asyncStarted()).andReturn();
+        productServiceForBasicCrud.saveProduct(product("Plate", 1));
+
+        // Assert
+        String events = awaitContent(stream.getResponse(), "\"type\":\"CREATED\"");
+        assertTrue(events.startsWith("id:"), events);
+        assertTrue(events.contains("event:" + ProductChangeFeed.RESET_EVENT));
+        assertEquals(1, events.split("\"type\"").length - 1, "only changes after the reset");
+    }
+
+    @Test
+    void streamChanges_shouldNotSendRolledBackChanges() throws Exception {
+        // Arrange
+        MvcResult stream = mockMvc.perform(get("/products/changes")).andExpect(request().asyncStarted()).andReturn();
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(ProductChangeEvent.deleted(-1L));
+            status.setRollbackOnly();
+        });
+        Product saved = productServiceForBasicCrud.saveProduct(product("Teapot", 1));
+
+        // Assert
+        String events = awaitContent(stream.getResponse(), "\"id\":" + saved.getId());
+        assertFalse(events.contains("DELETED"), events);
+    }
+
+    private static Product product(String name, int stock) {
+        LocalDateTime now = LocalDateTime.now();
+        return new Product(null, name, "", BigDecimal.TEN, stock, now, now);
+    }
+
+    private static String firstEventId(String events) {
+        Matcher matcher = EVENT_ID.matcher(events);
+        assertTrue(matcher.find(), events);
+        return matcher.group(1);
+    }
+
+    // delivery runs on the feed's own threads
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = response.getContentAsString();
+        }
+        assertTrue(content.contains(expected), content);
+        return content;
+    }
+}
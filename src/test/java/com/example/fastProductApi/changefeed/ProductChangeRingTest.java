@@ -0,0 +1,53 @@
+package com.example.fastProductApi.changefeed;
+
+import com.example.fastProductApi.dto.ProductChangeVo;
+import com.example.fastProductApi.event.ProductChangeEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductChangeRingTest {
+
+    @Test
+    void readAfter_shouldReturnTheFollowingChangesInOrder() {
+        // Arrange
+        ProductChangeRing ring = new ProductChangeRing(4);
+        for (long id = 1; id <= 3; id++) {
+            ring.append(deleted(id));
+        }
+
+        // Act
+        List<ProductChangeRing.Entry> all = ring.readAfter(0, 10);
+        List<ProductChangeRing.Entry> limited = ring.readAfter(1, 1);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L), all.stream().map(ProductChangeRing.Entry::sequence).toList());
+        assertEquals(2L, limited.get(0).change().id());
+        assertEquals(1, limited.size());
+        assertTrue(ring.readAfter(3, 10).isEmpty());
+    }
+
+    @Test
+    void readAfter_shouldReportOverwrittenChanges() {
+        // Arrange
+        ProductChangeRing ring = new ProductChangeRing(4);
+        for (long id = 1; id <= 10; id++) {
+            ring.append(deleted(id));
+        }
+
+        // Act
+        List<ProductChangeRing.Entry> overwritten = ring.readAfter(5, 10);
+        List<ProductChangeRing.Entry> oldestKept = ring.readAfter(6, 10);
+
+        // Assert
+        assertNull(overwritten, "change 6 has been overwritten");
+        assertEquals(List.of(7L, 8L, 9L, 10L), oldestKept.stream().map(entry -> entry.change().id()).toList());
+        assertEquals(10, ring.lastSequence());
+    }
+
+    private static ProductChangeVo deleted(long id) {
+        return ProductChangeVo.of(ProductChangeEvent.deleted(id));
+    }
+}
@@ -1,22 +1,38 @@
 package com.example.fastProductApi.controller;
 
+import com.example.fastProductApi.cache.ProductVersionCache;
+import com.example.fastProductApi.delta.ProductDeltaService;
 import com.example.fastProductApi.dto.*;
 import com.example.fastProductApi.entity.Product;
 import com.example.fastProductApi.exception.CustomException;
 import com.example.fastProductApi.mapper.ProductMapper;
+import com.example.fastProductApi.projection.ProductField;
+import com.example.fastProductApi.protobuf.ProductProtobufHttpMessageConverter;
+import com.example.fastProductApi.search.ProductFilterService;
+import com.example.fastProductApi.search.ProductSearchIndex;
+import com.example.fastProductApi.search.ProductSearchService;
 import com.example.fastProductApi.service.ProductServiceForBasicCrud;
 import com.example.fastProductApi.service.ProductServiceForBulkCrud;
+import com.example.fastProductApi.util.ProductETags;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
@@ -34,6 +50,18 @@ class ProductControllerTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private ProductVersionCache productVersionCache;
+
+    @Mock
+    private ProductSearchService productSearchService;
+
+    @Mock
+    private ProductFilterService productFilterService;
+
+    @Mock
+    private ProductDeltaService productDeltaService;
+
     @Test
     void getProductById_success() throws CustomException {
         // Arrange
@@ -49,7 +77,7 @@ class ProductControllerTest {
         );
 
         // Act
-        ResponseEntity<ProductsByIdResponseDto> response = productController.getProductById(true, requestDto);
+        ResponseEntity<ProductsByIdResponseDto> response = productController.getProductById(true, null, requestDto, null, null);
 
         // Assert
         assertEquals(expectedResponse.getResponseStatus().message(), response.getBody().getResponseStatus().message());
@@ -65,7 +93,7 @@ class ProductControllerTest {
         when(productServiceForBulkCrud.getProductByIdsInParallel(ids)).thenThrow(new CustomException(new Exception("Test Exception")));
 
         // Act
-        ResponseEntity<ProductsByIdResponseDto> response = productController.getProductById(true, requestDto);
+        ResponseEntity<ProductsByIdResponseDto> response = productController.getProductById(true, null, requestDto, null, null);
 
         // Assert
         assertEquals(500, response.getStatusCodeValue());
@@ -134,4 +162,266 @@ class ProductControllerTest {
         assertEquals("200 OK", response.getStatusCode().toString());
         verify(productServiceForBulkCrud).deleteByIdsInParallel(ids);
     }
+
+    @Test
+    void getProductById_notModifiedFromVersionCache() throws CustomException {
+        // Arrange
+        List<Long> ids = List.of(1L, 2L);
+        Map<Long, Long> versions = Map.of(1L, 10L, 2L, 20L);
+        ProductByIdRequestDto requestDto = new ProductByIdRequestDto(ids);
+        String etag = ProductETags.forProducts(ids, versions, "json");
+
+        when(productVersionCache.getVersions(ids)).thenReturn(versions);
+
+        // Act
+        ResponseEntity<ProductsByIdResponseDto> response = productController.getProductById(true, null, requestDto, etag, null);
+
+        // Assert
+        assertEquals(304, response.getStatusCode().value());
+        assertEquals(etag, response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verifyNoInteractions(productServiceForBulkCrud);
+    }
+
+    @Test
+    void getProductById_changedProductReturnsNewETag() throws CustomException {
+        // Arrange
+        List<Long> ids = List.of(1L);
+        Product product = new Product(1L, "Phone", "Smartphone", BigDecimal.TEN, 5, LocalDateTime.now(), LocalDateTime.now());
+        ProductByIdRequestDto requestDto = new ProductByIdRequestDto(ids);
+        String staleETag = ProductETags.forProducts(ids, Map.of(1L, 1L), "json");
+
+        when(productVersionCache.getVersions(ids)).thenReturn(Map.of());
+        when(productServiceForBulkCrud.getProductByIdsInParallel(ids)).thenReturn(List.of(Optional.of(product)));
+
+        // Act
+        ResponseEntity<ProductsByIdResponseDto> response = productController.getProductById(true, null, requestDto, staleETag, null);
+
+        // Assert
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(ProductETags.forProducts(ids, Map.of(1L, ProductETags.version(product)), "json"), response.getHeaders().getETag());
+        assertNotEquals(ProductETags.forProducts(ids, Map.of(1L, ProductETags.version(product)), "protobuf"), response.getHeaders().getETag());
+        verify(productVersionCache).recordAll(List.of(product));
+    }
+
+    @Test
+    void getProductById_etagFollowsTheNegotiatedRepresentation() throws CustomException {
+        // Arrange: protobuf is listed first but refused
+        List<Long> ids = List.of(1L);
+        Product product = new Product(1L, "Phone", "Smartphone", BigDecimal.TEN, 5, LocalDateTime.now(), LocalDateTime.now());
+        ProductByIdRequestDto requestDto = new ProductByIdRequestDto(ids);
+
+        when(productServiceForBulkCrud.getProductByIdsInParallel(ids)).thenReturn(List.of(Optional.of(product)));
+
+        // Act
+        ResponseEntity<ProductsByIdResponseDto> response = productController.getProductById(true, null, requestDto, null,
+                "application/x-protobuf;q=0, application/json");
+
+        // Assert
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals(ProductETags.forProducts(ids, Map.of(1L, ProductETags.version(product)), "json"), response.getHeaders().getETag());
+    }
+
+    @Test
+    void negotiateBulkMediaType_followsQualityAndSpecificity() {
+        // Act & Assert
+        assertEquals(MediaType.APPLICATION_JSON, ProductController.negotiateBulkMediaType(null));
+        assertEquals(MediaType.APPLICATION_JSON, ProductController.negotiateBulkMediaType("*/*"));
+        assertEquals(MediaType.APPLICATION_JSON, ProductController.negotiateBulkMediaType("application/x-protobuf;q=0, application/json"));
+        assertEquals(MediaType.APPLICATION_JSON, ProductController.negotiateBulkMediaType("application/x-protobuf;q=0.5, application/json"));
+        assertEquals(ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF, ProductController.negotiateBulkMediaType("*/*, application/x-protobuf"));
+        assertEquals(ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF, ProductController.negotiateBulkMediaType("application/json;q=0, */*"));
+        assertEquals(ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF, ProductController.negotiateBulkMediaType("application/x-protobuf, application/json"));
+        assertNull(ProductController.negotiateBulkMediaType("text/html"));
+    }
+
+    @Test
+    void getProductById_withFieldsReturnsOnlyThoseFields() throws CustomException {
+        // Arrange
+        List<Long> ids = List.of(1L);
+        Product product = new Product(1L, "Phone", "Smartphone", BigDecimal.TEN, 5, LocalDateTime.now(), LocalDateTime.now());
+        ProductByIdRequestDto requestDto = new ProductByIdRequestDto(ids);
+        Set<ProductField> fields = EnumSet.of(ProductField.ID, ProductField.PRICE, ProductField.STOCK);
+
+        when(productServiceForBulkCrud.getProductFieldsByIds(ids, fields)).thenReturn(List.of(Optional.of(product)));
+        when(productMapper.toDTO(product)).thenReturn(new ProductResponseDto(1L, "Phone", "Smartphone", BigDecimal.TEN, 5,
+                product.getCreatedAt(), product.getLastUpdatedAt(), null));
+
+        // Act
+        ResponseEntity<ProductsByIdResponseDto> response = productController.getProductById(true, "stock, price", requestDto, null, null);
+
+        // Assert
+        ProductResponseDto dto = response.getBody().getProduct().get(0);
+        assertEquals(1L, dto.getId());
+        assertEquals(BigDecimal.TEN, dto.getPrice());
+        assertEquals(5, dto.getStock());
+        assertNull(dto.getName());
+        assertNull(dto.getDescription());
+        assertNull(dto.getLastUpdatedAt());
+        assertEquals(ProductETags.forProducts(ids, Map.of(1L, ProductETags.version(product)), "json;fields=id,price,stock"),
+                response.getHeaders().getETag());
+        verify(productServiceForBulkCrud, never()).getProductByIdsInParallel(any());
+    }
+
+    @Test
+    void getProductById_rejectsUnknownField() {
+        // Act
+        ResponseEntity<ProductsByIdResponseDto> response = productController.getProductById(true, "price,weight",
+                new ProductByIdRequestDto(List.of(1L)), null, null);
+
+        // Assert
+        assertEquals(400, response.getStatusCode().value());
+        verifyNoInteractions(productServiceForBulkCrud);
+    }
+
+    @Test
+    void getProduct_notModifiedAfterLoad() throws CustomException {
+        // Arrange
+        Product product = new Product(1L, "Phone", "Smartphone", BigDecimal.TEN, 5, LocalDateTime.now(), LocalDateTime.now());
+        String etag = ProductETags.forProduct(1L, ProductETags.version(product));
+
+        when(productVersionCache.getVersions(List.of(1L))).thenReturn(Map.of());
+        when(productServiceForBasicCrud.getProductById(1L)).thenReturn(Optional.of(product));
+
+        // Act
+        ResponseEntity<ProductResponseDto> response = productController.getProduct(1L, "W/\"other\", " + etag);
+
+        // Assert
+        assertEquals(304, response.getStatusCode().value());
+        assertNull(response.getBody());
+        verifyNoInteractions(productMapper);
+    }
+
+    @Test
+    void getProduct_notFound() throws CustomException {
+        // Arrange
+        when(productServiceForBasicCrud.getProductById(1L)).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<ProductResponseDto> response = productController.getProduct(1L, null);
+
+        // Assert
+        assertEquals(404, response.getStatusCode().value());
+    }
+
+    @Test
+    void patchProduct_returnsPatchedProductWithETag() throws CustomException {
+        // Arrange
+        LocalDateTime lastUpdatedAt = LocalDateTime.now();
+        ProductPatchRequestDto patch = new ProductPatchRequestDto(null, null, null, BigDecimal.ONE, null);
+        ProductResponseDto patched = new ProductResponseDto(3L, "Cable", "USB-C", BigDecimal.ONE, 9, null, lastUpdatedAt, null);
+        when(productMapper.toPatch(patch)).thenReturn(new Product(null, null, null, BigDecimal.ONE, null, null, null));
+        when(productServiceForBulkCrud.patchProducts(anyList()))
+                .thenReturn(new ProductPatchResponseDto(List.of(patched), List.of(), new ResponseStatusVo("SUCCESS", "200")));
+
+        // Act
+        ResponseEntity<ProductResponseDto> response = productController.patchProduct(3L, patch);
+
+        // Assert
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(patched, response.getBody());
+        assertEquals(ProductETags.forProduct(3L, ProductETags.version(lastUpdatedAt)), response.getHeaders().getETag());
+        verify(productServiceForBulkCrud).patchProducts(argThat(patches -> patches.size() == 1 && patches.get(0).getId() == 3L));
+    }
+
+    @Test
+    void patchProduct_notFoundAndMismatchedId() throws CustomException {
+        // Arrange
+        ProductPatchRequestDto patch = new ProductPatchRequestDto(null, "Name", null, null, null);
+        when(productMapper.toPatch(patch)).thenReturn(new Product(null, "Name", null, null, null, null, null));
+        when(productServiceForBulkCrud.patchProducts(anyList()))
+                .thenReturn(new ProductPatchResponseDto(List.of(), List.of(4L), new ResponseStatusVo("SUCCESS", "200")));
+
+        // Act
+        ResponseEntity<ProductResponseDto> notFound = productController.patchProduct(4L, patch);
+        ResponseEntity<ProductResponseDto> mismatched = productController.patchProduct(4L, new ProductPatchRequestDto(5L, "Name", null, null, null));
+
+        // Assert
+        assertEquals(404, notFound.getStatusCode().value());
+        assertEquals(400, mismatched.getStatusCode().value());
+    }
+
+    @Test
+    void getProductDelta_mapsPageAndCursorErrors() throws CustomException {
+        // Arrange
+        Product product = new Product(8L, "Lamp", "Desk lamp", BigDecimal.TEN, 1, LocalDateTime.now(), LocalDateTime.now());
+        ProductResponseDto productDto = new ProductResponseDto(8L, "Lamp", "Desk lamp", BigDecimal.TEN, 1, null, null, null);
+        when(productDeltaService.findChangesSince(null, 500)).thenReturn(new ProductDeltaService.Page(List.of(product), List.of(9L), "next", true));
+        when(productMapper.toDTO(product)).thenReturn(productDto);
+        when(productDeltaService.findChangesSince("bad", 500)).thenThrow(new IllegalArgumentException("Invalid cursor: bad"));
+        when(productDeltaService.findChangesSince("old", 500)).thenThrow(new ProductDeltaService.CursorExpiredException("expired"));
+
+        // Act
+        ResponseEntity<ProductDeltaResponseDto> response = productController.getProductDelta(null, 500);
+        ResponseEntity<ProductDeltaResponseDto> invalid = productController.getProductDelta("bad", 500);
+        ResponseEntity<ProductDeltaResponseDto> expired = productController.getProductDelta("old", 500);
+
+        // Assert
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(List.of(productDto), response.getBody().getProducts());
+        assertEquals(List.of(9L), response.getBody().getDeletedProductIds());
+        assertEquals("next", response.getBody().getNextCursor());
+        assertEquals(400, invalid.getStatusCode().value());
+        assertEquals(410, expired.getStatusCode().value());
+    }
+
+    @Test
+    void searchProducts_hydratesRankedPage() throws CustomException {
+        // Arrange
+        Product product = new Product(7L, "Phone", "Smartphone", BigDecimal.TEN, 5, LocalDateTime.now(), LocalDateTime.now());
+        ProductResponseDto productDto = new ProductResponseDto(7L, "Phone", "Smartphone", BigDecimal.TEN, 5, null, null, null);
+
+        when(productSearchService.isReady()).thenReturn(true);
+        when(productSearchService.search("phone", 1, 1)).thenReturn(new ProductSearchIndex.SearchResult(List.of(7L), 2));
+        when(productServiceForBulkCrud.getProductByIdsInParallel(List.of(7L))).thenReturn(List.of(Optional.of(product)));
+        when(productMapper.toDTO(product)).thenReturn(productDto);
+
+        // Act
+        ResponseEntity<ProductPageResponseDto> response = productController.searchProducts("phone", 1, 1);
+
+        // Assert
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(List.of(productDto), response.getBody().getProducts());
+        assertEquals(2, response.getBody().getTotalElements());
+    }
+
+    @Test
+    void searchProducts_rejectsOversizedPage() {
+        // Act
+        ResponseEntity<ProductPageResponseDto> response = productController.searchProducts("phone", 0, 1000);
+
+        // Assert
+        assertEquals(400, response.getStatusCode().value());
+        verifyNoInteractions(productSearchService);
+    }
+
+    @Test
+    void listProducts_filtersThroughPriceStockIndex() throws CustomException {
+        // Arrange
+        Product product = new Product(3L, "Cable", "USB-C", BigDecimal.ONE, 2, LocalDateTime.now(), LocalDateTime.now());
+        ProductResponseDto productDto = new ProductResponseDto(3L, "Cable", "USB-C", BigDecimal.ONE, 2, null, null, null);
+
+        when(productFilterService.isReady()).thenReturn(true);
+        when(productFilterService.filter(BigDecimal.ZERO, BigDecimal.TEN, 1, true, 0, 20))
+                .thenReturn(new ProductSearchIndex.SearchResult(List.of(3L), 1));
+        when(productServiceForBulkCrud.getProductByIdsInParallel(List.of(3L))).thenReturn(List.of(Optional.of(product)));
+        when(productMapper.toDTO(product)).thenReturn(productDto);
+
+        // Act
+        ResponseEntity<ProductPageResponseDto> response = productController.listProducts(BigDecimal.ZERO, BigDecimal.TEN, 1, "price,desc", 0, 20);
+
+        // Assert
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(List.of(productDto), response.getBody().getProducts());
+    }
+
+    @Test
+    void listProducts_rejectsUnknownSort() {
+        // Act
+        ResponseEntity<ProductPageResponseDto> response = productController.listProducts(null, null, 0, "name,asc", 0, 20);
+
+        // Assert
+        assertEquals(400, response.getStatusCode().value());
+        verifyNoInteractions(productFilterService);
+    }
 }
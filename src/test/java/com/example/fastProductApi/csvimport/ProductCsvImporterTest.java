@@ -0,0 +1,116 @@
+package com.example.fastProductApi.csvimport;
+
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// tiny chunks and batches, so that a small file is split and inserted in several parts
+@SpringBootTest(properties = {
+        "product.csv-import.enabled=true",
+        "product.csv-import.chunk-size=64B",
+        "product.csv-import.batch-size=3",
+        "product.csv-import.concurrency=3",
+        "product.csv-import.error-directory=target/test-imports",
+        "product.csv-import.allowed-directory=target"
+})
+@ActiveProfiles("test")
+class ProductCsvImporterTest {
+
+    @Autowired
+    private ProductCsvImporter productCsvImporter;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<Path> files = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        productRepository.deleteAll();
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void importFile_shouldImportEveryRowAcrossChunks() throws Exception {
+        // Arrange
+        StringBuilder csv = new StringBuilder("name,description,price,stock\n");
+        for (int i = 0; i < 50; i++) {
+            csv.append("Product ").append(i).append(",\"Description, ").append(i).append("\",").append(i).append(".25,").append(i).append('\n');
+        }
+        Path file = write(csv.toString());
+
+        // Act
+        ProductCsvImporter.ImportResult result = productCsvImporter.importFile(file);
+
+        // Assert
+        assertEquals(50, result.importedRows());
+        assertEquals(0, result.failedRows());
+        assertTrue(result.chunks() > 1);
+        assertNull(result.errorReport());
+        List<Product> products = productRepository.findAll();
+        products.sort(Comparator.comparing(Product::getStock));
+        assertEquals(50, products.size());
+        assertEquals("Description, 49", products.get(49).getDescription());
+        assertEquals(new BigDecimal("49.25"), products.get(49).getPrice());
+        assertNotNull(products.get(0).getCreatedAt());
+    }
+
+    @Test
+    void importFile_shouldWriteFailedRowsWithAbsoluteLineNumbersToTheErrorReport() throws Exception {
+        // Arrange
+        StringBuilder csv = new StringBuilder("name,price\n");
+        for (int i = 2; i <= 40; i++) {
+            csv.append(i % 10 == 0 ? "Broken," + i + "x" : "Product " + i + "," + i).append('\n');
+        }
+        Path file = write(csv.toString());
+
+        // Act
+        ProductCsvImporter.ImportResult result = productCsvImporter.importFile(file);
+        files.add(result.errorReport());
+
+        // Assert
+        assertEquals(35, result.importedRows());
+        assertEquals(4, result.failedRows());
+        List<String> report = Files.readAllLines(result.errorReport());
+        assertEquals(List.of("line,error,row",
+                "10,\"price is not a number: '10x'\",\"Broken,10x\"",
+                "20,\"price is not a number: '20x'\",\"Broken,20x\"",
+                "30,\"price is not a number: '30x'\",\"Broken,30x\"",
+                "40,\"price is not a number: '40x'\",\"Broken,40x\""), report);
+        assertEquals(35, productRepository.count());
+    }
+
+    @Test
+    void resolveLocalFile_shouldRejectPathsOutsideTheAllowedDirectory() throws Exception {
+        // Arrange
+        Path file = write("name,price\n");
+
+        // Act & Assert
+        assertEquals(file.toRealPath(), productCsvImporter.resolveLocalFile(file.getFileName().toString()));
+        assertThrows(IllegalArgumentException.class, () -> productCsvImporter.resolveLocalFile("../pom.xml"));
+        assertThrows(IllegalArgumentException.class, () -> productCsvImporter.resolveLocalFile("/etc/passwd"));
+    }
+
+    private Path write(String csv) throws Exception {
+        Path file = Files.createTempFile(Path.of("target"), "products-", ".csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        files.add(file);
+        return file;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.fastProductApi.csvimport;
+
+import com.example.fastProductApi.entity.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCsvParserTest {
+
+    private final List<Product> products = new ArrayList<>();
+    private final List<String> errors = new ArrayList<>();
+
+    private final ProductCsvParser.RowHandler handler = new ProductCsvParser.RowHandler() {
+        @Override
+        public void row(int line, Product product) {
+            products.add(product);
+        }
+
+        @Override
+        public void error(int line, String message, String row) {
+            errors.add(line + ": " + message + " [" + row + "]");
+        }
+    };
+
+    @Test
+    void parse_shouldReadQuotedFieldsAndNumbersInHeaderOrder() {
+        // Arrange
+        ProductCsvParser parser = new ProductCsvParser(ProductCsvParser.Columns.fromHeader("\uFEFFprice,Name,stock,description\r\n"));
+        String csv = "12.50,Plain,3,Simple\r\n"
+                + "-0.99,\"Quoted, with \"\"quotes\"\"\",,\"Ünïcode\"\n"
+                + "\n"
+                + "12345678901234567890.123,Big,+7,\n";
+
+        // Act
+        int lines = parser.parse(ByteBuffer.wrap(csv.getBytes(StandardCharsets.UTF_8)), handler);
+
+        // Assert
+        assertEquals(4, lines);
+        assertEquals(List.of(), errors);
+        assertEquals(3, products.size());
+        assertEquals("Plain", products.get(0).getName());
+        assertEquals(new BigDecimal("12.50"), products.get(0).getPrice());
+        assertEquals(3, products.get(0).getStock());
+        assertEquals("Quoted, with \"quotes\"", products.get(1).getName());
+        assertEquals("Ünïcode", products.get(1).getDescription());
+        assertEquals(new BigDecimal("-0.99"), products.get(1).getPrice());
+        assertEquals(0, products.get(1).getStock());
+        assertEquals(new BigDecimal("12345678901234567890.123"), products.get(2).getPrice());
+        assertEquals("", products.get(2).getDescription());
+        assertEquals(7, products.get(2).getStock());
+    }
+
+    @Test
+    void parse_shouldReportBadRowsWithTheirLineAndKeepGoing() {
+        // Arrange
+        ProductCsvParser parser = new ProductCsvParser(ProductCsvParser.Columns.fromHeader("name,price,stock"));
+        String csv = "A,1.x,1\n"
+                + "B,2,99999999999\n"
+                + ",3,1\n"
+                + "\"C,4,1\n"
+                + "D,5\n"
+                + "E,6,1,extra\n"
+                + "F,7,1";
+
+        // Act
+        int lines = parser.parse(ByteBuffer.wrap(csv.getBytes(StandardCharsets.UTF_8)), handler);
+
+        // Assert
+        assertEquals(7, lines);
+        assertEquals(1, products.size());
+        assertEquals("F", products.get(0).getName());
+        assertEquals(List.of(
+                "1: price is not a number: '1.x' [A,1.x,1]",
+                "2: stock is not an integer: '99999999999' [B,2,99999999999]",
+                "3: name is empty [,3,1]",
+                "4: Unterminated quoted field 1 [\"C,4,1]",
+                "5: Expected 3 fields, found 2 [D,5]",
+                "6: Expected 3 fields, found more [E,6,1,extra]"), errors);
+    }
+
+    @Test
+    void fromHeader_shouldRequireNameAndPrice() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> ProductCsvParser.Columns.fromHeader("name,stock\n"));
+    }
+}
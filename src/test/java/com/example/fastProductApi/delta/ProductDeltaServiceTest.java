@@ -0,0 +1,146 @@
+package com.example.fastProductApi.delta;
+
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.exception.CustomException;
+import com.example.fastProductApi.repository.ProductRepository;
+import com.example.fastProductApi.service.ProductServiceForBasicCrud;
+import com.example.fastProductApi.service.ProductServiceForBulkCrud;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "product.delta.settle-time=0s")
+@ActiveProfiles("test")
+class ProductDeltaServiceTest {
+
+    @Autowired
+    private ProductDeltaService productDeltaService;
+
+    @Autowired
+    private ProductServiceForBasicCrud productServiceForBasicCrud;
+
+    @Autowired
+    private ProductServiceForBulkCrud productServiceForBulkCrud;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM product_tombstones");
+    }
+
+    @Test
+    void findChangesSince_shouldPageThroughChangesInKeysetOrder() throws CustomException {
+        // Arrange
+        LocalDateTime base = LocalDateTime.now().minusMinutes(10);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            products.add(productRepository.save(new Product(null, "Product " + i, "", BigDecimal.TEN, i, base, base.plusSeconds(i % 3))));
+        }
+
+        // Act
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        ProductDeltaService.Page page;
+        int pages = 0;
+        do {
+            page = productDeltaService.findChangesSince(cursor, 2);
+            page.products().forEach(product -> seen.add(product.getId()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (page.hasMore());
+        ProductDeltaService.Page caughtUp = productDeltaService.findChangesSince(cursor, 2);
+
+        // Assert: ordered by lastUpdatedAt, then id
+        List<Long> ids = products.stream().map(Product::getId).toList();
+        assertEquals(List.of(ids.get(0), ids.get(3), ids.get(1), ids.get(4), ids.get(2)), seen);
+        assertEquals(3, pages);
+        assertTrue(caughtUp.products().isEmpty());
+        assertTrue(caughtUp.deletedIds().isEmpty());
+        assertFalse(caughtUp.hasMore());
+    }
+
+    @Test
+    void findChangesSince_shouldMoveAnIdleClientsCursorUpToTheSettledWatermark() throws CustomException {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        productServiceForBasicCrud.saveProduct(new Product(null, "Old", "", BigDecimal.ONE, 1, now, now));
+        String cursor = productDeltaService.findChangesSince(null, 10).nextCursor();
+
+        // Act
+        ProductDeltaService.Page idle = productDeltaService.findChangesSince(cursor, 10);
+        Product added = productServiceForBasicCrud.saveProduct(new Product(null, "New", "", BigDecimal.ONE, 1, LocalDateTime.now(), LocalDateTime.now()));
+        ProductDeltaService.Page next = productDeltaService.findChangesSince(idle.nextCursor(), 10);
+
+        // Assert
+        assertTrue(idle.products().isEmpty());
+        assertTrue(ProductDeltaCursor.parse(idle.nextCursor()).changedAt().isAfter(ProductDeltaCursor.parse(cursor).changedAt()),
+                "the cursor follows the watermark, so it does not age into expiry");
+        assertEquals(List.of(added.getId()), next.products().stream().map(Product::getId).toList());
+    }
+
+    @Test
+    void findChangesSince_shouldReportDeletionsAndOnlyTheLatestChangePerProduct() throws CustomException {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        Product kept = productServiceForBasicCrud.saveProduct(new Product(null, "Kept", "", BigDecimal.ONE, 1, now, now));
+        Product deleted = productServiceForBasicCrud.saveProduct(new Product(null, "Deleted", "", BigDecimal.ONE, 1, now, now));
+        Product bulkDeleted = productServiceForBasicCrud.saveProduct(new Product(null, "Bulk deleted", "", BigDecimal.ONE, 1, now, now));
+        String cursor = productDeltaService.findChangesSince(null, 10).nextCursor();
+
+        // Act
+        kept.setStock(7);
+        kept.setLastUpdatedAt(LocalDateTime.now());
+        productServiceForBasicCrud.updateProduct(kept);
+        productServiceForBasicCrud.deleteProduct(deleted);
+        productServiceForBulkCrud.deleteByIdsInSeq(List.of(bulkDeleted.getId()));
+        ProductDeltaService.Page page = productDeltaService.findChangesSince(cursor, 10);
+
+        // Assert
+        assertEquals(List.of(kept.getId()), page.products().stream().map(Product::getId).toList());
+        assertEquals(7, page.products().get(0).getStock());
+        assertEquals(List.of(deleted.getId(), bulkDeleted.getId()), page.deletedIds());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_tombstones", Integer.class));
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void findChangesSince_shouldRejectInvalidAndExpiredCursors() {
+        // Arrange
+        String expired = new ProductDeltaCursor(LocalDateTime.now().minusYears(1), 1).encode();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> productDeltaService.findChangesSince("not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> productDeltaService.findChangesSince(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> productDeltaService.findChangesSince(null, productDeltaService.getMaxLimit() + 1));
+        assertThrows(ProductDeltaService.CursorExpiredException.class, () -> productDeltaService.findChangesSince(expired, 10));
+    }
+
+    @Test
+    void purgeTombstones_shouldRemoveOnlyExpiredTombstones() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO product_tombstones (product_id, deleted_at) VALUES (?, ?), (?, ?)",
+                1L, LocalDateTime.now().minusYears(1), 2L, LocalDateTime.now());
+
+        // Act
+        productDeltaService.purgeTombstones();
+
+        // Assert
+        assertEquals(List.of(2L), jdbcTemplate.queryForList("SELECT product_id FROM product_tombstones", Long.class));
+    }
+}
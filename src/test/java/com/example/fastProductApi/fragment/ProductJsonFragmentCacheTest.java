@@ -0,0 +1,105 @@
+package com.example.fastProductApi.fragment;
+
+import com.example.fastProductApi.cache.ProductCacheOperations;
+import com.example.fastProductApi.dto.ProductsByIdResponseDto;
+import com.example.fastProductApi.dto.ResponseStatusVo;
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.event.ProductChangeEvent;
+import com.example.fastProductApi.mapper.ProductMapper;
+import com.example.fastProductApi.util.ProductETags;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+class ProductJsonFragmentCacheTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 3, 1, 9, 30, 15, 123_456_000);
+
+    @InjectMocks
+    private ProductJsonFragmentCache productJsonFragmentCache;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager();
+
+    @Spy
+    private ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Spy
+    private ProductMapper productMapper = new ProductMapper();
+
+    @Spy
+    private ProductCacheOperations productCacheOperations = new ProductCacheOperations();
+
+    // without Redis beans, so it reads and writes through the cache manager above
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productCacheOperations, "cacheManager", cacheManager);
+    }
+
+    @Test
+    void writeFragments_shouldMatchJacksonOutputForTheSameProducts() throws IOException {
+        // Arrange
+        Product phone = new Product(42L, "Phone \"X\"", "Smart – phone", new BigDecimal("199.99"), 5, CREATED, CREATED.plusDays(1));
+        Product cable = new Product(7L, "Cable", null, new BigDecimal("3.5"), null, null, null);
+        Map<Long, byte[]> fragments = productJsonFragmentCache.putAll(List.of(phone, cable));
+        ResponseStatusVo status = new ResponseStatusVo("SUCCESS", "200 OK");
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        // Act
+        new ProductFragmentsHttpMessageConverter(objectMapper).write(
+                new ProductFragmentsResponseDto(List.of(fragments.get(42L), fragments.get(7L)), status), null, outputMessage);
+
+        // Assert
+        String expected = objectMapper.writeValueAsString(new ProductsByIdResponseDto(
+                List.of(productMapper.toDTO(phone), productMapper.toDTO(cable)), status));
+        assertEquals(expected, outputMessage.getBodyAsString());
+        assertEquals(outputMessage.getBodyAsBytes().length, outputMessage.getHeaders().getContentLength());
+    }
+
+    @Test
+    void writeFragments_shouldWriteAnEmptyList() throws IOException {
+        // Arrange
+        ResponseStatusVo status = new ResponseStatusVo("Products not found for the following IDs: 1", "206 PARTIAL_CONTENT");
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        // Act
+        new ProductFragmentsHttpMessageConverter(objectMapper).write(new ProductFragmentsResponseDto(List.of(), status), null, outputMessage);
+
+        // Assert
+        assertEquals(objectMapper.writeValueAsString(new ProductsByIdResponseDto(List.of(), status)), outputMessage.getBodyAsString());
+    }
+
+    @Test
+    void getAll_shouldReturnCachedFragmentsWithVersionsUntilTheProductChanges() throws IOException {
+        // Arrange
+        Product phone = new Product(42L, "Phone", "Smart phone", new BigDecimal("199.99"), 5, CREATED, CREATED);
+        productJsonFragmentCache.putAll(List.of(phone));
+
+        // Act
+        Map<Long, byte[]> cached = productJsonFragmentCache.getAll(List.of(42L, 7L));
+        productJsonFragmentCache.onProductChange(ProductChangeEvent.updated(phone));
+
+        // Assert
+        assertTrue(productJsonFragmentCache.getAll(List.of(42L)).isEmpty());
+        assertEquals(1, cached.size());
+        assertEquals(ProductETags.version(phone), ProductJsonFragmentCache.version(cached.get(42L)));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.fastProductApi.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductStagesTest {
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void closeContext() {
+        ProductStages.close();
+    }
+
+    @Test
+    void begin_shouldReturnNullWhileNoRecordingIsRunning() {
+        // Arrange
+        ProductStages.open("req-1");
+
+        // Act
+        ProductStageEvent event = ProductStages.begin(ProductStages.Stage.DATABASE, "findById");
+        Callable<String> task = () -> "done";
+
+        // Assert
+        assertNull(event);
+        assertNotSame(task, ProductStages.queued("getProductById", task), "the context still has to reach the worker");
+        ProductStages.close();
+        assertSame(task, ProductStages.queued("getProductById", task));
+    }
+
+    @Test
+    void queuedTask_shouldCarryRequestIdAndBatchSizeToTheWorker() throws Exception {
+        // Arrange
+        Path file = directory.resolve("stages.jfr");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Recording recording = new Recording()) {
+            recording.enable(ProductStageEvent.class);
+            recording.start();
+            ProductStages.open("req-2");
+            ProductStages.setBatchSize(50);
+
+            // Act
+            executor.submit(ProductStages.queued("getProductById", () -> {
+                ProductStages.end(ProductStages.begin(ProductStages.Stage.DATABASE, "findById"));
+                return null;
+            })).get();
+            recording.stop();
+            recording.dump(file);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(List.of("QUEUE", "DATABASE"), events.stream().map(event -> event.getString("stage")).toList());
+        for (RecordedEvent event : events) {
+            assertEquals("req-2", event.getString("requestId"));
+            assertEquals(50, event.getInt("batchSize"));
+        }
+        assertEquals("findById", events.get(1).getString("operation"));
+    }
+
+    @Test
+    void close_shouldEndTheSerializationEvent() throws IOException {
+        // Arrange
+        Path file = directory.resolve("serialization.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ProductStageEvent.class);
+            recording.start();
+            ProductStages.open("req-3");
+
+            // Act
+            ProductStages.beginSerialization("MappingJackson2HttpMessageConverter application/json");
+            ProductStages.close();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Assert
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(1, events.size());
+        assertEquals("SERIALIZATION", events.get(0).getString("stage"));
+        assertEquals("req-3", events.get(0).getString("requestId"));
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.fastProductApi.job;
+
+import com.example.fastProductApi.cache.ProductCacheOperations;
+import com.example.fastProductApi.dto.ProductJobRequestDto;
+import com.example.fastProductApi.dto.ProductJobResponseDto;
+import com.example.fastProductApi.dto.ProductRequestDto;
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.MySQLDialect;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// a long lease, so that only the tests decide which job runs when
+@SpringBootTest(properties = {
+        "product.jobs.enabled=true",
+        "product.jobs.chunk-size=2",
+        "product.jobs.lease=1h"
+})
+@ActiveProfiles("test")
+class ProductJobServiceTest {
+
+    @Autowired
+    private ProductJobService productJobService;
+
+    @Autowired
+    private ProductJobRepository productJobRepository;
+
+    @Autowired
+    private ProductJobChunkRepository productJobChunkRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void cleanUp() {
+        productJobChunkRepository.deleteAll();
+        productJobRepository.deleteAll();
+        productRepository.deleteAll();
+        cacheManager.getCache(ProductCacheOperations.PRODUCTS_CACHE).clear();
+    }
+
+    @Test
+    void uploadJob_shouldProcessEveryChunk() throws Exception {
+        // Arrange
+        List<ProductRequestDto> products = IntStream.range(0, 5)
+                .mapToObj(i -> new ProductRequestDto(null, "Product " + i, "Description", new BigDecimal("9.99"), i))
+                .toList();
+
+        // Act
+        ProductJobResponseDto submitted = productJobService.submit(new ProductJobRequestDto("upload", products, null));
+        ProductJobResponseDto finished = awaitCompletion(submitted.getJobId());
+
+        // Assert
+        assertEquals(3, submitted.getTotalChunks());
+        assertEquals(3, finished.getCompletedChunks());
+        assertEquals(5, finished.getSucceededItems());
+        assertEquals(0, finished.getFailedItems());
+        assertTrue(finished.getFailures().isEmpty());
+        assertNotNull(finished.getFinishedAt());
+        assertEquals(5, productRepository.count());
+    }
+
+    @Test
+    void updateAndDeleteJobs_shouldCountUnknownIdsAsFailed() throws Exception {
+        // Arrange
+        Product existing = productRepository.save(new Product(null, "Old", "Description", new BigDecimal("1.00"), 1,
+                LocalDateTime.now(), LocalDateTime.now()));
+        List<ProductRequestDto> updates = List.of(
+                new ProductRequestDto(existing.getId(), "New", "Description", new BigDecimal("2.00"), 2),
+                new ProductRequestDto(existing.getId() + 1000, "Missing", "Description", new BigDecimal("2.00"), 2));
+
+        // Act
+        ProductJobResponseDto updated = awaitCompletion(productJobService.submit(
+                new ProductJobRequestDto("UPDATE", updates, null)).getJobId());
+        String nameAfterUpdate = productRepository.findById(existing.getId()).orElseThrow().getName();
+        ProductJobResponseDto deleted = awaitCompletion(productJobService.submit(
+                new ProductJobRequestDto("DELETE", null, List.of(existing.getId(), existing.getId() + 1000))).getJobId());
+
+        // Assert
+        assertEquals("New", nameAfterUpdate);
+        assertEquals(1, updated.getSucceededItems());
+        assertEquals(1, updated.getFailedItems());
+        assertEquals(1, updated.getFailures().size());
+        assertTrue(updated.getFailures().get(0).error().contains(String.valueOf(existing.getId() + 1000)));
+        assertEquals(1, deleted.getSucceededItems());
+        assertEquals(1, deleted.getFailedItems());
+        assertFalse(productRepository.existsById(existing.getId()));
+    }
+
+    @Test
+    void staleRunningJob_shouldResumeAfterLastCheckpoint() throws Exception {
+        // Arrange: a node claimed the job two hours ago and died after committing its first chunk
+        LocalDateTime longAgo = LocalDateTime.now().minusHours(2);
+        List<List<ProductRequestDto>> chunks = List.of(
+                List.of(new ProductRequestDto(null, "First", "Description", new BigDecimal("1.00"), 1)),
+                List.of(new ProductRequestDto(null, "Second", "Description", new BigDecimal("1.00"), 1)));
+        Long jobId = transactionTemplate.execute(status -> {
+            ProductJob job = productJobRepository.save(new ProductJob(ProductJob.Operation.UPLOAD, 2, 2, longAgo));
+            for (int i = 0; i < chunks.size(); i++) {
+                ProductJobChunk chunk = new ProductJobChunk(job.getId(), i, toJson(chunks.get(i)), 1);
+                if (i == 0) {
+                    chunk.setStatus(ProductJobChunk.Status.DONE);
+                    chunk.setSucceededItems(1);
+                }
+                productJobChunkRepository.save(chunk);
+            }
+            productJobRepository.claim(job.getId(), "dead-node", longAgo, longAgo, ProductJob.Status.QUEUED, ProductJob.Status.RUNNING);
+            productJobRepository.checkpoint(job.getId(), "dead-node", 1, 0, longAgo);
+            return job.getId();
+        });
+
+        // Act
+        productJobService.runJob(jobId);
+
+        // Assert
+        ProductJobResponseDto resumed = productJobService.getJob(jobId).orElseThrow();
+        assertEquals("COMPLETED", resumed.getStatus());
+        assertEquals(2, resumed.getCompletedChunks());
+        assertEquals(2, resumed.getSucceededItems());
+        assertEquals(List.of("Second"), productRepository.findAll().stream().map(Product::getName).toList());
+    }
+
+    @Test
+    void fullSizeChunk_shouldBeStoredWhole() {
+        // Arrange: a chunk of the default size, as submit writes it
+        List<ProductRequestDto> products = IntStream.range(0, new ProductJobProperties().getChunkSize())
+                .mapToObj(i -> new ProductRequestDto(null, "Product " + i, "Description of product " + i, new BigDecimal("9.99"), i))
+                .toList();
+        String payload = toJson(products);
+
+        // Act
+        Long chunkId = productJobChunkRepository.save(new ProductJobChunk(1L, 0, payload, products.size())).getId();
+
+        // Assert
+        assertEquals(payload, productJobChunkRepository.findById(chunkId).orElseThrow().getPayload());
+    }
+
+    @Test
+    void payloadColumn_shouldBeLongTextOnMySql() {
+        // Arrange: the dev schema is generated for MySQL, where a plain @Lob String becomes a 255 byte TINYTEXT
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DIALECT, MySQLDialect.class.getName())
+                .applySetting("hibernate.boot.allow_jdbc_metadata_access", false)
+                .build();
+        try {
+            Metadata metadata = new MetadataSources(registry).addAnnotatedClass(ProductJobChunk.class).buildMetadata();
+
+            // Act
+            String sqlType = metadata.getEntityBinding(ProductJobChunk.class.getName()).getTable()
+                    .getColumn(Identifier.toIdentifier("payload")).getSqlType(metadata);
+
+            // Assert
+            assertEquals("longtext", sqlType);
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+
+    @Test
+    void submit_shouldRejectEmptyOrUnknownOperations() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> productJobService.submit(new ProductJobRequestDto("MERGE", List.of(), null)));
+        assertThrows(IllegalArgumentException.class, () -> productJobService.submit(new ProductJobRequestDto("DELETE", null, List.of())));
+    }
+
+    private ProductJobResponseDto awaitCompletion(Long jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            ProductJobResponseDto job = productJobService.getJob(jobId).orElseThrow();
+            if ("COMPLETED".equals(job.getStatus())) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        fail("Job " + jobId + " did not complete");
+        return null;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.fastProductApi.projection;
+
+import com.example.fastProductApi.cache.ProductCacheOperations;
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.repository.ProductRepository;
+import com.example.fastProductApi.service.ProductServiceForBulkCrud;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductFieldProjectionTest {
+
+    @Autowired
+    private ProductServiceForBulkCrud productServiceForBulkCrud;
+
+    @MockitoSpyBean
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCacheOperations productCacheOperations;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final Set<ProductField> priceAndStock = EnumSet.of(ProductField.ID, ProductField.PRICE, ProductField.STOCK);
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+        cacheManager.getCache(ProductCacheOperations.PRODUCTS_CACHE).clear();
+    }
+
+    @Test
+    void getProductFieldsByIds_shouldSelectOnlyTheRequestedColumnsOnMiss() throws Exception {
+        // Arrange
+        Product saved = save("Phone");
+        clearInvocations(productRepository);
+
+        // Act
+        List<Optional<Product>> products = productServiceForBulkCrud.getProductFieldsByIds(List.of(saved.getId(), saved.getId() + 1000), priceAndStock);
+
+        // Assert
+        Product projected = products.get(0).orElseThrow();
+        assertEquals(saved.getId(), projected.getId());
+        assertEquals(0, new BigDecimal("9.99").compareTo(projected.getPrice()));
+        assertEquals(3, projected.getStock());
+        assertNotNull(projected.getLastUpdatedAt());
+        assertNull(projected.getName());
+        assertNull(projected.getDescription());
+        assertTrue(products.get(1).isEmpty());
+        // projections are never cached in place of whole products
+        assertTrue(productCacheOperations.getAll(List.of(saved.getId())).isEmpty());
+    }
+
+    @Test
+    void getProductFieldsByIds_shouldServeCachedProductsWithoutQuery() throws Exception {
+        // Arrange
+        Product saved = save("Phone");
+        productCacheOperations.putAll(List.of(saved));
+        clearInvocations(productRepository);
+
+        // Act
+        List<Optional<Product>> products = productServiceForBulkCrud.getProductFieldsByIds(List.of(saved.getId()), priceAndStock);
+
+        // Assert
+        assertEquals("Phone", products.get(0).orElseThrow().getName());
+        verify(productRepository, never()).findFieldsByIds(any(), any());
+    }
+
+    @Test
+    void parse_shouldAlwaysIncludeIdAndRejectUnknownFields() {
+        // Act & Assert
+        assertEquals(priceAndStock, ProductField.parse("Price,stock,"));
+        assertSame(ProductField.ALL, ProductField.parse(null));
+        assertSame(ProductField.ALL, ProductField.parse("id,name,description,price,stock,createdAt,lastUpdatedAt"));
+        assertEquals("id,price,stock", ProductField.key(ProductField.parse("stock,price")));
+        assertThrows(IllegalArgumentException.class, () -> ProductField.parse("price,weight"));
+    }
+
+    private Product save(String name) {
+        return productRepository.save(new Product(null, name, "A long description", new BigDecimal("9.99"), 3,
+                LocalDateTime.now(), LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.fastProductApi.protobuf;
+
+import com.example.fastProductApi.dto.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductProtobufHttpMessageConverterTest {
+
+    private final ProductProtobufCodec codec = new ProductProtobufCodec(ZoneOffset.UTC);
+    private final ProductProtobufHttpMessageConverter converter = new ProductProtobufHttpMessageConverter(codec);
+
+    @Test
+    void readProductByIdRequest_shouldDecodePackedVarints() throws IOException {
+        // field 1, length-delimited, 3 bytes: varint 1, varint 300
+        byte[] body = {0x0A, 0x03, 0x01, (byte) 0xAC, 0x02};
+
+        ProductByIdRequestDto dto = (ProductByIdRequestDto) converter.read(ProductByIdRequestDto.class, new MockHttpInputMessage(body));
+
+        assertEquals(List.of(1L, 300L), dto.ids());
+        assertArrayEquals(body, codec.encodeProductByIdRequest(dto));
+    }
+
+    @Test
+    void readUploadProductListRequest_shouldDecodeScaledPricesAndMissingIds() throws IOException {
+        UploadProductListRequestDto request = new UploadProductListRequestDto(List.of(
+                new ProductRequestDto(null, "Phone", "Smart phone", new BigDecimal("199.99"), 5),
+                new ProductRequestDto(7L, "Cable", "USB cable", new BigDecimal("3.5"), 0)));
+
+        UploadProductListRequestDto dto = (UploadProductListRequestDto) converter.read(UploadProductListRequestDto.class,
+                new MockHttpInputMessage(codec.encodeUploadProductListRequest(request)));
+
+        assertEquals(new ProductRequestDto(null, "Phone", "Smart phone", new BigDecimal("199.99"), 5), dto.getProducts().get(0));
+        assertEquals(new ProductRequestDto(7L, "Cable", "USB cable", new BigDecimal("3.50"), 0), dto.getProducts().get(1));
+    }
+
+    @Test
+    void writeProductsByIdResponse_shouldRoundTripTimestampsAndStatus() throws IOException {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 14, 10, 30, 15, 123_000_000);
+        ProductResponseDto product = new ProductResponseDto(42L, "Phone", "Smart phone", new BigDecimal("199.99"), 5, createdAt, createdAt.plusDays(1), null);
+        ProductsByIdResponseDto response = new ProductsByIdResponseDto(List.of(product), new ResponseStatusVo("SUCCESS", "200 OK"));
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        converter.write(response, ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF, outputMessage);
+
+        assertEquals(ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF, outputMessage.getHeaders().getContentType());
+        ProductsByIdResponseDto decoded = codec.decodeProductsByIdResponse(outputMessage.getBodyAsBytes());
+        assertEquals(product.toString(), decoded.getProduct().get(0).toString());
+        assertEquals(response.getResponseStatus(), decoded.getResponseStatus());
+    }
+
+    @Test
+    void writeProductListResponse_shouldKeepNullEntriesAsEmptyMessages() throws IOException {
+        ProductListResponseDto response = new ProductListResponseDto(Arrays.asList(null, new ProductResponseDto(1L, "a", "b", BigDecimal.ONE, 1, null, null, null)),
+                new ResponseStatusVo("SUCCESS", "201 CREATED"));
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        converter.write(response, ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF, outputMessage);
+
+        ProductListResponseDto decoded = codec.decodeProductListResponse(outputMessage.getBodyAsBytes());
+        assertNull(decoded.getProducts().get(0));
+        assertEquals(1L, decoded.getProducts().get(1).getId());
+        assertNull(decoded.getProducts().get(1).getCreatedAt());
+    }
+
+    @Test
+    void canRead_shouldOnlyAcceptProductDtos() {
+        assertTrue(converter.canRead(ProductByIdRequestDto.class, ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF));
+        assertFalse(converter.canRead(String.class, ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF));
+    }
+}
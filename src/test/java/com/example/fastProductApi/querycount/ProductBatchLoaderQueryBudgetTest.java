@@ -0,0 +1,78 @@
+package com.example.fastProductApi.querycount;
+
+import com.example.fastProductApi.cache.ProductCacheOperations;
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "product.batch-loader.enabled=true",
+        "product.batch-loader.max-batch-size=" + ProductBatchLoaderQueryBudgetTest.BATCH_SIZE
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(QueryCountConfig.class)
+class ProductBatchLoaderQueryBudgetTest {
+
+    static final int BATCH_SIZE = 25;
+    private static final int COUNT = 100;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+        cacheManager.getCache(ProductCacheOperations.PRODUCTS_CACHE).clear();
+    }
+
+    @Test
+    void getProductByIds_shouldLoadColdIdsWithOneQueryPerBatch() throws Exception {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = productRepository.saveAll(IntStream.range(0, COUNT)
+                        .mapToObj(i -> new Product(null, "Product " + i, "Description", new BigDecimal("9.99"), i, now, now))
+                        .collect(Collectors.toList()))
+                .stream().map(Product::getId).collect(Collectors.toList());
+        String body = ProductQueryBudgetTest.idsJson(ids);
+        queryCounter.reset();
+
+        // Act & Assert: cold
+        mockMvc.perform(post("/products/getProductByIds").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        queryCounter.assertSelectsAtMost((COUNT + BATCH_SIZE - 1) / BATCH_SIZE).assertCacheGetsAtMost(COUNT).assertCachePutsAtMost(COUNT);
+
+        // Act & Assert: warm
+        queryCounter.reset();
+        mockMvc.perform(post("/products/getProductByIds").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        queryCounter.assertSelectsAtMost(0).assertCachePutsAtMost(0);
+    }
+}
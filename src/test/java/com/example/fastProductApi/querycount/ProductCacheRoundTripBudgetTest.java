@@ -0,0 +1,190 @@
+package com.example.fastProductApi.querycount;
+
+import com.example.fastProductApi.cache.ProductCacheOperations;
+import com.example.fastProductApi.cache.ProductVersionCache;
+import com.example.fastProductApi.cache.RedisClusterStandIn;
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.fragment.ProductFragmentConfig;
+import com.example.fastProductApi.fragment.ProductJsonFragmentCache;
+import com.example.fastProductApi.mapper.ProductMapper;
+import com.example.fastProductApi.util.ProductETags;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Redis round trip budgets of the bulk paths of the caches keyed by product ID, against a standalone
+ * {@link RedisClusterStandIn}, so that a change that turns one of them into a command per ID fails the build.
+ * The {@code test} profile caches in memory, so {@link ProductQueryBudgetTest} cannot see these.
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = ProductCacheRoundTripBudgetTest.RedisCacheTestConfig.class)
+class ProductCacheRoundTripBudgetTest {
+
+    private static final int COUNT = 100;
+
+    @Autowired
+    private ProductVersionCache productVersionCache;
+
+    @Autowired
+    private ProductJsonFragmentCache productJsonFragmentCache;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private RedisClusterStandIn redis;
+
+    @Test
+    void productVersions_shouldBeRecordedWithOnePipelineAndReadWithOneMget() {
+        // Arrange
+        List<Product> products = products(COUNT);
+        List<Long> ids = products.stream().map(Product::getId).toList();
+        int sets = redis.count("SET");
+        int mgets = redis.count("MGET");
+        queryCounter.reset();
+
+        // Act & Assert: record
+        productVersionCache.recordAll(products);
+        queryCounter.assertRedisRoundTripsAtMost(1);
+
+        // Act & Assert: look up
+        queryCounter.reset();
+        Map<Long, Long> versions = productVersionCache.getVersions(ids);
+        queryCounter.assertRedisRoundTripsAtMost(1);
+        assertEquals(COUNT, versions.size());
+        assertEquals(ProductETags.version(products.get(41)), versions.get(42L));
+        assertEquals(sets + COUNT, redis.count("SET"));
+        assertEquals(mgets + 1, redis.count("MGET"));
+        assertEquals(0, redis.count("GET"));
+    }
+
+    @Test
+    void productFragments_shouldBeWrittenWithOnePipelineAndReadWithOneMget() throws IOException {
+        // Arrange
+        List<Product> products = products(COUNT);
+        List<Long> ids = products.stream().map(Product::getId).toList();
+        int sets = redis.count("SET");
+        int mgets = redis.count("MGET");
+        queryCounter.reset();
+
+        // Act & Assert: write
+        Map<Long, byte[]> written = productJsonFragmentCache.putAll(products);
+        queryCounter.assertRedisRoundTripsAtMost(1);
+
+        // Act & Assert: read
+        queryCounter.reset();
+        Map<Long, byte[]> fragments = productJsonFragmentCache.getAll(ids);
+        queryCounter.assertRedisRoundTripsAtMost(1);
+        assertEquals(COUNT, fragments.size());
+        assertArrayEquals(written.get(42L), fragments.get(42L));
+        assertEquals(sets + COUNT, redis.count("SET"));
+        assertEquals(mgets + 1, redis.count("MGET"));
+        assertEquals(0, redis.count("GET"));
+    }
+
+    private static List<Product> products(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> new Product(id, "Product " + id, "Description", new BigDecimal("9.99"), 1, now, now.plusSeconds(id)))
+                .toList();
+    }
+
+    @Configuration
+    static class RedisCacheTestConfig {
+
+        @Bean(destroyMethod = "close")
+        public RedisClusterStandIn redis() throws IOException {
+            return RedisClusterStandIn.standalone();
+        }
+
+        @Bean
+        public QueryCounter queryCounter() {
+            return new QueryCounter();
+        }
+
+        @Bean
+        public LettuceConnectionFactory lettuceConnectionFactory(RedisClusterStandIn redis) {
+            String[] address = redis.nodeAddresses().get(0).split(":");
+            return new LettuceConnectionFactory(new RedisStandaloneConfiguration(address[0], Integer.parseInt(address[1])),
+                    LettuceClientConfiguration.builder()
+                            .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                            .commandTimeout(Duration.ofSeconds(5))
+                            .build());
+        }
+
+        // the cache manager and the multi-key paths share the counting factory, so a fallback to Cache calls counts as well
+        @Bean
+        @Primary
+        public RedisConnectionFactory redisConnectionFactory(LettuceConnectionFactory lettuceConnectionFactory, QueryCounter queryCounter) {
+            return QueryCountConfig.countingConnectionFactory(lettuceConnectionFactory, queryCounter);
+        }
+
+        @Bean
+        public RedisCacheConfiguration redisCacheConfiguration() {
+            return RedisCacheConfiguration.defaultCacheConfig()
+                    .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new JdkSerializationRedisSerializer()));
+        }
+
+        @Bean
+        public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory, RedisCacheConfiguration redisCacheConfiguration) {
+            return RedisCacheManager.builder(redisConnectionFactory).cacheDefaults(redisCacheConfiguration)
+                    .withCacheConfiguration(ProductJsonFragmentCache.PRODUCT_FRAGMENTS_CACHE,
+                            ProductFragmentConfig.fragmentsCacheConfiguration(redisCacheConfiguration))
+                    .build();
+        }
+
+        @Bean
+        public ProductCacheOperations productCacheOperations() {
+            return new ProductCacheOperations();
+        }
+
+        @Bean
+        public ProductVersionCache productVersionCache() {
+            return new ProductVersionCache();
+        }
+
+        @Bean
+        public ProductJsonFragmentCache productJsonFragmentCache() {
+            return new ProductJsonFragmentCache();
+        }
+
+        @Bean
+        public ObjectMapper objectMapper() {
+            return Jackson2ObjectMapperBuilder.json().build();
+        }
+
+        @Bean
+        public ProductMapper productMapper() {
+            return new ProductMapper();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.fastProductApi.querycount;
+
+import com.example.fastProductApi.cache.ProductCacheOperations;
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement and cache command budgets of the bulk endpoints, so that a change that turns one of them into N+1
+ * queries fails the build. Budgets are per request with the default settings; the per-ID paths are allowed one
+ * query per ID, the batched ones a fixed number. Writes also touch the {@code productVersions} cache once per product.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(QueryCountConfig.class)
+class ProductQueryBudgetTest {
+
+    private static final int COUNT = 100;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+        cacheManager.getCache(ProductCacheOperations.PRODUCTS_CACHE).clear();
+    }
+
+    @Test
+    void getProductByIds_shouldQueryEachColdIdOnceAndNothingWhenWarm() throws Exception {
+        // Arrange
+        String body = idsJson(save(COUNT));
+        queryCounter.reset();
+
+        // Act & Assert: cold
+        mockMvc.perform(post("/products/getProductByIds").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        queryCounter.assertSelectsAtMost(COUNT).assertCacheGetsAtMost(COUNT).assertCachePutsAtMost(COUNT);
+
+        // Act & Assert: warm
+        queryCounter.reset();
+        mockMvc.perform(post("/products/getProductByIds").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        queryCounter.assertSelectsAtMost(0).assertCacheGetsAtMost(COUNT).assertCachePutsAtMost(0);
+    }
+
+    @Test
+    void getProductByIds_withFields_shouldLoadTheMissesWithOneQuery() throws Exception {
+        // Arrange
+        String body = idsJson(save(COUNT));
+        queryCounter.reset();
+
+        // Act
+        mockMvc.perform(post("/products/getProductByIds").param("fields", "price,stock")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+
+        // Assert
+        queryCounter.assertSelectsAtMost(1).assertCacheGetsAtMost(COUNT).assertCachePutsAtMost(0);
+    }
+
+    @Test
+    void uploadProducts_shouldInsertEachProductOnceWithoutReading() throws Exception {
+        // Arrange
+        String body = IntStream.range(0, COUNT)
+                .mapToObj(i -> "{\"name\":\"Product " + i + "\",\"description\":\"d\",\"price\":1.50,\"stock\":3}")
+                .collect(Collectors.joining(",", "{\"products\":[", "]}"));
+        queryCounter.reset();
+
+        // Act
+        mockMvc.perform(post("/products/uploadProducts").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+
+        // Assert
+        // one products and one productVersions entry per product
+        queryCounter.assertInsertsAtMost(COUNT).assertSelectsAtMost(0).assertUpdatesAtMost(0).assertCachePutsAtMost(2 * COUNT);
+    }
+
+    @Test
+    void patchProducts_shouldSendOneUpdateBatchAndOneReadBack() throws Exception {
+        // Arrange
+        String body = save(COUNT).stream()
+                .map(id -> "{\"id\":" + id + ",\"price\":2.25}")
+                .collect(Collectors.joining(",", "{\"products\":[", "]}"));
+        queryCounter.reset();
+
+        // Act
+        mockMvc.perform(patch("/products").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+
+        // Assert
+        queryCounter.assertUpdatesAtMost(1).assertSelectsAtMost(1).assertCachePutsAtMost(2 * COUNT);
+    }
+
+    @Test
+    void deleteProductsByIds_shouldReadTombstoneAndDeleteEachIdOnce() throws Exception {
+        // Arrange
+        String body = idsJson(save(COUNT));
+        queryCounter.reset();
+
+        // Act
+        mockMvc.perform(delete("/products/deleteProductsByIds").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+
+        // Assert: per ID, one delete of a tombstone left from an earlier delete of the ID, and one of the product
+        queryCounter.assertSelectsAtMost(COUNT).assertInsertsAtMost(COUNT).assertDeletesAtMost(2 * COUNT)
+                .assertCacheEvictionsAtMost(2 * COUNT);
+    }
+
+    private List<Long> save(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        return productRepository.saveAll(IntStream.range(0, count)
+                        .mapToObj(i -> new Product(null, "Product " + i, "Description", new BigDecimal("9.99"), i, now, now))
+                        .collect(Collectors.toList()))
+                .stream().map(Product::getId).collect(Collectors.toList());
+    }
+
+    static String idsJson(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(",", "{\"ids\":[", "]}"));
+    }
+}
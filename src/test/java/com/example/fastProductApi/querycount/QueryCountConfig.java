@@ -0,0 +1,231 @@
+package com.example.fastProductApi.querycount;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+
+/**
+ * Counts what a test runs against the database and the caches: wraps the {@code dataSource} so each executed
+ * statement is recorded, and every {@link CacheManager} so each cache get, put and eviction is. Import it into a
+ * {@code @SpringBootTest} and reset the {@link QueryCounter} before the call to measure. Redis round trips are
+ * counted through {@link #countingConnectionFactory}.
+ */
+@TestConfiguration
+public class QueryCountConfig {
+
+    @Bean
+    public QueryCounter queryCounter() {
+        return new QueryCounter();
+    }
+
+    /**
+     * Wrap a Redis connection factory so that each round trip is recorded: a command outside a pipeline, or a
+     * whole pipeline. Not applied to the application's factory, as the {@code test} profile has no Redis.
+     */
+    public static RedisConnectionFactory countingConnectionFactory(RedisConnectionFactory connectionFactory, QueryCounter queryCounter) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result = invoke(method, connectionFactory, args);
+            return result instanceof RedisConnection connection ? countingConnection(connection, queryCounter) : result;
+        };
+        return (RedisConnectionFactory) Proxy.newProxyInstance(QueryCountConfig.class.getClassLoader(),
+                new Class<?>[]{RedisConnectionFactory.class}, handler);
+    }
+
+    // commands are called on the connection itself or on its stringCommands(), keyCommands(), ... views
+    private static RedisConnection countingConnection(RedisConnection connection, QueryCounter queryCounter) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result = invoke(method, connection, args);
+            Class<?> type = method.getReturnType();
+            if (type.isInterface() && type.getSimpleName().endsWith("Commands") && result != null) {
+                return Proxy.newProxyInstance(QueryCountConfig.class.getClassLoader(), new Class<?>[]{type},
+                        (commandsProxy, command, commandArgs) -> {
+                            Object commandResult = invoke(command, result, commandArgs);
+                            if (!connection.isPipelined()) {
+                                queryCounter.recordRedisRoundTrip();
+                            }
+                            return commandResult;
+                        });
+            }
+            if (method.getName().equals("closePipeline")
+                    || !connection.isPipelined() && method.getDeclaringClass().getSimpleName().endsWith("Commands")) {
+                queryCounter.recordRedisRoundTrip();
+            }
+            return result;
+        };
+        return (RedisConnection) Proxy.newProxyInstance(QueryCountConfig.class.getClassLoader(),
+                new Class<?>[]{RedisConnection.class}, handler);
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Bean
+    public static BeanPostProcessor queryCountingPostProcessor(ObjectProvider<QueryCounter> queryCounter) {
+        return new CountingPostProcessor(queryCounter);
+    }
+
+    private record CountingPostProcessor(ObjectProvider<QueryCounter> queryCounter) implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            // only the data source the application uses, not the pools behind a routing one, which would count twice
+            if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                return new CountingDataSource(dataSource, queryCounter);
+            }
+            if (bean instanceof CacheManager cacheManager) {
+                return new CacheManager() {
+                    @Override
+                    public Cache getCache(String name) {
+                        Cache cache = cacheManager.getCache(name);
+                        return cache == null ? null : new CountingCache(cache, queryCounter.getObject());
+                    }
+
+                    @Override
+                    public Collection<String> getCacheNames() {
+                        return cacheManager.getCacheNames();
+                    }
+                };
+            }
+            return bean;
+        }
+
+        // outermost, around the wrappers the application adds itself
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+
+    private static final class CountingDataSource extends DelegatingDataSource {
+        private final ObjectProvider<QueryCounter> queryCounter;
+
+        CountingDataSource(DataSource dataSource, ObjectProvider<QueryCounter> queryCounter) {
+            super(dataSource);
+            this.queryCounter = queryCounter;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return proxy(Connection.class, super.getConnection(), null);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return proxy(Connection.class, super.getConnection(username, password), null);
+        }
+
+        // statements remember the SQL they were prepared with; Statement.execute(sql) passes it instead
+        @SuppressWarnings("unchecked")
+        private <T> T proxy(Class<T> type, T target, String preparedSql) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                if (method.getName().startsWith("execute")) {
+                    queryCounter.getObject().recordStatement(args != null && args.length > 0 && args[0] instanceof String sql ? sql : preparedSql);
+                }
+                Object result = invoke(method, target, args);
+                if (result instanceof CallableStatement statement) {
+                    return proxy(CallableStatement.class, statement, (String) args[0]);
+                }
+                if (result instanceof PreparedStatement statement) {
+                    return proxy(PreparedStatement.class, statement, (String) args[0]);
+                }
+                if (result instanceof Statement statement && type == Connection.class) {
+                    return proxy(Statement.class, statement, null);
+                }
+                return result;
+            };
+            return (T) Proxy.newProxyInstance(QueryCountConfig.class.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+    }
+
+    private record CountingCache(Cache cache, QueryCounter queryCounter) implements Cache {
+
+        @Override
+        public String getName() {
+            return cache.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return cache.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            queryCounter.recordCacheGet();
+            return cache.get(key);
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            queryCounter.recordCacheGet();
+            return cache.get(key, type);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            queryCounter.recordCacheGet();
+            return cache.get(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            queryCounter.recordCachePut();
+            cache.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            queryCounter.recordCachePut();
+            return cache.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            queryCounter.recordCacheEviction();
+            cache.evict(key);
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            queryCounter.recordCacheEviction();
+            return cache.evictIfPresent(key);
+        }
+
+        @Override
+        public void clear() {
+            queryCounter.recordCacheEviction();
+            cache.clear();
+        }
+
+        @Override
+        public boolean invalidate() {
+            queryCounter.recordCacheEviction();
+            return cache.invalidate();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.fastProductApi.querycount;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SQL statements and cache commands executed since the last {@link #reset()}, on any thread, so the fan-out of
+ * bulk requests on the executors is counted as well. A JDBC batch counts as one statement, as it is one round trip,
+ * and so does a Redis pipeline.
+ */
+public class QueryCounter {
+
+    private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger cacheGets = new AtomicInteger();
+    private final AtomicInteger cachePuts = new AtomicInteger();
+    private final AtomicInteger cacheEvictions = new AtomicInteger();
+    private final AtomicInteger redisRoundTrips = new AtomicInteger();
+
+    public void reset() {
+        statements.clear();
+        cacheGets.set(0);
+        cachePuts.set(0);
+        cacheEvictions.set(0);
+        redisRoundTrips.set(0);
+    }
+
+    void recordStatement(String sql) {
+        statements.add(sql == null ? "" : sql.strip());
+    }
+
+    void recordCacheGet() {
+        cacheGets.incrementAndGet();
+    }
+
+    void recordCachePut() {
+        cachePuts.incrementAndGet();
+    }
+
+    void recordCacheEviction() {
+        cacheEvictions.incrementAndGet();
+    }
+
+    void recordRedisRoundTrip() {
+        redisRoundTrips.incrementAndGet();
+    }
+
+    /**
+     * @param kind First keyword of the statements to count, e.g. {@code select}.
+     */
+    public int count(String kind) {
+        synchronized (statements) {
+            return (int) statements.stream().filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith(kind)).count();
+        }
+    }
+
+    public List<String> getStatements() {
+        synchronized (statements) {
+            return List.copyOf(statements);
+        }
+    }
+
+    public int getCacheGets() {
+        return cacheGets.get();
+    }
+
+    public int getCachePuts() {
+        return cachePuts.get();
+    }
+
+    public int getCacheEvictions() {
+        return cacheEvictions.get();
+    }
+
+    public int getRedisRoundTrips() {
+        return redisRoundTrips.get();
+    }
+
+    public QueryCounter assertSelectsAtMost(int budget) {
+        return assertStatementsAtMost("select", budget);
+    }
+
+    public QueryCounter assertInsertsAtMost(int budget) {
+        return assertStatementsAtMost("insert", budget);
+    }
+
+    public QueryCounter assertUpdatesAtMost(int budget) {
+        return assertStatementsAtMost("update", budget);
+    }
+
+    public QueryCounter assertDeletesAtMost(int budget) {
+        return assertStatementsAtMost("delete", budget);
+    }
+
+    public QueryCounter assertCacheGetsAtMost(int budget) {
+        assertTrue(getCacheGets() <= budget, "Expected at most " + budget + " cache gets, got " + getCacheGets());
+        return this;
+    }
+
+    public QueryCounter assertCachePutsAtMost(int budget) {
+        assertTrue(getCachePuts() <= budget, "Expected at most " + budget + " cache puts, got " + getCachePuts());
+        return this;
+    }
+
+    public QueryCounter assertCacheEvictionsAtMost(int budget) {
+        assertTrue(getCacheEvictions() <= budget, "Expected at most " + budget + " cache evictions, got " + getCacheEvictions());
+        return this;
+    }
+
+    public QueryCounter assertRedisRoundTripsAtMost(int budget) {
+        assertTrue(getRedisRoundTrips() <= budget, "Expected at most " + budget + " Redis round trips, got " + getRedisRoundTrips());
+        return this;
+    }
+
+    // the message lists the statements, so a regression shows which query multiplied
+    private QueryCounter assertStatementsAtMost(String kind, int budget) {
+        int count = count(kind);
+        assertTrue(count <= budget, () -> "Expected at most " + budget + " " + kind + " statements, got " + count + ":\n"
+                + String.join("\n", getStatements()));
+        return this;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.fastProductApi.retry;
+
+import com.example.fastProductApi.exception.CustomException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductRetrySchedulerTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ProductRetryScheduler scheduler = new ProductRetryScheduler(properties());
+
+    @AfterEach
+    void shutDown() {
+        scheduler.destroy();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void submit_shouldFreeTheWorkerWhileAFailedTaskWaitsForItsRetry() throws Exception {
+        // Arrange: one worker, held until both tasks are queued; the first task fails once
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        List<String> runs = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger attempts = new AtomicInteger();
+        ProductRetryScheduler.Budget budget = scheduler.budgetFor(2);
+
+        // Act
+        Future<String> flaky = scheduler.submit(executor, budget, () -> {
+            runs.add("flaky-" + attempts.incrementAndGet());
+            if (attempts.get() == 1) {
+                throw new CustomException(new IllegalStateException("Redis timed out"));
+            }
+            return "loaded";
+        });
+        Future<String> other = scheduler.submit(executor, budget, () -> {
+            runs.add("other");
+            return "other";
+        });
+        release.countDown();
+
+        // Assert
+        assertEquals("loaded", flaky.get(2, TimeUnit.SECONDS));
+        assertEquals("other", other.get(2, TimeUnit.SECONDS));
+        assertEquals(List.of("flaky-1", "other", "flaky-2"), runs, "the retry queues again instead of sleeping on the worker");
+    }
+
+    @Test
+    void submit_shouldStopRetryingWhenTheRequestsBudgetIsSpent() {
+        // Arrange: min-budget 1 and ratio 0 leave one retry for the whole request
+        AtomicInteger attempts = new AtomicInteger();
+        ProductRetryScheduler.Budget budget = scheduler.budgetFor(3);
+        List<Future<Object>> futures = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            futures.add(scheduler.submit(executor, budget, () -> {
+                attempts.incrementAndGet();
+                assertFalse(ProductRetryScheduler.isRetryingInPlace());
+                throw new CustomException(new IllegalStateException("database unavailable"));
+            }));
+        }
+
+        // Assert
+        for (Future<Object> future : futures) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+            assertInstanceOf(CustomException.class, failure.getCause());
+        }
+        assertEquals(4, attempts.get());
+        assertEquals(0, budget.getRemaining());
+        assertTrue(ProductRetryScheduler.isRetryingInPlace());
+    }
+
+    @Test
+    void submit_shouldNotRetryFailuresThatAreNotTransient() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        Future<Object> future = scheduler.submit(executor, scheduler.budgetFor(1), () -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("bad id");
+        });
+
+        // Assert
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void submit_shouldBackOffInsteadOfRunningTheRetryOnTheTimerWhenTheQueueIsFull() throws Exception {
+        // Arrange: one worker held by a blocker, a queue of one filled, and run-in-caller like the bulkheads
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch rejections = new CountDownLatch(2);
+        ThreadPoolExecutor saturated = saturatedExecutor(release, rejections);
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+
+        // Act: the first attempt runs in this thread and fails; its retry finds the queue still full
+        Future<String> flaky = scheduler.submit(saturated, scheduler.budgetFor(1), () -> {
+            threads.add(Thread.currentThread().getName());
+            if (threads.size() == 1) {
+                throw new CustomException(new IllegalStateException("Redis timed out"));
+            }
+            return "loaded";
+        });
+        assertTrue(rejections.await(2, TimeUnit.SECONDS), "the timer found the queue full");
+        release.countDown();
+
+        // Assert
+        try {
+            assertEquals("loaded", flaky.get(2, TimeUnit.SECONDS));
+            assertEquals(2, threads.size());
+            assertTrue(threads.get(1).startsWith("pool-"), "the retry ran on a worker, not on " + threads.get(1));
+        } finally {
+            saturated.shutdownNow();
+        }
+    }
+
+    @Test
+    void submit_shouldFailWithTheLastFailureWhenTheQueueStaysFull() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        ThreadPoolExecutor saturated = saturatedExecutor(release, new CountDownLatch(0));
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        Future<Object> future = scheduler.submit(saturated, scheduler.budgetFor(1), () -> {
+            attempts.incrementAndGet();
+            throw new CustomException(new IllegalStateException("database unavailable"));
+        });
+
+        // Assert: deferred max-attempts times, then given up without another attempt
+        try {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+            assertInstanceOf(CustomException.class, failure.getCause());
+            assertEquals(1, attempts.get());
+        } finally {
+            release.countDown();
+            saturated.shutdownNow();
+        }
+    }
+
+    private static ThreadPoolExecutor saturatedExecutor(CountDownLatch release, CountDownLatch rejections) throws InterruptedException {
+        ThreadPoolExecutor saturated = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                (task, executor) -> {
+                    rejections.countDown();
+                    task.run();
+                });
+        CountDownLatch started = new CountDownLatch(1);
+        saturated.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        started.await();
+        saturated.execute(() -> { });
+        return saturated;
+    }
+
+    private static ProductRetryProperties properties() {
+        ProductRetryProperties properties = new ProductRetryProperties();
+        properties.setInitialDelay(Duration.ofMillis(20));
+        properties.setMaxDelay(Duration.ofMillis(50));
+        properties.setBudgetRatio(0);
+        properties.setMinBudget(1);
+        return properties;
+    }
+}
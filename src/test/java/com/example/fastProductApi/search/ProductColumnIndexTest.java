@@ -0,0 +1,124 @@
+package com.example.fastProductApi.search;
+
+import com.example.fastProductApi.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductColumnIndexTest {
+
+    private ProductColumnIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductColumnIndex();
+        index.load(new ProductColumnIndex.Builder()
+                .add(product(1L, "19.99", 5))
+                .add(product(2L, "5.00", 0))
+                .add(product(3L, "12.50", 2))
+                .add(product(4L, "12.50", 7))
+                .add(product(5L, "99.00", 1)));
+    }
+
+    @Test
+    void query_filtersPriceRangeAndStockSortedByPrice() {
+        // Act
+        ProductSearchIndex.SearchResult result = index.query(new BigDecimal("5"), new BigDecimal("20"), 1, false, 0, 10);
+
+        // Assert
+        assertEquals(List.of(3L, 4L, 1L), result.ids());
+        assertEquals(3, result.total());
+    }
+
+    @Test
+    void query_descendingWithPagination() {
+        // Act
+        ProductSearchIndex.SearchResult result = index.query(null, null, 0, true, 1, 2);
+
+        // Assert
+        assertEquals(List.of(1L, 4L), result.ids());
+        assertEquals(5, result.total());
+    }
+
+    @Test
+    void upsert_mergesPendingChangesIntoResults() {
+        // Act
+        index.upsert(product(2L, "15.00", 3));
+        index.upsert(product(6L, "12.50", 1));
+        index.upsert(product(1L, "19.99", 0));
+        index.remove(5L);
+
+        // Assert
+        assertEquals(List.of(3L, 4L, 6L, 2L), index.query(null, null, 1, false, 0, 10).ids());
+        assertEquals(List.of(2L, 6L, 4L, 3L), index.query(null, null, 1, true, 0, 10).ids());
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void load_keepsChangesMadeWhileLoading() {
+        // Arrange
+        ProductColumnIndex loading = new ProductColumnIndex();
+        loading.upsert(product(1L, "30.00", 4));
+        loading.remove(2L);
+
+        // Act
+        loading.load(new ProductColumnIndex.Builder().add(product(1L, "10.00", 4)).add(product(2L, "20.00", 4)));
+
+        // Assert
+        assertEquals(List.of(1L), loading.query(null, null, 0, false, 0, 10).ids());
+        assertEquals(List.of(1L), loading.query(new BigDecimal("30"), null, 0, false, 0, 10).ids());
+    }
+
+    @Test
+    void query_matchesBruteForceAcrossCompactions() {
+        // Arrange
+        Random random = new Random(42);
+        Map<Long, Product> expected = new HashMap<>();
+        ProductColumnIndex.Builder builder = new ProductColumnIndex.Builder();
+        for (long id = 1; id <= 3000; id++) {
+            Product product = product(id, String.valueOf(random.nextInt(10000) / 100.0), random.nextInt(5));
+            expected.put(id, product);
+            builder.add(product);
+        }
+        ProductColumnIndex randomIndex = new ProductColumnIndex();
+        randomIndex.load(builder);
+
+        for (int i = 0; i < 5000; i++) {
+            long id = 1 + random.nextInt(4000);
+            if (random.nextInt(5) == 0) {
+                randomIndex.remove(id);
+                expected.remove(id);
+            } else {
+                Product product = product(id, String.valueOf(random.nextInt(10000) / 100.0), random.nextInt(5));
+                randomIndex.upsert(product);
+                expected.put(id, product);
+            }
+        }
+
+        // Act
+        ProductSearchIndex.SearchResult result = randomIndex.query(new BigDecimal("10"), new BigDecimal("60"), 1, true, 0, Integer.MAX_VALUE);
+
+        // Assert
+        List<Long> expectedIds = new ArrayList<>(expected.values().stream()
+                .filter(p -> p.getStock() >= 1)
+                .filter(p -> p.getPrice().compareTo(new BigDecimal("10")) >= 0 && p.getPrice().compareTo(new BigDecimal("60")) <= 0)
+                .sorted(Comparator.comparing(Product::getPrice).thenComparing(Product::getId).reversed())
+                .map(Product::getId)
+                .toList());
+        assertEquals(expectedIds, result.ids());
+        assertEquals(expected.size(), randomIndex.size());
+    }
+
+    private static Product product(Long id, String price, int stock) {
+        return new Product(id, "name", "description", new BigDecimal(price), stock, null, null);
+    }
+}
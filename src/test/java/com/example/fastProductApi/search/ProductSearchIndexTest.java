@@ -0,0 +1,99 @@
+package com.example.fastProductApi.search;
+
+import com.example.fastProductApi.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.index(product(1L, "Wireless Mouse", "Ergonomic mouse with USB receiver", NOW));
+        index.index(product(2L, "USB-C Cable", "Braided cable, 2m", NOW));
+        index.index(product(3L, "Mouse Pad", "Large pad for any mouse", NOW));
+        index.index(product(4L, "Keyboard", "Mechanical keyboard with wireless receiver", NOW));
+    }
+
+    @Test
+    void search_ranksNameMatchesAboveDescriptionMatches() {
+        // Act
+        ProductSearchIndex.SearchResult result = index.search("wireless", 0, 10);
+
+        // Assert
+        assertEquals(List.of(1L, 4L), result.ids());
+        assertEquals(2, result.total());
+    }
+
+    @Test
+    void search_isCaseInsensitiveAndSplitsOnPunctuation() {
+        // Act
+        ProductSearchIndex.SearchResult result = index.search("usb", 0, 10);
+
+        // Assert
+        assertEquals(List.of(2L, 1L), result.ids());
+    }
+
+    @Test
+    void search_paginatesRankedResults() {
+        // Act
+        ProductSearchIndex.SearchResult firstPage = index.search("mouse receiver", 0, 2);
+        ProductSearchIndex.SearchResult secondPage = index.search("mouse receiver", 2, 2);
+
+        // Assert
+        assertEquals(3, firstPage.total());
+        assertEquals(2, firstPage.ids().size());
+        assertEquals(1, secondPage.ids().size());
+        assertFalse(firstPage.ids().contains(secondPage.ids().get(0)));
+        assertEquals(1L, firstPage.ids().get(0));
+    }
+
+    @Test
+    void index_replacesTermsOfUpdatedProduct() {
+        // Act
+        index.index(product(2L, "HDMI Cable", "Braided cable, 2m", NOW.plusSeconds(1)));
+
+        // Assert
+        assertTrue(index.search("usb", 0, 10).ids().contains(1L));
+        assertFalse(index.search("usb", 0, 10).ids().contains(2L));
+        assertEquals(List.of(2L), index.search("hdmi", 0, 10).ids());
+    }
+
+    @Test
+    void index_ignoresOlderVersion() {
+        // Arrange
+        index.index(product(2L, "HDMI Cable", "Braided cable, 2m", NOW.plusSeconds(1)));
+
+        // Act
+        boolean changed = index.index(product(2L, "USB-C Cable", "Braided cable, 2m", NOW));
+
+        // Assert
+        assertFalse(changed);
+        assertEquals(List.of(2L), index.search("hdmi", 0, 10).ids());
+    }
+
+    @Test
+    void remove_dropsProductFromResults() {
+        // Act
+        index.remove(3L);
+
+        // Assert
+        assertEquals(List.of(1L), index.search("mouse", 0, 10).ids());
+        assertEquals(3, index.size());
+        assertEquals(0, index.search("pad", 0, 10).total());
+    }
+
+    private static Product product(Long id, String name, String description, LocalDateTime lastUpdatedAt) {
+        return new Product(id, name, description, BigDecimal.ONE, 1, NOW, lastUpdatedAt);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.fastProductApi.service;
+
+import com.example.fastProductApi.cache.ProductCacheOperations;
+import com.example.fastProductApi.dto.ProductPatchResponseDto;
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.exception.CustomException;
+import com.example.fastProductApi.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductPatchTest {
+
+    private static final long UNKNOWN_ID = 1_000_000L;
+
+    @Autowired
+    private ProductServiceForBulkCrud productServiceForBulkCrud;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+        cacheManager.getCache(ProductCacheOperations.PRODUCTS_CACHE).clear();
+    }
+
+    @Test
+    void patchProducts_shouldWriteOnlyTheChangedColumns() throws CustomException {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Product product = productRepository.save(new Product(null, "Lamp", "Desk lamp", new BigDecimal("25.00"), 4, createdAt, createdAt));
+        // another writer renames the product after this caller read it
+        jdbcTemplate.update("UPDATE products SET name = ? WHERE id = ?", "Renamed lamp", product.getId());
+
+        // Act
+        ProductPatchResponseDto response = productServiceForBulkCrud.patchProducts(
+                List.of(new Product(product.getId(), null, null, new BigDecimal("19.99"), null, null, null)));
+
+        // Assert
+        Product patched = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals("Renamed lamp", patched.getName(), "columns outside the patch are not rewritten");
+        assertEquals(0, new BigDecimal("19.99").compareTo(patched.getPrice()));
+        assertEquals(4, patched.getStock());
+        assertEquals(createdAt, patched.getCreatedAt());
+        assertTrue(patched.getLastUpdatedAt().isAfter(createdAt));
+
+        assertEquals(1, response.getProducts().size());
+        assertEquals("Renamed lamp", response.getProducts().get(0).getName(), "the response carries the whole product");
+        Product cached = cacheManager.getCache(ProductCacheOperations.PRODUCTS_CACHE).get(product.getId(), Product.class);
+        assertNotNull(cached);
+        assertEquals("Renamed lamp", cached.getName());
+        assertEquals(0, new BigDecimal("19.99").compareTo(cached.getPrice()));
+    }
+
+    @Test
+    void patchProducts_shouldMergePatchesOfTheSameIdAndReportUnknownIds() throws CustomException {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        Product product = productRepository.save(new Product(null, "Chair", "Office chair", new BigDecimal("80.00"), 2, now, now));
+
+        // Act
+        ProductPatchResponseDto response = productServiceForBulkCrud.patchProducts(List.of(
+                new Product(product.getId(), null, null, null, 5, null, null),
+                new Product(UNKNOWN_ID, "Ghost", null, null, null, null, null),
+                new Product(product.getId(), null, "Ergonomic chair", null, 7, null, null)));
+
+        // Assert
+        assertEquals(List.of(UNKNOWN_ID), response.getNotFoundProductIds());
+        assertEquals(1, response.getProducts().size());
+        Product patched = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals("Chair", patched.getName());
+        assertEquals("Ergonomic chair", patched.getDescription());
+        assertEquals(7, patched.getStock(), "the later patch wins");
+        assertFalse(productRepository.existsById(UNKNOWN_ID), "a patch never inserts");
+    }
+
+    @Test
+    void patchProducts_shouldRejectPatchesThatChangeNothing() {
+        // Arrange
+        List<Product> patches = List.of(new Product(1L, null, null, null, null, LocalDateTime.now(), null));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> productServiceForBulkCrud.patchProducts(patches));
+        assertThrows(IllegalArgumentException.class, () -> productServiceForBulkCrud.patchProducts(
+                List.of(new Product(null, "Name", null, null, null, null, null))));
+    }
+}
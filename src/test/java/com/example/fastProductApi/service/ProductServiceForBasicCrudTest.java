@@ -1,6 +1,7 @@
 package com.example.fastProductApi.service;
 
 import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.event.ProductChangeEvent;
 import com.example.fastProductApi.exception.CustomException;
 import com.example.fastProductApi.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,9 +10,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,6 +30,9 @@ class ProductServiceForBasicCrudTest {
     @Mock
     private Cache cache;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductServiceForBasicCrud productService;
 
@@ -56,6 +62,7 @@ class ProductServiceForBasicCrudTest {
         assertNotNull(savedProduct);
         assertEquals(product.getId(), savedProduct.getId());
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(eventPublisher).publishEvent(ProductChangeEvent.created(product));
     }
 
     @Test
@@ -104,13 +111,13 @@ class ProductServiceForBasicCrudTest {
         productService.deleteProduct(product);
 
         // Assert
-        verify(productRepository, times(1)).delete(product);
+        verify(productRepository, times(1)).deleteWithTombstones(eq(List.of(product.getId())), any(LocalDateTime.class));
     }
 
     @Test
     void deleteProduct_shouldThrowCustomExceptionWhenErrorOccurs() {
         // Arrange
-        doThrow(new RuntimeException("Database error")).when(productRepository).delete(any(Product.class));
+        doThrow(new RuntimeException("Database error")).when(productRepository).deleteWithTombstones(anyCollection(), any(LocalDateTime.class));
 
         // Act & Assert
         CustomException thrown = assertThrows(CustomException.class, () -> productService.deleteProduct(product));
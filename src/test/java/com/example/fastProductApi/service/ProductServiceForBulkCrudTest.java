@@ -1,14 +1,19 @@
 package com.example.fastProductApi.service;
 
 import static org.junit.jupiter.api.Assertions.*;
+import com.example.fastProductApi.bulkhead.ProductBulkheadProperties;
+import com.example.fastProductApi.bulkhead.ProductBulkheads;
 import com.example.fastProductApi.dto.*;
 import com.example.fastProductApi.entity.Product;
 import com.example.fastProductApi.exception.CustomException;
 import com.example.fastProductApi.mapper.ProductMapper;
+import com.example.fastProductApi.retry.ProductRetryProperties;
+import com.example.fastProductApi.retry.ProductRetryScheduler;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import java.math.BigDecimal;
 import java.util.*;
@@ -25,6 +30,12 @@ class ProductServiceForBulkCrudTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Spy
+    private ProductBulkheads productBulkheads = new ProductBulkheads(new ProductBulkheadProperties());
+
+    @Spy
+    private ProductRetryScheduler productRetryScheduler = new ProductRetryScheduler(new ProductRetryProperties());
+
     @InjectMocks
     private ProductServiceForBulkCrud productServiceForBulkCrud;
 
@@ -66,6 +77,22 @@ class ProductServiceForBulkCrudTest {
         assertTrue(result.get(1).isPresent());
     }
 
+    @Test
+    void getProductByIdsInParallel_shouldRetryATransientFailureOnTheTimer() throws CustomException {
+        // Arrange
+        Product product = new Product();
+        when(productServiceForBasicCrud.getProductById(1L))
+                .thenThrow(new CustomException(new IllegalStateException("Redis timed out")))
+                .thenReturn(Optional.of(product));
+
+        // Act
+        List<Optional<Product>> result = productServiceForBulkCrud.getProductByIdsInParallel(List.of(1L));
+
+        // Assert
+        assertEquals(List.of(Optional.of(product)), result);
+        verify(productServiceForBasicCrud, times(2)).getProductById(1L);
+    }
+
     @Test
     void testSaveOrUpdateProductInParallel() throws CustomException {
         UploadProductListRequestDto requestDto = new UploadProductListRequestDto();
@@ -0,0 +1,85 @@
+package com.example.fastProductApi.sharding;
+
+import com.example.fastProductApi.dto.ProductListResponseDto;
+import com.example.fastProductApi.dto.ProductRequestDto;
+import com.example.fastProductApi.dto.ProductResponseDto;
+import com.example.fastProductApi.dto.UploadProductListRequestDto;
+import com.example.fastProductApi.exception.CustomException;
+import com.example.fastProductApi.service.ProductServiceForBasicCrud;
+import com.example.fastProductApi.service.ProductServiceForBulkCrud;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// two embedded H2 databases; shard 0 owns ids 1 to 5, shard 1 everything from 6
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "product.sharding.enabled=true",
+        "product.sharding.strategy=RANGE",
+        "product.sharding.shards[0].url=jdbc:h2:mem:rangeShard0;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:schema.sql'",
+        "product.sharding.shards[0].username=sa",
+        "product.sharding.shards[0].range-start=1",
+        "product.sharding.shards[1].url=jdbc:h2:mem:rangeShard1;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:schema.sql'",
+        "product.sharding.shards[1].username=sa",
+        "product.sharding.shards[1].range-start=6"
+})
+@ActiveProfiles("test")
+class RangeShardedProductStoreTest {
+
+    @Autowired
+    private ProductServiceForBulkCrud productServiceForBulkCrud;
+
+    @Autowired
+    private ProductServiceForBasicCrud productServiceForBasicCrud;
+
+    @Autowired
+    private ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    private ShardingStrategy shardingStrategy;
+
+    @Test
+    void uploadProducts_shouldFailAtTheRangeBoundaryAndContinueOnShardsWithRoom() throws CustomException {
+        // Arrange: another node has taken ids 1 to 4, so the next two ids of shard 0 cross into shard 1's range
+        JdbcTemplate shard0 = new JdbcTemplate(shardRoutingDataSource.getShards().get(0));
+        for (int i = 0; i < 4; i++) {
+            shard0.update("INSERT INTO products (name, description, price, stock, created_at, last_updated_at) VALUES (?, '', 1, 1, ?, ?)",
+                    "Other node " + i, LocalDateTime.now(), LocalDateTime.now());
+        }
+
+        // Act
+        assertThrows(CustomException.class, () -> upload(3));
+        List<Long> ids = upload(4);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L, 4L), shard0.queryForList("SELECT id FROM products ORDER BY id", Long.class),
+                "the insert that crossed the boundary was rolled back");
+        for (int shard = 0; shard < 2; shard++) {
+            for (Long id : new JdbcTemplate(shardRoutingDataSource.getShards().get(shard)).queryForList("SELECT id FROM products", Long.class)) {
+                assertEquals(shard, shardingStrategy.shardFor(id));
+            }
+        }
+        for (Long id : ids) {
+            assertEquals(1, shardingStrategy.shardFor(id), "shard 0 takes no more inserts");
+            assertEquals(id, productServiceForBasicCrud.getProductById(id).orElseThrow().getId());
+        }
+    }
+
+    private List<Long> upload(int count) throws CustomException {
+        List<ProductRequestDto> products = IntStream.range(0, count)
+                .mapToObj(i -> new ProductRequestDto(null, "Product " + i, "Description " + i, BigDecimal.valueOf(10 + i), i))
+                .collect(Collectors.toList());
+        ProductListResponseDto response = productServiceForBulkCrud.saveOrUpdateProductInParallel(new UploadProductListRequestDto(products), false);
+        return response.getProducts().stream().map(ProductResponseDto::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.fastProductApi.sharding;
+
+import com.example.fastProductApi.delta.ProductDeltaService;
+import com.example.fastProductApi.dto.ProductListResponseDto;
+import com.example.fastProductApi.dto.ProductRequestDto;
+import com.example.fastProductApi.dto.ProductResponseDto;
+import com.example.fastProductApi.dto.ProductsDeleteResponseDto;
+import com.example.fastProductApi.dto.UploadProductListRequestDto;
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.exception.CustomException;
+import com.example.fastProductApi.service.ProductServiceForBasicCrud;
+import com.example.fastProductApi.service.ProductServiceForBulkCrud;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// three embedded H2 databases standing in for the MySQL shards
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "product.sharding.enabled=true",
+        "product.sharding.strategy=HASH",
+        "product.sharding.shards[0].url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:schema.sql'",
+        "product.sharding.shards[0].username=sa",
+        "product.sharding.shards[1].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:schema.sql'",
+        "product.sharding.shards[1].username=sa",
+        "product.sharding.shards[2].url=jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:schema.sql'",
+        "product.sharding.shards[2].username=sa",
+        "product.delta.settle-time=0s"
+})
+@ActiveProfiles("test")
+class ShardedProductStoreTest {
+
+    @Autowired
+    private ProductServiceForBulkCrud productServiceForBulkCrud;
+
+    @Autowired
+    private ProductServiceForBasicCrud productServiceForBasicCrud;
+
+    @Autowired
+    private ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    private ShardingStrategy shardingStrategy;
+
+    @Autowired
+    private ProductDeltaService productDeltaService;
+
+    @Test
+    void uploadProducts_shouldSpreadProductsOverShardsWithShardAwareIds() throws CustomException {
+        List<Long> ids = upload(6);
+
+        for (int shard = 0; shard < 3; shard++) {
+            List<Long> shardIds = new JdbcTemplate(shardRoutingDataSource.getShards().get(shard)).queryForList("SELECT id FROM products", Long.class);
+            assertFalse(shardIds.isEmpty());
+            for (Long id : shardIds) {
+                assertEquals(shard, shardingStrategy.shardFor(id));
+            }
+        }
+        assertEquals(6, ids.stream().distinct().count());
+    }
+
+    @Test
+    void getProductByIds_shouldMergeShardResultsInRequestOrder() throws CustomException {
+        List<Long> ids = new ArrayList<>(upload(5));
+        ids.add(2, 999_999L);
+        List<Long> requestedIds = ids.stream().sorted((a, b) -> Long.compare(b, a)).collect(Collectors.toList());
+
+        List<Optional<Product>> products = productServiceForBulkCrud.getProductByIdsInParallel(requestedIds);
+
+        assertEquals(requestedIds.size(), products.size());
+        for (int i = 0; i < requestedIds.size(); i++) {
+            if (requestedIds.get(i) == 999_999L) {
+                assertTrue(products.get(i).isEmpty());
+            } else {
+                assertEquals(requestedIds.get(i), products.get(i).orElseThrow().getId());
+            }
+        }
+    }
+
+    @Test
+    void getProductById_shouldBeRoutedToOwningShard() throws CustomException {
+        for (Long id : upload(3)) {
+            assertEquals(id, productServiceForBasicCrud.getProductById(id).orElseThrow().getId());
+        }
+    }
+
+    @Test
+    void deleteProduct_shouldDeleteOnOwningShardAndLeaveTombstoneThere() throws CustomException {
+        List<Long> ids = upload(3);
+
+        for (Long id : ids) {
+            productServiceForBasicCrud.deleteProduct(productServiceForBasicCrud.getProductById(id).orElseThrow());
+        }
+
+        for (Long id : ids) {
+            JdbcTemplate shard = new JdbcTemplate(shardRoutingDataSource.getShards().get(shardingStrategy.shardFor(id)));
+            assertEquals(0, shard.queryForObject("SELECT COUNT(*) FROM products WHERE id = ?", Integer.class, id));
+            assertEquals(1, shard.queryForObject("SELECT COUNT(*) FROM product_tombstones WHERE product_id = ?", Integer.class, id));
+        }
+    }
+
+    @Test
+    void deleteByIds_shouldDeleteOnEveryShardAndReportMissingIds() throws CustomException {
+        List<Long> ids = new ArrayList<>(upload(4));
+        ids.add(999_998L);
+
+        ProductsDeleteResponseDto response = productServiceForBulkCrud.deleteByIdsInParallel(ids);
+
+        assertEquals(4, response.getDeletedProductIds().size());
+        assertTrue(response.getResponseStatus().message().contains("999998"));
+        assertTrue(productServiceForBulkCrud.getProductByIdsInParallel(ids).stream().allMatch(Optional::isEmpty));
+    }
+
+    @Test
+    void findChangesSince_shouldMergeChangesAndTombstonesOfAllShards() throws CustomException {
+        List<Long> ids = upload(6);
+        productServiceForBulkCrud.deleteByIdsInParallel(ids.subList(0, 2));
+
+        // earlier tests leave products behind, so read the whole delta
+        List<Long> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        String cursor = null;
+        ProductDeltaService.Page page;
+        do {
+            page = productDeltaService.findChangesSince(cursor, 3);
+            page.products().forEach(product -> changed.add(product.getId()));
+            deleted.addAll(page.deletedIds());
+            cursor = page.nextCursor();
+        } while (page.hasMore());
+
+        assertTrue(changed.containsAll(ids.subList(2, 6)));
+        assertTrue(deleted.containsAll(ids.subList(0, 2)));
+        assertTrue(changed.stream().noneMatch(deleted::contains));
+    }
+
+    private List<Long> upload(int count) throws CustomException {
+        List<ProductRequestDto> products = IntStream.range(0, count)
+                .mapToObj(i -> new ProductRequestDto(null, "Product " + i, "Description " + i, BigDecimal.valueOf(10 + i), i))
+                .collect(Collectors.toList());
+        ProductListResponseDto response = productServiceForBulkCrud.saveOrUpdateProductInParallel(new UploadProductListRequestDto(products), false);
+        return response.getProducts().stream().map(ProductResponseDto::getId).collect(Collectors.toList());
+    }
+}
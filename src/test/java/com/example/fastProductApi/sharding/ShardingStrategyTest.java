@@ -0,0 +1,81 @@
+package com.example.fastProductApi.sharding;
+
+import com.example.fastProductApi.entity.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardingStrategyTest {
+
+    @Test
+    void hashStrategy_shouldMapGeneratedIdsBackToTheirShard() {
+        HashShardingStrategy strategy = new HashShardingStrategy(3);
+
+        for (int shard = 0; shard < 3; shard++) {
+            long id = strategy.nextIdentityValue(shard, 0);
+            for (int i = 0; i < 5; i++, id += strategy.identityIncrement()) {
+                assertEquals(shard, strategy.shardFor(id));
+            }
+        }
+    }
+
+    @Test
+    void hashStrategy_shouldContinueAboveExistingIds() {
+        HashShardingStrategy strategy = new HashShardingStrategy(3);
+
+        long nextId = strategy.nextIdentityValue(1, 10);
+
+        assertEquals(11, nextId);
+        assertEquals(1, strategy.shardFor(nextId));
+        assertEquals(14, strategy.nextIdentityValue(1, 11));
+    }
+
+    @Test
+    void rangeStrategy_shouldMapIdsToOwningRange() {
+        RangeShardingStrategy strategy = new RangeShardingStrategy(new long[]{1, 1_000_000, 2_000_000});
+
+        assertEquals(0, strategy.shardFor(1));
+        assertEquals(0, strategy.shardFor(999_999));
+        assertEquals(1, strategy.shardFor(1_000_000));
+        assertEquals(2, strategy.shardFor(5_000_000));
+        assertEquals(1_000_000, strategy.nextIdentityValue(1, 0));
+        assertEquals(1_000_043, strategy.nextIdentityValue(1, 1_000_042));
+    }
+
+    @Test
+    void rangeStrategy_shouldEndEveryRangeBelowTheNextStart() {
+        RangeShardingStrategy strategy = new RangeShardingStrategy(new long[]{1, 1_000_000, 2_000_000});
+
+        assertEquals(999_999, strategy.lastIdentityValue(0));
+        assertEquals(1_999_999, strategy.lastIdentityValue(1));
+        assertEquals(Long.MAX_VALUE, strategy.lastIdentityValue(2));
+        assertEquals(Long.MAX_VALUE, new HashShardingStrategy(3).lastIdentityValue(0));
+    }
+
+    @Test
+    void shardRouter_shouldSendNewProductsOnlyToShardsWithIdsLeft() {
+        ShardRouter router = new ShardRouter(new RangeShardingStrategy(new long[]{1, 4}));
+
+        List<Integer> shards = IntStream.range(0, 6).mapToObj(i -> router.shardFor(new Product())).toList();
+
+        assertEquals(List.of(0, 1, 0, 1, 0, 1), shards);
+        assertEquals(1, router.shardFor(new Product()), "shard 0 has handed out ids 1 to 3");
+    }
+
+    @Test
+    void shardRouter_shouldRejectAnIdBeyondTheShardsRangeAndStopUsingTheShard() {
+        ShardRouter router = new ShardRouter(new RangeShardingStrategy(new long[]{1, 4}));
+
+        assertThrows(IllegalStateException.class, () -> router.recordGeneratedIds(0, List.of(3L, 4L)));
+
+        assertEquals(List.of(1, 1), IntStream.range(0, 2).mapToObj(i -> router.shardFor(new Product())).toList());
+    }
+
+    @Test
+    void rangeStrategy_shouldRejectUnorderedRanges() {
+        assertThrows(IllegalArgumentException.class, () -> new RangeShardingStrategy(new long[]{1, 1, 2}));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.fastProductApi.snapshot;
+
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "product.snapshot.enabled=true",
+        "product.snapshot.path=target/catalog-snapshot-test/catalog.snapshot",
+        "product.snapshot.delta-interval=100ms",
+        "product.snapshot.generate-interval=0s"
+})
+@ActiveProfiles("test")
+class CatalogSnapshotServiceTest {
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        catalogSnapshotService.destroy();
+        productRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM product_tombstones");
+        Files.deleteIfExists(Path.of("target/catalog-snapshot-test/catalog.snapshot"));
+    }
+
+    @Test
+    void pollChanges_shouldDropProductsDeletedByAnotherNode() throws InterruptedException {
+        // Arrange: a snapshot holding two products, served by this node
+        LocalDateTime now = LocalDateTime.now();
+        Product deleted = productRepository.save(new Product(null, "Deleted elsewhere", "", BigDecimal.ONE, 1, now, now));
+        Product kept = productRepository.save(new Product(null, "Kept", "", BigDecimal.ONE, 1, now, now));
+        catalogSnapshotService.generate();
+        catalogSnapshotService.load();
+        assertNotNull(catalogSnapshotService.find(deleted.getId()));
+
+        // Act: another node deletes the product, which raises no event here
+        jdbcTemplate.update("DELETE FROM products WHERE id = ?", deleted.getId());
+        jdbcTemplate.update("INSERT INTO product_tombstones (product_id, deleted_at) VALUES (?, ?)", deleted.getId(), LocalDateTime.now());
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (catalogSnapshotService.find(deleted.getId()) != null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        // Assert
+        assertNull(catalogSnapshotService.find(deleted.getId()), "the delta poll read the tombstone");
+        assertEquals("Kept", catalogSnapshotService.find(kept.getId()).getName());
+    }
+}
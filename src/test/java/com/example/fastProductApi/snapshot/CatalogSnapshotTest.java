@@ -0,0 +1,99 @@
+package com.example.fastProductApi.snapshot;
+
+import com.example.fastProductApi.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 3, 1, 9, 30, 15, 123_456_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writeAndOpen_roundTripsProductsInAnyOrder() throws IOException {
+        // Arrange
+        Path path = directory.resolve("catalog.snapshot");
+        LocalDateTime watermark = LocalDateTime.of(2025, 3, 2, 0, 0);
+
+        // Act
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(path)) {
+            writer.add(new Product(42L, "Café au lait", "Tasse – 250 ml", new BigDecimal("4.50"), 12, CREATED, CREATED.plusDays(1)));
+            writer.add(new Product(7L, "Mug", "", new BigDecimal("9.99"), 0, null, null));
+            writer.add(new Product(1000L, "Teapot", "Ceramic", new BigDecimal("25"), 3, CREATED, CREATED));
+            writer.finish(watermark);
+        }
+        CatalogSnapshot snapshot = CatalogSnapshot.open(path);
+
+        // Assert
+        assertEquals(3, snapshot.size());
+        assertEquals(watermark, snapshot.getWatermark());
+        assertEquals(7L, snapshot.idAt(0));
+        assertEquals(1000L, snapshot.idAt(2));
+
+        Product product = snapshot.find(42L);
+        assertEquals("Café au lait", product.getName());
+        assertEquals("Tasse – 250 ml", product.getDescription());
+        assertEquals(new BigDecimal("4.50"), product.getPrice());
+        assertEquals(12, product.getStock());
+        assertEquals(CREATED, product.getCreatedAt());
+        assertEquals(CREATED.plusDays(1), product.getLastUpdatedAt());
+
+        Product mug = snapshot.find(7L);
+        assertEquals("", mug.getDescription());
+        assertNull(mug.getCreatedAt());
+        assertEquals(new BigDecimal("25.00"), snapshot.find(1000L).getPrice());
+        assertNull(snapshot.find(8L));
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count(), "temporary files are removed");
+        }
+    }
+
+    @Test
+    void finish_replacesExistingSnapshot() throws IOException {
+        // Arrange
+        Path path = directory.resolve("catalog.snapshot");
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(path)) {
+            writer.add(new Product(1L, "Old", "Old", BigDecimal.ONE, 1, CREATED, CREATED));
+            writer.finish(CREATED);
+        }
+        CatalogSnapshot oldSnapshot = CatalogSnapshot.open(path);
+
+        // Act
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(path)) {
+            writer.add(new Product(1L, "New", "New", BigDecimal.TEN, 2, CREATED, CREATED.plusHours(1)));
+            writer.add(new Product(2L, "Other", "Other", BigDecimal.TEN, 2, CREATED, CREATED));
+            writer.finish(CREATED.plusHours(1));
+        }
+
+        // Assert
+        assertEquals("New", CatalogSnapshot.open(path).find(1L).getName());
+        assertEquals(2, CatalogSnapshot.open(path).size());
+        assertEquals("Old", oldSnapshot.find(1L).getName(), "readers keep the file they mapped");
+    }
+
+    @Test
+    void open_rejectsTruncatedFile() throws IOException {
+        // Arrange
+        Path path = directory.resolve("catalog.snapshot");
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(path)) {
+            writer.add(new Product(1L, "Name", "Description", BigDecimal.ONE, 1, CREATED, CREATED));
+            writer.finish(CREATED);
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 4));
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> CatalogSnapshot.open(path));
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.fastProductApi.upsert;
+
+import com.example.fastProductApi.cache.ProductCacheOperations;
+import com.example.fastProductApi.dto.ProductRequestDto;
+import com.example.fastProductApi.dto.ProductResponseDto;
+import com.example.fastProductApi.dto.ProductUpsertResponseDto;
+import com.example.fastProductApi.entity.Product;
+import com.example.fastProductApi.exception.CustomException;
+import com.example.fastProductApi.repository.ProductRepository;
+import com.example.fastProductApi.service.ProductServiceForBulkCrud;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+// H2 in place of MySQL, so the MERGE flavour of the upsert is the one under test
+@SpringBootTest(properties = {
+        "product.upsert.enabled=true",
+        "product.upsert.chunk-size=2"
+})
+@ActiveProfiles("test")
+class ProductUpsertStoreTest {
+
+    private static final long UNKNOWN_ID = 1_000_000L;
+
+    @Autowired
+    private ProductServiceForBulkCrud productServiceForBulkCrud;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoSpyBean
+    private ProductUpsertStore productUpsertStore;
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM product_tombstones");
+        cacheManager.getCache(ProductCacheOperations.PRODUCTS_CACHE).clear();
+    }
+
+    @Test
+    void upsertProducts_shouldUpdateExistingAndInsertNewProductsInRequestOrder() throws CustomException {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(3).truncatedTo(ChronoUnit.SECONDS);
+        Product existing = productRepository.save(new Product(null, "Old name", "Old description", BigDecimal.ONE, 1, createdAt, createdAt));
+        List<ProductRequestDto> request = List.of(
+                new ProductRequestDto(null, "New product", "Without id", new BigDecimal("5.50"), 5),
+                new ProductRequestDto(existing.getId(), "Renamed", "Updated description", new BigDecimal("9.99"), 9),
+                new ProductRequestDto(UNKNOWN_ID, "Imported", "With a new id", new BigDecimal("2.00"), 2));
+
+        // Act
+        ProductUpsertResponseDto response = productServiceForBulkCrud.upsertProducts(request, true);
+
+        // Assert
+        List<ProductResponseDto> products = response.getProducts();
+        assertEquals(3, products.size());
+        assertEquals("New product", products.get(0).getName());
+        assertEquals(existing.getId(), products.get(1).getId());
+        assertEquals(UNKNOWN_ID, products.get(2).getId());
+        assertEquals(List.of(existing.getId()), response.getUpdatedProductIds());
+        assertEquals(List.of(products.get(0).getId(), UNKNOWN_ID), response.getInsertedProductIds(), "in request order");
+
+        Product updated = productRepository.findById(existing.getId()).orElseThrow();
+        assertEquals("Renamed", updated.getName());
+        assertEquals(0, new BigDecimal("9.99").compareTo(updated.getPrice()));
+        assertEquals(createdAt, updated.getCreatedAt(), "an update keeps createdAt");
+        assertTrue(updated.getLastUpdatedAt().isAfter(createdAt));
+        assertTrue(productRepository.existsById(UNKNOWN_ID));
+        assertEquals(3, productRepository.count());
+
+        Product cached = cacheManager.getCache(ProductCacheOperations.PRODUCTS_CACHE).get(existing.getId(), Product.class);
+        assertEquals("Renamed", cached.getName());
+        assertEquals(createdAt, cached.getCreatedAt());
+    }
+
+    @Test
+    void upsertProducts_shouldCountARepeatedNewIdAsInsertedOnce() throws CustomException {
+        // Arrange
+        List<ProductRequestDto> request = List.of(
+                new ProductRequestDto(UNKNOWN_ID, "First", "Inserted", BigDecimal.TEN, 1),
+                new ProductRequestDto(UNKNOWN_ID, "Second", "Then updated", BigDecimal.TEN, 2));
+
+        // Act
+        ProductUpsertResponseDto response = productServiceForBulkCrud.upsertProducts(request, false);
+
+        // Assert
+        assertEquals(List.of(UNKNOWN_ID), response.getInsertedProductIds());
+        assertEquals(List.of(UNKNOWN_ID), response.getUpdatedProductIds());
+        assertEquals("Second", productRepository.findById(UNKNOWN_ID).orElseThrow().getName());
+    }
+
+    @Test
+    void upsertProducts_shouldSplitLargeRequestsIntoChunks() throws CustomException {
+        // Arrange
+        List<ProductRequestDto> request = IntStream.range(0, 5)
+                .mapToObj(i -> new ProductRequestDto(null, "Product " + i, "Chunked", BigDecimal.valueOf(i), i))
+                .toList();
+
+        // Act
+        ProductUpsertResponseDto response = productServiceForBulkCrud.upsertProducts(request, true);
+
+        // Assert
+        assertEquals(5, response.getInsertedProductIds().size());
+        assertTrue(response.getUpdatedProductIds().isEmpty());
+        assertEquals(List.of("Product 0", "Product 1", "Product 2", "Product 3", "Product 4"),
+                response.getProducts().stream().map(ProductResponseDto::getName).toList());
+        assertEquals(5, productRepository.count());
+    }
+
+    @Test
+    void upsertProducts_shouldReplaceTheTombstoneOfADeletedId() throws CustomException {
+        // Arrange: an imported ID that was deleted before
+        ProductRequestDto imported = new ProductRequestDto(UNKNOWN_ID, "Imported", "With a new id", new BigDecimal("2.00"), 2);
+        productServiceForBulkCrud.upsertProducts(List.of(imported), false);
+        productServiceForBulkCrud.deleteByIdsInSeq(List.of(UNKNOWN_ID));
+
+        // Act
+        productServiceForBulkCrud.upsertProducts(List.of(imported), false);
+        int tombstonesAfterUpsert = countTombstones();
+        productServiceForBulkCrud.deleteByIdsInSeq(List.of(UNKNOWN_ID));
+
+        // Assert
+        assertEquals(0, tombstonesAfterUpsert, "the re-created product is not deleted");
+        assertFalse(productRepository.existsById(UNKNOWN_ID), "the second delete is not rolled back");
+        assertEquals(1, countTombstones());
+    }
+
+    @Test
+    void upsertProducts_shouldPublishTheChunksThatCommittedBeforeAChunkFailed() throws CustomException {
+        // Arrange: four cached products, so chunks of two; the second chunk cannot be written
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = IntStream.range(0, 4)
+                .mapToObj(i -> productRepository.save(new Product(null, "Old " + i, "", BigDecimal.ONE, i, now, now)).getId())
+                .toList();
+        productServiceForBulkCrud.getProductByIdsInParallel(ids);
+        doAnswer(invocation -> {
+            List<Product> chunk = invocation.getArgument(0);
+            if (chunk.stream().anyMatch(product -> product.getName().equals("New 2"))) {
+                throw new DataIntegrityViolationException("chunk rejected");
+            }
+            return invocation.callRealMethod();
+        }).when(productUpsertStore).upsert(anyList());
+        List<ProductRequestDto> request = IntStream.range(0, 4)
+                .mapToObj(i -> new ProductRequestDto(ids.get(i), "New " + i, "", BigDecimal.TEN, i))
+                .toList();
+
+        // Act
+        ProductServiceForBulkCrud.PartialUpsertException failure = assertThrows(ProductServiceForBulkCrud.PartialUpsertException.class,
+                () -> productServiceForBulkCrud.upsertProducts(request, true));
+        List<Optional<Product>> read = productServiceForBulkCrud.getProductByIdsInParallel(ids);
+
+        // Assert: the first chunk is saved, cached and reported
+        assertEquals(ids.subList(0, 2), failure.getResponse().getUpdatedProductIds());
+        assertTrue(failure.getResponse().getInsertedProductIds().isEmpty());
+        assertEquals(List.of("New 0", "New 1", "Old 2", "Old 3"), read.stream().map(product -> product.orElseThrow().getName()).toList());
+    }
+
+    private int countTombstones() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_tombstones WHERE product_id = ?", Integer.class, UNKNOWN_ID);
+    }
+}
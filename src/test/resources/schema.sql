@@ -1,4 +1,4 @@
-CREATE TABLE products (
+CREATE TABLE IF NOT EXISTS products (
     id BIGINT NOT NULL AUTO_INCREMENT,
     created_at DATETIME(6),
     description VARCHAR(255) NOT NULL,
@@ -8,3 +8,13 @@ CREATE TABLE products (
     stock INTEGER NOT NULL,
     PRIMARY KEY (id)
 );
+
+CREATE INDEX IF NOT EXISTS idx_products_last_updated_at ON products (last_updated_at, id);
+
+CREATE TABLE IF NOT EXISTS product_tombstones (
+    product_id BIGINT NOT NULL,
+    deleted_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (product_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_product_tombstones_deleted_at ON product_tombstones (deleted_at, product_id);